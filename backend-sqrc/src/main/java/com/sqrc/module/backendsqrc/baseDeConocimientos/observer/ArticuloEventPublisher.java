@@ -3,13 +3,15 @@ package com.sqrc.module.backendsqrc.baseDeConocimientos.observer;
 import java.util.ArrayList;
 import java.util.Comparator;
 import java.util.List;
-import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.CopyOnWriteArrayList;
 
-import org.springframework.scheduling.annotation.Async;
+import org.springframework.core.task.TaskRejectedException;
 import org.springframework.stereotype.Component;
 
 import com.sqrc.module.backendsqrc.baseDeConocimientos.observer.event.ArticuloEvent;
+import com.sqrc.module.backendsqrc.ejecucion.config.EjecutorAcotado;
+import com.sqrc.module.backendsqrc.ejecucion.config.EjecutorNombres;
+import com.sqrc.module.backendsqrc.ejecucion.config.Ejecutores;
 
 import jakarta.annotation.PostConstruct;
 import lombok.extern.slf4j.Slf4j;
@@ -45,8 +47,12 @@ public class ArticuloEventPublisher {
     /** Lista de observers inyectados por Spring */
     private final List<IArticuloObserver> springObservers;
 
-    public ArticuloEventPublisher(List<IArticuloObserver> springObservers) {
+    /** Pool de eventos para los observers asíncronos */
+    private final EjecutorAcotado ejecutor;
+
+    public ArticuloEventPublisher(List<IArticuloObserver> springObservers, Ejecutores ejecutores) {
         this.springObservers = springObservers != null ? springObservers : new ArrayList<>();
+        this.ejecutor = ejecutores.get(EjecutorNombres.EVENTOS);
     }
 
     /**
@@ -133,18 +139,22 @@ public class ArticuloEventPublisher {
     }
 
     /**
-     * Ejecuta un observer de forma asíncrona.
+     * Ejecuta un observer de forma asíncrona en el pool de eventos.
      */
-    @Async
-    protected void ejecutarObserverAsincrono(IArticuloObserver observer, ArticuloEvent evento) {
-        CompletableFuture.runAsync(() -> {
-            try {
-                observer.onArticuloEvent(evento);
-            } catch (Exception e) {
-                log.error("Error en observer asíncrono {}: {}",
-                        observer.getClass().getSimpleName(), e.getMessage(), e);
-            }
-        });
+    private void ejecutarObserverAsincrono(IArticuloObserver observer, ArticuloEvent evento) {
+        try {
+            ejecutor.execute(() -> {
+                try {
+                    observer.onArticuloEvent(evento);
+                } catch (Exception e) {
+                    log.error("Error en observer asíncrono {}: {}",
+                            observer.getClass().getSimpleName(), e.getMessage(), e);
+                }
+            });
+        } catch (TaskRejectedException e) {
+            log.warn("Pool de eventos lleno, observer {} no notificado de {}",
+                    observer.getClass().getSimpleName(), evento.getClass().getSimpleName());
+        }
     }
 
     /**
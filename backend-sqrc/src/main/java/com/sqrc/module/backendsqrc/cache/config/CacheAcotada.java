@@ -0,0 +1,163 @@
+package com.sqrc.module.backendsqrc.cache.config;
+
+import com.sqrc.module.backendsqrc.cache.dto.CacheMetricasDTO;
+import org.springframework.cache.support.AbstractValueAdaptingCache;
+
+import java.time.Duration;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Caché en memoria con tamaño máximo y tiempo de vida por entrada.
+ *
+ * - Al superar el máximo se desaloja la entrada usada hace más tiempo (LRU).
+ * - Una entrada vencida cuenta como fallo y se descarta al leerla.
+ * - Guarda null (p. ej. "no hay plantilla vigente") para no consultar la BD en cada fallo.
+ *
+ * Pensada para tablas de referencia de cientos de filas: un único candado basta.
+ */
+public class CacheAcotada extends AbstractValueAdaptingCache {
+
+    private record Entrada(Object valor, long vence) {
+    }
+
+    private final String nombre;
+    private final long ttlNanos;
+    private final int maxEntradas;
+    private final LinkedHashMap<Object, Entrada> entradas;
+
+    private final AtomicLong aciertos = new AtomicLong();
+    private final AtomicLong fallos = new AtomicLong();
+    private final AtomicLong desalojos = new AtomicLong();
+    private final AtomicLong vencimientos = new AtomicLong();
+    private final AtomicLong invalidaciones = new AtomicLong();
+
+    public CacheAcotada(String nombre, Duration ttl, int maxEntradas) {
+        super(true);
+        this.nombre = nombre;
+        this.ttlNanos = ttl.toNanos();
+        this.maxEntradas = maxEntradas;
+        this.entradas = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Object, Entrada> mayor) {
+                if (size() > CacheAcotada.this.maxEntradas) {
+                    desalojos.incrementAndGet();
+                    return true;
+                }
+                return false;
+            }
+        };
+    }
+
+    @Override
+    public String getName() {
+        return nombre;
+    }
+
+    @Override
+    public Object getNativeCache() {
+        return entradas;
+    }
+
+    @Override
+    protected Object lookup(Object key) {
+        synchronized (entradas) {
+            Entrada entrada = entradas.get(key);
+            if (entrada == null) {
+                fallos.incrementAndGet();
+                return null;
+            }
+            if (System.nanoTime() - entrada.vence() > 0) {
+                entradas.remove(key);
+                vencimientos.incrementAndGet();
+                fallos.incrementAndGet();
+                return null;
+            }
+            aciertos.incrementAndGet();
+            return entrada.valor();
+        }
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> T get(Object key, Callable<T> valueLoader) {
+        ValueWrapper encontrado = get(key);
+        if (encontrado != null) {
+            return (T) encontrado.get();
+        }
+        // La carga va fuera del candado: dos cargas simultáneas de la misma clave son aceptables
+        T valor;
+        try {
+            valor = valueLoader.call();
+        } catch (Exception ex) {
+            throw new ValueRetrievalException(key, valueLoader, ex);
+        }
+        put(key, valor);
+        return valor;
+    }
+
+    @Override
+    public void put(Object key, Object value) {
+        Entrada entrada = new Entrada(toStoreValue(value), System.nanoTime() + ttlNanos);
+        synchronized (entradas) {
+            entradas.put(key, entrada);
+        }
+    }
+
+    @Override
+    public void evict(Object key) {
+        synchronized (entradas) {
+            if (entradas.remove(key) != null) {
+                invalidaciones.incrementAndGet();
+            }
+        }
+    }
+
+    @Override
+    public void clear() {
+        synchronized (entradas) {
+            invalidaciones.addAndGet(entradas.size());
+            entradas.clear();
+        }
+    }
+
+    /**
+     * Quita las entradas vencidas sin esperar a que se lean.
+     */
+    public void purgarVencidas() {
+        long ahora = System.nanoTime();
+        synchronized (entradas) {
+            Iterator<Entrada> it = entradas.values().iterator();
+            while (it.hasNext()) {
+                if (ahora - it.next().vence() > 0) {
+                    it.remove();
+                    vencimientos.incrementAndGet();
+                }
+            }
+        }
+    }
+
+    public CacheMetricasDTO getMetricas() {
+        long hits = aciertos.get();
+        long misses = fallos.get();
+        int tamanio;
+        synchronized (entradas) {
+            tamanio = entradas.size();
+        }
+        return CacheMetricasDTO.builder()
+                .nombre(nombre)
+                .entradas(tamanio)
+                .maxEntradas(maxEntradas)
+                .ttlSegundos(Duration.ofNanos(ttlNanos).toSeconds())
+                .aciertos(hits)
+                .fallos(misses)
+                .tasaAciertos(hits + misses == 0 ? 0.0 : Math.round(hits * 1000.0 / (hits + misses)) / 10.0)
+                .desalojos(desalojos.get())
+                .vencimientos(vencimientos.get())
+                .invalidaciones(invalidaciones.get())
+                .build();
+    }
+}
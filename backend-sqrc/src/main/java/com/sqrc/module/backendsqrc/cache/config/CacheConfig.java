@@ -0,0 +1,20 @@
+package com.sqrc.module.backendsqrc.cache.config;
+
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Caché de aplicación para tablas de referencia que se leen en cada petición
+ * (motivos, agentes, plantillas). Tamaño y vida por caché en {@link CacheProperties};
+ * la invalidación explícita está en los servicios que las modifican.
+ */
+@Configuration
+@EnableCaching
+public class CacheConfig {
+
+    @Bean
+    public ReferenciasCacheManager cacheManager(CacheProperties properties) {
+        return new ReferenciasCacheManager(properties);
+    }
+}
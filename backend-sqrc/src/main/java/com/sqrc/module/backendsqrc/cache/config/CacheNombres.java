@@ -0,0 +1,29 @@
+package com.sqrc.module.backendsqrc.cache.config;
+
+/**
+ * Nombres de las cachés de datos de referencia (tablas pequeñas que casi no cambian).
+ */
+public final class CacheNombres {
+
+    /** Motivo por ID (alta y edición de tickets) */
+    public static final String MOTIVOS = "motivos";
+
+    /** Catálogo completo de motivos (dashboard) */
+    public static final String MOTIVOS_CATALOGO = "motivosCatalogo";
+
+    /** ID, nombre y apellido de los agentes (dashboard) */
+    public static final String AGENTES_NOMBRES = "agentesNombres";
+
+    /** ID de la plantilla de encuesta vigente (cierre de tickets) */
+    public static final String PLANTILLA_ENCUESTA_VIGENTE = "plantillaEncuestaVigente";
+
+    /** Plantilla de respuesta por nombre interno (correos de confirmación) */
+    public static final String PLANTILLAS_RESPUESTA = "plantillasRespuesta";
+
+    public static final String[] TODAS = {
+            MOTIVOS, MOTIVOS_CATALOGO, AGENTES_NOMBRES, PLANTILLA_ENCUESTA_VIGENTE, PLANTILLAS_RESPUESTA
+    };
+
+    private CacheNombres() {
+    }
+}
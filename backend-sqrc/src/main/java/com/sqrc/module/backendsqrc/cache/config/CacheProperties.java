@@ -0,0 +1,77 @@
+package com.sqrc.module.backendsqrc.cache.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+
+@Component
+@ConfigurationProperties(prefix = "app.cache")
+public class CacheProperties {
+
+    /** Tiempo de vida por defecto de una entrada */
+    private Duration ttl = Duration.ofMinutes(10);
+
+    /** Máximo de entradas por defecto de cada caché */
+    private Integer maxEntradas = 1000;
+
+    /** Ajustes por caché, e.g. app.cache.porCache.motivos.ttl=30m */
+    private Map<String, Ajuste> porCache = new HashMap<>();
+
+    public static class Ajuste {
+        private Duration ttl;
+        private Integer maxEntradas;
+
+        public Duration getTtl() {
+            return ttl;
+        }
+
+        public void setTtl(Duration ttl) {
+            this.ttl = ttl;
+        }
+
+        public Integer getMaxEntradas() {
+            return maxEntradas;
+        }
+
+        public void setMaxEntradas(Integer maxEntradas) {
+            this.maxEntradas = maxEntradas;
+        }
+    }
+
+    public Duration getTtl() {
+        return ttl;
+    }
+
+    public void setTtl(Duration ttl) {
+        this.ttl = ttl;
+    }
+
+    public Integer getMaxEntradas() {
+        return maxEntradas;
+    }
+
+    public void setMaxEntradas(Integer maxEntradas) {
+        this.maxEntradas = maxEntradas;
+    }
+
+    public Map<String, Ajuste> getPorCache() {
+        return porCache;
+    }
+
+    public void setPorCache(Map<String, Ajuste> porCache) {
+        this.porCache = porCache;
+    }
+
+    public Duration getTtlPara(String cache) {
+        Ajuste ajuste = porCache.get(cache);
+        return ajuste != null && ajuste.getTtl() != null ? ajuste.getTtl() : ttl;
+    }
+
+    public int getMaxEntradasPara(String cache) {
+        Ajuste ajuste = porCache.get(cache);
+        return ajuste != null && ajuste.getMaxEntradas() != null ? ajuste.getMaxEntradas() : maxEntradas;
+    }
+}
@@ -0,0 +1,58 @@
+package com.sqrc.module.backendsqrc.cache.config;
+
+import org.springframework.cache.Cache;
+import org.springframework.cache.transaction.AbstractTransactionSupportingCacheManager;
+import org.springframework.scheduling.annotation.Scheduled;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Administrador de las cachés de referencia ({@link CacheNombres}).
+ *
+ * Es transaccional: las escrituras e invalidaciones hechas dentro de una
+ * transacción se aplican después del commit, así una lectura concurrente no vuelve
+ * a cachear el dato viejo y un rollback no deja la caché vacía sin motivo.
+ */
+public final class ReferenciasCacheManager extends AbstractTransactionSupportingCacheManager {
+
+    private final Map<String, CacheAcotada> caches = new LinkedHashMap<>();
+
+    public ReferenciasCacheManager(CacheProperties properties) {
+        for (String nombre : CacheNombres.TODAS) {
+            caches.put(nombre, new CacheAcotada(nombre,
+                    properties.getTtlPara(nombre), properties.getMaxEntradasPara(nombre)));
+        }
+        setTransactionAware(true);
+    }
+
+    @Override
+    protected Collection<? extends Cache> loadCaches() {
+        return caches.values();
+    }
+
+    /**
+     * Cachés sin el decorador transaccional (métricas y limpieza inmediata).
+     */
+    public Collection<CacheAcotada> getCachesAcotadas() {
+        return caches.values();
+    }
+
+    public CacheAcotada getCacheAcotada(String nombre) {
+        return caches.get(nombre);
+    }
+
+    public Collection<String> getNombres() {
+        return Arrays.asList(CacheNombres.TODAS);
+    }
+
+    /**
+     * Libera la memoria de las entradas vencidas que nadie volvió a leer.
+     */
+    @Scheduled(fixedDelayString = "${app.cache.purgaMs:60000}")
+    public void purgarVencidas() {
+        caches.values().forEach(CacheAcotada::purgarVencidas);
+    }
+}
@@ -0,0 +1,57 @@
+package com.sqrc.module.backendsqrc.cache.controller;
+
+import com.sqrc.module.backendsqrc.cache.config.CacheAcotada;
+import com.sqrc.module.backendsqrc.cache.config.ReferenciasCacheManager;
+import com.sqrc.module.backendsqrc.cache.dto.CacheMetricasDTO;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/cache")
+@RequiredArgsConstructor
+@Slf4j
+public class CacheController {
+
+    private final ReferenciasCacheManager cacheManager;
+
+    /**
+     * GET /api/cache/metricas
+     * Aciertos, fallos, tamaño y desalojos de cada caché de referencia.
+     */
+    @GetMapping("/metricas")
+    public ResponseEntity<List<CacheMetricasDTO>> obtenerMetricas() {
+        return ResponseEntity.ok(cacheManager.getCachesAcotadas().stream()
+                .map(CacheAcotada::getMetricas)
+                .toList());
+    }
+
+    /**
+     * DELETE /api/cache/{nombre}
+     * Vacía una caché (p. ej. tras cargar motivos directamente en la BD).
+     */
+    @DeleteMapping("/{nombre}")
+    public ResponseEntity<Void> invalidar(@PathVariable String nombre) {
+        CacheAcotada cache = cacheManager.getCacheAcotada(nombre);
+        if (cache == null) {
+            return ResponseEntity.notFound().build();
+        }
+        cache.clear();
+        log.info("Caché {} invalidada a pedido", nombre);
+        return ResponseEntity.noContent().build();
+    }
+
+    /**
+     * DELETE /api/cache
+     * Vacía todas las cachés de referencia.
+     */
+    @DeleteMapping
+    public ResponseEntity<Void> invalidarTodas() {
+        cacheManager.getCachesAcotadas().forEach(CacheAcotada::clear);
+        log.info("Cachés de referencia invalidadas a pedido");
+        return ResponseEntity.noContent().build();
+    }
+}
@@ -0,0 +1,33 @@
+package com.sqrc.module.backendsqrc.cache.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Métricas de una caché de datos de referencia.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class CacheMetricasDTO {
+
+    private String nombre;
+    private Integer entradas;
+    private Integer maxEntradas;
+    private Long ttlSegundos;
+    private Long aciertos;
+    private Long fallos;
+
+    /** Porcentaje de lecturas resueltas sin ir a la BD */
+    private Double tasaAciertos;
+
+    /** Entradas quitadas por superar el máximo */
+    private Long desalojos;
+    private Long vencimientos;
+
+    /** Entradas quitadas por cambios en los datos o a pedido */
+    private Long invalidaciones;
+}
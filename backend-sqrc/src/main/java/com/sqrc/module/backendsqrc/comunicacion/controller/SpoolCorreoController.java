@@ -0,0 +1,26 @@
+package com.sqrc.module.backendsqrc.comunicacion.controller;
+
+import com.sqrc.module.backendsqrc.comunicacion.dto.SpoolCorreoMetricasDTO;
+import com.sqrc.module.backendsqrc.comunicacion.service.SpoolCorreoService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+@RestController
+@RequestMapping("/api/correos/spool")
+@RequiredArgsConstructor
+public class SpoolCorreoController {
+
+    private final SpoolCorreoService spoolCorreoService;
+
+    /**
+     * GET /api/correos/spool/metricas
+     * Backlog, reintentos y reutilización de conexiones de la cola de correo.
+     */
+    @GetMapping("/metricas")
+    public ResponseEntity<SpoolCorreoMetricasDTO> obtenerMetricas() {
+        return ResponseEntity.ok(spoolCorreoService.obtenerMetricas());
+    }
+}
@@ -0,0 +1,33 @@
+package com.sqrc.module.backendsqrc.comunicacion.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Métricas de la cola de salida de correo.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class SpoolCorreoMetricasDTO {
+
+    private Long pendientes;
+    private Long fallidos;
+
+    /** Antigüedad del correo pendiente más viejo (0 si no hay pendientes) */
+    private Long lagPendienteMasAntiguoMs;
+
+    // Estadísticas del nodo desde el arranque
+    private Long totalEnviados;
+    private Long totalErrores;
+
+    /** Conexiones SMTP abiertas (cada una incluye handshake y TLS) */
+    private Long conexionesAbiertas;
+    private Double mensajesPorConexion;
+
+    private Integer ultimoLoteTamano;
+    private Long ultimoLoteDuracionMs;
+}
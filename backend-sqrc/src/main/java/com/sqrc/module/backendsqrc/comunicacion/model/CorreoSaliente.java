@@ -0,0 +1,79 @@
+package com.sqrc.module.backendsqrc.comunicacion.model;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.LocalDateTime;
+
+/**
+ * Mensaje en la cola de salida de correo (spool).
+ *
+ * Se inserta en la transacción de la operación que lo genera, así solo sale si
+ * la operación hizo commit. {@code DespachadorCorreos} lo reclama (EN_ENVIO), lo
+ * envía por SMTP y lo marca ENVIADO, o lo reintenta con espera exponencial hasta FALLIDO.
+ */
+@Entity
+@Table(name = "correos_salientes", indexes = {
+        @Index(name = "idx_correos_salientes_estado_id", columnList = "estado, id")
+})
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class CorreoSaliente {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "destinatario", nullable = false, length = 255)
+    private String destinatario;
+
+    @Column(name = "asunto", nullable = false, length = 255)
+    private String asunto;
+
+    @Column(name = "cuerpo_html", nullable = false, columnDefinition = "MEDIUMTEXT")
+    private String cuerpoHtml;
+
+    @Lob
+    @Column(name = "adjunto", columnDefinition = "LONGBLOB")
+    private byte[] adjunto;
+
+    @Column(name = "nombre_adjunto", length = 200)
+    private String nombreAdjunto;
+
+    /** Registro de {@code Correo} (tickets) al que se informa el estado de entrega, si existe */
+    @Column(name = "correo_id")
+    private Long correoId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "estado", nullable = false, length = 20)
+    @Builder.Default
+    private EstadoCorreoSaliente estado = EstadoCorreoSaliente.PENDIENTE;
+
+    @Column(name = "intentos", nullable = false)
+    @Builder.Default
+    private Integer intentos = 0;
+
+    @Column(name = "fecha_creacion", nullable = false)
+    @Builder.Default
+    private LocalDateTime fechaCreacion = LocalDateTime.now();
+
+    /** No se reintenta antes de esta fecha (null = inmediatamente) */
+    @Column(name = "proximo_intento")
+    private LocalDateTime proximoIntento;
+
+    @Column(name = "fecha_envio")
+    private LocalDateTime fechaEnvio;
+
+    @Column(name = "ultimo_error", length = 500)
+    private String ultimoError;
+
+    /** Token del lote que lo reclamó mientras está EN_ENVIO */
+    @Column(name = "reclamo", length = 36)
+    private String reclamo;
+
+    @Column(name = "reclamado_en")
+    private LocalDateTime reclamadoEn;
+}
@@ -0,0 +1,9 @@
+package com.sqrc.module.backendsqrc.comunicacion.model;
+
+public enum EstadoCorreoSaliente {
+    PENDIENTE,
+    /** Reclamado por un despachador, en envío */
+    EN_ENVIO,
+    ENVIADO,
+    FALLIDO
+}
@@ -0,0 +1,84 @@
+package com.sqrc.module.backendsqrc.comunicacion.repository;
+
+import com.sqrc.module.backendsqrc.comunicacion.model.CorreoSaliente;
+import com.sqrc.module.backendsqrc.comunicacion.model.EstadoCorreoSaliente;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Repository
+public interface CorreoSalienteRepository extends JpaRepository<CorreoSaliente, Long> {
+
+    /**
+     * Reclama hasta {@code limite} pendientes cuyo reintento ya venció, en orden de
+     * inserción: pasan a EN_ENVIO con el token del lote. El UPDATE bloquea solo las
+     * filas que toma, así dos despachadores nunca reclaman el mismo correo.
+     */
+    @Transactional
+    @Modifying
+    @Query(value = "UPDATE correos_salientes SET estado = 'EN_ENVIO', reclamo = :reclamo, reclamado_en = :ahora " +
+                   "WHERE estado = 'PENDIENTE' AND (proximo_intento IS NULL OR proximo_intento <= :ahora) " +
+                   "ORDER BY id LIMIT :limite", nativeQuery = true)
+    int reclamarLote(@Param("reclamo") String reclamo,
+                     @Param("ahora") LocalDateTime ahora,
+                     @Param("limite") int limite);
+
+    /**
+     * Correos de un lote reclamado, sin el adjunto (se lee por correo al enviarlo).
+     * Columnas: id, destinatario, asunto, cuerpo_html, nombre_adjunto, correo_id, intentos
+     */
+    @Query(value = "SELECT id, destinatario, asunto, cuerpo_html, nombre_adjunto, correo_id, intentos " +
+                   "FROM correos_salientes WHERE estado = 'EN_ENVIO' AND reclamo = :reclamo ORDER BY id",
+           nativeQuery = true)
+    List<Object[]> findReclamados(@Param("reclamo") String reclamo);
+
+    @Query("SELECT c.adjunto FROM CorreoSaliente c WHERE c.id = :id")
+    List<byte[]> findAdjunto(@Param("id") Long id);
+
+    /**
+     * Devuelve a PENDIENTE los reclamos que no terminaron (despachador caído a mitad de lote).
+     */
+    @Transactional
+    @Modifying
+    @Query(value = "UPDATE correos_salientes SET estado = 'PENDIENTE', reclamo = NULL, reclamado_en = NULL " +
+                   "WHERE estado = 'EN_ENVIO' AND reclamado_en < :vencido", nativeQuery = true)
+    int liberarReclamosVencidos(@Param("vencido") LocalDateTime vencido);
+
+    long countByEstado(EstadoCorreoSaliente estado);
+
+    @Query("SELECT MIN(c.fechaCreacion) FROM CorreoSaliente c WHERE c.estado = :estado")
+    LocalDateTime findFechaCreacionMasAntigua(@Param("estado") EstadoCorreoSaliente estado);
+
+    /**
+     * Marca como enviados, en una sola sentencia, los mensajes de un lote.
+     * Libera el adjunto: ya no hace falta y es lo que más ocupa.
+     */
+    @Transactional
+    @Modifying
+    @Query("UPDATE CorreoSaliente c SET c.estado = com.sqrc.module.backendsqrc.comunicacion.model.EstadoCorreoSaliente.ENVIADO, " +
+           "c.fechaEnvio = :ahora, c.intentos = c.intentos + 1, c.ultimoError = NULL, c.adjunto = NULL, " +
+           "c.reclamo = NULL, c.reclamadoEn = NULL WHERE c.id IN :ids")
+    int marcarEnviados(@Param("ids") List<Long> ids, @Param("ahora") LocalDateTime ahora);
+
+    @Transactional
+    @Modifying
+    @Query("UPDATE CorreoSaliente c SET c.estado = :estado, c.intentos = c.intentos + 1, " +
+           "c.proximoIntento = :proximoIntento, c.ultimoError = :error, c.reclamo = NULL, c.reclamadoEn = NULL " +
+           "WHERE c.id = :id")
+    int registrarFallo(@Param("id") Long id,
+                       @Param("estado") EstadoCorreoSaliente estado,
+                       @Param("proximoIntento") LocalDateTime proximoIntento,
+                       @Param("error") String error);
+
+    @Transactional
+    @Modifying
+    @Query("DELETE FROM CorreoSaliente c WHERE c.estado = com.sqrc.module.backendsqrc.comunicacion.model.EstadoCorreoSaliente.ENVIADO " +
+           "AND c.fechaEnvio < :antesDe")
+    int eliminarEnviadosAntesDe(@Param("antesDe") LocalDateTime antesDe);
+}
@@ -0,0 +1,438 @@
+package com.sqrc.module.backendsqrc.comunicacion.service;
+
+import com.sqrc.module.backendsqrc.comunicacion.model.CorreoSaliente;
+import com.sqrc.module.backendsqrc.comunicacion.model.EstadoCorreoSaliente;
+import com.sqrc.module.backendsqrc.comunicacion.repository.CorreoSalienteRepository;
+import com.sqrc.module.backendsqrc.ticket.model.EstadoEnvioCorreo;
+import com.sqrc.module.backendsqrc.ticket.repository.CorreoRepository;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import jakarta.mail.MessagingException;
+import jakarta.mail.SendFailedException;
+import jakarta.mail.Transport;
+import jakarta.mail.internet.MimeMessage;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.ByteArrayResource;
+import org.springframework.mail.javamail.JavaMailSender;
+import org.springframework.mail.javamail.JavaMailSenderImpl;
+import org.springframework.mail.javamail.MimeMessageHelper;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Objects;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Envía los correos de correos_salientes por SMTP.
+ *
+ * - Cada ciclo reclama un lote de pendientes con un UPDATE condicional (EN_ENVIO y
+ *   un token de lote) y lee solo lo reclamado, así varias instancias no envían el
+ *   mismo correo. Los adjuntos se leen de a uno al enviar cada correo.
+ * - El lote se reparte entre un número fijo de
+ *   sesiones SMTP (app.correo.spool.sesiones). Cada sesión mantiene su conexión
+ *   abierta entre mensajes y entre ciclos, así el handshake y la negociación TLS
+ *   se pagan una vez por conexión y no una vez por mensaje. Una sesión sin uso
+ *   durante app.correo.spool.inactividadMs se cierra.
+ * - El hilo del planificador solo reclama: el envío corre en el pool de sesiones y
+ *   el ciclo no espera a que termine. Hay a lo sumo un lote en curso, y un lote
+ *   por ciclo, así el planificador compartido queda libre para los demás jobs.
+ * - Un limitador común respeta la tasa máxima del proveedor (maxPorSegundo).
+ * - Un fallo se reintenta con espera exponencial hasta maxIntentos; un
+ *   destinatario rechazado por el servidor pasa a FALLIDO sin reintentos.
+ * - Los enviados se marcan con un UPDATE por lote, y el estado de entrega se
+ *   informa en el {@code Correo} del ticket, si lo hay.
+ *
+ * La entrega es "al menos una vez": si el nodo cae entre el envío y el UPDATE,
+ * el reclamo vence (app.correo.spool.reclamoVenceSegundos) y el correo se vuelve
+ * a enviar.
+ *
+ * Para probar contra un servidor SMTP local (MailHog, smtp4dev, GreenMail) basta
+ * con spring.mail.host=localhost y spring.mail.port del stub.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class DespachadorCorreos {
+
+    private static final int LARGO_MAX_ERROR = 500;
+
+    private final CorreoSalienteRepository correoSalienteRepository;
+    private final CorreoRepository correoRepository;
+    private final JavaMailSender mailSender;
+
+    @Value("${spring.mail.username:}")
+    private String remitente;
+
+    @Value("${app.correo.spool.tamanoLote:100}")
+    private int tamanoLote;
+
+    @Value("${app.correo.spool.sesiones:2}")
+    private int numeroSesiones;
+
+    /** Tasa máxima hacia el proveedor SMTP (0 = sin límite) */
+    @Value("${app.correo.spool.maxPorSegundo:5}")
+    private double maxPorSegundo;
+
+    @Value("${app.correo.spool.maxIntentos:6}")
+    private int maxIntentos;
+
+    /** Espera del primer reintento; se duplica en cada intento hasta reintentoMaxSegundos */
+    @Value("${app.correo.spool.reintentoBaseSegundos:30}")
+    private int reintentoBaseSegundos;
+
+    @Value("${app.correo.spool.reintentoMaxSegundos:3600}")
+    private int reintentoMaxSegundos;
+
+    @Value("${app.correo.spool.inactividadMs:60000}")
+    private long inactividadMs;
+
+    @Value("${app.correo.spool.retencionHoras:72}")
+    private int retencionHoras;
+
+    /** Un reclamo más viejo que esto se da por abandonado; debe superar lo que tarda un lote */
+    @Value("${app.correo.spool.reclamoVenceSegundos:600}")
+    private int reclamoVenceSegundos;
+
+    /** Conexión SMTP de larga duración; la usa un solo hilo a la vez */
+    private final class SesionSmtp {
+        private Transport transport;
+        private long ultimoUso;
+
+        void enviar(MimeMessage mensaje) throws MessagingException {
+            if (!(mailSender instanceof JavaMailSenderImpl impl)) {
+                mailSender.send(mensaje); // Implementación desconocida: sin reutilizar conexión
+                return;
+            }
+            if (transport == null || !transport.isConnected()) {
+                cerrar();
+                transport = impl.getSession().getTransport(impl.getProtocol() != null ? impl.getProtocol() : "smtp");
+                transport.connect(impl.getHost(), impl.getPort(),
+                        vacioANull(impl.getUsername()), vacioANull(impl.getPassword()));
+                conexionesAbiertas.incrementAndGet();
+            }
+            mensaje.saveChanges();
+            transport.sendMessage(mensaje, mensaje.getAllRecipients());
+            ultimoUso = System.currentTimeMillis();
+        }
+
+        void cerrarSiInactiva(long ahora) {
+            if (transport != null && ahora - ultimoUso > inactividadMs) {
+                cerrar();
+            }
+        }
+
+        void cerrar() {
+            if (transport != null) {
+                try {
+                    transport.close();
+                } catch (MessagingException ignored) {
+                    // La conexión ya estaba caída
+                }
+                transport = null;
+            }
+        }
+    }
+
+    private BlockingQueue<SesionSmtp> sesiones;
+    private ThreadPoolTaskExecutor executor;
+    private final AtomicBoolean loteEnCurso = new AtomicBoolean();
+
+    // Limitador de tasa: próximo instante (nanos) en que se puede enviar
+    private long proximoEnvioNanos;
+
+    // Métricas del nodo
+    private final AtomicLong totalEnviados = new AtomicLong();
+    private final AtomicLong totalErrores = new AtomicLong();
+    private final AtomicLong conexionesAbiertas = new AtomicLong();
+    private volatile int ultimoLoteTamano;
+    private volatile long ultimoLoteDuracionMs;
+
+    @PostConstruct
+    void iniciar() {
+        sesiones = new ArrayBlockingQueue<>(numeroSesiones);
+        for (int i = 0; i < numeroSesiones; i++) {
+            sesiones.add(new SesionSmtp());
+        }
+        // Pool propio: un hilo por sesión SMTP, cada tarea toma una sesión de la cola
+        executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(numeroSesiones);
+        executor.setMaxPoolSize(numeroSesiones);
+        executor.setQueueCapacity(numeroSesiones);
+        executor.setThreadNamePrefix("smtp-");
+        executor.setWaitForTasksToCompleteOnShutdown(true);
+        executor.setAwaitTerminationSeconds(30);
+        executor.initialize();
+    }
+
+    @PreDestroy
+    void detener() {
+        executor.shutdown();
+        sesiones.forEach(SesionSmtp::cerrar);
+    }
+
+    /**
+     * Ciclo de envío: libera reclamos vencidos y, si no hay un lote en curso, reclama
+     * el siguiente y lo entrega a las sesiones sin esperarlo.
+     */
+    @Scheduled(fixedDelayString = "${app.correo.spool.intervaloMs:2000}")
+    public void enviarPendientes() {
+        int liberados = correoSalienteRepository.liberarReclamosVencidos(
+                LocalDateTime.now().minusSeconds(reclamoVenceSegundos));
+        if (liberados > 0) {
+            log.warn("Spool: {} correos con reclamo vencido vuelven a pendientes", liberados);
+        }
+
+        if (!loteEnCurso.compareAndSet(false, true)) {
+            return;
+        }
+        boolean despachado = false;
+        try {
+            despachado = procesarLote() > 0;
+        } finally {
+            if (!despachado) {
+                // Sin lote en curso nadie usa las sesiones: se pueden cerrar las inactivas
+                long ahora = System.currentTimeMillis();
+                sesiones.forEach(s -> s.cerrarSiInactiva(ahora));
+                loteEnCurso.set(false);
+            }
+        }
+    }
+
+    /**
+     * Reclama un lote y lo reparte entre las sesiones. No espera el envío: al terminar
+     * la última parte se marcan los enviados y se libera el ciclo.
+     *
+     * @return Cantidad de correos reclamados
+     */
+    private int procesarLote() {
+        long inicio = System.currentTimeMillis();
+        String reclamo = UUID.randomUUID().toString();
+        if (correoSalienteRepository.reclamarLote(reclamo, LocalDateTime.now(), tamanoLote) == 0) {
+            return 0;
+        }
+        List<CorreoSaliente> lote = correoSalienteRepository.findReclamados(reclamo).stream()
+                .map(DespachadorCorreos::aCorreo)
+                .toList();
+        if (lote.isEmpty()) {
+            return 0;
+        }
+
+        // Reparto round-robin: cada parte la envía una sola sesión
+        int partes = Math.min(numeroSesiones, lote.size());
+        List<List<CorreoSaliente>> reparto = new ArrayList<>(partes);
+        for (int i = 0; i < partes; i++) {
+            reparto.add(new ArrayList<>());
+        }
+        for (int i = 0; i < lote.size(); i++) {
+            reparto.get(i % partes).add(lote.get(i));
+        }
+
+        List<CorreoSaliente> enviados = Collections.synchronizedList(new ArrayList<>());
+        List<CompletableFuture<Void>> tareas = new ArrayList<>(partes);
+        for (List<CorreoSaliente> parte : reparto) {
+            tareas.add(CompletableFuture.runAsync(() -> enviarParte(parte, enviados), executor));
+        }
+        CompletableFuture.allOf(tareas.toArray(new CompletableFuture<?>[0]))
+                .whenComplete((r, ex) -> {
+                    try {
+                        if (ex != null) {
+                            log.error("Spool: error en el lote {}: {}", reclamo, ex.getMessage(), ex);
+                        }
+                        marcarEnviados(enviados);
+                        ultimoLoteTamano = lote.size();
+                        ultimoLoteDuracionMs = System.currentTimeMillis() - inicio;
+                        log.debug("Spool: lote de {} correos ({} enviados) en {} ms",
+                                lote.size(), enviados.size(), ultimoLoteDuracionMs);
+                    } catch (Exception e) {
+                        // Los no marcados siguen EN_ENVIO y se reenvían al vencer el reclamo
+                        log.error("Spool: no se pudo marcar el lote {}: {}", reclamo, e.getMessage(), e);
+                    } finally {
+                        loteEnCurso.set(false);
+                    }
+                });
+        return lote.size();
+    }
+
+    /**
+     * Limpia los correos ya enviados más antiguos que la retención.
+     */
+    @Scheduled(fixedDelayString = "${app.correo.spool.limpiezaMs:3600000}")
+    public void limpiarEnviados() {
+        int eliminados = correoSalienteRepository.eliminarEnviadosAntesDe(
+                LocalDateTime.now().minusHours(retencionHoras));
+        if (eliminados > 0) {
+            log.info("Spool: {} correos enviados eliminados", eliminados);
+        }
+    }
+
+    public long getTotalEnviados() {
+        return totalEnviados.get();
+    }
+
+    public long getTotalErrores() {
+        return totalErrores.get();
+    }
+
+    public long getConexionesAbiertas() {
+        return conexionesAbiertas.get();
+    }
+
+    public double getMensajesPorConexion() {
+        long conexiones = conexionesAbiertas.get();
+        return conexiones == 0 ? 0.0 : Math.round(totalEnviados.get() * 10.0 / conexiones) / 10.0;
+    }
+
+    public int getUltimoLoteTamano() {
+        return ultimoLoteTamano;
+    }
+
+    public long getUltimoLoteDuracionMs() {
+        return ultimoLoteDuracionMs;
+    }
+
+    // ==================== MÉTODOS AUXILIARES ====================
+
+    private void marcarEnviados(List<CorreoSaliente> enviados) {
+        if (enviados.isEmpty()) {
+            return;
+        }
+        LocalDateTime ahora = LocalDateTime.now();
+        correoSalienteRepository.marcarEnviados(enviados.stream().map(CorreoSaliente::getId).toList(), ahora);
+        List<Long> correoIds = enviados.stream()
+                .map(CorreoSaliente::getCorreoId)
+                .filter(Objects::nonNull)
+                .toList();
+        if (!correoIds.isEmpty()) {
+            correoRepository.actualizarEstadoEnvio(correoIds, EstadoEnvioCorreo.ENVIADO, ahora, null);
+        }
+        totalEnviados.addAndGet(enviados.size());
+    }
+
+    /**
+     * Fila de {@link CorreoSalienteRepository#findReclamados}; el adjunto queda sin cargar.
+     */
+    private static CorreoSaliente aCorreo(Object[] fila) {
+        return CorreoSaliente.builder()
+                .id(((Number) fila[0]).longValue())
+                .destinatario((String) fila[1])
+                .asunto((String) fila[2])
+                .cuerpoHtml((String) fila[3])
+                .nombreAdjunto((String) fila[4])
+                .correoId(fila[5] != null ? ((Number) fila[5]).longValue() : null)
+                .intentos(((Number) fila[6]).intValue())
+                .build();
+    }
+
+    private void enviarParte(List<CorreoSaliente> parte, List<CorreoSaliente> enviados) {
+        SesionSmtp sesion = sesiones.poll();
+        if (sesion == null) {
+            return; // No ocurre: hay tantas sesiones como partes; quedan pendientes
+        }
+        try {
+            for (CorreoSaliente correo : parte) {
+                try {
+                    esperarTurno();
+                    sesion.enviar(construirMensaje(correo));
+                    enviados.add(correo);
+                } catch (InterruptedException ex) {
+                    Thread.currentThread().interrupt();
+                    return; // Apagado: el resto queda pendiente
+                } catch (Exception ex) {
+                    totalErrores.incrementAndGet();
+                    if (!(ex instanceof SendFailedException)) {
+                        sesion.cerrar(); // Conexión en estado dudoso: se reabre en el siguiente
+                    }
+                    registrarFallo(correo, ex);
+                }
+            }
+        } finally {
+            sesiones.add(sesion);
+        }
+    }
+
+    private MimeMessage construirMensaje(CorreoSaliente correo) throws MessagingException {
+        MimeMessage mensaje = mailSender.createMimeMessage();
+        MimeMessageHelper helper = new MimeMessageHelper(mensaje, true, "UTF-8");
+        if (remitente != null && !remitente.isBlank()) {
+            helper.setFrom(remitente);
+        }
+        helper.setTo(correo.getDestinatario());
+        helper.setSubject(correo.getAsunto());
+        helper.setText(correo.getCuerpoHtml(), true);
+        // El spool guarda nombre_adjunto solo cuando hay adjunto
+        if (correo.getNombreAdjunto() != null) {
+            byte[] adjunto = correoSalienteRepository.findAdjunto(correo.getId()).stream()
+                    .findFirst()
+                    .orElse(null);
+            if (adjunto != null && adjunto.length > 0) {
+                String nombre = !correo.getNombreAdjunto().isEmpty() ? correo.getNombreAdjunto() : "documento.pdf";
+                helper.addAttachment(nombre, new ByteArrayResource(adjunto));
+            }
+        }
+        return mensaje;
+    }
+
+    /**
+     * Reserva el siguiente hueco del limitador y espera hasta él.
+     */
+    private void esperarTurno() throws InterruptedException {
+        if (maxPorSegundo <= 0) {
+            return;
+        }
+        long intervalo = (long) (TimeUnit.SECONDS.toNanos(1) / maxPorSegundo);
+        long espera;
+        synchronized (this) {
+            long ahora = System.nanoTime();
+            long turno = Math.max(proximoEnvioNanos, ahora);
+            proximoEnvioNanos = turno + intervalo;
+            espera = turno - ahora;
+        }
+        if (espera > 0) {
+            TimeUnit.NANOSECONDS.sleep(espera);
+        }
+    }
+
+    private void registrarFallo(CorreoSaliente correo, Exception ex) {
+        int intentos = correo.getIntentos() + 1;
+        String error = ex.getClass().getSimpleName() + ": " + ex.getMessage();
+        if (error.length() > LARGO_MAX_ERROR) {
+            error = error.substring(0, LARGO_MAX_ERROR);
+        }
+
+        boolean rechazado = ex instanceof SendFailedException sfe
+                && sfe.getInvalidAddresses() != null && sfe.getInvalidAddresses().length > 0;
+        if (rechazado || intentos >= maxIntentos) {
+            log.error("Spool: correo {} a {} descartado tras {} intentos: {}",
+                    correo.getId(), correo.getDestinatario(), intentos, error);
+            correoSalienteRepository.registrarFallo(correo.getId(), EstadoCorreoSaliente.FALLIDO, null, error);
+            if (correo.getCorreoId() != null) {
+                correoRepository.actualizarEstadoEnvio(List.of(correo.getCorreoId()),
+                        EstadoEnvioCorreo.FALLIDO, null, error);
+            }
+            return;
+        }
+
+        long espera = Math.min((long) reintentoBaseSegundos << Math.min(intentos - 1, 20), reintentoMaxSegundos);
+        log.warn("Spool: error enviando correo {} a {}, intento {}: {}. Reintento en {} s",
+                correo.getId(), correo.getDestinatario(), intentos, error, espera);
+        correoSalienteRepository.registrarFallo(correo.getId(), EstadoCorreoSaliente.PENDIENTE,
+                LocalDateTime.now().plusSeconds(espera), error);
+    }
+
+    private static String vacioANull(String valor) {
+        return valor == null || valor.isEmpty() ? null : valor;
+    }
+}
@@ -0,0 +1,85 @@
+package com.sqrc.module.backendsqrc.comunicacion.service;
+
+import com.sqrc.module.backendsqrc.comunicacion.dto.SpoolCorreoMetricasDTO;
+import com.sqrc.module.backendsqrc.comunicacion.model.CorreoSaliente;
+import com.sqrc.module.backendsqrc.comunicacion.model.EstadoCorreoSaliente;
+import com.sqrc.module.backendsqrc.comunicacion.repository.CorreoSalienteRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+
+/**
+ * Cola de salida de correo (spool).
+ *
+ * Los servicios de correo encolan aquí en lugar de hablar con el servidor SMTP:
+ * dentro de una transacción el mensaje solo sale si ésta hace commit, y la
+ * petición no espera el handshake SMTP/TLS. {@link DespachadorCorreos} lo envía
+ * después con reintentos.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class SpoolCorreoService {
+
+    private final CorreoSalienteRepository correoSalienteRepository;
+    private final DespachadorCorreos despachadorCorreos;
+
+    /**
+     * Encola un correo HTML, opcionalmente con un adjunto.
+     *
+     * @param destinatario Email del destinatario
+     * @param asunto Asunto del correo
+     * @param cuerpoHtml Contenido HTML
+     * @param adjunto Bytes del adjunto (null = sin adjunto)
+     * @param nombreAdjunto Nombre del archivo adjunto
+     * @param correoId Registro de Correo al que informar la entrega (null si no hay)
+     * @return ID del mensaje en la cola, o null si no tiene destinatario
+     */
+    @Transactional
+    public Long encolar(String destinatario, String asunto, String cuerpoHtml,
+                        byte[] adjunto, String nombreAdjunto, Long correoId) {
+        if (destinatario == null || destinatario.isBlank()) {
+            // Sin excepción: no debe deshacer la transacción de quien notifica
+            log.warn("Spool: correo '{}' sin destinatario, no se encola", asunto);
+            return null;
+        }
+        boolean conAdjunto = adjunto != null && adjunto.length > 0;
+
+        CorreoSaliente correo = correoSalienteRepository.save(CorreoSaliente.builder()
+                .destinatario(destinatario.trim())
+                .asunto(asunto != null ? asunto : "")
+                .cuerpoHtml(cuerpoHtml != null ? cuerpoHtml : "")
+                .adjunto(conAdjunto ? adjunto : null)
+                .nombreAdjunto(conAdjunto ? nombreAdjunto : null)
+                .correoId(correoId)
+                .build());
+        log.debug("Spool: encolado correo {} para {}", correo.getId(), destinatario);
+        return correo.getId();
+    }
+
+    /**
+     * Métricas de la cola: backlog, antigüedad del pendiente más viejo y
+     * estadísticas del despachador.
+     */
+    @Transactional(readOnly = true)
+    public SpoolCorreoMetricasDTO obtenerMetricas() {
+        LocalDateTime masAntiguo = correoSalienteRepository.findFechaCreacionMasAntigua(EstadoCorreoSaliente.PENDIENTE);
+        Long lagMs = masAntiguo != null ? Duration.between(masAntiguo, LocalDateTime.now()).toMillis() : 0L;
+
+        return SpoolCorreoMetricasDTO.builder()
+                .pendientes(correoSalienteRepository.countByEstado(EstadoCorreoSaliente.PENDIENTE))
+                .fallidos(correoSalienteRepository.countByEstado(EstadoCorreoSaliente.FALLIDO))
+                .lagPendienteMasAntiguoMs(lagMs)
+                .totalEnviados(despachadorCorreos.getTotalEnviados())
+                .totalErrores(despachadorCorreos.getTotalErrores())
+                .conexionesAbiertas(despachadorCorreos.getConexionesAbiertas())
+                .mensajesPorConexion(despachadorCorreos.getMensajesPorConexion())
+                .ultimoLoteTamano(despachadorCorreos.getUltimoLoteTamano())
+                .ultimoLoteDuracionMs(despachadorCorreos.getUltimoLoteDuracionMs())
+                .build();
+    }
+}
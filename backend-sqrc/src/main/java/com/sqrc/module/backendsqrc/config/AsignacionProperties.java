@@ -0,0 +1,42 @@
+package com.sqrc.module.backendsqrc.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.util.HashMap;
+import java.util.Map;
+
+@Component
+@ConfigurationProperties(prefix = "app.asignacion")
+public class AsignacionProperties {
+
+    /** Máximo de asignaciones activas por empleado; 0 = sin límite */
+    private Integer capacidadDefault = 0;
+
+    /** Límite por empleado (ID -> máximo), p.ej. app.asignacion.capacidad-por-empleado.12=5 */
+    private Map<Long, Integer> capacidadPorEmpleado = new HashMap<>();
+
+    public Integer getCapacidadDefault() {
+        return capacidadDefault;
+    }
+
+    public void setCapacidadDefault(Integer capacidadDefault) {
+        this.capacidadDefault = capacidadDefault;
+    }
+
+    public Map<Long, Integer> getCapacidadPorEmpleado() {
+        return capacidadPorEmpleado;
+    }
+
+    public void setCapacidadPorEmpleado(Map<Long, Integer> capacidadPorEmpleado) {
+        this.capacidadPorEmpleado = capacidadPorEmpleado;
+    }
+
+    /**
+     * Capacidad efectiva del empleado; Integer.MAX_VALUE si no tiene límite.
+     */
+    public int getCapacidadPara(Long empleadoId) {
+        int capacidad = capacidadPorEmpleado.getOrDefault(empleadoId, capacidadDefault);
+        return capacidad <= 0 ? Integer.MAX_VALUE : capacidad;
+    }
+}
@@ -16,6 +16,9 @@ public class SlaProperties {
     /** Per TipoCaso thresholds in minutes, e.g. SOLICITUD=2880 (48h), RECLAMO=1440 (24h) */
     private Map<String, Integer> porTipo = new HashMap<>();
 
+    /** Percentage of a deadline window after which an open ticket is flagged as at risk */
+    private Integer porcentajeRiesgo = 80;
+
     public Integer getDefaultMinutes() {
         return defaultMinutes;
     }
@@ -32,6 +35,14 @@ public class SlaProperties {
         this.porTipo = porTipo;
     }
 
+    public Integer getPorcentajeRiesgo() {
+        return porcentajeRiesgo;
+    }
+
+    public void setPorcentajeRiesgo(Integer porcentajeRiesgo) {
+        this.porcentajeRiesgo = porcentajeRiesgo;
+    }
+
     public int getThresholdForTipo(String tipo) {
         if (tipo == null) return defaultMinutes;
         return porTipo.getOrDefault(tipo, defaultMinutes);
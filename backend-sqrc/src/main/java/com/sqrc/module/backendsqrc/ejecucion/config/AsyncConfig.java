@@ -0,0 +1,79 @@
+package com.sqrc.module.backendsqrc.ejecucion.config;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.aop.interceptor.AsyncUncaughtExceptionHandler;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.AsyncConfigurer;
+import org.springframework.scheduling.annotation.EnableAsync;
+
+import java.util.concurrent.Executor;
+
+/**
+ * Pools de trabajo en segundo plano aislados por tipo de carga (auditoría, correo,
+ * documentos, IA, eventos). Cada uno tiene sus hilos, su cola y su política de rechazo
+ * en {@link EjecutoresProperties}: un SMTP lento llena solo el pool de correo y no
+ * frena la auditoría, y al revés.
+ *
+ * Los {@code @Async} sin nombre van al pool de eventos.
+ */
+@Configuration
+@EnableAsync
+@Slf4j
+public class AsyncConfig implements AsyncConfigurer {
+
+    private final EjecutoresProperties properties;
+
+    public AsyncConfig(EjecutoresProperties properties) {
+        this.properties = properties;
+    }
+
+    @Bean(EjecutorNombres.AUDITORIA)
+    public EjecutorAcotado auditoriaExecutor() {
+        return crear(EjecutorNombres.AUDITORIA);
+    }
+
+    @Bean(EjecutorNombres.CORREO)
+    public EjecutorAcotado correoExecutor() {
+        return crear(EjecutorNombres.CORREO);
+    }
+
+    @Bean(EjecutorNombres.DOCUMENTOS)
+    public EjecutorAcotado documentosExecutor() {
+        return crear(EjecutorNombres.DOCUMENTOS);
+    }
+
+    @Bean(EjecutorNombres.IA)
+    public EjecutorAcotado iaExecutor() {
+        return crear(EjecutorNombres.IA);
+    }
+
+    @Bean(EjecutorNombres.EVENTOS)
+    public EjecutorAcotado eventosExecutor() {
+        return crear(EjecutorNombres.EVENTOS);
+    }
+
+    @Override
+    public Executor getAsyncExecutor() {
+        return eventosExecutor();
+    }
+
+    @Override
+    public AsyncUncaughtExceptionHandler getAsyncUncaughtExceptionHandler() {
+        return (ex, metodo, parametros) -> log.error("Error en tarea asíncrona {}.{}: {}",
+                metodo.getDeclaringClass().getSimpleName(), metodo.getName(), ex.getMessage(), ex);
+    }
+
+    private EjecutorAcotado crear(String nombre) {
+        String clave = EjecutorNombres.clave(nombre);
+        EjecutorAcotado ejecutor = new EjecutorAcotado(clave,
+                properties.getHilosPara(clave),
+                properties.getCapacidadColaPara(clave),
+                properties.getRechazoPara(clave),
+                properties.isVirtualesPara(clave));
+        log.info("Pool {}: {} hilos{}, cola {}, rechazo {}", clave, properties.getHilosPara(clave),
+                properties.isVirtualesPara(clave) ? " virtuales" : "",
+                properties.getCapacidadColaPara(clave), properties.getRechazoPara(clave));
+        return ejecutor;
+    }
+}
@@ -0,0 +1,83 @@
+package com.sqrc.module.backendsqrc.ejecucion.config;
+
+import com.sqrc.module.backendsqrc.ejecucion.dto.EjecutorMetricasDTO;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Pool de hilos fijo con cola acotada para un solo tipo de carga, con política de
+ * rechazo propia y contador de tareas rechazadas.
+ *
+ * En modo virtual cada tarea corre en un hilo virtual, pero el pool sigue limitando
+ * cuántas corren a la vez y cuántas esperan: no abre conexiones SMTP o a la BD sin tope.
+ */
+@Slf4j
+public final class EjecutorAcotado extends ThreadPoolTaskExecutor {
+
+    private final String clave;
+    private final int hilos;
+    private final int capacidadCola;
+    private final PoliticaRechazo politica;
+    private final boolean virtuales;
+    private final AtomicLong rechazadas = new AtomicLong();
+
+    public EjecutorAcotado(String clave, int hilos, int capacidadCola, PoliticaRechazo politica, boolean virtuales) {
+        this.clave = clave;
+        this.hilos = hilos;
+        this.capacidadCola = capacidadCola;
+        this.politica = politica;
+        this.virtuales = virtuales;
+
+        setCorePoolSize(hilos);
+        setMaxPoolSize(hilos);
+        setQueueCapacity(capacidadCola);
+        setThreadNamePrefix(clave + "-");
+        if (virtuales) {
+            setThreadFactory(Thread.ofVirtual().name(clave + "-v", 1).factory());
+        }
+        setRejectedExecutionHandler(this::rechazar);
+        setWaitForTasksToCompleteOnShutdown(true);
+        setAwaitTerminationSeconds(30);
+    }
+
+    public String getClave() {
+        return clave;
+    }
+
+    public EjecutorMetricasDTO getMetricas() {
+        ThreadPoolExecutor pool = getThreadPoolExecutor();
+        return EjecutorMetricasDTO.builder()
+                .nombre(clave)
+                .hilos(hilos)
+                .virtuales(virtuales)
+                .politicaRechazo(politica.name())
+                .activas(getActiveCount())
+                .enCola(getQueueSize())
+                .capacidadCola(capacidadCola)
+                .completadas(pool.getCompletedTaskCount())
+                .rechazadas(rechazadas.get())
+                .build();
+    }
+
+    private void rechazar(Runnable tarea, ThreadPoolExecutor pool) {
+        long total = rechazadas.incrementAndGet();
+        switch (politica) {
+            case ABORTAR -> throw new RejectedExecutionException(
+                    "Pool " + clave + " lleno (" + hilos + " hilos, cola " + capacidadCola + ")");
+            case EJECUTAR_EN_LLAMADOR -> {
+                if (!pool.isShutdown()) {
+                    tarea.run();
+                }
+            }
+            case DESCARTAR -> {
+                if (total == 1 || total % 100 == 0) {
+                    log.warn("Pool {} lleno: {} tareas descartadas", clave, total);
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,38 @@
+package com.sqrc.module.backendsqrc.ejecucion.config;
+
+/**
+ * Nombres de los pools de trabajo en segundo plano, uno por tipo de carga, para
+ * usar en {@code @Async(EjecutorNombres.X)} o con {@link Ejecutores#get(String)}.
+ * La clave de configuración es el nombre sin el sufijo, e.g. app.ejecutores.porEjecutor.correo.hilos=4
+ */
+public final class EjecutorNombres {
+
+    /** Logs de workflow, errores e integraciones */
+    public static final String AUDITORIA = "auditoriaExecutor";
+
+    /** Guardado y encolado de correos */
+    public static final String CORREO = "correoExecutor";
+
+    /** Generación de PDF (constancias de registro) */
+    public static final String DOCUMENTOS = "documentosExecutor";
+
+    /** Llamadas al proveedor de IA */
+    public static final String IA = "iaExecutor";
+
+    /** Observers de artículos, reconstrucciones al arrancar y @Async sin nombre */
+    public static final String EVENTOS = "eventosExecutor";
+
+    public static final String[] TODOS = {AUDITORIA, CORREO, DOCUMENTOS, IA, EVENTOS};
+
+    private static final String SUFIJO = "Executor";
+
+    /**
+     * Clave corta del pool ("correoExecutor" -> "correo"): configuración, hilos y métricas.
+     */
+    public static String clave(String nombre) {
+        return nombre.endsWith(SUFIJO) ? nombre.substring(0, nombre.length() - SUFIJO.length()) : nombre;
+    }
+
+    private EjecutorNombres() {
+    }
+}
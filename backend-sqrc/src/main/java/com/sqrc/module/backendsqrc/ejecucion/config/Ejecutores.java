@@ -0,0 +1,38 @@
+package com.sqrc.module.backendsqrc.ejecucion.config;
+
+import com.sqrc.module.backendsqrc.ejecucion.dto.EjecutorMetricasDTO;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Acceso a los pools por nombre, para el código que encola tareas a mano
+ * (sin {@code @Async}) y para el monitoreo.
+ */
+@Component
+public class Ejecutores {
+
+    private final Map<String, EjecutorAcotado> porNombre;
+
+    public Ejecutores(Map<String, EjecutorAcotado> porNombre) {
+        this.porNombre = porNombre;
+    }
+
+    /**
+     * @param nombre una constante de {@link EjecutorNombres}
+     */
+    public EjecutorAcotado get(String nombre) {
+        EjecutorAcotado ejecutor = porNombre.get(nombre);
+        if (ejecutor == null) {
+            throw new IllegalArgumentException("Ejecutor no definido: " + nombre);
+        }
+        return ejecutor;
+    }
+
+    public List<EjecutorMetricasDTO> getMetricas() {
+        return porNombre.values().stream()
+                .map(EjecutorAcotado::getMetricas)
+                .toList();
+    }
+}
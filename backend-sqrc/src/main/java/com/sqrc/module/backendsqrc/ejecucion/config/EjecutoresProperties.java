@@ -0,0 +1,125 @@
+package com.sqrc.module.backendsqrc.ejecucion.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.util.HashMap;
+import java.util.Map;
+
+@Component
+@ConfigurationProperties(prefix = "app.ejecutores")
+public class EjecutoresProperties {
+
+    /** Hilos por defecto de cada pool (fijos: core = max) */
+    private Integer hilos = 2;
+
+    /** Tareas en espera por defecto antes de aplicar la política de rechazo */
+    private Integer capacidadCola = 100;
+
+    private PoliticaRechazo rechazo = PoliticaRechazo.ABORTAR;
+
+    /** Hilos virtuales en lugar de hilos de plataforma; el número de hilos sigue acotando la concurrencia */
+    private Boolean virtuales = false;
+
+    /** Ajustes por pool, e.g. app.ejecutores.porEjecutor.correo.hilos=4 */
+    private Map<String, Ajuste> porEjecutor = new HashMap<>();
+
+    public static class Ajuste {
+        private Integer hilos;
+        private Integer capacidadCola;
+        private PoliticaRechazo rechazo;
+        private Boolean virtuales;
+
+        public Integer getHilos() {
+            return hilos;
+        }
+
+        public void setHilos(Integer hilos) {
+            this.hilos = hilos;
+        }
+
+        public Integer getCapacidadCola() {
+            return capacidadCola;
+        }
+
+        public void setCapacidadCola(Integer capacidadCola) {
+            this.capacidadCola = capacidadCola;
+        }
+
+        public PoliticaRechazo getRechazo() {
+            return rechazo;
+        }
+
+        public void setRechazo(PoliticaRechazo rechazo) {
+            this.rechazo = rechazo;
+        }
+
+        public Boolean getVirtuales() {
+            return virtuales;
+        }
+
+        public void setVirtuales(Boolean virtuales) {
+            this.virtuales = virtuales;
+        }
+    }
+
+    public Integer getHilos() {
+        return hilos;
+    }
+
+    public void setHilos(Integer hilos) {
+        this.hilos = hilos;
+    }
+
+    public Integer getCapacidadCola() {
+        return capacidadCola;
+    }
+
+    public void setCapacidadCola(Integer capacidadCola) {
+        this.capacidadCola = capacidadCola;
+    }
+
+    public PoliticaRechazo getRechazo() {
+        return rechazo;
+    }
+
+    public void setRechazo(PoliticaRechazo rechazo) {
+        this.rechazo = rechazo;
+    }
+
+    public Boolean getVirtuales() {
+        return virtuales;
+    }
+
+    public void setVirtuales(Boolean virtuales) {
+        this.virtuales = virtuales;
+    }
+
+    public Map<String, Ajuste> getPorEjecutor() {
+        return porEjecutor;
+    }
+
+    public void setPorEjecutor(Map<String, Ajuste> porEjecutor) {
+        this.porEjecutor = porEjecutor;
+    }
+
+    public int getHilosPara(String clave) {
+        Ajuste ajuste = porEjecutor.get(clave);
+        return ajuste != null && ajuste.getHilos() != null ? ajuste.getHilos() : hilos;
+    }
+
+    public int getCapacidadColaPara(String clave) {
+        Ajuste ajuste = porEjecutor.get(clave);
+        return ajuste != null && ajuste.getCapacidadCola() != null ? ajuste.getCapacidadCola() : capacidadCola;
+    }
+
+    public PoliticaRechazo getRechazoPara(String clave) {
+        Ajuste ajuste = porEjecutor.get(clave);
+        return ajuste != null && ajuste.getRechazo() != null ? ajuste.getRechazo() : rechazo;
+    }
+
+    public boolean isVirtualesPara(String clave) {
+        Ajuste ajuste = porEjecutor.get(clave);
+        return ajuste != null && ajuste.getVirtuales() != null ? ajuste.getVirtuales() : virtuales;
+    }
+}
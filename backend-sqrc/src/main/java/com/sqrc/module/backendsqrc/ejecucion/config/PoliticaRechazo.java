@@ -0,0 +1,17 @@
+package com.sqrc.module.backendsqrc.ejecucion.config;
+
+/**
+ * Qué hacer con una tarea cuando el pool tiene todos los hilos ocupados y la cola llena.
+ * En todos los casos la tarea se cuenta como rechazada en las métricas.
+ */
+public enum PoliticaRechazo {
+
+    /** Lanza TaskRejectedException al que encola (el llamador decide: reintento, barrido, etc.) */
+    ABORTAR,
+
+    /** La ejecuta el hilo que encola: frena al productor en lugar de perder la tarea */
+    EJECUTAR_EN_LLAMADOR,
+
+    /** La descarta y lo registra en el log */
+    DESCARTAR
+}
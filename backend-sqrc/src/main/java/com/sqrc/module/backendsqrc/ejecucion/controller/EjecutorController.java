@@ -0,0 +1,28 @@
+package com.sqrc.module.backendsqrc.ejecucion.controller;
+
+import com.sqrc.module.backendsqrc.ejecucion.config.Ejecutores;
+import com.sqrc.module.backendsqrc.ejecucion.dto.EjecutorMetricasDTO;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/ejecutores")
+@RequiredArgsConstructor
+public class EjecutorController {
+
+    private final Ejecutores ejecutores;
+
+    /**
+     * GET /api/ejecutores/metricas
+     * Tareas activas, en cola, completadas y rechazadas de cada pool.
+     */
+    @GetMapping("/metricas")
+    public ResponseEntity<List<EjecutorMetricasDTO>> obtenerMetricas() {
+        return ResponseEntity.ok(ejecutores.getMetricas());
+    }
+}
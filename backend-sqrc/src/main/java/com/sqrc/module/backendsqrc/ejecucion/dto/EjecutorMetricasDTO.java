@@ -0,0 +1,30 @@
+package com.sqrc.module.backendsqrc.ejecucion.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Métricas de un pool de trabajo en segundo plano.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class EjecutorMetricasDTO {
+
+    private String nombre;
+    private Integer hilos;
+    private Boolean virtuales;
+    private String politicaRechazo;
+
+    /** Tareas ejecutándose en este momento */
+    private Integer activas;
+    private Integer enCola;
+    private Integer capacidadCola;
+    private Long completadas;
+
+    /** Tareas que encontraron el pool y la cola llenos */
+    private Long rechazadas;
+}
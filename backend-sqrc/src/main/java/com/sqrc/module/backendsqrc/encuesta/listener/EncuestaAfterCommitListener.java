@@ -1,6 +1,8 @@
 package com.sqrc.module.backendsqrc.encuesta.listener;
 
 import com.sqrc.module.backendsqrc.encuesta.event.TicketClosedForEncuestaEvent;
+import com.sqrc.module.backendsqrc.encuesta.model.Encuesta;
+import com.sqrc.module.backendsqrc.encuesta.repository.EncuestaRepository;
 import com.sqrc.module.backendsqrc.encuesta.service.EncuestaService;
 import com.sqrc.module.backendsqrc.vista360.service.Vista360Service;
 import com.sqrc.module.backendsqrc.vista360.dto.ClienteBasicoDTO;
@@ -19,6 +21,11 @@ import com.sqrc.module.backendsqrc.ticket.repository.TicketRepository;
 /**
  * Listener que crea la encuesta únicamente después de que la transacción de cierre
  * del ticket haya hecho commit, evitando bloqueos por transacciones anidadas.
+ * El evento llega desde la outbox (OutboxPublicador), fuera de toda transacción,
+ * por eso se habilita fallbackExecution.
+ *
+ * Los errores no se atrapan: llegan a la outbox, que deja el evento pendiente y lo
+ * reintenta. Un reintento reutiliza la encuesta ya creada para el ticket.
  */
 @Component
 @RequiredArgsConstructor
@@ -29,11 +36,19 @@ public class EncuestaAfterCommitListener {
     private final Vista360Service vista360Service;
     private final TicketRepository ticketRepository;
     private final EmpleadoRepository empleadoRepository;
+    private final EncuestaRepository encuestaRepository;
 
-    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT)
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
     public void handleCreateEncuesta(TicketClosedForEncuestaEvent evt) {
         log.info("AFTER_COMMIT: creando encuesta para ticket {} (plantilla={})", evt.ticketId(), evt.plantillaId());
-        try {
+
+        // Reintento de la outbox: la encuesta ya se creó en una entrega anterior
+        Encuesta encuesta = encuestaRepository.findFirstByTicket_IdTicketOrderByIdEncuestaDesc(evt.ticketId())
+                .orElse(null);
+        if (encuesta != null) {
+            log.info("AFTER_COMMIT: el ticket {} ya tiene la encuesta {}, solo se reintenta el envío",
+                    evt.ticketId(), encuesta.getIdEncuesta());
+        } else {
             // Cargar ticket con detalles para resolver asignaciones y cliente
             var ticket = ticketRepository.findByIdWithDetails(evt.ticketId());
             if (ticket == null) {
@@ -71,42 +86,31 @@ public class EncuestaAfterCommitListener {
                 log.warn("AFTER_COMMIT: no se encontró agente en las asignaciones del ticket {}", evt.ticketId());
             }
 
-            var encuesta = encuestaService.crearEncuestaParaTicket(evt.plantillaId(), ticket, agenteId, ticket.getCliente());
-            // Note: crearEncuestaParaTicket overload used in service expects ticket entity in some usages.
-            // We call the simpler creation by plantilla/ticket via service layer if available; if not,
-            // the EncuestaService method will resolve ticket/client/agent as needed by id.
-
-            // If encuesta created, resolve client email and send the survey immediately
-            if (encuesta != null) {
-                Long encuestaId = encuesta.getIdEncuesta();
-                log.info("AFTER_COMMIT: encuesta creada {}. Resolviendo correo cliente {}", encuestaId, evt.clienteId());
-                try {
-                    String correoDestino = null;
-                    if (evt.clienteId() != null) {
-                        try {
-                            ClienteBasicoDTO cliente = vista360Service.obtenerClientePorId(evt.clienteId());
-                            correoDestino = cliente != null ? cliente.getCorreo() : null;
-                            log.debug("AFTER_COMMIT: correo resuelto desde Vista360: {}", correoDestino);
-                        } catch (Exception e) {
-                            log.warn("AFTER_COMMIT: no se pudo resolver cliente {}: {}", evt.clienteId(), e.getMessage());
-                        }
-                    }
-
-                    if (correoDestino != null && !correoDestino.isBlank()) {
-                        // Llamada a método transaccional que usa findByIdForUpdate internamente
-                        encuestaService.enviarEncuestaManual(encuestaId.toString(), correoDestino, "Por favor complete esta encuesta", false);
-                        log.info("AFTER_COMMIT: envío de encuesta {} solicitado para correo={}", encuestaId, correoDestino);
-                    } else {
-                        log.warn("AFTER_COMMIT: no se encontró correo para clienteId={} — no se envía encuesta {}", evt.clienteId(), encuestaId);
-                    }
-                } catch (Exception exSend) {
-                    log.error("AFTER_COMMIT: error enviando encuesta {}: {}", encuestaId, exSend.getMessage(), exSend);
-                }
-            } else {
+            encuesta = encuestaService.crearEncuestaParaTicket(evt.plantillaId(), ticket, agenteId, ticket.getCliente());
+            if (encuesta == null) {
                 log.warn("AFTER_COMMIT: crearEncuestaParaTicket devolvió null para ticket {}", evt.ticketId());
+                return;
             }
-        } catch (Exception ex) {
-            log.error("AFTER_COMMIT: error creando encuesta para ticket {}: {}", evt.ticketId(), ex.getMessage(), ex);
+        }
+
+        // Resolver el correo del cliente y enviar la encuesta. Un error se propaga:
+        // la outbox lo registra y reintenta el evento con espera exponencial.
+        Long encuestaId = encuesta.getIdEncuesta();
+        log.info("AFTER_COMMIT: encuesta {}. Resolviendo correo cliente {}", encuestaId, evt.clienteId());
+        String correoDestino = null;
+        if (evt.clienteId() != null) {
+            ClienteBasicoDTO cliente = vista360Service.obtenerClientePorId(evt.clienteId());
+            correoDestino = cliente != null ? cliente.getCorreo() : null;
+            log.debug("AFTER_COMMIT: correo resuelto desde Vista360: {}", correoDestino);
+        }
+
+        if (correoDestino != null && !correoDestino.isBlank()) {
+            // Llamada a método transaccional que usa findByIdForUpdate internamente; no reenvía
+            // dentro de la ventana de reenvío, así un reintento no duplica el correo
+            encuestaService.enviarEncuestaManual(encuestaId.toString(), correoDestino, "Por favor complete esta encuesta", false);
+            log.info("AFTER_COMMIT: envío de encuesta {} solicitado para correo={}", encuestaId, correoDestino);
+        } else {
+            log.warn("AFTER_COMMIT: no se encontró correo para clienteId={} — no se envía encuesta {}", evt.clienteId(), encuestaId);
         }
     }
 }
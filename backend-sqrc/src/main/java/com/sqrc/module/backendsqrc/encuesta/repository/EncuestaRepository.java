@@ -21,6 +21,11 @@ public interface EncuestaRepository extends JpaRepository<Encuesta, Long>, JpaSp
             com.sqrc.module.backendsqrc.encuesta.model.EstadoEncuesta estado,
             org.springframework.data.domain.Pageable pageable);
 
+    /**
+     * Última encuesta creada para un ticket (idempotencia del listener de cierre).
+     */
+    Optional<Encuesta> findFirstByTicket_IdTicketOrderByIdEncuestaDesc(Long ticketId);
+
     @Lock(LockModeType.PESSIMISTIC_WRITE)
     @Query("select e from Encuesta e where e.idEncuesta = :id")
     Optional<Encuesta> findByIdForUpdate(@Param("id") Long id);
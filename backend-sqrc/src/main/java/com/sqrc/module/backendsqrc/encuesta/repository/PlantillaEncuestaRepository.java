@@ -1,7 +1,10 @@
 package com.sqrc.module.backendsqrc.encuesta.repository;
 
+import com.sqrc.module.backendsqrc.cache.config.CacheNombres;
 import com.sqrc.module.backendsqrc.encuesta.model.PlantillaEncuesta;
+import org.springframework.cache.annotation.Cacheable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 
 import java.util.Optional;
@@ -14,6 +17,14 @@ public interface PlantillaEncuestaRepository extends JpaRepository<PlantillaEncu
      * Usado para asignar automáticamente una plantilla al crear encuestas.
      */
     Optional<PlantillaEncuesta> findFirstByVigenteTrue();
+
+    /**
+     * ID de la plantilla vigente, cacheado (se lee en cada cierre de ticket).
+     * Se invalida al crear o modificar plantillas.
+     */
+    @Cacheable(CacheNombres.PLANTILLA_ENCUESTA_VIGENTE)
+    @Query("SELECT p.idPlantillaEncuesta FROM PlantillaEncuesta p WHERE p.vigente = true ORDER BY p.idPlantillaEncuesta LIMIT 1")
+    Optional<Long> findIdVigente();
     
     // Puedes agregar métodos extra si necesitas, ej: findByNombre(String nombre);
 }
\ No newline at end of file
@@ -5,11 +5,13 @@ import com.sqrc.module.backendsqrc.encuesta.event.EncuestaRespondidaEvent;
 import com.sqrc.module.backendsqrc.encuesta.factory.PreguntaFactory;
 import com.sqrc.module.backendsqrc.encuesta.model.*;
 import com.sqrc.module.backendsqrc.encuesta.repository.*;
+import com.sqrc.module.backendsqrc.outbox.service.OutboxService;
 import com.sqrc.module.backendsqrc.ticket.model.Agente;
 import com.sqrc.module.backendsqrc.ticket.model.Ticket;
 import com.sqrc.module.backendsqrc.vista360.model.ClienteEntity;
+import com.sqrc.module.backendsqrc.cache.config.CacheNombres;
+import org.springframework.cache.annotation.CacheEvict;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.http.HttpStatus;
 import org.springframework.web.server.ResponseStatusException;
 import org.springframework.data.jpa.domain.Specification; // Importante para el patrón Specification
@@ -41,7 +43,7 @@ public class EncuestaService {
     @Autowired private PreguntaRepository preguntaRepository;
     @Autowired private RespuestaEncuestaRepository respuestaEncuestaRepository;
     @Autowired private Map<String, PreguntaFactory> fabricasPreguntas; // Patrón Factory
-    @Autowired private ApplicationEventPublisher eventPublisher;       // Patrón Observer
+    @Autowired private OutboxService outboxService;                   // Patrón Observer (eventos durables)
     @Autowired private EmailService emailService;
     @Autowired private PdfService pdfService;
     @Autowired private com.sqrc.module.backendsqrc.ticket.repository.EmpleadoRepository empleadoRepository;
@@ -65,6 +67,7 @@ public class EncuestaService {
                 .collect(Collectors.toList());
     }
 
+    @CacheEvict(cacheNames = CacheNombres.PLANTILLA_ENCUESTA_VIGENTE, allEntries = true)
     @Transactional
     public PlantillaResponseDTO crearPlantilla(PlantillaRequestDTO dto) {
         PlantillaEncuesta plantilla = new PlantillaEncuesta();
@@ -132,6 +135,7 @@ public class EncuestaService {
         return convertirADTO(plantilla);
     }
 
+    @CacheEvict(cacheNames = CacheNombres.PLANTILLA_ENCUESTA_VIGENTE, allEntries = true)
     @Transactional
     public PlantillaResponseDTO actualizarPlantilla(String idStr, PlantillaRequestDTO dto) {
         Long id = Long.parseLong(idStr);
@@ -175,6 +179,7 @@ public class EncuestaService {
         return convertirADTO(plantillaRepository.save(plantilla));
     }
 
+    @CacheEvict(cacheNames = CacheNombres.PLANTILLA_ENCUESTA_VIGENTE, allEntries = true)
     @Transactional
     public void desactivarPlantilla(String idStr) {
         Long id = Long.parseLong(idStr);
@@ -184,6 +189,7 @@ public class EncuestaService {
         plantillaRepository.save(plantilla);
     }
 
+    @CacheEvict(cacheNames = CacheNombres.PLANTILLA_ENCUESTA_VIGENTE, allEntries = true)
     @Transactional
     public PlantillaResponseDTO reactivarPlantilla(String idStr) {
         Long id = Long.parseLong(idStr);
@@ -417,8 +423,8 @@ public class EncuestaService {
         encuesta.setRespuestaEncuesta(respuestaGlobal);
         encuestaRepository.save(encuesta);
 
-        // PATRÓN OBSERVER: Lanzamos el evento al sistema
-        eventPublisher.publishEvent(new EncuestaRespondidaEvent(
+        // PATRÓN OBSERVER: Registramos el evento en la outbox (se entrega después del commit)
+        outboxService.registrar(OutboxService.AGREGADO_ENCUESTA, encuesta.getIdEncuesta(), new EncuestaRespondidaEvent(
                 encuesta.getIdEncuesta(), 
                 encuesta.getPlantilla().getIdPlantillaEncuesta(), 
                 esCritica
@@ -32,7 +32,8 @@ import java.util.Map;
                 "com.sqrc.module.backendsqrc.baseDeConocimientos.repository",
                 "com.sqrc.module.backendsqrc.reporte.repository",
                 "com.sqrc.module.backendsqrc.plantillaRespuesta.Repository",
-                "com.sqrc.module.backendsqrc.comunicacion.repository"
+                "com.sqrc.module.backendsqrc.comunicacion.repository",
+                "com.sqrc.module.backendsqrc.outbox.repository"
         },
         entityManagerFactoryRef = "primaryEntityManagerFactory",
         transactionManagerRef = "primaryTransactionManager"
@@ -74,6 +75,10 @@ public class PrimaryDataSourceConfig {
         properties.put("hibernate.dialect", "org.hibernate.dialect.MySQLDialect");
         properties.put("hibernate.show_sql", "true");
         properties.put("hibernate.format_sql", "true");
+        // Lotes JDBC para INSERT/UPDATE (las entidades con IDENTITY no agrupan INSERT)
+        properties.put("hibernate.jdbc.batch_size", "50");
+        properties.put("hibernate.order_inserts", "true");
+        properties.put("hibernate.order_updates", "true");
         
         return builder
                 .dataSource(dataSource)
@@ -84,7 +89,8 @@ public class PrimaryDataSourceConfig {
                         "com.sqrc.module.backendsqrc.baseDeConocimientos.model",
                         "com.sqrc.module.backendsqrc.reporte.model",
                         "com.sqrc.module.backendsqrc.plantillaRespuesta.model",
-                        "com.sqrc.module.backendsqrc.comunicacion.model"
+                        "com.sqrc.module.backendsqrc.comunicacion.model",
+                        "com.sqrc.module.backendsqrc.outbox.model"
                 )
                 .persistenceUnit("primary")
                 .properties(properties)
@@ -1,13 +1,19 @@
 package com.sqrc.module.backendsqrc.logs.controller;
 
+import com.sqrc.module.backendsqrc.logs.dto.AuditLogCursorResponse;
 import com.sqrc.module.backendsqrc.logs.model.AuditLog;
 import com.sqrc.module.backendsqrc.logs.model.ErrorLog;
 import com.sqrc.module.backendsqrc.logs.model.LogCategory;
 import com.sqrc.module.backendsqrc.logs.model.LogLevel;
 import com.sqrc.module.backendsqrc.logs.repository.AuditLogRepository;
 import com.sqrc.module.backendsqrc.logs.repository.ErrorLogRepository;
+import com.sqrc.module.backendsqrc.logs.service.AuditLogConsultaService;
+import com.sqrc.module.backendsqrc.logs.service.AuditLogContadores;
+import com.sqrc.module.backendsqrc.logs.service.AuditLogEscritor;
+import com.sqrc.module.backendsqrc.logs.service.ParticionesLogsService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Sort;
@@ -15,6 +21,7 @@ import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.time.Duration;
 import java.time.LocalDateTime;
 import java.util.HashMap;
 import java.util.List;
@@ -31,6 +38,13 @@ public class AuditLogController {
 
     private final AuditLogRepository auditLogRepository;
     private final ErrorLogRepository errorLogRepository;
+    private final AuditLogEscritor auditLogEscritor;
+    private final AuditLogContadores auditLogContadores;
+    private final ParticionesLogsService particionesLogsService;
+    private final AuditLogConsultaService auditLogConsultaService;
+
+    @Value("${app.logs.consultaDiasPorDefecto:30}")
+    private int diasPorDefecto;
 
     /**
      * Obtiene todos los logs con paginación y filtros opcionales.
@@ -40,8 +54,8 @@ public class AuditLogController {
      * @param level Filtro por nivel (INFO, WARN, ERROR, DEBUG)
      * @param category Filtro por categoría
      * @param userId Filtro por usuario
-     * @param startDate Fecha inicio del rango
-     * @param endDate Fecha fin del rango
+     * @param startDate Fecha inicio del rango (por defecto, app.logs.consultaDiasPorDefecto días antes del fin)
+     * @param endDate Fecha fin del rango (por defecto, ahora)
      * @param search Búsqueda en action
      */
     @GetMapping
@@ -81,15 +95,20 @@ public class AuditLogController {
             }
         }
         
+        // Rango acotado (por defecto los últimos días) para leer solo las particiones del rango
+        LocalDateTime end = endDate != null ? endDate : LocalDateTime.now();
+        LocalDateTime start = startDate != null ? startDate : end.minusDays(diasPorDefecto);
+
         // Usar queries específicos según los filtros
         if (levelEnum != null && categoryEnum != null) {
-            logsPage = auditLogRepository.findByLevelAndCategoryOrderByTimestampDesc(levelEnum, categoryEnum, pageRequest);
+            logsPage = auditLogRepository.findByLevelAndCategoryAndTimestampBetweenOrderByTimestampDesc(
+                    levelEnum, categoryEnum, start, end, pageRequest);
         } else if (levelEnum != null) {
-            logsPage = auditLogRepository.findByLevelOrderByTimestampDesc(levelEnum, pageRequest);
+            logsPage = auditLogRepository.findByLevelAndTimestampBetweenOrderByTimestampDesc(levelEnum, start, end, pageRequest);
         } else if (categoryEnum != null) {
-            logsPage = auditLogRepository.findByCategoryOrderByTimestampDesc(categoryEnum, pageRequest);
+            logsPage = auditLogRepository.findByCategoryAndTimestampBetweenOrderByTimestampDesc(categoryEnum, start, end, pageRequest);
         } else {
-            logsPage = auditLogRepository.findAllByOrderByTimestampDesc(pageRequest);
+            logsPage = auditLogRepository.findByTimestampBetweenOrderByTimestampDesc(start, end, pageRequest);
         }
 
         // Filtrar por búsqueda de texto (esto sí se hace en memoria, pero sobre los resultados ya filtrados)
@@ -114,6 +133,43 @@ public class AuditLogController {
         return ResponseEntity.ok(response);
     }
 
+    /**
+     * Navega los logs por cursor (timestamp, id), del más reciente al más antiguo.
+     * Sin COUNT(*) ni OFFSET: cada página cuesta lo mismo sin importar la profundidad.
+     *
+     * @param cursor nextCursor de la página anterior (vacío para la primera)
+     * @param ticketId eventos cuyo details.ticketId coincide (igual clienteId y articuloId);
+     *                 sin startDate se busca en toda la historia retenida
+     * @param conTotal incluir una estimación del total en la primera página
+     */
+    @GetMapping("/cursor")
+    public ResponseEntity<AuditLogCursorResponse> getLogsPorCursor(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "50") int limite,
+            @RequestParam(required = false) String level,
+            @RequestParam(required = false) String category,
+            @RequestParam(required = false) Long userId,
+            @RequestParam(required = false) Long ticketId,
+            @RequestParam(required = false) Long clienteId,
+            @RequestParam(required = false) Long articuloId,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime startDate,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime endDate,
+            @RequestParam(defaultValue = "false") boolean conTotal
+    ) {
+        log.info("GET /api/logs/cursor - limite={}, level={}, category={}, ticketId={}, clienteId={}, articuloId={}",
+                limite, level, category, ticketId, clienteId, articuloId);
+        try {
+            AuditLogConsultaService.Filtro filtro = new AuditLogConsultaService.Filtro(
+                    level != null && !level.isEmpty() ? LogLevel.valueOf(level.toUpperCase()) : null,
+                    category != null && !category.isEmpty() ? LogCategory.valueOf(category.toUpperCase()) : null,
+                    userId, ticketId, clienteId, articuloId, startDate, endDate);
+            return ResponseEntity.ok(auditLogConsultaService.buscar(filtro, cursor, limite, conTotal));
+        } catch (IllegalArgumentException e) {
+            log.warn("Parámetros inválidos en /api/logs/cursor: {}", e.getMessage());
+            return ResponseEntity.badRequest().build();
+        }
+    }
+
     /**
      * Obtiene un log específico por ID.
      */
@@ -147,41 +203,32 @@ public class AuditLogController {
     @GetMapping("/recent")
     public ResponseEntity<List<AuditLog>> getRecentLogs() {
         log.info("GET /api/logs/recent");
-        PageRequest pageRequest = PageRequest.of(0, 100, Sort.by(Sort.Direction.DESC, "timestamp"));
-        return ResponseEntity.ok(auditLogRepository.findAll(pageRequest).getContent());
+        LocalDateTime now = LocalDateTime.now();
+        return ResponseEntity.ok(auditLogRepository.findByTimestampBetweenOrderByTimestampDesc(
+                now.minusDays(diasPorDefecto), now, PageRequest.of(0, 100)).getContent());
     }
 
     /**
      * Obtiene estadísticas de logs.
+     * Se responde desde los contadores en memoria (por minuto hasta 24h, por hora hasta 7d),
+     * sin consultar audit_logs: el costo no crece con el historial.
      */
     @GetMapping("/stats")
     public ResponseEntity<Map<String, Object>> getStats() {
         log.info("GET /api/logs/stats");
-        
-        LocalDateTime last24h = LocalDateTime.now().minusHours(24);
-        LocalDateTime last7d = LocalDateTime.now().minusDays(7);
-        
+
+        Map<String, Object> last1h = auditLogContadores.getVentana(Duration.ofHours(1));
+        Map<String, Object> last24h = auditLogContadores.getVentana(Duration.ofHours(24));
+        Map<String, Object> last7d = auditLogContadores.getVentana(Duration.ofDays(7));
+
         Map<String, Object> stats = new HashMap<>();
-        stats.put("total", auditLogRepository.count());
-        
-        // Contar por nivel en las últimas 24h
-        Map<String, Long> byLevel = new HashMap<>();
-        for (LogLevel level : LogLevel.values()) {
-            long count = auditLogRepository.findByLevelOrderByTimestampDesc(level).stream()
-                    .filter(l -> l.getTimestamp().isAfter(last24h))
-                    .count();
-            byLevel.put(level.name(), count);
-        }
-        stats.put("byLevelLast24h", byLevel);
-        
-        // Contar por categoría en las últimas 24h
-        Map<String, Long> byCategory = new HashMap<>();
-        for (LogCategory category : LogCategory.values()) {
-            long count = auditLogRepository.countByCategorySince(category, last24h);
-            byCategory.put(category.name(), count);
-        }
-        stats.put("byCategoryLast24h", byCategory);
-        
+        stats.put("total", auditLogContadores.getTotal());
+        stats.put("byLevelLast24h", last24h.get("byLevel"));
+        stats.put("byCategoryLast24h", last24h.get("byCategory"));
+        stats.put("last1h", last1h);
+        stats.put("last24h", last24h);
+        stats.put("last7d", last7d);
+
         return ResponseEntity.ok(stats);
     }
 
@@ -257,4 +304,21 @@ public class AuditLogController {
         
         return ResponseEntity.ok(stats);
     }
+
+    /**
+     * Estado del escritor en lote de audit_logs: eventos en cola, escritos,
+     * descartados por nivel y derramados a disco.
+     */
+    @GetMapping("/pipeline")
+    public ResponseEntity<Map<String, Object>> getPipeline() {
+        return ResponseEntity.ok(auditLogEscritor.getMetricas());
+    }
+
+    /**
+     * Particiones mensuales de las tablas de logs y configuración de retención.
+     */
+    @GetMapping("/particiones")
+    public ResponseEntity<Map<String, Object>> getParticiones() {
+        return ResponseEntity.ok(particionesLogsService.getEstado());
+    }
 }
@@ -0,0 +1,32 @@
+package com.sqrc.module.backendsqrc.logs.dto;
+
+import com.sqrc.module.backendsqrc.logs.model.AuditLog;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Página de audit_logs paginada por cursor (timestamp, id), del más reciente al más antiguo.
+ * El cliente reenvía nextCursor para pedir la siguiente página; no hay COUNT(*) ni OFFSET.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class AuditLogCursorResponse {
+
+    private List<AuditLog> content;
+    private Integer limite;
+    private Boolean tieneSiguiente;
+    // Posición de la última fila devuelta; null si no hay más páginas
+    private String nextCursor;
+    // Rango consultado (desde es null si no se acotó, p.ej. al buscar por ticketId)
+    private LocalDateTime desde;
+    private LocalDateTime hasta;
+    // Estimación del optimizador para el filtro completo; solo en la primera página y si se pide
+    private Long totalAprox;
+}
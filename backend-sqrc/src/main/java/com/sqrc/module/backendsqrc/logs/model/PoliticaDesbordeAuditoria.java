@@ -0,0 +1,15 @@
+package com.sqrc.module.backendsqrc.logs.model;
+
+/**
+ * Qué hacer con un evento de auditoría cuando la cola del escritor está llena.
+ */
+public enum PoliticaDesbordeAuditoria {
+    /** Espera hasta un plazo corto a que haya lugar; si no, descarta el evento */
+    BLOQUEAR,
+
+    /** Desaloja el evento de menor nivel en cola (DEBUG, luego INFO...) o descarta el nuevo si es el menor */
+    DESCARTAR_MENOR_NIVEL,
+
+    /** Escribe el evento en un archivo NDJSON local que se reingresa cuando la cola se vacía */
+    DERRAMAR
+}
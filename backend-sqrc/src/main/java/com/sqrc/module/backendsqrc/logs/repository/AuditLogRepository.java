@@ -15,30 +15,12 @@ import java.util.List;
 
 /**
  * Repositorio para gestionar los logs de auditoría.
+ * audit_logs está particionada por mes sobre timestamp (V22): todas las consultas
+ * llevan rango de fechas para que MySQL lea solo las particiones del rango.
  */
 @Repository
 public interface AuditLogRepository extends JpaRepository<AuditLog, Long> {
 
-    /**
-     * Busca logs por categoría
-     */
-    List<AuditLog> findByCategoryOrderByTimestampDesc(LogCategory category);
-
-    /**
-     * Busca logs por nivel
-     */
-    List<AuditLog> findByLevelOrderByTimestampDesc(LogLevel level);
-
-    /**
-     * Busca logs por usuario
-     */
-    List<AuditLog> findByUserIdOrderByTimestampDesc(Long userId);
-
-    /**
-     * Busca logs por entidad
-     */
-    List<AuditLog> findByEntityTypeAndEntityIdOrderByTimestampDesc(String entityType, String entityId);
-
     /**
      * Busca logs en un rango de fechas
      */
@@ -65,22 +47,20 @@ public interface AuditLogRepository extends JpaRepository<AuditLog, Long> {
             @Param("since") LocalDateTime since);
 
     /**
-     * Busca logs por nivel con paginación
-     */
-    Page<AuditLog> findByLevelOrderByTimestampDesc(LogLevel level, Pageable pageable);
-
-    /**
-     * Busca logs por categoría con paginación
+     * Busca logs por nivel y rango de fechas con paginación
      */
-    Page<AuditLog> findByCategoryOrderByTimestampDesc(LogCategory category, Pageable pageable);
+    Page<AuditLog> findByLevelAndTimestampBetweenOrderByTimestampDesc(
+            LogLevel level, LocalDateTime start, LocalDateTime end, Pageable pageable);
 
     /**
-     * Busca logs por nivel y categoría con paginación
+     * Busca logs por categoría y rango de fechas con paginación
      */
-    Page<AuditLog> findByLevelAndCategoryOrderByTimestampDesc(LogLevel level, LogCategory category, Pageable pageable);
+    Page<AuditLog> findByCategoryAndTimestampBetweenOrderByTimestampDesc(
+            LogCategory category, LocalDateTime start, LocalDateTime end, Pageable pageable);
 
     /**
-     * Busca todos ordenados por timestamp descendente con paginación
+     * Busca logs por nivel, categoría y rango de fechas con paginación
      */
-    Page<AuditLog> findAllByOrderByTimestampDesc(Pageable pageable);
+    Page<AuditLog> findByLevelAndCategoryAndTimestampBetweenOrderByTimestampDesc(
+            LogLevel level, LogCategory category, LocalDateTime start, LocalDateTime end, Pageable pageable);
 }
@@ -0,0 +1,211 @@
+package com.sqrc.module.backendsqrc.logs.service;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sqrc.module.backendsqrc.logs.dto.AuditLogCursorResponse;
+import com.sqrc.module.backendsqrc.logs.model.AuditLog;
+import com.sqrc.module.backendsqrc.logs.model.LogCategory;
+import com.sqrc.module.backendsqrc.logs.model.LogLevel;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Service;
+
+import javax.sql.DataSource;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.Base64;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Navegación de audit_logs por cursor (timestamp, id).
+ *
+ * - Cada página es un rango sobre el índice que corresponde al filtro, siempre
+ *   terminado en (timestamp, id): no hay OFFSET ni COUNT(*), y la página 1000
+ *   cuesta lo mismo que la primera.
+ * - El WHERE se arma solo con los filtros presentes, para que el optimizador elija
+ *   el índice del filtro (nivel, categoría, usuario o clave de details).
+ * - ticketId, clienteId y articuloId usan las columnas generadas de V23. Con alguno
+ *   de ellos y sin startDate no se acota el inicio: se ve toda la historia retenida.
+ * - El total es opcional y aproximado: la estimación de filas de EXPLAIN.
+ */
+@Service
+@Slf4j
+public class AuditLogConsultaService {
+
+    private static final int LIMITE_MAXIMO = 200;
+
+    private static final String COLUMNAS = "a.id, a.`timestamp`, a.`level`, a.category, a.action, a.user_id, " +
+            "a.user_name, a.user_type, a.entity_type, a.entity_id, a.details, a.ip_address, a.user_agent, " +
+            "a.request_uri, a.http_method, a.response_status, a.duration_ms";
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+    private final ObjectMapper objectMapper;
+
+    @Value("${app.logs.consultaDiasPorDefecto:30}")
+    private int diasPorDefecto;
+
+    /**
+     * Filtros de la consulta; los null no se aplican.
+     */
+    public record Filtro(LogLevel level, LogCategory category, Long userId,
+                         Long ticketId, Long clienteId, Long articuloId,
+                         LocalDateTime desde, LocalDateTime hasta) {
+
+        boolean porDetalle() {
+            return ticketId != null || clienteId != null || articuloId != null;
+        }
+    }
+
+    private record Cursor(LocalDateTime timestamp, long id) {
+    }
+
+    public AuditLogConsultaService(@Qualifier("logsDataSource") DataSource logsDataSource, ObjectMapper objectMapper) {
+        this.jdbcTemplate = new NamedParameterJdbcTemplate(logsDataSource);
+        this.objectMapper = objectMapper;
+    }
+
+    /**
+     * @throws IllegalArgumentException si el cursor no es válido
+     */
+    public AuditLogCursorResponse buscar(Filtro filtro, String cursor, int limite, boolean conTotal) {
+        int tamanio = Math.min(Math.max(limite, 1), LIMITE_MAXIMO);
+        Cursor posicion = cursor != null && !cursor.isBlank() ? decodificar(cursor) : null;
+
+        LocalDateTime hasta = filtro.hasta() != null ? filtro.hasta() : LocalDateTime.now();
+        LocalDateTime desde = filtro.desde() != null || filtro.porDetalle()
+                ? filtro.desde()
+                : hasta.minusDays(diasPorDefecto);
+
+        MapSqlParameterSource params = new MapSqlParameterSource();
+        String where = armarWhere(filtro, desde, hasta, params);
+
+        Long totalAprox = conTotal && posicion == null ? estimarTotal(where, params) : null;
+
+        StringBuilder sql = new StringBuilder("SELECT ").append(COLUMNAS).append(" FROM audit_logs a").append(where);
+        if (posicion != null) {
+            sql.append(" AND (a.`timestamp` < :cursorTs OR (a.`timestamp` = :cursorTs AND a.id < :cursorId))");
+            params.addValue("cursorTs", Timestamp.valueOf(posicion.timestamp()));
+            params.addValue("cursorId", posicion.id());
+        }
+        sql.append(" ORDER BY a.`timestamp` DESC, a.id DESC LIMIT :limite");
+        params.addValue("limite", tamanio + 1);
+
+        List<AuditLog> filas = jdbcTemplate.query(sql.toString(), params, this::mapear);
+        boolean tieneSiguiente = filas.size() > tamanio;
+        List<AuditLog> pagina = tieneSiguiente ? filas.subList(0, tamanio) : filas;
+        AuditLog ultimo = pagina.isEmpty() ? null : pagina.get(pagina.size() - 1);
+
+        return AuditLogCursorResponse.builder()
+                .content(pagina)
+                .limite(tamanio)
+                .tieneSiguiente(tieneSiguiente)
+                .nextCursor(tieneSiguiente ? codificar(ultimo) : null)
+                .desde(desde)
+                .hasta(hasta)
+                .totalAprox(totalAprox)
+                .build();
+    }
+
+    // ==================== MÉTODOS AUXILIARES ====================
+
+    private static String armarWhere(Filtro filtro, LocalDateTime desde, LocalDateTime hasta,
+                                     MapSqlParameterSource params) {
+        StringBuilder where = new StringBuilder(" WHERE a.`timestamp` <= :hasta");
+        params.addValue("hasta", Timestamp.valueOf(hasta));
+        if (desde != null) {
+            where.append(" AND a.`timestamp` >= :desde");
+            params.addValue("desde", Timestamp.valueOf(desde));
+        }
+        agregar(where, params, "a.`level`", "level", filtro.level() != null ? filtro.level().name() : null);
+        agregar(where, params, "a.category", "category", filtro.category() != null ? filtro.category().name() : null);
+        agregar(where, params, "a.user_id", "userId", filtro.userId());
+        agregar(where, params, "a.detalle_ticket_id", "ticketId", filtro.ticketId());
+        agregar(where, params, "a.detalle_cliente_id", "clienteId", filtro.clienteId());
+        agregar(where, params, "a.detalle_articulo_id", "articuloId", filtro.articuloId());
+        return where.toString();
+    }
+
+    private static void agregar(StringBuilder where, MapSqlParameterSource params,
+                                String columna, String parametro, Object valor) {
+        if (valor != null) {
+            where.append(" AND ").append(columna).append(" = :").append(parametro);
+            params.addValue(parametro, valor);
+        }
+    }
+
+    /**
+     * Filas estimadas por el optimizador (rows × filtered) para el filtro sin cursor.
+     */
+    private Long estimarTotal(String where, MapSqlParameterSource params) {
+        try {
+            List<Long> estimaciones = jdbcTemplate.query("EXPLAIN SELECT a.id FROM audit_logs a" + where, params,
+                    (rs, i) -> Math.round(rs.getLong("rows") * rs.getDouble("filtered") / 100.0));
+            return estimaciones.isEmpty() ? 0L : estimaciones.get(0);
+        } catch (Exception e) {
+            log.debug("No se pudo estimar el total de audit_logs: {}", e.getMessage());
+            return null;
+        }
+    }
+
+    private AuditLog mapear(ResultSet rs, int fila) throws SQLException {
+        Timestamp timestamp = rs.getTimestamp("timestamp");
+        return AuditLog.builder()
+                .id(rs.getLong("id"))
+                .timestamp(timestamp != null ? timestamp.toLocalDateTime() : null)
+                .level(LogLevel.valueOf(rs.getString("level")))
+                .category(LogCategory.valueOf(rs.getString("category")))
+                .action(rs.getString("action"))
+                .userId(rs.getObject("user_id") != null ? rs.getLong("user_id") : null)
+                .userName(rs.getString("user_name"))
+                .userType(rs.getString("user_type"))
+                .entityType(rs.getString("entity_type"))
+                .entityId(rs.getString("entity_id"))
+                .details(aMapa(rs.getString("details")))
+                .ipAddress(rs.getString("ip_address"))
+                .userAgent(rs.getString("user_agent"))
+                .requestUri(rs.getString("request_uri"))
+                .httpMethod(rs.getString("http_method"))
+                .responseStatus(rs.getObject("response_status") != null ? rs.getInt("response_status") : null)
+                .durationMs(rs.getObject("duration_ms") != null ? rs.getLong("duration_ms") : null)
+                .build();
+    }
+
+    private Map<String, Object> aMapa(String json) {
+        if (json == null) {
+            return null;
+        }
+        try {
+            return objectMapper.readValue(json, new TypeReference<Map<String, Object>>() {
+            });
+        } catch (IOException e) {
+            return Map.of("raw", json);
+        }
+    }
+
+    /**
+     * Cursor opaco: "timestamp|id" en Base64 URL-safe.
+     */
+    private static String codificar(AuditLog ultimo) {
+        String valor = ultimo.getTimestamp() + "|" + ultimo.getId();
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(valor.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static Cursor decodificar(String cursor) {
+        try {
+            String valor = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            int separador = valor.lastIndexOf('|');
+            return new Cursor(LocalDateTime.parse(valor.substring(0, separador)),
+                    Long.parseLong(valor.substring(separador + 1)));
+        } catch (RuntimeException e) {
+            throw new IllegalArgumentException("Cursor inválido");
+        }
+    }
+}
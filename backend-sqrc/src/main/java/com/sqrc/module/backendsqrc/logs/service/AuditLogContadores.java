@@ -0,0 +1,227 @@
+package com.sqrc.module.backendsqrc.logs.service;
+
+import com.sqrc.module.backendsqrc.logs.model.AuditLog;
+import com.sqrc.module.backendsqrc.logs.model.LogCategory;
+import com.sqrc.module.backendsqrc.logs.model.LogLevel;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+
+import javax.sql.DataSource;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.time.temporal.ChronoUnit;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Contadores de audit_logs por nivel × categoría en cubetas de tiempo, para que
+ * /api/logs/stats no recorra el historial.
+ *
+ * - Cubetas por minuto para las últimas 24 h y por hora para los últimos 7 días,
+ *   en anillos fijos: la memoria y el costo de lectura no dependen del volumen de logs.
+ * - Se reconstruyen al arrancar con un único GROUP BY sobre los últimos 7 días y luego
+ *   los actualiza {@link AuditLogEscritor} con cada lote escrito.
+ * - Cada evento cuenta en la cubeta de su propio timestamp; los más viejos que el
+ *   anillo se ignoran.
+ *
+ * Solo ven las escrituras de esta instancia: con varias instancias cada una reporta
+ * lo reconstruido al arrancar más lo que escribió desde entonces.
+ */
+@Service
+@Slf4j
+public class AuditLogContadores {
+
+    private static final int MINUTOS = 24 * 60;
+    private static final int HORAS = 7 * 24;
+
+    private static final LogLevel[] NIVELES = LogLevel.values();
+    private static final LogCategory[] CATEGORIAS = LogCategory.values();
+
+    private final JdbcTemplate jdbcTemplate;
+
+    private final Cubeta[] porMinuto = crearAnillo(MINUTOS);
+    /** Una cubeta extra para la hora en curso */
+    private final Cubeta[] porHora = crearAnillo(HORAS + 1);
+    private final AtomicLong total = new AtomicLong();
+
+    /**
+     * Cuentas de un minuto u hora; {@code periodo} es el número de minuto/hora desde epoch.
+     * Se lee y escribe con el monitor de la cubeta, así una suma no cae en el periodo
+     * siguiente mientras otro hilo la vacía.
+     */
+    private static final class Cubeta {
+        private long periodo = -1;
+        private final long[] cuentas = new long[NIVELES.length * CATEGORIAS.length];
+    }
+
+    public AuditLogContadores(@Qualifier("logsDataSource") DataSource logsDataSource) {
+        this.jdbcTemplate = new JdbcTemplate(logsDataSource);
+    }
+
+    /**
+     * Se ejecuta antes de que el escritor arranque (depende de este bean), así ninguna
+     * fila se cuenta dos veces.
+     */
+    @PostConstruct
+    void reconstruir() {
+        long inicio = System.currentTimeMillis();
+        LocalDateTime desde = LocalDateTime.now().truncatedTo(ChronoUnit.HOURS).minusHours(HORAS);
+        try {
+            // [level, category, minuto desde "desde", cantidad]
+            List<Object[]> filas = jdbcTemplate.query(
+                    "SELECT `level`, category, TIMESTAMPDIFF(MINUTE, ?, `timestamp`) AS minuto, COUNT(*) " +
+                    "FROM audit_logs WHERE `timestamp` >= ? GROUP BY `level`, category, minuto",
+                    (rs, i) -> new Object[]{rs.getString(1), rs.getString(2), rs.getLong(3), rs.getLong(4)},
+                    Timestamp.valueOf(desde), Timestamp.valueOf(desde));
+            for (Object[] fila : filas) {
+                LogLevel level = aEnum(LogLevel.class, (String) fila[0]);
+                LogCategory category = aEnum(LogCategory.class, (String) fila[1]);
+                if (level != null && category != null) {
+                    sumar(desde.plusMinutes((Long) fila[2]), level, category, (Long) fila[3]);
+                }
+            }
+            Long filasTotales = jdbcTemplate.queryForObject("SELECT COUNT(*) FROM audit_logs", Long.class);
+            total.set(filasTotales != null ? filasTotales : 0L);
+            log.info("Contadores de auditoría reconstruidos: {} grupos de 7 días en {} ms",
+                    filas.size(), System.currentTimeMillis() - inicio);
+        } catch (Exception e) {
+            log.warn("No se pudieron reconstruir los contadores de auditoría, se parte de cero: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Cuenta un lote recién escrito en audit_logs.
+     */
+    public void registrar(List<AuditLog> lote) {
+        for (AuditLog evento : lote) {
+            if (evento.getLevel() != null && evento.getCategory() != null && evento.getTimestamp() != null) {
+                sumar(evento.getTimestamp(), evento.getLevel(), evento.getCategory(), 1);
+            }
+        }
+        total.addAndGet(lote.size());
+    }
+
+    /**
+     * Totales por nivel y por categoría en la ventana. Hasta 24 h la resolución es de
+     * un minuto; por encima, de una hora (la hora en curso más las completas, hasta 7 días).
+     */
+    public Map<String, Object> getVentana(Duration ventana) {
+        long[] cuentas = ventana.toMinutes() <= MINUTOS
+                ? sumarAnillo(porMinuto, minutoActual(), ventana.toMinutes())
+                : sumarAnillo(porHora, minutoActual() / 60, ventana.toHours() + 1);
+
+        Map<String, Long> porNivel = new LinkedHashMap<>();
+        Map<String, Long> porCategoria = new LinkedHashMap<>();
+        for (LogLevel level : NIVELES) {
+            porNivel.put(level.name(), 0L);
+        }
+        for (LogCategory category : CATEGORIAS) {
+            porCategoria.put(category.name(), 0L);
+        }
+        long suma = 0;
+        for (LogLevel level : NIVELES) {
+            for (LogCategory category : CATEGORIAS) {
+                long n = cuentas[indice(level, category)];
+                porNivel.merge(level.name(), n, Long::sum);
+                porCategoria.merge(category.name(), n, Long::sum);
+                suma += n;
+            }
+        }
+
+        Map<String, Object> resultado = new LinkedHashMap<>();
+        resultado.put("total", suma);
+        resultado.put("byLevel", porNivel);
+        resultado.put("byCategory", porCategoria);
+        return resultado;
+    }
+
+    /**
+     * Filas en audit_logs: el COUNT(*) del arranque más lo escrito desde entonces.
+     */
+    public long getTotal() {
+        return total.get();
+    }
+
+    // ==================== MÉTODOS AUXILIARES ====================
+
+    private void sumar(LocalDateTime timestamp, LogLevel level, LogCategory category, long cantidad) {
+        long ahora = minutoActual();
+        long minuto = Math.min(timestamp.toEpochSecond(ZoneOffset.UTC) / 60, ahora);
+        int indice = indice(level, category);
+        if (minuto > ahora - MINUTOS) {
+            sumarEn(porMinuto, minuto, indice, cantidad);
+        }
+        if (minuto / 60 > ahora / 60 - porHora.length) {
+            sumarEn(porHora, minuto / 60, indice, cantidad);
+        }
+    }
+
+    /**
+     * Suma en la cubeta del periodo; si la cubeta aún guarda un periodo anterior del
+     * anillo, la vacía primero.
+     */
+    private static void sumarEn(Cubeta[] anillo, long periodo, int indice, long cantidad) {
+        Cubeta cubeta = anillo[(int) (periodo % anillo.length)];
+        synchronized (cubeta) {
+            if (cubeta.periodo > periodo) {
+                return; // Evento más viejo que el anillo
+            }
+            if (cubeta.periodo < periodo) {
+                Arrays.fill(cubeta.cuentas, 0);
+                cubeta.periodo = periodo;
+            }
+            cubeta.cuentas[indice] += cantidad;
+        }
+    }
+
+    /**
+     * Suma las cubetas de los últimos {@code periodos} periodos hasta {@code actual} inclusive.
+     */
+    private static long[] sumarAnillo(Cubeta[] anillo, long actual, long periodos) {
+        long[] cuentas = new long[NIVELES.length * CATEGORIAS.length];
+        long desde = actual - Math.min(periodos, anillo.length) + 1;
+        for (long periodo = desde; periodo <= actual; periodo++) {
+            Cubeta cubeta = anillo[(int) (periodo % anillo.length)];
+            synchronized (cubeta) {
+                if (cubeta.periodo == periodo) {
+                    for (int i = 0; i < cuentas.length; i++) {
+                        cuentas[i] += cubeta.cuentas[i];
+                    }
+                }
+            }
+        }
+        return cuentas;
+    }
+
+    private static int indice(LogLevel level, LogCategory category) {
+        return level.ordinal() * CATEGORIAS.length + category.ordinal();
+    }
+
+    private static long minutoActual() {
+        return LocalDateTime.now().toEpochSecond(ZoneOffset.UTC) / 60;
+    }
+
+    private static Cubeta[] crearAnillo(int tamano) {
+        Cubeta[] anillo = new Cubeta[tamano];
+        for (int i = 0; i < tamano; i++) {
+            anillo[i] = new Cubeta();
+        }
+        return anillo;
+    }
+
+    private static <E extends Enum<E>> E aEnum(Class<E> tipo, String valor) {
+        try {
+            return valor != null ? Enum.valueOf(tipo, valor) : null;
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+    }
+}
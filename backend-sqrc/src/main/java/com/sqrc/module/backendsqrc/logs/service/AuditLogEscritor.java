@@ -0,0 +1,599 @@
+package com.sqrc.module.backendsqrc.logs.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sqrc.module.backendsqrc.logs.model.AuditLog;
+import com.sqrc.module.backendsqrc.logs.model.LogLevel;
+import com.sqrc.module.backendsqrc.logs.model.PoliticaDesbordeAuditoria;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.NonTransientDataAccessException;
+import org.springframework.dao.NonTransientDataAccessResourceException;
+import org.springframework.jdbc.BadSqlGrammarException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+
+import javax.sql.DataSource;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.*;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Stream;
+
+/**
+ * Escritor de audit_logs en lotes.
+ *
+ * - {@link #encolar} valida el evento, recorta los textos al largo de su columna y lo
+ *   deja en una cola acotada: el hilo de la petición no abre transacción ni conexión
+ *   a la BD de logs.
+ * - Hay una cola por nivel con una capacidad total común, así DESCARTAR_MENOR_NIVEL
+ *   desaloja en O(1) el evento más antiguo del nivel más bajo.
+ * - Un hilo dedicado vacía las colas cada {@code flushMs} o al juntar {@code tamanoLote}
+ *   eventos, con un único INSERT multi-fila por lote.
+ * - Con la cola llena se aplica la {@link PoliticaDesbordeAuditoria} configurada.
+ * - Si la BD rechaza un lote por sus datos, el lote se parte en mitades hasta aislar
+ *   las filas inválidas, que se descartan y se cuentan; el resto se escribe.
+ * - Un lote que sigue fallando tras los reintentos (BD caída) se derrama a disco si la
+ *   política es DERRAMAR; si no, se descarta y se cuenta.
+ *
+ * Cada lote escrito se suma a {@link AuditLogContadores}.
+ *
+ * El derrame es un archivo NDJSON local (una línea por evento) que el mismo hilo
+ * reingresa cuando la cola está vacía.
+ */
+@Service
+@Slf4j
+public class AuditLogEscritor {
+
+    private static final String ARCHIVO_DERRAME = "audit-derrame.ndjson";
+    private static final String SUFIJO_PROCESANDO = ".procesando";
+    private static final int REINTENTOS_LOTE = 3;
+
+    private static final String INSERT = "INSERT INTO audit_logs (`timestamp`, `level`, category, action, " +
+            "user_id, user_name, user_type, entity_type, entity_id, details, ip_address, user_agent, " +
+            "request_uri, http_method, response_status, duration_ms) VALUES ";
+    private static final String VALORES = "(?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+
+    /** De menor a mayor: orden de desalojo */
+    private static final LogLevel[] NIVELES_ASCENDENTES = {LogLevel.DEBUG, LogLevel.INFO, LogLevel.WARN, LogLevel.ERROR};
+
+    private final JdbcTemplate jdbcTemplate;
+    private final ObjectMapper objectMapper;
+    private final AuditLogContadores contadores;
+
+    @Value("${app.audit.capacidadCola:10000}")
+    private int capacidadCola;
+
+    @Value("${app.audit.tamanoLote:500}")
+    private int tamanoLote;
+
+    @Value("${app.audit.flushMs:20}")
+    private long flushMs;
+
+    @Value("${app.audit.politicaDesborde:DESCARTAR_MENOR_NIVEL}")
+    private PoliticaDesbordeAuditoria politica;
+
+    /** Espera máxima del hilo que encola con la política BLOQUEAR */
+    @Value("${app.audit.bloqueoMaxMs:50}")
+    private long bloqueoMaxMs;
+
+    @Value("${app.audit.derrameDir:${java.io.tmpdir}/sqrc-audit-derrame}")
+    private String derrameDir;
+
+    // Una cola por nivel; "lugares" acota el total y "listos" cuenta los eventos encolados
+    private final Map<LogLevel, Queue<AuditLog>> colas = new EnumMap<>(LogLevel.class);
+    private Semaphore lugares;
+    private final Semaphore listos = new Semaphore(0);
+    private Thread hilo;
+    private volatile boolean activo;
+
+    private final Object candadoDerrame = new Object();
+    private Path directorioDerrame;
+    private BufferedWriter escritorDerrame;
+    private volatile boolean hayDerrame;
+
+    private final AtomicLong encolados = new AtomicLong();
+    private final AtomicLong invalidos = new AtomicLong();
+    private final AtomicLong escritos = new AtomicLong();
+    private final AtomicLong lotes = new AtomicLong();
+    private final AtomicLong derramados = new AtomicLong();
+    private final AtomicLong reingresados = new AtomicLong();
+    private final AtomicLong perdidosPorError = new AtomicLong();
+    private final Map<LogLevel, AtomicLong> descartados = new EnumMap<>(LogLevel.class);
+
+    public AuditLogEscritor(@Qualifier("logsDataSource") DataSource logsDataSource, ObjectMapper objectMapper,
+                            AuditLogContadores contadores) {
+        this.jdbcTemplate = new JdbcTemplate(logsDataSource);
+        this.objectMapper = objectMapper;
+        this.contadores = contadores;
+        for (LogLevel level : LogLevel.values()) {
+            colas.put(level, new ConcurrentLinkedQueue<>());
+            descartados.put(level, new AtomicLong());
+        }
+    }
+
+    @PostConstruct
+    void iniciar() {
+        lugares = new Semaphore(capacidadCola);
+        directorioDerrame = Paths.get(derrameDir);
+        hayDerrame = existeDerrame();
+        activo = true;
+        hilo = new Thread(this::drenar, "audit-escritor");
+        hilo.setDaemon(true);
+        hilo.start();
+        log.info("Escritor de auditoría iniciado (cola {}, lote {}, flush {} ms, política {})",
+                capacidadCola, tamanoLote, flushMs, politica);
+    }
+
+    @PreDestroy
+    void detener() {
+        activo = false;
+        try {
+            hilo.join(10_000);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        synchronized (candadoDerrame) {
+            cerrarDerrame();
+        }
+        log.info("Escritor de auditoría detenido ({} eventos sin escribir)", enCola());
+    }
+
+    // ==================== ENCOLADO ====================
+
+    /**
+     * Deja el evento para escritura en lote. Nunca lanza excepción ni espera más de
+     * {@code bloqueoMaxMs}. Un evento sin nivel, categoría o acción se descarta y se cuenta.
+     */
+    public void encolar(AuditLog evento) {
+        if (!normalizar(evento)) {
+            long total = invalidos.incrementAndGet();
+            if (total == 1 || total % 1000 == 0) {
+                log.warn("Evento de auditoría sin nivel, categoría o acción descartado ({} en total)", total);
+            }
+            return;
+        }
+        encolados.incrementAndGet();
+        if (lugares.tryAcquire()) {
+            agregar(evento);
+            return;
+        }
+        switch (politica) {
+            case BLOQUEAR -> {
+                try {
+                    if (lugares.tryAcquire(bloqueoMaxMs, TimeUnit.MILLISECONDS)) {
+                        agregar(evento);
+                        return;
+                    }
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                descartar(evento);
+            }
+            case DESCARTAR_MENOR_NIVEL -> {
+                if (!reemplazarMenorNivel(evento)) {
+                    descartar(evento);
+                }
+            }
+            case DERRAMAR -> derramar(List.of(evento));
+        }
+    }
+
+    /**
+     * Métricas del escritor para monitoreo.
+     */
+    public Map<String, Object> getMetricas() {
+        Map<String, Long> porNivel = new LinkedHashMap<>();
+        descartados.forEach((level, contador) -> porNivel.put(level.name(), contador.get()));
+
+        Map<String, Object> metricas = new LinkedHashMap<>();
+        metricas.put("politica", politica);
+        metricas.put("enCola", enCola());
+        metricas.put("capacidadCola", capacidadCola);
+        metricas.put("encolados", encolados.get());
+        metricas.put("invalidos", invalidos.get());
+        metricas.put("escritos", escritos.get());
+        metricas.put("lotes", lotes.get());
+        metricas.put("descartados", porNivel);
+        metricas.put("derramados", derramados.get());
+        metricas.put("reingresados", reingresados.get());
+        metricas.put("perdidosPorError", perdidosPorError.get());
+        metricas.put("hayDerramePendiente", hayDerrame);
+        return metricas;
+    }
+
+    // ==================== DRENADO ====================
+
+    private void drenar() {
+        List<AuditLog> lote = new ArrayList<>(tamanoLote);
+        while (activo || enCola() > 0) {
+            try {
+                if (!listos.tryAcquire(flushMs, TimeUnit.MILLISECONDS)) {
+                    if (hayDerrame && activo) {
+                        reingresarDerrame();
+                    }
+                    continue;
+                }
+                tomar(lote, 1);
+                juntarLote(lote);
+                escribirOApartar(lote);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                activo = false;
+            } catch (Exception e) {
+                log.error("Error inesperado en el escritor de auditoría: {}", e.getMessage(), e);
+            } finally {
+                lote.clear();
+            }
+        }
+    }
+
+    /**
+     * Completa el lote hasta tamanoLote o hasta que pasen flushMs desde el primer evento.
+     */
+    private void juntarLote(List<AuditLog> lote) throws InterruptedException {
+        long limite = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(flushMs);
+        while (lote.size() < tamanoLote) {
+            int disponibles = Math.min(listos.availablePermits(), tamanoLote - lote.size());
+            if (disponibles > 0 && listos.tryAcquire(disponibles)) {
+                tomar(lote, disponibles);
+                continue;
+            }
+            long resta = limite - System.nanoTime();
+            if (resta <= 0 || !activo || !listos.tryAcquire(resta, TimeUnit.NANOSECONDS)) {
+                return;
+            }
+            tomar(lote, 1);
+        }
+    }
+
+    /**
+     * Saca {@code cantidad} eventos ya contados en {@code listos}, de mayor a menor nivel,
+     * y libera sus lugares.
+     */
+    private void tomar(List<AuditLog> lote, int cantidad) {
+        int tomados = 0;
+        while (tomados < cantidad) {
+            for (int i = NIVELES_ASCENDENTES.length - 1; i >= 0 && tomados < cantidad; i--) {
+                Queue<AuditLog> cola = colas.get(NIVELES_ASCENDENTES[i]);
+                AuditLog evento;
+                while (tomados < cantidad && (evento = cola.poll()) != null) {
+                    lote.add(evento);
+                    tomados++;
+                }
+            }
+            if (tomados < cantidad) {
+                Thread.yield(); // Un reemplazo a medias: su evento nuevo aparece enseguida
+            }
+        }
+        lugares.release(cantidad);
+    }
+
+    private void escribirOApartar(List<AuditLog> lote) {
+        List<AuditLog> noEscritos = escribir(lote);
+        if (noEscritos.isEmpty()) {
+            return;
+        }
+        if (politica == PoliticaDesbordeAuditoria.DERRAMAR) {
+            derramar(noEscritos);
+        } else {
+            perdidosPorError.addAndGet(noEscritos.size());
+            log.error("Se descartan {} eventos de auditoría tras {} intentos fallidos", noEscritos.size(), REINTENTOS_LOTE);
+        }
+    }
+
+    /**
+     * Escribe el lote con reintentos. Si la BD lo rechaza por sus datos no se reintenta:
+     * se parte en mitades hasta aislar y descartar las filas rechazadas.
+     *
+     * @return Eventos no escritos porque la BD siguió fallando tras los reintentos
+     */
+    private List<AuditLog> escribir(List<AuditLog> lote) {
+        for (int intento = 1; ; intento++) {
+            try {
+                insertar(lote);
+                return List.of();
+            } catch (Exception e) {
+                if (esErrorDeDatos(e)) {
+                    return partirYEscribir(lote, e);
+                }
+                log.warn("Fallo al escribir lote de auditoría ({} eventos, intento {}/{}): {}",
+                        lote.size(), intento, REINTENTOS_LOTE, e.getMessage());
+                if (intento >= REINTENTOS_LOTE || !dormir(100L << (intento - 1))) {
+                    return lote;
+                }
+            }
+        }
+    }
+
+    private List<AuditLog> partirYEscribir(List<AuditLog> lote, Exception error) {
+        if (lote.size() == 1) {
+            AuditLog evento = lote.get(0);
+            perdidosPorError.incrementAndGet();
+            log.error("Evento de auditoría rechazado por la BD y descartado ({} {} {}): {}",
+                    evento.getLevel(), evento.getCategory(), evento.getAction(), error.getMessage());
+            return List.of();
+        }
+        int mitad = lote.size() / 2;
+        List<AuditLog> noEscritos = new ArrayList<>(escribir(lote.subList(0, mitad)));
+        noEscritos.addAll(escribir(lote.subList(mitad, lote.size())));
+        return noEscritos;
+    }
+
+    /**
+     * Errores de las propias filas (restricción, dato fuera de rango, JSON inválido), que
+     * reintentar no arregla. No incluye la falta de conexión ni un SQL mal formado.
+     */
+    private static boolean esErrorDeDatos(Exception e) {
+        return e instanceof NonTransientDataAccessException
+                && !(e instanceof NonTransientDataAccessResourceException)
+                && !(e instanceof BadSqlGrammarException);
+    }
+
+    /**
+     * Un INSERT multi-fila por lote: una sola ida y vuelta aunque el driver no reescriba lotes.
+     */
+    private void insertar(List<AuditLog> lote) {
+        StringBuilder sql = new StringBuilder(INSERT.length() + lote.size() * (VALORES.length() + 1)).append(INSERT);
+        List<Object> parametros = new ArrayList<>(lote.size() * 16);
+        for (int i = 0; i < lote.size(); i++) {
+            AuditLog e = lote.get(i);
+            sql.append(i == 0 ? "" : ",").append(VALORES);
+            parametros.add(Timestamp.valueOf(e.getTimestamp()));
+            parametros.add(e.getLevel().name());
+            parametros.add(e.getCategory().name());
+            parametros.add(e.getAction());
+            parametros.add(e.getUserId());
+            parametros.add(e.getUserName());
+            parametros.add(e.getUserType());
+            parametros.add(e.getEntityType());
+            parametros.add(e.getEntityId());
+            parametros.add(aJson(e.getDetails()));
+            parametros.add(e.getIpAddress());
+            parametros.add(e.getUserAgent());
+            parametros.add(e.getRequestUri());
+            parametros.add(e.getHttpMethod());
+            parametros.add(e.getResponseStatus());
+            parametros.add(e.getDurationMs());
+        }
+        jdbcTemplate.update(sql.toString(), parametros.toArray());
+        escritos.addAndGet(lote.size());
+        lotes.incrementAndGet();
+        contadores.registrar(lote);
+    }
+
+    // ==================== DESBORDE ====================
+
+    private void agregar(AuditLog evento) {
+        colas.get(evento.getLevel()).add(evento);
+        listos.release();
+    }
+
+    /**
+     * Con la cola llena, el evento ocupa el lugar del más antiguo de un nivel menor.
+     * Se desaloja antes de agregar, así el escritor nunca toma más eventos de los contados.
+     *
+     * @return false si no hay eventos de menor nivel que desalojar
+     */
+    private boolean reemplazarMenorNivel(AuditLog evento) {
+        for (LogLevel menor : NIVELES_ASCENDENTES) {
+            if (rango(menor) >= rango(evento.getLevel())) {
+                return false;
+            }
+            if (colas.get(menor).poll() != null) {
+                colas.get(evento.getLevel()).add(evento);
+                descartados.get(menor).incrementAndGet();
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private void descartar(AuditLog evento) {
+        long total = descartados.get(evento.getLevel()).incrementAndGet();
+        if (total == 1 || total % 1000 == 0) {
+            log.warn("Cola de auditoría llena ({}): {} eventos {} descartados", capacidadCola, total, evento.getLevel());
+        }
+    }
+
+    private int enCola() {
+        return listos.availablePermits();
+    }
+
+    /** DEBUG < INFO < WARN < ERROR */
+    private static int rango(LogLevel level) {
+        return switch (level) {
+            case DEBUG -> 0;
+            case INFO -> 1;
+            case WARN -> 2;
+            case ERROR -> 3;
+        };
+    }
+
+    // ==================== DERRAME A DISCO ====================
+
+    private void derramar(List<AuditLog> eventos) {
+        synchronized (candadoDerrame) {
+            try {
+                if (escritorDerrame == null) {
+                    Files.createDirectories(directorioDerrame);
+                    escritorDerrame = Files.newBufferedWriter(directorioDerrame.resolve(ARCHIVO_DERRAME),
+                            StandardCharsets.UTF_8, StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+                }
+                for (AuditLog e : eventos) {
+                    escritorDerrame.write(objectMapper.writeValueAsString(e));
+                    escritorDerrame.newLine();
+                }
+                escritorDerrame.flush();
+                derramados.addAndGet(eventos.size());
+                hayDerrame = true;
+            } catch (IOException e) {
+                eventos.forEach(this::descartar);
+                log.error("No se pudo derramar auditoría a {}: {}", directorioDerrame, e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * Reingresa los archivos derramados, de a un lote. Las filas que la BD rechaza se
+     * descartan. Si la BD falla, lo no escrito de ese lote y el resto del archivo quedan
+     * para el próximo intento, sin duplicar lo ya escrito.
+     */
+    private void reingresarDerrame() {
+        try {
+            Path archivo = siguienteArchivoDerrame();
+            if (archivo == null) {
+                hayDerrame = false;
+                return;
+            }
+            List<String> pendientes;
+            try (Stream<String> lineas = Files.lines(archivo, StandardCharsets.UTF_8)) {
+                pendientes = lineas.filter(l -> !l.isBlank()).toList();
+            }
+            int desde = 0;
+            List<AuditLog> noEscritos = List.of();
+            while (desde < pendientes.size() && noEscritos.isEmpty() && activo) {
+                List<String> lineas = pendientes.subList(desde, Math.min(desde + tamanoLote, pendientes.size()));
+                List<AuditLog> lote = new ArrayList<>(lineas.size());
+                for (String linea : lineas) {
+                    try {
+                        AuditLog evento = objectMapper.readValue(linea, AuditLog.class);
+                        if (normalizar(evento)) {
+                            lote.add(evento);
+                        } else {
+                            invalidos.incrementAndGet();
+                        }
+                    } catch (IOException e) {
+                        perdidosPorError.incrementAndGet();
+                        log.warn("Línea de derrame de auditoría ilegible descartada: {}", e.getMessage());
+                    }
+                }
+                desde += lineas.size();
+                noEscritos = lote.isEmpty() ? List.of() : escribir(lote);
+                reingresados.addAndGet(lote.size() - noEscritos.size());
+            }
+            if (desde >= pendientes.size() && noEscritos.isEmpty()) {
+                Files.deleteIfExists(archivo);
+            } else {
+                List<String> resto = new ArrayList<>(noEscritos.size() + pendientes.size() - desde);
+                for (AuditLog evento : noEscritos) {
+                    resto.add(objectMapper.writeValueAsString(evento));
+                }
+                resto.addAll(pendientes.subList(desde, pendientes.size()));
+                Files.write(archivo, resto, StandardCharsets.UTF_8);
+            }
+        } catch (IOException e) {
+            log.error("No se pudo reingresar el derrame de auditoría: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Primero los archivos ya apartados; si no hay, aparta el archivo de derrame actual
+     * para que los nuevos derrames vayan a uno nuevo.
+     */
+    private Path siguienteArchivoDerrame() throws IOException {
+        if (!Files.isDirectory(directorioDerrame)) {
+            return null;
+        }
+        try (Stream<Path> archivos = Files.list(directorioDerrame)) {
+            Optional<Path> apartado = archivos
+                    .filter(p -> p.getFileName().toString().endsWith(SUFIJO_PROCESANDO))
+                    .sorted()
+                    .findFirst();
+            if (apartado.isPresent()) {
+                return apartado.get();
+            }
+        }
+        synchronized (candadoDerrame) {
+            Path actual = directorioDerrame.resolve(ARCHIVO_DERRAME);
+            if (!Files.exists(actual)) {
+                return null;
+            }
+            cerrarDerrame();
+            return Files.move(actual, directorioDerrame.resolve(
+                    "audit-derrame-" + System.currentTimeMillis() + ".ndjson" + SUFIJO_PROCESANDO));
+        }
+    }
+
+    private boolean existeDerrame() {
+        if (!Files.isDirectory(directorioDerrame)) {
+            return false;
+        }
+        try (Stream<Path> archivos = Files.list(directorioDerrame)) {
+            return archivos.findAny().isPresent();
+        } catch (IOException e) {
+            return false;
+        }
+    }
+
+    private void cerrarDerrame() {
+        if (escritorDerrame != null) {
+            try {
+                escritorDerrame.close();
+            } catch (IOException ignored) {
+                // Se reabre en el próximo derrame
+            }
+            escritorDerrame = null;
+        }
+    }
+
+    // ==================== MÉTODOS AUXILIARES ====================
+
+    /**
+     * Completa el timestamp y recorta los textos al largo de su columna en audit_logs.
+     *
+     * @return false si falta un campo obligatorio (nivel, categoría o acción)
+     */
+    private static boolean normalizar(AuditLog e) {
+        if (e == null || e.getLevel() == null || e.getCategory() == null || e.getAction() == null) {
+            return false;
+        }
+        if (e.getTimestamp() == null) {
+            e.setTimestamp(LocalDateTime.now());
+        }
+        e.setAction(recortar(e.getAction(), 100));
+        e.setUserName(recortar(e.getUserName(), 100));
+        e.setUserType(recortar(e.getUserType(), 30));
+        e.setEntityType(recortar(e.getEntityType(), 50));
+        e.setEntityId(recortar(e.getEntityId(), 50));
+        e.setIpAddress(recortar(e.getIpAddress(), 45));
+        e.setUserAgent(recortar(e.getUserAgent(), 500));
+        e.setRequestUri(recortar(e.getRequestUri(), 500));
+        e.setHttpMethod(recortar(e.getHttpMethod(), 10));
+        return true;
+    }
+
+    private static String recortar(String valor, int largo) {
+        return valor != null && valor.length() > largo ? valor.substring(0, largo) : valor;
+    }
+
+    private String aJson(Map<String, Object> details) {
+        if (details == null) {
+            return null;
+        }
+        try {
+            return objectMapper.writeValueAsString(details);
+        } catch (IOException e) {
+            return null;
+        }
+    }
+
+    private static boolean dormir(long ms) {
+        try {
+            Thread.sleep(ms);
+            return true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+}
@@ -1,5 +1,6 @@
 package com.sqrc.module.backendsqrc.logs.service;
 
+import com.sqrc.module.backendsqrc.ejecucion.config.EjecutorNombres;
 import com.sqrc.module.backendsqrc.logs.model.*;
 import com.sqrc.module.backendsqrc.logs.repository.*;
 import jakarta.servlet.http.HttpServletRequest;
@@ -26,7 +27,7 @@ import java.util.Map;
 @Slf4j
 public class AuditLogService {
 
-    private final AuditLogRepository auditLogRepository;
+    private final AuditLogEscritor auditLogEscritor;
     private final TicketWorkflowLogRepository ticketWorkflowLogRepository;
     private final ErrorLogRepository errorLogRepository;
     private final IntegrationLogRepository integrationLogRepository;
@@ -35,9 +36,9 @@ public class AuditLogService {
 
     /**
      * Registra un log de auditoría general.
+     * El evento se arma en el hilo que llama (con los datos de la petición actual) y se
+     * entrega a {@link AuditLogEscritor}, que lo escribe en lote sin bloquear la petición.
      */
-    @Async
-    @Transactional("logsTransactionManager")
     public void logAudit(LogLevel level, LogCategory category, String action,
                          Long userId, String userName, String userType,
                          String entityType, String entityId,
@@ -62,28 +63,24 @@ public class AuditLogService {
                     .httpMethod(request != null ? request.getMethod() : null)
                     .build();
 
-            auditLogRepository.save(auditLog);
-            log.debug("Audit log guardado: {} - {} - {}", category, action, entityId);
+            auditLogEscritor.encolar(auditLog);
+            log.debug("Audit log encolado: {} - {} - {}", category, action, entityId);
         } catch (Exception e) {
-            log.error("Error al guardar audit log: {}", e.getMessage());
+            log.error("Error al encolar audit log: {}", e.getMessage());
         }
     }
 
     /**
      * Versión simplificada para logs sin usuario específico.
      */
-    @Async
-    @Transactional("logsTransactionManager")
     public void logAudit(LogLevel level, LogCategory category, String action,
                          String entityType, String entityId, Map<String, Object> details) {
         logAudit(level, category, action, null, null, null, entityType, entityId, details);
     }
 
     /**
-     * Versión que recibe información HTTP pre-capturada (para uso desde Aspects donde @Async pierde el contexto).
+     * Versión que recibe información HTTP pre-capturada (para uso desde Aspects).
      */
-    @Async
-    @Transactional("logsTransactionManager")
     public void logAuditWithHttpInfo(LogLevel level, LogCategory category, String action,
                          String entityType, String entityId, Map<String, Object> details,
                          String ipAddress, String userAgent, String requestUri, String httpMethod) {
@@ -102,18 +99,16 @@ public class AuditLogService {
                     .httpMethod(httpMethod)
                     .build();
 
-            auditLogRepository.save(auditLog);
-            log.debug("Audit log con HTTP info guardado: {} - {} - {}", category, action, entityId);
+            auditLogEscritor.encolar(auditLog);
+            log.debug("Audit log con HTTP info encolado: {} - {} - {}", category, action, entityId);
         } catch (Exception e) {
-            log.error("Error al guardar audit log con HTTP info: {}", e.getMessage());
+            log.error("Error al encolar audit log con HTTP info: {}", e.getMessage());
         }
     }
 
     /**
      * Registra un log de auditoría con métricas (status, duration).
      */
-    @Async
-    @Transactional("logsTransactionManager")
     public void logAuditWithMetrics(LogLevel level, LogCategory category, String action,
                          Long userId, String userName, String userType,
                          String entityType, String entityId,
@@ -140,10 +135,10 @@ public class AuditLogService {
                     .durationMs(durationMs)
                     .build();
 
-            auditLogRepository.save(auditLog);
-            log.debug("Audit log con métricas guardado: {} - {} - {}", category, action, entityId);
+            auditLogEscritor.encolar(auditLog);
+            log.debug("Audit log con métricas encolado: {} - {} - {}", category, action, entityId);
         } catch (Exception e) {
-            log.error("Error al guardar audit log con métricas: {}", e.getMessage());
+            log.error("Error al encolar audit log con métricas: {}", e.getMessage());
         }
     }
 
@@ -247,7 +242,7 @@ public class AuditLogService {
     /**
      * Registra escalamiento de ticket.
      */
-    @Async
+    @Async(EjecutorNombres.AUDITORIA)
     @Transactional("logsTransactionManager")
     public void logTicketEscalamiento(Long ticketId, Long agenteId, String agenteNombre,
                                        Long backofficeId, String backofficeNombre,
@@ -281,7 +276,7 @@ public class AuditLogService {
     /**
      * Registra derivación de ticket.
      */
-    @Async
+    @Async(EjecutorNombres.AUDITORIA)
     @Transactional("logsTransactionManager")
     public void logTicketDerivacion(Long ticketId, Long backofficeId, String backofficeNombre,
                                      Long areaDestinoId, String areaDestinoNombre,
@@ -314,7 +309,7 @@ public class AuditLogService {
     /**
      * Registra cierre de ticket.
      */
-    @Async
+    @Async(EjecutorNombres.AUDITORIA)
     @Transactional("logsTransactionManager")
     public void logTicketCierre(Long ticketId, Long empleadoId, String empleadoNombre,
                                  String estadoAnterior, Long tiempoResolucionMinutos) {
@@ -343,7 +338,7 @@ public class AuditLogService {
     /**
      * Registra rechazo de escalamiento.
      */
-    @Async
+    @Async(EjecutorNombres.AUDITORIA)
     @Transactional("logsTransactionManager")
     public void logTicketRechazoEscalamiento(Long ticketId, Long backofficeId, String backofficeNombre,
                                               Long agenteId, String agenteNombre,
@@ -377,7 +372,7 @@ public class AuditLogService {
     /**
      * Registra respuesta externa.
      */
-    @Async
+    @Async(EjecutorNombres.AUDITORIA)
     @Transactional("logsTransactionManager")
     public void logTicketRespuestaExterna(Long ticketId, String areaExterna, 
                                            boolean solucionado, String estadoNuevo) {
@@ -504,7 +499,7 @@ public class AuditLogService {
     /**
      * Registra un error en la base de datos de logs.
      */
-    @Async
+    @Async(EjecutorNombres.AUDITORIA)
     @Transactional("logsTransactionManager")
     public void logError(Exception exception, String requestUri, String httpMethod,
                          Long userId, String userName, String requestBody, String correlationId) {
@@ -576,7 +571,7 @@ public class AuditLogService {
     /**
      * Registra llamada a servicio externo (versión básica).
      */
-    @Async
+    @Async(EjecutorNombres.AUDITORIA)
     @Transactional("logsTransactionManager")
     public void logIntegration(String serviceName, String operation, String requestUrl,
                                 String requestMethod, Integer responseStatus, Long durationMs,
@@ -588,7 +583,7 @@ public class AuditLogService {
     /**
      * Registra llamada a servicio externo con payloads completos.
      */
-    @Async
+    @Async(EjecutorNombres.AUDITORIA)
     @Transactional("logsTransactionManager")
     public void logIntegrationFull(String serviceName, String operation, String requestUrl,
                                 String requestMethod, Integer responseStatus, Long durationMs,
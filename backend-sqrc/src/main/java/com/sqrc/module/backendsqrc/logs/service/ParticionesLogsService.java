@@ -0,0 +1,379 @@
+package com.sqrc.module.backendsqrc.logs.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Service;
+
+import javax.sql.DataSource;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+import java.util.*;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.regex.Pattern;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Mantenimiento de las particiones mensuales de las tablas de logs (V22).
+ *
+ * - Crea por adelantado las particiones de los próximos meses dividiendo pmax
+ *   (vacía, así que REORGANIZE no mueve filas).
+ * - Retención: cada mes vencido se saca de la tabla con EXCHANGE PARTITION hacia una
+ *   tabla de archivo y DROP PARTITION. Ambas son operaciones de metadatos: no hay
+ *   DELETE masivo ni bloqueo largo sobre la tabla viva.
+ * - La tabla de archivo se exporta a NDJSON comprimido con gzip en disco local y luego
+ *   se borra. Si el proceso se corta, las tablas de archivo que quedaron se exportan
+ *   en la siguiente corrida.
+ *
+ * Si una tabla no está particionada (V22 sin aplicar) se omite con un aviso.
+ *
+ * Cada corrida toma GET_LOCK en una conexión que retiene hasta el final: entre varias
+ * instancias solo una mantiene las particiones, y si el proceso muere MySQL libera el
+ * lock al cerrarse la conexión. El trabajo corre en un hilo propio; el cron solo lo
+ * encola, así una exportación larga no ocupa el hilo compartido de @Scheduled.
+ */
+@Service
+@Slf4j
+public class ParticionesLogsService {
+
+    static final List<String> TABLAS = List.of("audit_logs", "error_logs", "integration_logs", "ticket_workflow_logs");
+
+    private static final String PARTICION_MAXIMA = "pmax";
+    private static final String INFIJO_ARCHIVO = "_archivo_";
+    private static final Pattern NOMBRE_PARTICION = Pattern.compile("p[0-9a-z_]+");
+    private static final DateTimeFormatter FORMATO_PARTICION = DateTimeFormatter.ofPattern("'p'yyyyMM");
+    private static final String NOMBRE_LOCK = "sqrc.logs.particiones";
+
+    private final DataSource logsDataSource;
+    private final JdbcTemplate jdbcTemplate;
+    /** Lee la tabla de archivo en streaming (fetch size MIN_VALUE en Connector/J) */
+    private final JdbcTemplate jdbcStreaming;
+    private final ObjectMapper objectMapper;
+
+    /** Meses futuros que deben tener su partición creada */
+    @Value("${app.logs.particiones.mesesAdelante:3}")
+    private int mesesAdelante;
+
+    /** Meses completos que se conservan además del mes en curso */
+    @Value("${app.logs.retencionMeses:12}")
+    private int retencionMeses;
+
+    @Value("${app.logs.archivo.dir:archivo-logs}")
+    private String directorioArchivo;
+
+    private ThreadPoolTaskExecutor executor;
+
+    private record Particion(String nombre, LocalDate hasta, long filasAprox) {
+    }
+
+    public ParticionesLogsService(@Qualifier("logsDataSource") DataSource logsDataSource, ObjectMapper objectMapper) {
+        this.logsDataSource = logsDataSource;
+        this.jdbcTemplate = new JdbcTemplate(logsDataSource);
+        this.jdbcStreaming = new JdbcTemplate(logsDataSource);
+        this.jdbcStreaming.setFetchSize(Integer.MIN_VALUE);
+        this.objectMapper = objectMapper;
+    }
+
+    @PostConstruct
+    void iniciar() {
+        // Una corrida a la vez y a lo sumo una en espera
+        executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(1);
+        executor.setMaxPoolSize(1);
+        executor.setQueueCapacity(1);
+        executor.setThreadNamePrefix("particiones-logs-");
+        executor.initialize();
+    }
+
+    @PreDestroy
+    void detener() {
+        executor.shutdown();
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void alIniciar() {
+        programar();
+    }
+
+    /**
+     * Encola una corrida de mantenimiento en el hilo propio.
+     */
+    @Scheduled(cron = "${app.logs.particiones.cron:0 30 3 * * *}")
+    public void programar() {
+        try {
+            executor.execute(this::mantener);
+        } catch (TaskRejectedException e) {
+            log.debug("Mantenimiento de particiones ya en curso y otro en espera; se omite");
+        }
+    }
+
+    /**
+     * Crea las particiones futuras y archiva las vencidas, tabla por tabla, si esta
+     * instancia obtiene el lock; si otra lo tiene, no hace nada.
+     */
+    public void mantener() {
+        try (Connection conexion = logsDataSource.getConnection()) {
+            if (!tomarLock(conexion)) {
+                log.info("Mantenimiento de particiones en curso en otra instancia; se omite");
+                return;
+            }
+            try {
+                mantenerTablas();
+            } finally {
+                liberarLock(conexion);
+            }
+        } catch (SQLException e) {
+            log.error("No se pudo tomar el lock de mantenimiento de particiones: {}", e.getMessage());
+        }
+    }
+
+    private void mantenerTablas() {
+        LocalDate mesActual = LocalDate.now().withDayOfMonth(1);
+        for (String tabla : TABLAS) {
+            try {
+                List<Particion> particiones = listarParticiones(tabla);
+                if (particiones.isEmpty()) {
+                    log.warn("{} no está particionada; aplicar V22 para habilitar la retención por meses", tabla);
+                    continue;
+                }
+                crearParticionesFuturas(tabla, particiones, mesActual.plusMonths(mesesAdelante + 1L));
+                exportarPendientes(tabla);
+                archivarVencidas(tabla, particiones, mesActual.minusMonths(retencionMeses));
+            } catch (Exception e) {
+                log.error("Error en el mantenimiento de particiones de {}: {}", tabla, e.getMessage(), e);
+            }
+        }
+    }
+
+    /**
+     * Particiones por tabla con su límite superior y filas estimadas, para monitoreo.
+     */
+    public Map<String, Object> getEstado() {
+        Map<String, Object> estado = new LinkedHashMap<>();
+        for (String tabla : TABLAS) {
+            List<Map<String, Object>> particiones = new ArrayList<>();
+            for (Particion p : listarParticiones(tabla)) {
+                Map<String, Object> fila = new LinkedHashMap<>();
+                fila.put("particion", p.nombre());
+                fila.put("hasta", p.hasta());
+                fila.put("filasAprox", p.filasAprox());
+                particiones.add(fila);
+            }
+            estado.put(tabla, particiones);
+        }
+        Map<String, Object> resultado = new LinkedHashMap<>();
+        resultado.put("retencionMeses", retencionMeses);
+        resultado.put("mesesAdelante", mesesAdelante);
+        resultado.put("directorioArchivo", Paths.get(directorioArchivo).toAbsolutePath().toString());
+        resultado.put("tablas", estado);
+        return resultado;
+    }
+
+    // ==================== PARTICIONES FUTURAS ====================
+
+    private void crearParticionesFuturas(String tabla, List<Particion> particiones, LocalDate objetivo) {
+        LocalDate ultimo = particiones.stream()
+                .map(Particion::hasta)
+                .filter(Objects::nonNull)
+                .max(Comparator.naturalOrder())
+                .orElse(null);
+        if (ultimo == null || !ultimo.isBefore(objetivo)) {
+            return;
+        }
+
+        List<String> nuevas = new ArrayList<>();
+        for (LocalDate mes = ultimo; mes.isBefore(objetivo); mes = mes.plusMonths(1)) {
+            nuevas.add("PARTITION " + mes.format(FORMATO_PARTICION) +
+                    " VALUES LESS THAN ('" + mes.plusMonths(1) + "')");
+        }
+        boolean conMaxima = particiones.stream().anyMatch(p -> p.nombre().equals(PARTICION_MAXIMA));
+        String ddl = conMaxima
+                ? "ALTER TABLE " + tabla + " REORGANIZE PARTITION " + PARTICION_MAXIMA + " INTO (" +
+                  String.join(", ", nuevas) + ", PARTITION " + PARTICION_MAXIMA + " VALUES LESS THAN (MAXVALUE))"
+                : "ALTER TABLE " + tabla + " ADD PARTITION (" + String.join(", ", nuevas) + ")";
+        jdbcTemplate.execute(ddl);
+        log.info("{}: {} particiones mensuales creadas hasta {}", tabla, nuevas.size(), objetivo);
+    }
+
+    // ==================== RETENCIÓN ====================
+
+    private void archivarVencidas(String tabla, List<Particion> particiones, LocalDate corte) {
+        for (Particion p : particiones) {
+            if (p.hasta() == null || p.hasta().isAfter(corte)) {
+                continue;
+            }
+            String archivo = tabla + INFIJO_ARCHIVO + p.nombre();
+            if (existeTabla(archivo)) {
+                // Exportación pendiente que falló en esta corrida: no pisar sus filas
+                log.warn("{}: {} sigue pendiente de exportar, la partición {} se archiva en la próxima corrida",
+                        tabla, archivo, p.nombre());
+                continue;
+            }
+            long inicio = System.currentTimeMillis();
+
+            jdbcTemplate.execute("CREATE TABLE " + archivo + " LIKE " + tabla);
+            jdbcTemplate.execute("ALTER TABLE " + archivo + " REMOVE PARTITIONING");
+            jdbcTemplate.execute("ALTER TABLE " + tabla + " EXCHANGE PARTITION " + p.nombre() + " WITH TABLE " + archivo);
+            jdbcTemplate.execute("ALTER TABLE " + tabla + " DROP PARTITION " + p.nombre());
+            log.info("{}: partición {} (hasta {}) separada en {} ms", tabla, p.nombre(), p.hasta(),
+                    System.currentTimeMillis() - inicio);
+
+            exportarYBorrar(tabla, archivo);
+        }
+    }
+
+    /**
+     * Tablas de archivo que quedaron de una corrida interrumpida.
+     */
+    private void exportarPendientes(String tabla) {
+        List<String> pendientes = jdbcTemplate.queryForList(
+                "SELECT TABLE_NAME FROM information_schema.TABLES " +
+                "WHERE TABLE_SCHEMA = DATABASE() AND TABLE_NAME LIKE ?",
+                String.class, tabla.replace("_", "\\_") + INFIJO_ARCHIVO.replace("_", "\\_") + "%");
+        for (String archivo : pendientes) {
+            log.info("{}: exportando tabla de archivo pendiente {}", tabla, archivo);
+            exportarYBorrar(tabla, archivo);
+        }
+    }
+
+    /**
+     * Exporta la tabla de archivo a {dir}/{tabla}/{archivo}.ndjson.gz y la borra. El
+     * archivo se escribe con otro nombre y se renombra al terminar: un .ndjson.gz
+     * existente siempre está completo.
+     */
+    private void exportarYBorrar(String tabla, String archivo) {
+        String particion = archivo.substring((tabla + INFIJO_ARCHIVO).length());
+        if (!NOMBRE_PARTICION.matcher(particion).matches()) {
+            log.warn("Tabla de archivo con nombre inesperado, se omite: {}", archivo);
+            return;
+        }
+        long inicio = System.currentTimeMillis();
+        try {
+            Path carpeta = Paths.get(directorioArchivo, tabla);
+            Files.createDirectories(carpeta);
+            Path destino = carpeta.resolve(tabla + "-" + particion + ".ndjson.gz");
+            if (Files.exists(destino)) {
+                destino = carpeta.resolve(tabla + "-" + particion + "-" + System.currentTimeMillis() + ".ndjson.gz");
+            }
+            Path temporal = carpeta.resolve(destino.getFileName() + ".tmp");
+
+            long filas = exportar(archivo, temporal);
+            if (filas > 0) {
+                Files.move(temporal, destino, StandardCopyOption.ATOMIC_MOVE);
+            } else {
+                Files.deleteIfExists(temporal);
+            }
+            jdbcTemplate.execute("DROP TABLE " + archivo);
+            log.info("{}: {} filas de {} archivadas en {} ({} ms)", tabla, filas, particion,
+                    filas > 0 ? destino.toAbsolutePath() : "-", System.currentTimeMillis() - inicio);
+        } catch (IOException | UncheckedIOException e) {
+            // La tabla de archivo queda y se reintenta en la próxima corrida
+            log.error("No se pudo exportar {}: {}", archivo, e.getMessage());
+        }
+    }
+
+    private long exportar(String archivo, Path temporal) throws IOException {
+        AtomicLong filas = new AtomicLong();
+        try (BufferedWriter salida = new BufferedWriter(new OutputStreamWriter(
+                new GZIPOutputStream(Files.newOutputStream(temporal)), StandardCharsets.UTF_8))) {
+            jdbcStreaming.query("SELECT * FROM " + archivo, rs -> {
+                ResultSetMetaData meta = rs.getMetaData();
+                Map<String, Object> fila = new LinkedHashMap<>();
+                for (int i = 1; i <= meta.getColumnCount(); i++) {
+                    Object valor = rs.getObject(i);
+                    fila.put(meta.getColumnLabel(i), valor);
+                }
+                try {
+                    for (int i = 1; i <= meta.getColumnCount(); i++) {
+                        if (fila.get(meta.getColumnLabel(i)) instanceof String texto
+                                && "JSON".equalsIgnoreCase(meta.getColumnTypeName(i))) {
+                            fila.put(meta.getColumnLabel(i), objectMapper.readTree(texto));
+                        }
+                    }
+                    salida.write(objectMapper.writeValueAsString(fila));
+                    salida.newLine();
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+                filas.incrementAndGet();
+            });
+        }
+        return filas.get();
+    }
+
+    // ==================== MÉTODOS AUXILIARES ====================
+
+    private static boolean tomarLock(Connection conexion) throws SQLException {
+        try (PreparedStatement ps = conexion.prepareStatement("SELECT GET_LOCK(?, 0)")) {
+            ps.setString(1, NOMBRE_LOCK);
+            try (ResultSet rs = ps.executeQuery()) {
+                return rs.next() && rs.getInt(1) == 1;
+            }
+        }
+    }
+
+    private static void liberarLock(Connection conexion) {
+        try (PreparedStatement ps = conexion.prepareStatement("SELECT RELEASE_LOCK(?)")) {
+            ps.setString(1, NOMBRE_LOCK);
+            ps.execute();
+        } catch (SQLException e) {
+            // Se libera igual al cerrar la conexión
+            log.warn("No se pudo liberar el lock de particiones: {}", e.getMessage());
+        }
+    }
+
+    private boolean existeTabla(String tabla) {
+        Integer existe = jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM information_schema.TABLES WHERE TABLE_SCHEMA = DATABASE() AND TABLE_NAME = ?",
+                Integer.class, tabla);
+        return existe != null && existe > 0;
+    }
+
+    /**
+     * Particiones de la tabla en orden; hasta = límite superior exclusivo (null en pmax).
+     */
+    private List<Particion> listarParticiones(String tabla) {
+        return jdbcTemplate.query(
+                "SELECT PARTITION_NAME, PARTITION_DESCRIPTION, TABLE_ROWS FROM information_schema.PARTITIONS " +
+                "WHERE TABLE_SCHEMA = DATABASE() AND TABLE_NAME = ? AND PARTITION_NAME IS NOT NULL " +
+                "ORDER BY PARTITION_ORDINAL_POSITION",
+                (rs, i) -> new Particion(rs.getString(1), aFecha(rs.getString(2)), rs.getLong(3)),
+                tabla).stream()
+                .filter(p -> NOMBRE_PARTICION.matcher(p.nombre()).matches())
+                .toList();
+    }
+
+    /**
+     * PARTITION_DESCRIPTION de RANGE COLUMNS: "'2026-02-01 00:00:00'" o "MAXVALUE".
+     */
+    private static LocalDate aFecha(String descripcion) {
+        if (descripcion == null || descripcion.contains("MAXVALUE")) {
+            return null;
+        }
+        String valor = descripcion.replace("'", "").trim();
+        return LocalDate.parse(valor.length() > 10 ? valor.substring(0, 10) : valor);
+    }
+}
@@ -0,0 +1,26 @@
+package com.sqrc.module.backendsqrc.outbox.controller;
+
+import com.sqrc.module.backendsqrc.outbox.dto.OutboxMetricasDTO;
+import com.sqrc.module.backendsqrc.outbox.service.OutboxService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+@RestController
+@RequestMapping("/api/outbox")
+@RequiredArgsConstructor
+public class OutboxController {
+
+    private final OutboxService outboxService;
+
+    /**
+     * GET /api/outbox/metricas
+     * Backlog y lag de entrega de los eventos de dominio.
+     */
+    @GetMapping("/metricas")
+    public ResponseEntity<OutboxMetricasDTO> obtenerMetricas() {
+        return ResponseEntity.ok(outboxService.obtenerMetricas());
+    }
+}
@@ -0,0 +1,32 @@
+package com.sqrc.module.backendsqrc.outbox.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Métricas de la outbox de eventos de dominio.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class OutboxMetricasDTO {
+
+    private Long pendientes;
+    private Long fallidos;
+
+    /** Antigüedad del evento pendiente más viejo (0 si no hay pendientes) */
+    private Long lagPendienteMasAntiguoMs;
+
+    /** Promedio móvil (EWMA) del tiempo entre registro y entrega */
+    private Long lagEntregaPromedioMs;
+
+    private Integer ultimoLoteTamano;
+    private Long ultimoLoteDuracionMs;
+
+    /** Contadores desde el arranque del nodo */
+    private Long totalEntregados;
+    private Long totalErrores;
+}
@@ -0,0 +1,9 @@
+package com.sqrc.module.backendsqrc.outbox.model;
+
+public enum EstadoOutbox {
+    PENDIENTE,
+    /** Reclamado por un publicador, en entrega */
+    EN_PROCESO,
+    PROCESADO,
+    FALLIDO
+}
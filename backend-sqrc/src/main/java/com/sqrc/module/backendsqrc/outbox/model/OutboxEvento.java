@@ -0,0 +1,74 @@
+package com.sqrc.module.backendsqrc.outbox.model;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.LocalDateTime;
+
+/**
+ * Evento de dominio pendiente de entrega (patrón Transactional Outbox).
+ *
+ * Se inserta en la misma transacción que el cambio de estado que lo origina,
+ * así el evento existe si y solo si el cambio hizo commit. El publicador lo
+ * reclama (EN_PROCESO), lo entrega a los listeners de Spring y lo marca como PROCESADO.
+ */
+@Entity
+@Table(name = "outbox_eventos", indexes = {
+        @Index(name = "idx_outbox_estado_id", columnList = "estado, id"),
+        @Index(name = "idx_outbox_agregado", columnList = "agregado_tipo, agregado_id, id")
+})
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class OutboxEvento {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    /** Tipo de agregado (TICKET, ENCUESTA, ASIGNACION); los eventos de un mismo agregado se entregan en orden */
+    @Column(name = "agregado_tipo", nullable = false, length = 30)
+    private String agregadoTipo;
+
+    @Column(name = "agregado_id", nullable = false)
+    private Long agregadoId;
+
+    /** Nombre completo de la clase del evento (para deserializar el payload) */
+    @Column(name = "tipo", nullable = false, length = 200)
+    private String tipo;
+
+    @Column(name = "payload", nullable = false, columnDefinition = "TEXT")
+    private String payload;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "estado", nullable = false, length = 20)
+    @Builder.Default
+    private EstadoOutbox estado = EstadoOutbox.PENDIENTE;
+
+    @Column(name = "intentos", nullable = false)
+    @Builder.Default
+    private Integer intentos = 0;
+
+    @Column(name = "fecha_creacion", nullable = false)
+    @Builder.Default
+    private LocalDateTime fechaCreacion = LocalDateTime.now();
+
+    /** No se reintenta antes de esta fecha (null = inmediatamente) */
+    @Column(name = "proximo_intento")
+    private LocalDateTime proximoIntento;
+
+    @Column(name = "fecha_procesado")
+    private LocalDateTime fechaProcesado;
+
+    @Column(name = "ultimo_error", length = 500)
+    private String ultimoError;
+
+    /** Token del lote que lo reclamó mientras está EN_PROCESO */
+    @Column(name = "reclamo", length = 36)
+    private String reclamo;
+
+    @Column(name = "reclamado_en")
+    private LocalDateTime reclamadoEn;
+}
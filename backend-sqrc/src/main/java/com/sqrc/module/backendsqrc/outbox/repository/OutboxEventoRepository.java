@@ -0,0 +1,104 @@
+package com.sqrc.module.backendsqrc.outbox.repository;
+
+import com.sqrc.module.backendsqrc.outbox.model.EstadoOutbox;
+import com.sqrc.module.backendsqrc.outbox.model.OutboxEvento;
+import org.springframework.data.domain.Pageable;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Repository
+public interface OutboxEventoRepository extends JpaRepository<OutboxEvento, Long> {
+
+    /**
+     * Lote de eventos pendientes listos para entregar, en orden de inserción, con
+     * bloqueo de fila FOR UPDATE SKIP LOCKED: debe llamarse en la transacción que los
+     * reclama. Las filas que otro publicador está reclamando se saltan en lugar de esperar.
+     * Excluye los eventos de un agregado cuyo evento anterior está en entrega o sigue
+     * pendiente y aún no vence su reintento, para no adelantarlos.
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @QueryHints(@QueryHint(name = "jakarta.persistence.lock.timeout", value = "-2"))
+    @Query("SELECT e FROM OutboxEvento e " +
+           "WHERE e.estado = com.sqrc.module.backendsqrc.outbox.model.EstadoOutbox.PENDIENTE " +
+           "AND (e.proximoIntento IS NULL OR e.proximoIntento <= :ahora) " +
+           "AND NOT EXISTS (SELECT 1 FROM OutboxEvento p " +
+           "     WHERE p.agregadoTipo = e.agregadoTipo AND p.agregadoId = e.agregadoId AND p.id < e.id " +
+           "     AND (p.estado = com.sqrc.module.backendsqrc.outbox.model.EstadoOutbox.EN_PROCESO " +
+           "          OR (p.estado = com.sqrc.module.backendsqrc.outbox.model.EstadoOutbox.PENDIENTE " +
+           "              AND p.proximoIntento > :ahora))) " +
+           "ORDER BY e.id ASC")
+    List<OutboxEvento> findLoteParaEntregar(@Param("ahora") LocalDateTime ahora, Pageable pageable);
+
+    /**
+     * Pasa a EN_PROCESO los eventos leídos con {@link #findLoteParaEntregar}, en la misma transacción.
+     */
+    @Modifying
+    @Query("UPDATE OutboxEvento e SET e.estado = com.sqrc.module.backendsqrc.outbox.model.EstadoOutbox.EN_PROCESO, " +
+           "e.reclamo = :reclamo, e.reclamadoEn = :ahora WHERE e.id IN :ids")
+    int marcarReclamados(@Param("ids") List<Long> ids,
+                         @Param("reclamo") String reclamo,
+                         @Param("ahora") LocalDateTime ahora);
+
+    /**
+     * Devuelve a PENDIENTE los reclamos que no terminaron (publicador caído a mitad de lote).
+     */
+    @Transactional
+    @Modifying
+    @Query("UPDATE OutboxEvento e SET e.estado = com.sqrc.module.backendsqrc.outbox.model.EstadoOutbox.PENDIENTE, " +
+           "e.reclamo = NULL, e.reclamadoEn = NULL " +
+           "WHERE e.estado = com.sqrc.module.backendsqrc.outbox.model.EstadoOutbox.EN_PROCESO AND e.reclamadoEn < :vencido")
+    int liberarReclamosVencidos(@Param("vencido") LocalDateTime vencido);
+
+    /**
+     * Devuelve a PENDIENTE los eventos de un grupo que quedaron sin entregar porque un
+     * evento anterior del agregado falló; solo los que sigue teniendo este reclamo.
+     */
+    @Transactional
+    @Modifying
+    @Query("UPDATE OutboxEvento e SET e.estado = com.sqrc.module.backendsqrc.outbox.model.EstadoOutbox.PENDIENTE, " +
+           "e.reclamo = NULL, e.reclamadoEn = NULL " +
+           "WHERE e.id IN :ids AND e.reclamo = :reclamo " +
+           "AND e.estado = com.sqrc.module.backendsqrc.outbox.model.EstadoOutbox.EN_PROCESO")
+    int liberarReclamados(@Param("ids") List<Long> ids, @Param("reclamo") String reclamo);
+
+    long countByEstado(EstadoOutbox estado);
+
+    @Query("SELECT MIN(e.fechaCreacion) FROM OutboxEvento e WHERE e.estado = :estado")
+    LocalDateTime findFechaCreacionMasAntigua(@Param("estado") EstadoOutbox estado);
+
+    /**
+     * Marca como procesados, en una sola sentencia, los eventos entregados de un agregado.
+     */
+    @Transactional
+    @Modifying
+    @Query("UPDATE OutboxEvento e SET e.estado = com.sqrc.module.backendsqrc.outbox.model.EstadoOutbox.PROCESADO, " +
+           "e.fechaProcesado = :ahora, e.ultimoError = NULL, e.reclamo = NULL, e.reclamadoEn = NULL WHERE e.id IN :ids")
+    int marcarProcesados(@Param("ids") List<Long> ids, @Param("ahora") LocalDateTime ahora);
+
+    @Transactional
+    @Modifying
+    @Query("UPDATE OutboxEvento e SET e.estado = :estado, e.intentos = e.intentos + 1, " +
+           "e.proximoIntento = :proximoIntento, e.ultimoError = :error, e.reclamo = NULL, e.reclamadoEn = NULL " +
+           "WHERE e.id = :id")
+    int registrarFallo(@Param("id") Long id,
+                       @Param("estado") EstadoOutbox estado,
+                       @Param("proximoIntento") LocalDateTime proximoIntento,
+                       @Param("error") String error);
+
+    @Transactional
+    @Modifying
+    @Query("DELETE FROM OutboxEvento e WHERE e.estado = com.sqrc.module.backendsqrc.outbox.model.EstadoOutbox.PROCESADO " +
+           "AND e.fechaProcesado < :antesDe")
+    int eliminarProcesadosAntesDe(@Param("antesDe") LocalDateTime antesDe);
+}
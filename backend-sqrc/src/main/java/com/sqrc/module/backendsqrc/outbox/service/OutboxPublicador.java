@@ -0,0 +1,285 @@
+package com.sqrc.module.backendsqrc.outbox.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sqrc.module.backendsqrc.outbox.model.EstadoOutbox;
+import com.sqrc.module.backendsqrc.outbox.model.OutboxEvento;
+import com.sqrc.module.backendsqrc.outbox.repository.OutboxEventoRepository;
+import com.sqrc.module.backendsqrc.ejecucion.config.EjecutorAcotado;
+import com.sqrc.module.backendsqrc.ejecucion.config.EjecutorNombres;
+import com.sqrc.module.backendsqrc.ejecucion.config.Ejecutores;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Entrega los eventos de outbox_eventos a los listeners de Spring.
+ *
+ * Cada ciclo reclama un lote de pendientes en orden de ID (SELECT ... FOR UPDATE
+ * SKIP LOCKED y paso a EN_PROCESO en una transacción corta), así dos instancias no
+ * entregan el mismo evento, y lo agrupa por agregado.
+ * Los grupos se entregan en paralelo en el pool de eventos ({@link EjecutorNombres#EVENTOS});
+ * dentro de un grupo los eventos se entregan en orden y, si uno falla, el resto
+ * del grupo vuelve a PENDIENTE y espera a su reintento. Los entregados se marcan
+ * PROCESADO con un UPDATE por grupo.
+ *
+ * El ciclo programado no espera la entrega: hay a lo sumo un lote en curso y, si
+ * vino lleno, el siguiente se reclama al terminar, fuera del hilo de @Scheduled.
+ *
+ * La entrega es "al menos una vez": si el nodo cae entre la entrega y el UPDATE,
+ * el reclamo vence (app.outbox.reclamoVenceSegundos) y el evento se vuelve a
+ * entregar, por lo que los listeners deben tolerar duplicados. Un listener que
+ * falla debe propagar la excepción para que el evento se reintente.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class OutboxPublicador {
+
+    /** Solo se deserializan eventos de la aplicación */
+    private static final String PAQUETE_EVENTOS = "com.sqrc.module.backendsqrc.";
+    private static final double ALFA_EWMA = 0.2;
+    private static final int LARGO_MAX_ERROR = 500;
+
+    private final OutboxEventoRepository outboxEventoRepository;
+    private final ApplicationEventPublisher eventPublisher;
+    private final ObjectMapper objectMapper;
+    private final PlatformTransactionManager transactionManager;
+    private final Ejecutores ejecutores;
+
+    @Value("${app.outbox.tamanoLote:200}")
+    private int tamanoLote;
+
+    @Value("${app.outbox.maxIntentos:5}")
+    private int maxIntentos;
+
+    /** Espera del primer reintento; se duplica en cada intento hasta reintentoMaxSegundos */
+    @Value("${app.outbox.reintentoBaseSegundos:5}")
+    private int reintentoBaseSegundos;
+
+    @Value("${app.outbox.reintentoMaxSegundos:600}")
+    private int reintentoMaxSegundos;
+
+    @Value("${app.outbox.retencionHoras:24}")
+    private int retencionHoras;
+
+    /** Un reclamo más viejo que esto se da por abandonado; debe superar lo que tarda un lote */
+    @Value("${app.outbox.reclamoVenceSegundos:300}")
+    private int reclamoVenceSegundos;
+
+    private EjecutorAcotado executor;
+    private TransactionTemplate transactionTemplate;
+    private final AtomicBoolean loteEnCurso = new AtomicBoolean();
+
+    // Métricas del nodo
+    private final AtomicLong totalEntregados = new AtomicLong();
+    private final AtomicLong totalErrores = new AtomicLong();
+    private volatile int ultimoLoteTamano;
+    private volatile long ultimoLoteDuracionMs;
+    private volatile double lagEntregaPromedioMs;
+
+    @PostConstruct
+    void iniciar() {
+        executor = ejecutores.get(EjecutorNombres.EVENTOS);
+        transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    /**
+     * Ciclo de entrega: libera reclamos vencidos y, si no hay un lote en curso, lanza
+     * el siguiente sin esperarlo. Si el lote vino lleno se reclama otro al terminar,
+     * así una ráfaga de cierres se drena sin esperar al próximo intervalo.
+     */
+    @Scheduled(fixedDelayString = "${app.outbox.intervaloMs:1000}")
+    public void publicarPendientes() {
+        int liberados = outboxEventoRepository.liberarReclamosVencidos(
+                LocalDateTime.now().minusSeconds(reclamoVenceSegundos));
+        if (liberados > 0) {
+            log.warn("Outbox: {} eventos con reclamo vencido vuelven a pendientes", liberados);
+        }
+
+        if (loteEnCurso.compareAndSet(false, true)) {
+            lanzarLotes();
+        }
+    }
+
+    private void lanzarLotes() {
+        CompletableFuture<Integer> lote;
+        try {
+            lote = procesarLote();
+        } catch (RuntimeException ex) {
+            loteEnCurso.set(false);
+            log.error("Outbox: no se pudo reclamar un lote: {}", ex.getMessage(), ex);
+            return;
+        }
+        lote.whenComplete((reclamados, ex) -> {
+            if (ex == null && reclamados >= tamanoLote) {
+                lanzarLotes();
+            } else {
+                loteEnCurso.set(false);
+            }
+        });
+    }
+
+    /**
+     * Reclama un lote y reparte sus grupos en el pool sin esperarlos.
+     *
+     * @return Cantidad de eventos reclamados, al terminar la entrega del lote
+     */
+    CompletableFuture<Integer> procesarLote() {
+        long inicio = System.currentTimeMillis();
+        String reclamo = UUID.randomUUID().toString();
+        List<OutboxEvento> lote = reclamarLote(reclamo);
+        if (lote.isEmpty()) {
+            return CompletableFuture.completedFuture(0);
+        }
+
+        Map<String, List<OutboxEvento>> porAgregado = new LinkedHashMap<>();
+        for (OutboxEvento evento : lote) {
+            porAgregado.computeIfAbsent(evento.getAgregadoTipo() + ":" + evento.getAgregadoId(),
+                    k -> new ArrayList<>()).add(evento);
+        }
+
+        List<CompletableFuture<Void>> tareas = new ArrayList<>(porAgregado.size());
+        for (List<OutboxEvento> grupo : porAgregado.values()) {
+            tareas.add(CompletableFuture.runAsync(() -> procesarGrupo(grupo, reclamo), executor));
+        }
+        return CompletableFuture.allOf(tareas.toArray(new CompletableFuture<?>[0]))
+                .handle((r, ex) -> {
+                    if (ex != null) {
+                        // Lo que quedó EN_PROCESO se reentrega al vencer el reclamo
+                        log.error("Outbox: error en el lote {}: {}", reclamo, ex.getMessage(), ex);
+                    }
+                    ultimoLoteTamano = lote.size();
+                    ultimoLoteDuracionMs = System.currentTimeMillis() - inicio;
+                    log.debug("Outbox: lote de {} eventos ({} agregados) en {} ms",
+                            lote.size(), porAgregado.size(), ultimoLoteDuracionMs);
+                    return lote.size();
+                });
+    }
+
+    /**
+     * Limpia los eventos ya procesados más antiguos que la retención.
+     */
+    @Scheduled(fixedDelayString = "${app.outbox.limpiezaMs:3600000}")
+    public void limpiarProcesados() {
+        int eliminados = outboxEventoRepository.eliminarProcesadosAntesDe(
+                LocalDateTime.now().minusHours(retencionHoras));
+        if (eliminados > 0) {
+            log.info("Outbox: {} eventos procesados eliminados", eliminados);
+        }
+    }
+
+    public long getTotalEntregados() {
+        return totalEntregados.get();
+    }
+
+    public long getTotalErrores() {
+        return totalErrores.get();
+    }
+
+    public int getUltimoLoteTamano() {
+        return ultimoLoteTamano;
+    }
+
+    public long getUltimoLoteDuracionMs() {
+        return ultimoLoteDuracionMs;
+    }
+
+    public long getLagEntregaPromedioMs() {
+        return Math.round(lagEntregaPromedioMs);
+    }
+
+    // ==================== MÉTODOS AUXILIARES ====================
+
+    private List<OutboxEvento> reclamarLote(String reclamo) {
+        List<OutboxEvento> lote = transactionTemplate.execute(status -> {
+            LocalDateTime ahora = LocalDateTime.now();
+            List<OutboxEvento> leidos = outboxEventoRepository.findLoteParaEntregar(ahora, PageRequest.of(0, tamanoLote));
+            if (!leidos.isEmpty()) {
+                outboxEventoRepository.marcarReclamados(leidos.stream().map(OutboxEvento::getId).toList(), reclamo, ahora);
+            }
+            return leidos;
+        });
+        return lote != null ? lote : List.of();
+    }
+
+    private void procesarGrupo(List<OutboxEvento> grupo, String reclamo) {
+        List<Long> entregados = new ArrayList<>(grupo.size());
+        for (int i = 0; i < grupo.size(); i++) {
+            OutboxEvento evento = grupo.get(i);
+            try {
+                entregar(evento);
+                entregados.add(evento.getId());
+                registrarLag(evento);
+            } catch (Exception ex) {
+                totalErrores.incrementAndGet();
+                if (registrarFallo(evento, ex)) {
+                    // Los siguientes del agregado vuelven a pendientes y esperan el reintento
+                    List<Long> resto = grupo.subList(i + 1, grupo.size()).stream().map(OutboxEvento::getId).toList();
+                    if (!resto.isEmpty()) {
+                        outboxEventoRepository.liberarReclamados(resto, reclamo);
+                    }
+                    break;
+                }
+            }
+        }
+        if (!entregados.isEmpty()) {
+            outboxEventoRepository.marcarProcesados(entregados, LocalDateTime.now());
+            totalEntregados.addAndGet(entregados.size());
+        }
+    }
+
+    private void entregar(OutboxEvento evento) throws Exception {
+        if (!evento.getTipo().startsWith(PAQUETE_EVENTOS)) {
+            throw new IllegalStateException("Tipo de evento no permitido: " + evento.getTipo());
+        }
+        Class<?> clase = Class.forName(evento.getTipo());
+        eventPublisher.publishEvent(objectMapper.readValue(evento.getPayload(), clase));
+    }
+
+    /**
+     * @return true si el evento se reintentará (bloquea al resto del agregado),
+     *         false si pasó a FALLIDO
+     */
+    private boolean registrarFallo(OutboxEvento evento, Exception ex) {
+        int intentos = evento.getIntentos() + 1;
+        String error = ex.getClass().getSimpleName() + ": " + ex.getMessage();
+        if (error.length() > LARGO_MAX_ERROR) {
+            error = error.substring(0, LARGO_MAX_ERROR);
+        }
+
+        if (intentos >= maxIntentos) {
+            log.error("Outbox: evento {} ({}) descartado tras {} intentos: {}",
+                    evento.getId(), evento.getTipo(), intentos, error, ex);
+            outboxEventoRepository.registrarFallo(evento.getId(), EstadoOutbox.FALLIDO, null, error);
+            return false;
+        }
+
+        long espera = Math.min((long) reintentoBaseSegundos << Math.min(intentos - 1, 20), reintentoMaxSegundos);
+        log.warn("Outbox: error entregando evento {} ({}), intento {}: {}. Reintento en {} s",
+                evento.getId(), evento.getTipo(), intentos, error, espera);
+        outboxEventoRepository.registrarFallo(evento.getId(), EstadoOutbox.PENDIENTE,
+                LocalDateTime.now().plusSeconds(espera), error);
+        return true;
+    }
+
+    private synchronized void registrarLag(OutboxEvento evento) {
+        long lag = Duration.between(evento.getFechaCreacion(), LocalDateTime.now()).toMillis();
+        lagEntregaPromedioMs = lagEntregaPromedioMs == 0
+                ? lag
+                : ALFA_EWMA * lag + (1 - ALFA_EWMA) * lagEntregaPromedioMs;
+    }
+}
@@ -0,0 +1,86 @@
+package com.sqrc.module.backendsqrc.outbox.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sqrc.module.backendsqrc.outbox.dto.OutboxMetricasDTO;
+import com.sqrc.module.backendsqrc.outbox.model.EstadoOutbox;
+import com.sqrc.module.backendsqrc.outbox.model.OutboxEvento;
+import com.sqrc.module.backendsqrc.outbox.repository.OutboxEventoRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+
+/**
+ * Registro de eventos de dominio en la tabla outbox_eventos.
+ *
+ * Reemplaza a {@code eventPublisher.publishEvent(...)} en las operaciones que cambian
+ * estado: el evento se inserta en la misma transacción, por lo que sobrevive a una
+ * caída del nodo después del commit y no existe si la transacción hace rollback.
+ * {@link OutboxPublicador} lo entrega luego a los listeners de Spring en segundo plano.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class OutboxService {
+
+    // Tipos de agregado: los eventos de un mismo agregado se entregan en orden
+    public static final String AGREGADO_TICKET = "TICKET";
+    public static final String AGREGADO_ENCUESTA = "ENCUESTA";
+    public static final String AGREGADO_ASIGNACION = "ASIGNACION";
+
+    private final OutboxEventoRepository outboxEventoRepository;
+    private final OutboxPublicador outboxPublicador;
+    private final ObjectMapper objectMapper;
+
+    /**
+     * Guarda el evento para su entrega posterior.
+     * Debe llamarse dentro de la transacción de la operación que lo origina.
+     *
+     * @param agregadoTipo Tipo de agregado (ver constantes AGREGADO_*)
+     * @param agregadoId ID del agregado
+     * @param evento Evento serializable a JSON
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void registrar(String agregadoTipo, Long agregadoId, Object evento) {
+        String payload;
+        try {
+            payload = objectMapper.writeValueAsString(evento);
+        } catch (JsonProcessingException e) {
+            throw new IllegalArgumentException("No se pudo serializar el evento " + evento.getClass().getSimpleName(), e);
+        }
+
+        outboxEventoRepository.save(OutboxEvento.builder()
+                .agregadoTipo(agregadoTipo)
+                .agregadoId(agregadoId)
+                .tipo(evento.getClass().getName())
+                .payload(payload)
+                .build());
+        log.debug("Outbox: registrado {} para {} {}", evento.getClass().getSimpleName(), agregadoTipo, agregadoId);
+    }
+
+    /**
+     * Métricas de la outbox: backlog, antigüedad del pendiente más viejo y
+     * estadísticas del publicador.
+     */
+    @Transactional(readOnly = true)
+    public OutboxMetricasDTO obtenerMetricas() {
+        LocalDateTime masAntiguo = outboxEventoRepository.findFechaCreacionMasAntigua(EstadoOutbox.PENDIENTE);
+        Long lagMs = masAntiguo != null ? Duration.between(masAntiguo, LocalDateTime.now()).toMillis() : 0L;
+
+        return OutboxMetricasDTO.builder()
+                .pendientes(outboxEventoRepository.countByEstado(EstadoOutbox.PENDIENTE))
+                .fallidos(outboxEventoRepository.countByEstado(EstadoOutbox.FALLIDO))
+                .lagPendienteMasAntiguoMs(lagMs)
+                .lagEntregaPromedioMs(outboxPublicador.getLagEntregaPromedioMs())
+                .ultimoLoteTamano(outboxPublicador.getUltimoLoteTamano())
+                .ultimoLoteDuracionMs(outboxPublicador.getUltimoLoteDuracionMs())
+                .totalEntregados(outboxPublicador.getTotalEntregados())
+                .totalErrores(outboxPublicador.getTotalErrores())
+                .build();
+    }
+}
@@ -1,7 +1,9 @@
 package com.sqrc.module.backendsqrc.plantillaRespuesta.Repository;
 
+import com.sqrc.module.backendsqrc.cache.config.CacheNombres;
 import com.sqrc.module.backendsqrc.plantillaRespuesta.model.Plantilla;
 import com.sqrc.module.backendsqrc.plantillaRespuesta.model.TipoCaso;
+import org.springframework.cache.annotation.Cacheable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
@@ -24,6 +26,8 @@ public interface PlantillaRepository extends JpaRepository<Plantilla, Long> {
     boolean existsByNombre(String nombre);
 
     // Si necesitas buscar una específica por nombre exacto
+    // Cacheada: se lee en cada correo de confirmación (se invalida al editar plantillas)
+    @Cacheable(cacheNames = CacheNombres.PLANTILLAS_RESPUESTA, key = "#p0")
     Optional<Plantilla> findByNombre(String nombre);
 
     // Busca plantillas activas de un tipo específico (ej: Solo RECLAMOS)
@@ -5,6 +5,7 @@ import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 
+import java.util.Collection;
 import java.util.List;
 
 public interface RespuestaRepository extends JpaRepository<RespuestaCliente, Long>{
@@ -35,4 +36,8 @@ public interface RespuestaRepository extends JpaRepository<RespuestaCliente, Lon
         ORDER BY r.fechaEnvio DESC
     """)
     List<RespuestaCliente> findAllRespuestasWithTicket();
+
+    // IDs de los tickets del lote con al menos una respuesta manual enviada (operaciones masivas)
+    @Query("SELECT DISTINCT r.asignacion.ticket.idTicket FROM RespuestaCliente r WHERE r.asignacion.ticket.idTicket IN :ticketIds AND r.tipoRespuesta = 'MANUAL'")
+    List<Long> findTicketIdsConRespuesta(@Param("ticketIds") Collection<Long> ticketIds);
 }
@@ -7,6 +7,8 @@ import com.sqrc.module.backendsqrc.plantillaRespuesta.model.PlantillaDefault;
 import org.springframework.stereotype.Service;
 import com.sqrc.module.backendsqrc.plantillaRespuesta.model.TipoCaso;
 import com.sqrc.module.backendsqrc.plantillaRespuesta.model.Plantilla;
+import com.sqrc.module.backendsqrc.cache.config.CacheNombres;
+import org.springframework.cache.annotation.CacheEvict;
 import org.springframework.transaction.annotation.Transactional;
 
 
@@ -71,7 +73,7 @@ public class PlantillaService {
         return plantilla;
     }
 
-
+    @CacheEvict(cacheNames = CacheNombres.PLANTILLAS_RESPUESTA, allEntries = true)
     @Transactional
     public PlantillaCreacionResponseDTO crearPlantilla(CrearPlantillaRequestDTO request) {
 
@@ -109,6 +111,7 @@ public class PlantillaService {
         return mapper.toCreacionDTO(guardada);
     }
 
+    @CacheEvict(cacheNames = CacheNombres.PLANTILLAS_RESPUESTA, allEntries = true)
     @Transactional
     public PlantillaDetalleResponseDTO actualizarPlantilla(Long id, ActualizarPlantillaRequestDTO request) {
 
@@ -145,6 +148,7 @@ public class PlantillaService {
         return mapper.toDetalleDTO(actualizada);
     }
 
+    @CacheEvict(cacheNames = CacheNombres.PLANTILLAS_RESPUESTA, allEntries = true)
     @Transactional
     public void desactivarPlantilla(Long id) {
         //borado logico
@@ -154,6 +158,7 @@ public class PlantillaService {
         plantillaRepository.save(plantilla);
     }
 
+    @CacheEvict(cacheNames = CacheNombres.PLANTILLAS_RESPUESTA, allEntries = true)
     @Transactional
     public void reactivarPlantilla(Long id) {
 
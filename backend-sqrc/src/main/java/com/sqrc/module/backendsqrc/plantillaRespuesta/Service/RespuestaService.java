@@ -10,6 +10,7 @@ import com.sqrc.module.backendsqrc.plantillaRespuesta.model.PlantillaDefault;
 import com.sqrc.module.backendsqrc.plantillaRespuesta.model.RespuestaCliente;
 import com.sqrc.module.backendsqrc.plantillaRespuesta.model.TipoRespuesta;
 import com.sqrc.module.backendsqrc.plantillaRespuesta.observer.IRespuestaObserver;
+import com.sqrc.module.backendsqrc.outbox.service.OutboxService;
 import com.sqrc.module.backendsqrc.ticket.repository.AsignacionRepository;
 import com.sqrc.module.backendsqrc.vista360.dto.ClienteBasicoDTO;
 import com.sqrc.module.backendsqrc.vista360.model.ClienteEntity;
@@ -17,10 +18,12 @@ import com.sqrc.module.backendsqrc.ticket.model.*;
 import com.sqrc.module.backendsqrc.ticket.repository.TicketRepository;
 import com.sqrc.module.backendsqrc.vista360.service.Vista360Service;
 import jakarta.annotation.PostConstruct;
-import org.springframework.context.ApplicationEventPublisher; // Si usas Observer de Spring
-import org.springframework.scheduling.annotation.Async;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.event.EventListener;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.time.LocalDate;
 import java.time.LocalDateTime;
@@ -30,6 +33,7 @@ import java.util.List;
 import java.util.Map;
 
 @Service
+@Slf4j
 public class RespuestaService {
 
     // --- DEPENDENCIAS ---
@@ -45,6 +49,9 @@ public class RespuestaService {
     private final PlantillaRepository plantillaRepository;
     private final TicketRepository ticketRepository;
     private final AsignacionRepository asignacionRepository;
+    private final OutboxService outboxService;
+    private final TransactionTemplate transaccion;
+    private final TransactionTemplate transaccionLectura;
     // Lista de observadores (Patrón Observer Manual)
     private final List<IRespuestaObserver> observadores = new ArrayList<>();
 
@@ -67,7 +74,9 @@ public class RespuestaService {
             ValidarEstadoTicket validarEstado,
             ValidarDestinatario validarDestino,
             ValidarCoherenciaTipo validarCoherencia,
-            ValidarPlantillaActiva validarVigencia) {
+            ValidarPlantillaActiva validarVigencia,
+            OutboxService outboxService,
+            PlatformTransactionManager transactionManager) {
         this.respuestaRepository = respuestaRepository;
         this.plantillaService = plantillaService;
         this.renderService = renderService;
@@ -82,6 +91,10 @@ public class RespuestaService {
         this.validarDestino = validarDestino;
         this.validarCoherencia = validarCoherencia;
         this.validarVigencia = validarVigencia;
+        this.outboxService = outboxService;
+        this.transaccion = new TransactionTemplate(transactionManager);
+        this.transaccionLectura = new TransactionTemplate(transactionManager);
+        this.transaccionLectura.setReadOnly(true);
     }
 
     // --- CONFIGURACIÓN PATRONES ---
@@ -89,6 +102,15 @@ public class RespuestaService {
         this.observadores.add(observador);
     }
 
+    /**
+     * Entrega a los observadores el evento registrado en la outbox por
+     * {@link #procesarYEnviarRespuesta}, ya confirmada la transacción.
+     */
+    @EventListener
+    public void onRespuestaEnviada(RespuestaEnviadaEvent evento) {
+        notificarObservadores(evento);
+    }
+
     private void notificarObservadores(RespuestaEnviadaEvent evento) {
         for (IRespuestaObserver observador : observadores) {
             observador.actualizar(evento);
@@ -181,138 +203,169 @@ public class RespuestaService {
 
         respuestaRepository.save(respuesta);
 
-        // 10. CERRAR Y NOTIFICAR
-        notificarObservadores(new RespuestaEnviadaEvent(request.idAsignacion(), request.cerrarTicket()));
+        // 10. CERRAR Y NOTIFICAR (outbox: los observadores reciben el evento después del commit)
+        outboxService.registrar(OutboxService.AGREGADO_ASIGNACION, request.idAsignacion(),
+                new RespuestaEnviadaEvent(request.idAsignacion(), request.cerrarTicket()));
     }
 
-    @Async
-    @Transactional
-    public void enviarConfirmacionRegistro(Asignacion asignacion) {
-        try {
-            Ticket ticket = asignacion.getTicket();
-
-            // Validación de correo
-            if (ticket.getCliente() == null || ticket.getCliente().getCorreo() == null) {
-                return;
-            }
-            String correoCliente = ticket.getCliente().getCorreo();
-
-            // ---------------------------------------------------------------
-            // PASO 1: RECOLECTAR DATOS PUROS (Sin texto de relleno)
-            // ---------------------------------------------------------------
-            Map<String, Object> variables = new HashMap<>();
-            variables.put("numero_ticket", ticket.getIdTicket().toString());
-            variables.put("fecha_actual", LocalDateTime.now().toLocalDate().toString());
-            variables.put("nombre_cliente", ticket.getCliente().getNombres() + " " + ticket.getCliente().getApellidos());
-            variables.put("asunto_ticket", ticket.getAsunto()); // Ojo: en el HTML puse 'asunto_ticket'
-            variables.put("identificador_servicio", ticket.getCliente().getDni());
-
-            // Variable para buscar en BD
-            String nombrePlantillaBuscada = "Confirmación Genérica";
-
-            if (ticket instanceof Reclamo) {
-                Reclamo r = (Reclamo) ticket;
-                nombrePlantillaBuscada = "Confirmación de Reclamo";
-
-                // VARIABLES ESPECÍFICAS DE RECLAMO
-                variables.put("motivo", r.getMotivoReclamo());
-                // Agregamos la fecha límite (muy importante para el cliente)
-                // Usamos "" + para asegurar que sea String, o formatea la fecha si prefieres
-                variables.put("fecha_limite", r.getFechaLimiteRespuesta() != null ? r.getFechaLimiteRespuesta().toString() : "15 días hábiles");
-
-            } else if (ticket instanceof Queja) {
-                Queja q = (Queja) ticket;
-                nombrePlantillaBuscada = "Confirmación de Queja";
-
-                // VARIABLES ESPECÍFICAS DE QUEJA
-                variables.put("area", q.getAreaInvolucrada());
-                variables.put("impacto", q.getImpacto()); // "Alto", "Medio", etc.
-
-            } else if (ticket instanceof Solicitud) {
-                Solicitud s = (Solicitud) ticket;
-                nombrePlantillaBuscada = "Confirmación de Solicitud";
-
-                // VARIABLES ESPECÍFICAS DE SOLICITUD
-                variables.put("tipo_solicitud", s.getTipoSolicitud());
-
-            } else if (ticket instanceof Consulta) {
-                Consulta c = (Consulta) ticket;
-                nombrePlantillaBuscada = "Confirmación de Consulta";
-
-                // VARIABLES ESPECÍFICAS DE CONSULTA
-                variables.put("tema", c.getTema());
-            }
-
-            // ---------------------------------------------------------------
-            // PASO 2: BUSCAR LA PLANTILLA EN BD
-            // ---------------------------------------------------------------
-            // Movemos esto ARRIBA porque necesitamos el 'cuerpo' y 'titulo_visible' de la BD
-            Plantilla plantilla = plantillaRepository.findByNombre(nombrePlantillaBuscada)
-                    .orElseGet(() -> plantillaService.obtenerPorId(1L));
-
-            // ---------------------------------------------------------------
-            // PASO 3: MAPEO MANUAL DE VARIABLES FALTANTES
-            // ---------------------------------------------------------------
-            // Aquí conectamos la columna 'titulo_visible' con la variable '${titulo}' del HTML
-            variables.put("titulo", plantilla.getTituloVisible());
-
-            // Conectamos la columna 'despedida' con la variable '${despedida}'
-            variables.put("despedida", plantilla.getDespedida());
-
-            // ---------------------------------------------------------------
-            // PASO 4: RENDERIZADO EN CAPAS (EL SECRETO)
-            // ---------------------------------------------------------------
-
-            // A. Primero cocinamos el párrafo del medio (el cuerpo específico)
-            // Usamos el texto de la BD (ej: "Hola ${motivo}...") y le metemos los datos
-            String cuerpoTextoDeBd = plantilla.getCuerpo();
-            String cuerpoYaProcesado = renderService.renderizar(cuerpoTextoDeBd, variables);
-
-            // B. Metemos ese párrafo cocinado dentro de las variables como "cuerpo"
-            // para que el HTML Master lo reciba en ${cuerpo}
-            variables.put("cuerpo", cuerpoYaProcesado);
+    /** Constancia ya renderizada, leída en una transacción corta */
+    private record DatosConstancia(Long ticketId, Long asignacionId, Long plantillaId,
+                                   String correoCliente, String htmlFinal) {
+    }
 
-            // C. Finalmente renderizamos el HTML completo (Master)
-            // Ahora ${cuerpo} ya no es "${motivo}", sino "Cobro Indebido"
-            String htmlFinal = renderService.renderizar(plantilla.getHtmlModel(), variables);
+    /**
+     * Genera la constancia de registro (PDF), la sube a Supabase y la envía al cliente.
+     * Se ejecuta en el pipeline de constancias (ConstanciaRegistroService), fuera de la
+     * transacción que creó el ticket; si falla lanza la excepción para que se reintente.
+     *
+     * Sin una transacción abierta durante el trabajo lento: los datos se leen en una
+     * transacción corta de solo lectura, el PDF y la subida corren fuera de transacción,
+     * y el correo se encola junto con el historial en otra transacción corta.
+     *
+     * @param ticketId ID del ticket recién creado
+     * @return false si el cliente no tiene correo (no hay nada que enviar)
+     */
+    public boolean enviarConfirmacionRegistro(Long ticketId) {
+        DatosConstancia datos = transaccionLectura.execute(status -> prepararConstancia(ticketId));
+        if (datos == null) {
+            return false;
+        }
 
-            // ---------------------------------------------------------------
-            // PASO 5: GENERAR PDF Y ENVIAR (Igual que antes)
-            // ---------------------------------------------------------------
-            byte[] pdfBytes = pdfService.generarPdfDesdeHtml(htmlFinal);
-            String nombreArchivo = "Constancia_" + ticket.getIdTicket() + ".pdf";
+        // PDF y subida, fuera de transacción
+        byte[] pdfBytes = pdfService.generarPdfDesdeHtml(datos.htmlFinal());
+        String nombreArchivo = "Constancia_" + datos.ticketId() + ".pdf";
 
-            String rutaObjeto = "automaticas/" + nombreArchivo;
-            String urlPublicaPdf = supabaseStorageService.uploadPdfAutomatico(rutaObjeto, pdfBytes);
+        String rutaObjeto = "automaticas/" + nombreArchivo;
+        String urlPublicaPdf = supabaseStorageService.uploadPdfAutomatico(rutaObjeto, pdfBytes);
 
+        // Correo e historial juntos: si falla el encolado no queda historial y se reintenta
+        transaccion.executeWithoutResult(status -> {
             emailService.enviarCorreoConAdjunto(
-                    correoCliente,
-                    "Registro Exitoso #" + ticket.getIdTicket(),
-                    htmlFinal,
+                    datos.correoCliente(),
+                    "Registro Exitoso #" + datos.ticketId(),
+                    datos.htmlFinal(),
                     pdfBytes,
                     nombreArchivo
             );
 
-            // Guardar Historial
             RespuestaCliente respuesta = new RespuestaCliente();
-            respuesta.setAsignacion(asignacion);
-            respuesta.setPlantilla(plantilla);
-            respuesta.setAsunto("Confirmación Automática Ticket " + ticket.getIdTicket());
-            respuesta.setCorreoDestino(correoCliente);
-            respuesta.setRespuestaHtml(htmlFinal);
+            respuesta.setAsignacion(asignacionRepository.getReferenceById(datos.asignacionId()));
+            respuesta.setPlantilla(plantillaRepository.getReferenceById(datos.plantillaId()));
+            respuesta.setAsunto("Confirmación Automática Ticket " + datos.ticketId());
+            respuesta.setCorreoDestino(datos.correoCliente());
+            respuesta.setRespuestaHtml(datos.htmlFinal());
             respuesta.setFechaEnvio(LocalDateTime.now());
             respuesta.setFechaCreacion(LocalDateTime.now());
             respuesta.setUrlPdfGenerado(urlPublicaPdf);
             respuesta.setTipoRespuesta(TipoRespuesta.AUTOMATICA);
 
             respuestaRepository.save(respuesta);
+        });
 
-            System.out.println("Confirmación enviada para el ticket " + ticket.getIdTicket());
+        log.info("Confirmación encolada para el ticket {}", datos.ticketId());
+        return true;
+    }
 
-        } catch (Exception e) {
-            System.err.println("Error en confirmación automática: " + e.getMessage());
-            e.printStackTrace();
+    /**
+     * Lee ticket, cliente y plantilla y renderiza el HTML de la constancia.
+     *
+     * @return null si el cliente no tiene correo
+     */
+    private DatosConstancia prepararConstancia(Long ticketId) {
+        // Cargar primero el ticket para obtener la subclase real (no un proxy) y usar instanceof
+        Ticket ticket = ticketRepository.findById(ticketId)
+                .orElseThrow(() -> new IllegalStateException("Ticket no encontrado: " + ticketId));
+        Asignacion asignacion = asignacionRepository.findFirstByTicket_IdTicketOrderByFechaInicioAsc(ticketId)
+                .orElseThrow(() -> new IllegalStateException("Ticket sin asignación inicial: " + ticketId));
+
+        // Validación de correo
+        if (ticket.getCliente() == null || ticket.getCliente().getCorreo() == null
+                || ticket.getCliente().getCorreo().isBlank()) {
+            return null;
         }
+        String correoCliente = ticket.getCliente().getCorreo();
+
+        // ---------------------------------------------------------------
+        // PASO 1: RECOLECTAR DATOS PUROS (Sin texto de relleno)
+        // ---------------------------------------------------------------
+        Map<String, Object> variables = new HashMap<>();
+        variables.put("numero_ticket", ticket.getIdTicket().toString());
+        variables.put("fecha_actual", LocalDateTime.now().toLocalDate().toString());
+        variables.put("nombre_cliente", ticket.getCliente().getNombres() + " " + ticket.getCliente().getApellidos());
+        variables.put("asunto_ticket", ticket.getAsunto()); // Ojo: en el HTML puse 'asunto_ticket'
+        variables.put("identificador_servicio", ticket.getCliente().getDni());
+
+        // Variable para buscar en BD
+        String nombrePlantillaBuscada = "Confirmación Genérica";
+
+        if (ticket instanceof Reclamo) {
+            Reclamo r = (Reclamo) ticket;
+            nombrePlantillaBuscada = "Confirmación de Reclamo";
+
+            // VARIABLES ESPECÍFICAS DE RECLAMO
+            variables.put("motivo", r.getMotivoReclamo());
+            // Agregamos la fecha límite (muy importante para el cliente)
+            // Usamos "" + para asegurar que sea String, o formatea la fecha si prefieres
+            variables.put("fecha_limite", r.getFechaLimiteRespuesta() != null ? r.getFechaLimiteRespuesta().toString() : "15 días hábiles");
+
+        } else if (ticket instanceof Queja) {
+            Queja q = (Queja) ticket;
+            nombrePlantillaBuscada = "Confirmación de Queja";
+
+            // VARIABLES ESPECÍFICAS DE QUEJA
+            variables.put("area", q.getAreaInvolucrada());
+            variables.put("impacto", q.getImpacto()); // "Alto", "Medio", etc.
+
+        } else if (ticket instanceof Solicitud) {
+            Solicitud s = (Solicitud) ticket;
+            nombrePlantillaBuscada = "Confirmación de Solicitud";
+
+            // VARIABLES ESPECÍFICAS DE SOLICITUD
+            variables.put("tipo_solicitud", s.getTipoSolicitud());
+
+        } else if (ticket instanceof Consulta) {
+            Consulta c = (Consulta) ticket;
+            nombrePlantillaBuscada = "Confirmación de Consulta";
+
+            // VARIABLES ESPECÍFICAS DE CONSULTA
+            variables.put("tema", c.getTema());
+        }
+
+        // ---------------------------------------------------------------
+        // PASO 2: BUSCAR LA PLANTILLA EN BD
+        // ---------------------------------------------------------------
+        // Movemos esto ARRIBA porque necesitamos el 'cuerpo' y 'titulo_visible' de la BD
+        Plantilla plantilla = plantillaRepository.findByNombre(nombrePlantillaBuscada)
+                .orElseGet(() -> plantillaService.obtenerPorId(1L));
+
+        // ---------------------------------------------------------------
+        // PASO 3: MAPEO MANUAL DE VARIABLES FALTANTES
+        // ---------------------------------------------------------------
+        // Aquí conectamos la columna 'titulo_visible' con la variable '${titulo}' del HTML
+        variables.put("titulo", plantilla.getTituloVisible());
+
+        // Conectamos la columna 'despedida' con la variable '${despedida}'
+        variables.put("despedida", plantilla.getDespedida());
+
+        // ---------------------------------------------------------------
+        // PASO 4: RENDERIZADO EN CAPAS (EL SECRETO)
+        // ---------------------------------------------------------------
+
+        // A. Primero cocinamos el párrafo del medio (el cuerpo específico)
+        // Usamos el texto de la BD (ej: "Hola ${motivo}...") y le metemos los datos
+        String cuerpoTextoDeBd = plantilla.getCuerpo();
+        String cuerpoYaProcesado = renderService.renderizar(cuerpoTextoDeBd, variables);
+
+        // B. Metemos ese párrafo cocinado dentro de las variables como "cuerpo"
+        // para que el HTML Master lo reciba en ${cuerpo}
+        variables.put("cuerpo", cuerpoYaProcesado);
+
+        // C. Finalmente renderizamos el HTML completo (Master)
+        // Ahora ${cuerpo} ya no es "${motivo}", sino "Cobro Indebido"
+        String htmlFinal = renderService.renderizar(plantilla.getHtmlModel(), variables);
+
+        return new DatosConstancia(ticket.getIdTicket(), asignacion.getIdAsignacion(), plantilla.getIdPlantilla(),
+                correoCliente, htmlFinal);
     }
 
     @Transactional(readOnly = true)
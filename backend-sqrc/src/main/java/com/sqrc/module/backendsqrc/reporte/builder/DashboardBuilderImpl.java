@@ -3,7 +3,6 @@ package com.sqrc.module.backendsqrc.reporte.builder;
 import com.sqrc.module.backendsqrc.reporte.dto.DashboardKpisDTO;
 import com.sqrc.module.backendsqrc.reporte.model.*;
 import com.sqrc.module.backendsqrc.ticket.model.Motivo;
-import com.sqrc.module.backendsqrc.ticket.model.Agente;
 import com.sqrc.module.backendsqrc.ticket.repository.MotivoRepository;
 import com.sqrc.module.backendsqrc.ticket.repository.AgenteRepository;
 import lombok.RequiredArgsConstructor;
@@ -261,8 +260,8 @@ public class DashboardBuilderImpl implements DashboardBuilder {
                         Collectors.summingInt(KpiMotivosFrecuentes::getConteoTotal)
                 ));
 
-        // Obtener todos los motivos de la BD para mapear ID -> Nombre
-        Map<Long, String> motivosMap = motivoRepository.findAll().stream()
+        // Obtener todos los motivos (catálogo cacheado) para mapear ID -> Nombre
+        Map<Long, String> motivosMap = motivoRepository.findCatalogo().stream()
                 .collect(Collectors.toMap(Motivo::getIdMotivo, Motivo::getNombre));
 
         List<DashboardKpisDTO.MotivoFrecuenteDTO> listaFinal = new ArrayList<>();
@@ -297,11 +296,11 @@ public class DashboardBuilderImpl implements DashboardBuilder {
                         Collectors.summingInt(KpiRendimientoAgenteDiario::getTicketsResueltosTotal)
                 ));
 
-        // Obtener todos los agentes de la BD para mapear ID -> Nombre completo
-        Map<Long, String> agentesMap = agenteRepository.findAll().stream()
+        // Obtener los nombres de los agentes (cacheados) para mapear ID -> Nombre completo
+        Map<Long, String> agentesMap = agenteRepository.findNombres().stream()
                 .collect(Collectors.toMap(
-                        Agente::getIdEmpleado, 
-                        a -> a.getNombre() + " " + a.getApellido()
+                        fila -> (Long) fila[0],
+                        fila -> fila[1] + " " + fila[2]
                 ));
 
         List<DashboardKpisDTO.AgenteRankingDTO> topAgentes = new ArrayList<>();
@@ -3,8 +3,6 @@ package com.sqrc.module.backendsqrc.reporte.service;
 import com.sqrc.module.backendsqrc.reporte.dto.AgentTicketsDTO;
 import com.sqrc.module.backendsqrc.reporte.dto.TicketReporteDTO;
 import com.sqrc.module.backendsqrc.ticket.model.Agente;
-import com.sqrc.module.backendsqrc.ticket.model.Asignacion;
-import com.sqrc.module.backendsqrc.ticket.model.Ticket;
 import com.sqrc.module.backendsqrc.ticket.repository.AgenteRepository;
 import com.sqrc.module.backendsqrc.ticket.repository.AsignacionRepository;
 import lombok.RequiredArgsConstructor;
@@ -12,14 +10,20 @@ import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.sql.Timestamp;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
 import java.util.Collections;
-import java.util.Comparator;
 import java.util.List;
-import java.util.stream.Collectors;
 
+/**
+ * Listados de tickets para los reportes.
+ *
+ * La asignación más reciente de cada ticket se elige en SQL con ROW_NUMBER() por
+ * ticket, y el rango de fechas y el límite se aplican en la misma consulta: no se
+ * cargan todas las asignaciones del rango para agruparlas en memoria.
+ */
 @Service
 @RequiredArgsConstructor
 @Slf4j
@@ -30,6 +34,9 @@ public class ReporteTicketServiceImpl implements ReporteTicketService {
 
     private static final DateTimeFormatter DATE_FORMATTER = DateTimeFormatter.ofPattern("dd/MM/yyyy");
 
+    private static final int LIMITE_POR_DEFECTO = 50;
+    private static final int LIMITE_MAXIMO = 500;
+
     @Override
     @Transactional(readOnly = true)
     public AgentTicketsDTO obtenerTicketsPorAgente(String agenteId, LocalDate startDate, LocalDate endDate) {
@@ -50,48 +57,15 @@ public class ReporteTicketServiceImpl implements ReporteTicketService {
                 .map(Agente::getNombreCompleto)
                 .orElse("Agente " + agenteId);
 
-                // Obtener asignaciones del agente con sus tickets
-                List<Asignacion> asignaciones = asignacionRepository.findByEmpleadoIdWithTicket(idAgente);
-
-                // Filtrar por fechas si se proporcionan
-                LocalDateTime startDateTime = startDate != null ? startDate.atStartOfDay() : null;
-                LocalDateTime endDateTime = endDate != null ? endDate.atTime(23, 59, 59) : null;
-
-                // Agrupar por ticketId y quedarnos con la asignación más reciente por ticket
-                java.util.Map<Long, java.util.Map.Entry<Ticket, Long>> porTicket = new java.util.HashMap<>();
-                for (Asignacion a : asignaciones) {
-                        Ticket t = a.getTicket();
-                        if (t == null || t.getIdTicket() == null) continue;
-                        if (startDateTime != null && t.getFechaCreacion().isBefore(startDateTime)) continue;
-                        if (endDateTime != null && t.getFechaCreacion().isAfter(endDateTime)) continue;
-                        Long tid = t.getIdTicket();
-                        Long aid = a.getIdAsignacion();
-                        java.util.Map.Entry<Ticket, Long> existing = porTicket.get(tid);
-                        if (existing == null) {
-                                porTicket.put(tid, new java.util.AbstractMap.SimpleEntry<>(t, aid));
-                        } else {
-                                // comparar por fechaInicio de la asignación y elegir la más reciente
-                                java.time.LocalDateTime existingFecha = null;
-                                java.time.LocalDateTime nuevaFecha = a.getFechaInicio();
-                                if (existing.getValue() != null) {
-                                        for (Asignacion aa : asignaciones) {
-                                                if (existing.getValue().equals(aa.getIdAsignacion())) {
-                                                        existingFecha = aa.getFechaInicio();
-                                                        break;
-                                                }
-                                        }
-                                }
-                                if (nuevaFecha != null && (existingFecha == null || nuevaFecha.isAfter(existingFecha))) {
-                                        porTicket.put(tid, new java.util.AbstractMap.SimpleEntry<>(t, aid));
-                                }
-                        }
-                }
-
-                List<TicketReporteDTO> ticketDTOs = porTicket.values().stream()
-                                .map(e -> new java.util.AbstractMap.SimpleEntry<>(e.getKey(), e.getValue()))
-                                .sorted((e1, e2) -> e2.getKey().getFechaCreacion().compareTo(e1.getKey().getFechaCreacion()))
-                                .map(e -> mapToDTO(e.getKey(), e.getValue()))
-                                .collect(Collectors.toList());
+        // Tickets del agente (filtrados por fecha de creación) con su asignación más reciente
+        LocalDateTime startDateTime = startDate != null ? startDate.atStartOfDay() : null;
+        LocalDateTime endDateTime = endDate != null ? endDate.atTime(23, 59, 59) : null;
+
+        List<TicketReporteDTO> ticketDTOs = asignacionRepository
+                .findTicketsDeEmpleadoConUltimaAsignacion(idAgente, startDateTime, endDateTime)
+                .stream()
+                .map(ReporteTicketServiceImpl::mapToDTO)
+                .toList();
 
         return AgentTicketsDTO.builder()
                 .agenteId(agenteId)
@@ -100,30 +74,48 @@ public class ReporteTicketServiceImpl implements ReporteTicketService {
                 .build();
     }
 
-        private TicketReporteDTO mapToDTO(Ticket ticket) {
-                return mapToDTO(ticket, null);
-        }
+    @Override
+    @Transactional(readOnly = true)
+    public List<TicketReporteDTO> obtenerTicketsRecientes(LocalDate startDate, LocalDate endDate, Integer limit) {
+        // Valores por defecto: últimos 30 días, máximo 50 tickets
+        LocalDateTime inicio = (startDate != null ? startDate : LocalDate.now().minusDays(30)).atStartOfDay();
+        LocalDateTime fin = (endDate != null ? endDate : LocalDate.now()).atTime(23, 59, 59);
+        int maxItems = limit != null ? Math.min(Math.max(limit, 1), LIMITE_MAXIMO) : LIMITE_POR_DEFECTO;
 
-        private TicketReporteDTO mapToDTO(Ticket ticket, Long asignacionId) {
-        String clientName = ticket.getCliente() != null
-                ? ticket.getCliente().getNombres() + " " + ticket.getCliente().getApellidos()
+        return asignacionRepository.findTicketsRecientesConUltimaAsignacion(inicio, fin, maxItems)
+                .stream()
+                .map(ReporteTicketServiceImpl::mapToDTO)
+                .toList();
+    }
+
+    /**
+     * Mapea una fila [idTicket, idAsignacion, fechaCreacion, estado, clienteNombres,
+     * clienteApellidos, motivoNombre] a TicketReporteDTO.
+     */
+    private static TicketReporteDTO mapToDTO(Object[] fila) {
+        Long ticketId = fila[0] != null ? ((Number) fila[0]).longValue() : null;
+        Long asignacionId = fila[1] != null ? ((Number) fila[1]).longValue() : null;
+        LocalDateTime fechaCreacion = aFecha(fila[2]);
+
+        String clientName = fila[4] != null || fila[5] != null
+                ? fila[4] + " " + fila[5]
                 : "Cliente desconocido";
 
-        String motivo = ticket.getMotivo() != null
-                ? ticket.getMotivo().getNombre()
+        String motivo = fila[6] != null
+                ? fila[6].toString()
                 : "Sin motivo";
 
-        String fecha = ticket.getFechaCreacion() != null
-                ? ticket.getFechaCreacion().format(DATE_FORMATTER)
+        String fecha = fechaCreacion != null
+                ? fechaCreacion.format(DATE_FORMATTER)
                 : "-";
 
-        String estado = ticket.getEstado() != null
-                ? ticket.getEstado().name()
+        String estado = fila[3] != null
+                ? fila[3].toString()
                 : "DESCONOCIDO";
 
         return TicketReporteDTO.builder()
-                .id(ticket.getIdTicket() != null ? ticket.getIdTicket().toString() : null)
-                .ticketId(ticket.getIdTicket())
+                .id(ticketId != null ? ticketId.toString() : null)
+                .ticketId(ticketId)
                 .asignacionId(asignacionId)
                 .client(clientName)
                 .motive(motivo)
@@ -132,48 +124,10 @@ public class ReporteTicketServiceImpl implements ReporteTicketService {
                 .build();
     }
 
-    @Override
-    @Transactional(readOnly = true)
-    public List<TicketReporteDTO> obtenerTicketsRecientes(LocalDate startDate, LocalDate endDate, Integer limit) {
-        // Valores por defecto: últimos 30 días, máximo 50 tickets
-        LocalDateTime inicio = (startDate != null ? startDate : LocalDate.now().minusDays(30)).atStartOfDay();
-        LocalDateTime fin = (endDate != null ? endDate : LocalDate.now()).atTime(23, 59, 59);
-        int maxItems = limit != null ? limit : 50;
-
-                List<Asignacion> asignaciones = asignacionRepository.findRecentWithDetails(inicio, fin);
-
-                // Agrupar por ticketId y quedarnos con la asignación más reciente por ticket
-                java.util.Map<Long, java.util.Map.Entry<Ticket, Long>> porTicket = new java.util.HashMap<>();
-                for (Asignacion a : asignaciones) {
-                        Ticket t = a.getTicket();
-                        if (t == null || t.getIdTicket() == null) continue;
-                        Long tid = t.getIdTicket();
-                        Long aid = a.getIdAsignacion();
-                        java.util.Map.Entry<Ticket, Long> existing = porTicket.get(tid);
-                        if (existing == null) {
-                                porTicket.put(tid, new java.util.AbstractMap.SimpleEntry<>(t, aid));
-                        } else {
-                                java.time.LocalDateTime existingFecha = null;
-                                java.time.LocalDateTime nuevaFecha = a.getFechaInicio();
-                                if (existing.getValue() != null) {
-                                        for (Asignacion aa : asignaciones) {
-                                                if (existing.getValue().equals(aa.getIdAsignacion())) {
-                                                        existingFecha = aa.getFechaInicio();
-                                                        break;
-                                                }
-                                        }
-                                }
-                                if (nuevaFecha != null && (existingFecha == null || nuevaFecha.isAfter(existingFecha))) {
-                                        porTicket.put(tid, new java.util.AbstractMap.SimpleEntry<>(t, aid));
-                                }
-                        }
-                }
-
-                return porTicket.values().stream()
-                                .map(e -> new java.util.AbstractMap.SimpleEntry<>(e.getKey(), e.getValue()))
-                                .sorted((e1, e2) -> e2.getKey().getFechaCreacion().compareTo(e1.getKey().getFechaCreacion()))
-                                .limit(maxItems)
-                                .map(e -> mapToDTO(e.getKey(), e.getValue()))
-                                .collect(Collectors.toList());
+    private static LocalDateTime aFecha(Object valor) {
+        if (valor instanceof LocalDateTime fecha) {
+            return fecha;
+        }
+        return valor instanceof Timestamp fecha ? fecha.toLocalDateTime() : null;
     }
 }
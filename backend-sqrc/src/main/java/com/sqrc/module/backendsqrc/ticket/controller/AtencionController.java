@@ -1,12 +1,16 @@
 package com.sqrc.module.backendsqrc.ticket.controller;
 
 import com.sqrc.module.backendsqrc.ticket.dto.DesempenoAsignacionDTO;
+import com.sqrc.module.backendsqrc.ticket.dto.DesempenoPaginaDTO;
+import com.sqrc.module.backendsqrc.ticket.dto.DesempenoResumenDTO;
 import com.sqrc.module.backendsqrc.ticket.service.AtencionDesempenoService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.time.LocalDate;
 import java.util.List;
 
 /**
@@ -17,6 +21,10 @@ import java.util.List;
  * 
  * Retorna el historial de asignaciones de un empleado con información
  * del ticket y detalles específicos según el tipo (ej: impacto para Quejas).
+ *
+ * Para empleados con muchas asignaciones usar las variantes acotadas por fecha:
+ * GET /api/v1/atencion/desempeno/paginado?empleado_id={id}&desde=&hasta=&page=&size=
+ * GET /api/v1/atencion/desempeno/resumen?empleado_id={id}&desde=&hasta=
  */
 @RestController
 @RequestMapping("/api/v1/atencion")
@@ -59,6 +67,49 @@ public class AtencionController {
         return ResponseEntity.ok(desempeno);
     }
 
+    /**
+     * Desempeño de un empleado paginado, para las asignaciones iniciadas entre
+     * desde y hasta (ISO, días completos; por defecto los últimos 30 días).
+     *
+     * @return 200 con la página; 400 si desde es posterior a hasta
+     */
+    @GetMapping("/desempeno/paginado")
+    public ResponseEntity<DesempenoPaginaDTO> getDesempenoPaginado(
+            @RequestParam("empleado_id") Long empleadoId,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate desde,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate hasta,
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "50") int size) {
+
+        log.info("GET /api/v1/atencion/desempeno/paginado?empleado_id={}&desde={}&hasta={}&page={}&size={}",
+                empleadoId, desde, hasta, page, size);
+
+        if (desde != null && hasta != null && desde.isAfter(hasta)) {
+            return ResponseEntity.badRequest().build();
+        }
+        return ResponseEntity.ok(atencionDesempenoService.getDesempenoPaginado(empleadoId, desde, hasta, page, size));
+    }
+
+    /**
+     * Resumen agregado del desempeño de un empleado: asignaciones, tickets atendidos,
+     * cerrados y tiempo promedio de atención, en total y por tipo de ticket.
+     *
+     * @return 200 con el resumen; 400 si desde es posterior a hasta
+     */
+    @GetMapping("/desempeno/resumen")
+    public ResponseEntity<DesempenoResumenDTO> getResumenDesempeno(
+            @RequestParam("empleado_id") Long empleadoId,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate desde,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate hasta) {
+
+        log.info("GET /api/v1/atencion/desempeno/resumen?empleado_id={}&desde={}&hasta={}", empleadoId, desde, hasta);
+
+        if (desde != null && hasta != null && desde.isAfter(hasta)) {
+            return ResponseEntity.badRequest().build();
+        }
+        return ResponseEntity.ok(atencionDesempenoService.getResumenDesempeno(empleadoId, desde, hasta));
+    }
+
     /**
      * Health check del controlador de atención
      */
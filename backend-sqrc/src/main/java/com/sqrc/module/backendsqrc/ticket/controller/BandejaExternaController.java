@@ -0,0 +1,71 @@
+package com.sqrc.module.backendsqrc.ticket.controller;
+
+import com.sqrc.module.backendsqrc.ticket.dto.response.BandejaExternaPageResponse;
+import com.sqrc.module.backendsqrc.ticket.enums.AreaExterna;
+import com.sqrc.module.backendsqrc.ticket.service.BandejaExternaService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.async.DeferredResult;
+
+import java.util.Map;
+
+/**
+ * Bandeja de entrada de cada área externa (TI, Ventas, Infraestructura).
+ *
+ * Endpoints:
+ * - GET /api/areas-externas/{area}/bandeja  -> Tickets derivados al área, por cursor;
+ *                                             con esperaMs > 0 hace long-polling
+ * - GET /api/areas-externas/bandeja/metricas -> Esperas abiertas, despertadas y vencidas
+ *
+ * Uso típico: recorrer las páginas con nextCursor mientras tieneSiguiente sea true y,
+ * con la bandeja al día, repetir la petición con el último cursor y esperaMs=25000.
+ */
+@RestController
+@RequestMapping("/api/areas-externas")
+@RequiredArgsConstructor
+@Slf4j
+public class BandejaExternaController {
+
+    private final BandejaExternaService bandejaExternaService;
+
+    /**
+     * Página de la bandeja de un área.
+     *
+     * @param area ID o código del área (ej: 1 o TI)
+     * @param cursor nextCursor de la página anterior (0 para empezar)
+     * @param limite Tamaño de página
+     * @param incluirRespondidas Incluir derivaciones que ya tienen respuesta
+     * @param esperaMs Si no hay tickets después del cursor, esperar hasta este plazo
+     * @return 200 con la página (vacía si venció la espera), 404 si el área no existe,
+     *         429 si hay demasiadas esperas abiertas
+     */
+    @GetMapping("/{area}/bandeja")
+    public DeferredResult<ResponseEntity<BandejaExternaPageResponse>> obtenerBandeja(
+            @PathVariable String area,
+            @RequestParam(required = false) Long cursor,
+            @RequestParam(required = false) Integer limite,
+            @RequestParam(defaultValue = "false") boolean incluirRespondidas,
+            @RequestParam(defaultValue = "0") long esperaMs) {
+
+        log.debug("GET /api/areas-externas/{}/bandeja - cursor={}, limite={}, esperaMs={}",
+                area, cursor, limite, esperaMs);
+
+        AreaExterna areaExterna = AreaExterna.getByIdOCodigo(area);
+        if (areaExterna == null) {
+            DeferredResult<ResponseEntity<BandejaExternaPageResponse>> noEncontrada = new DeferredResult<>();
+            noEncontrada.setResult(ResponseEntity.notFound().build());
+            return noEncontrada;
+        }
+
+        BandejaExternaService.Consulta consulta =
+                bandejaExternaService.consulta(areaExterna, cursor, limite, incluirRespondidas);
+        return bandejaExternaService.esperar(consulta, esperaMs);
+    }
+
+    @GetMapping("/bandeja/metricas")
+    public ResponseEntity<Map<String, Object>> obtenerMetricas() {
+        return ResponseEntity.ok(bandejaExternaService.getMetricas());
+    }
+}
@@ -3,6 +3,7 @@ package com.sqrc.module.backendsqrc.ticket.controller;
 import com.sqrc.module.backendsqrc.ticket.dto.DocumentacionDto;
 import com.sqrc.module.backendsqrc.ticket.dto.request.CreateDocumentacionRequest;
 import com.sqrc.module.backendsqrc.ticket.dto.request.UpdateDocumentacionRequest;
+import com.sqrc.module.backendsqrc.ticket.dto.response.DocumentacionBusquedaResponse;
 import com.sqrc.module.backendsqrc.ticket.dto.response.DocumentacionCreatedResponse;
 import com.sqrc.module.backendsqrc.ticket.service.DocumentacionService;
 import jakarta.validation.Valid;
@@ -24,6 +25,7 @@ import java.util.List;
  * - PUT    /api/v1/documentacion/{id}         -> Actualizar documentación
  * - GET    /api/v1/documentacion/{id}         -> Obtener documentación por ID
  * - GET    /api/v1/documentacion/ticket/{id}  -> Obtener documentación de un ticket
+ * - GET    /api/v1/documentacion/buscar       -> Búsqueda de texto en problema/solución
  * - DELETE /api/v1/documentacion/{id}         -> Eliminar documentación
  */
 @RestController
@@ -68,6 +70,28 @@ public class DocumentacionController {
         return ResponseEntity.ok(response);
     }
 
+    /**
+     * Busca en la documentación de todos los tickets, ordenado por relevancia.
+     *
+     * @param texto Palabras a buscar (mínimo 3 caracteres)
+     * @param motivoId Filtrar por motivo del ticket (opcional)
+     * @param soloCerrados Solo tickets cerrados
+     * @param page Página (desde 0)
+     * @param size Tamaño de página
+     * @return Página de resultados con enlace al ticket y al motivo
+     */
+    @GetMapping("/buscar")
+    public ResponseEntity<DocumentacionBusquedaResponse> buscarDocumentacion(
+            @RequestParam String texto,
+            @RequestParam(required = false) Long motivoId,
+            @RequestParam(defaultValue = "false") boolean soloCerrados,
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "20") int size) {
+        log.info("GET /api/v1/documentacion/buscar - texto='{}', motivoId={}, page={}", texto, motivoId, page);
+
+        return ResponseEntity.ok(documentacionService.buscarDocumentacion(texto, motivoId, soloCerrados, page, size));
+    }
+
     /**
      * Obtiene una documentación específica por ID.
      * 
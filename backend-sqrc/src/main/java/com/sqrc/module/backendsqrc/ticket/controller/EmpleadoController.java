@@ -1,7 +1,9 @@
 package com.sqrc.module.backendsqrc.ticket.controller;
 
+import com.sqrc.module.backendsqrc.ticket.dto.response.PresenciaAgenteDTO;
 import com.sqrc.module.backendsqrc.ticket.model.Empleado;
 import com.sqrc.module.backendsqrc.ticket.model.TipoEmpleado;
+import com.sqrc.module.backendsqrc.ticket.presencia.RegistroPresenciaAgentes;
 import com.sqrc.module.backendsqrc.ticket.service.EmpleadoSyncService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -21,6 +23,8 @@ import java.util.stream.Collectors;
  * - GET  /api/empleados                    -> Listar todos los empleados
  * - GET  /api/empleados?tipo=AGENTE_LLAMADA -> Listar por tipo
  * - GET  /api/empleados/agentes            -> Listar todos los agentes
+ * - GET  /api/empleados/presencia          -> Estado en vivo de los agentes
+ * - GET  /api/empleados/libres?area=X      -> Agentes libres del área (enrutamiento)
  * - POST /api/empleados/sync               -> Sincronizar desde API externa
  */
 @RestController
@@ -30,6 +34,7 @@ import java.util.stream.Collectors;
 public class EmpleadoController {
 
     private final EmpleadoSyncService empleadoSyncService;
+    private final RegistroPresenciaAgentes registroPresenciaAgentes;
 
     /**
      * Lista todos los empleados o filtra por tipo.
@@ -82,6 +87,33 @@ public class EmpleadoController {
         return ResponseEntity.ok(dtos);
     }
 
+    /**
+     * Estado en vivo (ocupación y llamadas) de los agentes, desde el registro en memoria.
+     * 
+     * @param area Área (opcional)
+     * @return Lista de agentes con su presencia
+     */
+    @GetMapping("/presencia")
+    public ResponseEntity<List<PresenciaAgenteDTO>> listarPresencia(
+            @RequestParam(required = false) String area) {
+        log.debug("GET /api/empleados/presencia - area={}", area);
+        return ResponseEntity.ok(registroPresenciaAgentes.listar(area));
+    }
+
+    /**
+     * Agentes libres del área: sin ticket en curso y bajo el máximo de llamadas,
+     * primero los que tienen menos llamadas activas.
+     * 
+     * @param area Área (opcional; sin área devuelve los libres de todas)
+     * @return Lista de agentes libres
+     */
+    @GetMapping("/libres")
+    public ResponseEntity<List<PresenciaAgenteDTO>> listarLibres(
+            @RequestParam(required = false) String area) {
+        log.debug("GET /api/empleados/libres - area={}", area);
+        return ResponseEntity.ok(registroPresenciaAgentes.libres(area));
+    }
+
     /**
      * Sincroniza los agentes de call center desde la API externa.
      * 
@@ -3,7 +3,10 @@ package com.sqrc.module.backendsqrc.ticket.controller;
 import com.sqrc.module.backendsqrc.ticket.dto.LlamadaDto;
 import com.sqrc.module.backendsqrc.ticket.dto.request.AsociarLlamadaRequest;
 import com.sqrc.module.backendsqrc.ticket.dto.request.CreateLlamadaRequest;
+import com.sqrc.module.backendsqrc.ticket.dto.request.IngestaLlamadasRequest;
+import com.sqrc.module.backendsqrc.ticket.dto.response.IngestaLlamadasResponse;
 import com.sqrc.module.backendsqrc.ticket.model.EstadoLlamada;
+import com.sqrc.module.backendsqrc.ticket.service.LlamadaIngestaService;
 import com.sqrc.module.backendsqrc.ticket.service.LlamadaService;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
@@ -13,6 +16,7 @@ import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
 import java.util.List;
+import java.util.Map;
 
 /**
  * Controlador REST para la gestión de llamadas.
@@ -26,6 +30,8 @@ import java.util.List;
  * - GET    /api/v1/llamadas/ticket/{id}  -> Obtener llamada de un ticket
  * - GET    /api/v1/llamadas/empleado/{id} -> Obtener llamadas de un empleado
  * - GET    /api/v1/llamadas/disponibles/{empleadoId} -> Llamadas sin ticket asignado
+ * - POST   /api/v1/llamadas/eventos      -> Encolar eventos de la central telefónica (CTI)
+ * - GET    /api/v1/llamadas/eventos/metricas -> Métricas de la ingesta de eventos
  */
 @RestController
 @RequestMapping("/api/v1/llamadas")
@@ -34,6 +40,7 @@ import java.util.List;
 public class LlamadaController {
 
     private final LlamadaService llamadaService;
+    private final LlamadaIngestaService llamadaIngestaService;
 
     /**
      * Crea una nueva llamada.
@@ -139,4 +146,29 @@ public class LlamadaController {
         
         return ResponseEntity.ok(response);
     }
+
+    /**
+     * Encola un lote de eventos de la central telefónica (oferta, aceptación, fin,
+     * duración). Se persisten por lotes en segundo plano.
+     *
+     * @return 202 si se aceptaron todos; 429 si la cola se llenó (reenviar los
+     *         últimos "rechazados" eventos del lote)
+     */
+    @PostMapping("/eventos")
+    public ResponseEntity<IngestaLlamadasResponse> ingestarEventos(@Valid @RequestBody IngestaLlamadasRequest request) {
+        log.debug("POST /api/v1/llamadas/eventos - {} eventos", request.getEventos().size());
+
+        IngestaLlamadasResponse response = llamadaIngestaService.encolar(request.getEventos());
+
+        HttpStatus status = response.getRechazados() > 0 ? HttpStatus.TOO_MANY_REQUESTS : HttpStatus.ACCEPTED;
+        return new ResponseEntity<>(response, status);
+    }
+
+    /**
+     * Métricas de la ingesta de eventos.
+     */
+    @GetMapping("/eventos/metricas")
+    public ResponseEntity<Map<String, Object>> metricasIngesta() {
+        return ResponseEntity.ok(llamadaIngestaService.getMetricas());
+    }
 }
@@ -1,18 +1,15 @@
 package com.sqrc.module.backendsqrc.ticket.controller;
 
-import com.sqrc.module.backendsqrc.ticket.dto.NotificacionExternaDTO;
 import com.sqrc.module.backendsqrc.ticket.dto.TicketDerivadoSimuladorDTO;
-import com.sqrc.module.backendsqrc.ticket.model.EstadoTicket;
-import com.sqrc.module.backendsqrc.ticket.model.Ticket;
-import com.sqrc.module.backendsqrc.ticket.repository.TicketRepository;
-import com.sqrc.module.backendsqrc.ticket.service.NotificacionExternaService;
+import com.sqrc.module.backendsqrc.ticket.dto.response.BandejaExternaPageResponse;
+import com.sqrc.module.backendsqrc.ticket.service.BandejaExternaService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.util.ArrayList;
 import java.util.List;
-import java.util.stream.Collectors;
 
 /**
  * Controlador REST para el simulador de área externa.
@@ -22,6 +19,8 @@ import java.util.stream.Collectors;
  *
  * Endpoints:
  * - GET /api/simulador/tickets-derivados -> Lista tickets en estado DERIVADO
+ *
+ * Las áreas reales deben usar la bandeja paginada de {@link BandejaExternaController}.
  */
 @RestController
 @RequestMapping("/api/simulador")
@@ -29,41 +28,32 @@ import java.util.stream.Collectors;
 @Slf4j
 public class SimuladorController {
 
-    private final TicketRepository ticketRepository;
-    private final NotificacionExternaService notificacionExternaService;
+    private final BandejaExternaService bandejaExternaService;
 
     /**
-     * Lista todos los tickets en estado DERIVADO con sus notificaciones.
+     * Lista todos los tickets en estado DERIVADO con su notificación más reciente.
      * Simula la bandeja de entrada de un área externa.
      *
+     * Recorre la bandeja de todas las áreas página a página (una consulta por página,
+     * no una por ticket).
+     *
      * @return Lista de tickets derivados con su información de derivación
      */
     @GetMapping("/tickets-derivados")
     public ResponseEntity<List<TicketDerivadoSimuladorDTO>> listarTicketsDerivados() {
         log.info("GET /api/simulador/tickets-derivados - Listando tickets derivados");
 
-        // Obtener todos los tickets en estado DERIVADO
-        List<Ticket> ticketsDerivados = ticketRepository.findByEstadoIn(List.of(EstadoTicket.DERIVADO));
-
-        // Mapear a DTOs con sus notificaciones
-        List<TicketDerivadoSimuladorDTO> resultado = ticketsDerivados.stream().map(ticket -> {
-            // Obtener notificaciones del ticket
-            List<NotificacionExternaDTO> notificaciones = notificacionExternaService.obtenerPorTicket(ticket.getIdTicket());
-
-            // Tomar la más reciente (primera en la lista si están ordenadas por fecha desc)
-            NotificacionExternaDTO ultimaNotificacion = notificaciones.isEmpty() ? null : notificaciones.get(0);
-
-            return new TicketDerivadoSimuladorDTO(
-                    ticket.getIdTicket(),
-                    ticket.getAsunto(),
-                    ticket.getDescripcion(),
-                    ultimaNotificacion
-            );
-        }).collect(Collectors.toList());
+        List<TicketDerivadoSimuladorDTO> resultado = new ArrayList<>();
+        BandejaExternaService.Consulta consulta = bandejaExternaService.consulta(null, 0L, Integer.MAX_VALUE, true);
+        BandejaExternaPageResponse pagina;
+        do {
+            pagina = bandejaExternaService.listar(consulta);
+            resultado.addAll(pagina.getTickets());
+            consulta = new BandejaExternaService.Consulta(null, pagina.getNextCursor(), consulta.limite(), true);
+        } while (Boolean.TRUE.equals(pagina.getTieneSiguiente()));
 
         log.info("Se encontraron {} tickets derivados", resultado.size());
 
         return ResponseEntity.ok(resultado);
     }
 }
-
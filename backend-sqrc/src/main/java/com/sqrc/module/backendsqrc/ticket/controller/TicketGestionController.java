@@ -5,21 +5,32 @@ import com.sqrc.module.backendsqrc.ticket.dto.DocumentacionDto;
 import com.sqrc.module.backendsqrc.ticket.dto.NotificacionExternaDTO;
 import com.sqrc.module.backendsqrc.ticket.dto.request.*;
 import com.sqrc.module.backendsqrc.ticket.dto.response.*;
+import com.sqrc.module.backendsqrc.ticket.enums.EstadoSla;
 import com.sqrc.module.backendsqrc.ticket.model.Ticket;
+import com.sqrc.module.backendsqrc.ticket.model.TipoTicket;
 import com.sqrc.module.backendsqrc.ticket.repository.AsignacionRepository;
 import com.sqrc.module.backendsqrc.ticket.repository.TicketRepository;
+import com.sqrc.module.backendsqrc.ticket.search.TicketSearchIndex;
 import com.sqrc.module.backendsqrc.ticket.service.CorreoService;
 import com.sqrc.module.backendsqrc.ticket.service.DocumentacionService;
 import com.sqrc.module.backendsqrc.ticket.service.NotificacionExternaService;
 import com.sqrc.module.backendsqrc.ticket.service.TicketGestionService;
+import com.sqrc.module.backendsqrc.ticket.service.TicketOperacionMasivaService;
+import com.sqrc.module.backendsqrc.ticket.service.TicketViewService;
+import com.sqrc.module.backendsqrc.ticket.sla.SeguimientoSla;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.time.LocalDate;
+import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Optional;
+import java.util.Set;
 import java.util.stream.Collectors;
 
 /**
@@ -29,6 +40,10 @@ import java.util.stream.Collectors;
  * 
  * Endpoints disponibles:
  * - GET    /api/tickets                           -> Listar tickets
+ * - GET    /api/tickets/pagina                    -> Listar tickets paginados por cursor
+ * - GET    /api/tickets/sugerencias               -> Sugerencias de búsqueda (type-ahead)
+ * - GET    /api/tickets/vista                     -> Listar desde el modelo de lectura ticket_view
+ * - GET    /api/tickets/sla                       -> Tickets abiertos por tiempo hasta vencer su SLA
  * - GET    /api/tickets/{id}                      -> Obtener ticket
  * - POST   /api/tickets                           -> Crear ticket
  * - PUT    /api/tickets/{id}                      -> Actualizar ticket
@@ -37,6 +52,7 @@ import java.util.stream.Collectors;
  * - POST   /api/tickets/{id}/derivar              -> Derivar ticket
  * - POST   /api/tickets/{id}/devolver             -> Devolver ticket
  * - POST   /api/tickets/{id}/cerrar               -> Cerrar ticket
+ * - POST   /api/tickets/masivo                    -> Cerrar / reasignar / escalar varios tickets
  * - GET    /api/tickets/{id}/documentacion        -> Listar documentación
  * - POST   /api/tickets/{id}/documentacion        -> Crear documentación
  * - GET    /api/tickets/{id}/correos              -> Obtener hilo de correos
@@ -54,6 +70,10 @@ public class TicketGestionController {
     private final NotificacionExternaService notificacionExternaService;
     private final TicketRepository ticketRepository;
     private final AsignacionRepository asignacionRepository;
+    private final TicketSearchIndex ticketSearchIndex;
+    private final TicketViewService ticketViewService;
+    private final TicketOperacionMasivaService ticketOperacionMasivaService;
+    private final SeguimientoSla seguimientoSla;
 
     /**
      * Lista todos los tickets con filtros opcionales.
@@ -75,15 +95,28 @@ public class TicketGestionController {
         log.info("GET /api/tickets - Listando tickets con filtros: tipo={}, estado={}, fecha={}, search={}, empleadoId={}", 
                 tipo, estado, fecha, search, empleadoId);
         
+        // Candidatos del índice de búsqueda (superconjunto del filtro de texto de abajo)
+        Optional<Set<Long>> candidatos = (search == null || search.isEmpty())
+                ? Optional.empty()
+                : ticketSearchIndex.candidatosContains(search);
+        if (candidatos.isPresent() && candidatos.get().isEmpty()) {
+            return ResponseEntity.ok(List.of());
+        }
+
         // Obtener tickets base (filtrar por empleado primero si está presente)
         List<Ticket> ticketsBase;
         if (empleadoId != null) {
             // Optimización: obtener IDs de tickets del empleado en una sola query
             List<Long> ticketIds = asignacionRepository.findTicketIdsByEmpleadoId(empleadoId);
+            if (candidatos.isPresent()) {
+                ticketIds = ticketIds.stream().filter(candidatos.get()::contains).collect(Collectors.toList());
+            }
             if (ticketIds.isEmpty()) {
                 return ResponseEntity.ok(List.of()); // No hay tickets para este empleado
             }
             ticketsBase = ticketRepository.findAllById(ticketIds);
+        } else if (candidatos.isPresent()) {
+            ticketsBase = ticketRepository.findAllById(candidatos.get());
         } else {
             ticketsBase = ticketRepository.findAll();
         }
@@ -123,6 +156,101 @@ public class TicketGestionController {
         return ResponseEntity.ok(tickets);
     }
 
+    /**
+     * Lista tickets paginados por cursor, con los filtros resueltos en la BD.
+     * Para la primera página se omite el cursor; para las siguientes se envía
+     * el nextCursor de la respuesta anterior.
+     *
+     * @param tipo Filtro por tipo de ticket
+     * @param estado Filtro por estado (ABIERTO, ESCALADO, DERIVADO, CERRADO)
+     * @param fecha Filtro por fecha específica de creación (formato: yyyy-MM-dd; otro formato responde 400)
+     * @param search Búsqueda por texto en asunto, cliente o ID de ticket
+     * @param empleadoId Filtro por empleado asignado
+     * @param cursorFecha fechaCreacion del último ticket recibido (ISO date-time)
+     * @param cursorId idTicket del último ticket recibido
+     * @param limit Tamaño de página (por defecto 50, máximo 200)
+     * @return TicketListPageResponse con la página y el cursor siguiente
+     */
+    @GetMapping("/pagina")
+    public ResponseEntity<TicketListPageResponse> listarTicketsPaginado(
+            @RequestParam(required = false) String tipo,
+            @RequestParam(required = false) String estado,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate fecha,
+            @RequestParam(required = false) String search,
+            @RequestParam(required = false) Long empleadoId,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime cursorFecha,
+            @RequestParam(required = false) Long cursorId,
+            @RequestParam(required = false) Integer limit) {
+        log.info("GET /api/tickets/pagina - tipo={}, estado={}, fecha={}, search={}, empleadoId={}, cursor=({}, {}), limit={}",
+                tipo, estado, fecha, search, empleadoId, cursorFecha, cursorId, limit);
+
+        TicketListPageResponse response = ticketGestionService.listarTicketsPaginado(
+                tipo, estado, fecha, search, empleadoId, cursorFecha, cursorId, limit);
+
+        return ResponseEntity.ok(response);
+    }
+
+    /**
+     * Lista tickets desde el modelo de lectura ticket_view (sin joins), paginados por cursor.
+     * Útil para bandejas: el filtro por empleado usa la asignación activa.
+     *
+     * @param tipo Filtro por tipo de ticket
+     * @param estado Filtro por estado
+     * @param empleadoId Empleado con la asignación activa
+     * @param clienteId Filtro por cliente
+     * @param cursorFecha fechaCreacion del último ticket recibido (ISO date-time)
+     * @param cursorId idTicket del último ticket recibido
+     * @param limit Tamaño de página (por defecto 50, máximo 200)
+     * @return TicketViewPageResponse con la página y el cursor siguiente
+     */
+    @GetMapping("/vista")
+    public ResponseEntity<TicketViewPageResponse> listarTicketsVista(
+            @RequestParam(required = false) String tipo,
+            @RequestParam(required = false) String estado,
+            @RequestParam(required = false) Long empleadoId,
+            @RequestParam(required = false) Integer clienteId,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime cursorFecha,
+            @RequestParam(required = false) Long cursorId,
+            @RequestParam(required = false) Integer limit) {
+        log.info("GET /api/tickets/vista - tipo={}, estado={}, empleadoId={}, clienteId={}, cursor=({}, {}), limit={}",
+                tipo, estado, empleadoId, clienteId, cursorFecha, cursorId, limit);
+        return ResponseEntity.ok(ticketViewService.listar(
+                tipo, estado, empleadoId, clienteId, cursorFecha, cursorId, limit));
+    }
+
+    /**
+     * Reclamos y solicitudes abiertos ordenados por tiempo hasta su plazo más
+     * próximo (los vencidos primero), servidos desde el seguimiento de SLA en memoria.
+     *
+     * @param estadoSla Filtro: EN_PLAZO, EN_RIESGO o INCUMPLIDO
+     * @param tipo Filtro: RECLAMO o SOLICITUD
+     * @param limit Máximo de tickets (por defecto 50, máximo 500)
+     * @return SlaSeguimientoResponse con los tickets y los totales del seguimiento
+     */
+    @GetMapping("/sla")
+    public ResponseEntity<SlaSeguimientoResponse> listarTicketsPorVencimientoSla(
+            @RequestParam(required = false) EstadoSla estadoSla,
+            @RequestParam(required = false) TipoTicket tipo,
+            @RequestParam(required = false) Integer limit) {
+        log.debug("GET /api/tickets/sla - estadoSla={}, tipo={}, limit={}", estadoSla, tipo, limit);
+        return ResponseEntity.ok(seguimientoSla.listar(estadoSla, tipo, limit));
+    }
+
+    /**
+     * Sugerencias para la barra de búsqueda (type-ahead) resueltas en el índice en memoria.
+     *
+     * @param q Texto ingresado: ID ("TC-0001"), asunto o nombre del cliente
+     * @param limit Máximo de sugerencias (por defecto 10)
+     * @return Tickets coincidentes, del más reciente al más antiguo
+     */
+    @GetMapping("/sugerencias")
+    public ResponseEntity<List<TicketListItemDTO>> sugerirTickets(
+            @RequestParam String q,
+            @RequestParam(required = false) Integer limit) {
+        log.debug("GET /api/tickets/sugerencias - q={}, limit={}", q, limit);
+        return ResponseEntity.ok(ticketGestionService.sugerirTickets(q, limit));
+    }
+
     /**
      * Convierte una entidad Ticket a TicketListItemDTO
      */
@@ -158,8 +286,15 @@ public class TicketGestionController {
         log.info("GET /api/tickets/{} - Obteniendo detalle completo del ticket", id);
         
         TicketFullDetailDTO ticketDetail = ticketGestionService.obtenerDetalleCompleto(id);
-        
-        return ResponseEntity.ok(ticketDetail);
+
+        // Tiempos por fragmento visibles en las DevTools del navegador
+        String serverTiming = ticketDetail.getTiemposMs() == null ? "" : ticketDetail.getTiemposMs().entrySet().stream()
+                .map(e -> e.getKey() + ";dur=" + e.getValue())
+                .collect(Collectors.joining(", "));
+
+        return ResponseEntity.ok()
+                .header("Server-Timing", serverTiming)
+                .body(ticketDetail);
     }
 
     /**
@@ -307,6 +442,24 @@ public class TicketGestionController {
         return ResponseEntity.ok(response);
     }
 
+    /**
+     * Aplica una operación (CERRAR, REASIGNAR, ESCALAR) a varios tickets en una transacción.
+     * Cada ticket se valida por separado: los que no cumplen las reglas se informan
+     * en el resultado sin detener al resto.
+     * 
+     * @param request Operación, IDs de tickets (máx. 500) y destino
+     * @return OperacionMasivaResponse con el resultado por ticket
+     */
+    @PostMapping("/masivo")
+    public ResponseEntity<OperacionMasivaResponse> operacionMasiva(
+            @Valid @RequestBody OperacionMasivaRequest request) {
+        log.info("POST /api/tickets/masivo - {} sobre {} tickets", request.getOperacion(), request.getTicketIds().size());
+        
+        OperacionMasivaResponse response = ticketOperacionMasivaService.ejecutar(request);
+        
+        return ResponseEntity.ok(response);
+    }
+
     // ==================== Documentación ====================
 
     /**
@@ -0,0 +1,46 @@
+package com.sqrc.module.backendsqrc.ticket.controller;
+
+import com.sqrc.module.backendsqrc.ticket.stream.TicketStreamHub;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.util.Map;
+
+/**
+ * Stream de cambios de tickets (Server-Sent Events) para reemplazar el polling
+ * de las bandejas.
+ *
+ * Endpoints:
+ * - GET /api/tickets/stream?empleadoId=X -> Suscripción SSE (eventos "conectado" y "ticket")
+ * - GET /api/tickets/stream/metricas     -> Suscriptores, mensajes enviados y desalojos
+ */
+@RestController
+@RequestMapping("/api/tickets/stream")
+@RequiredArgsConstructor
+@Slf4j
+public class TicketStreamController {
+
+    private final TicketStreamHub ticketStreamHub;
+
+    /**
+     * Abre el stream del empleado. Un agente recibe los cambios de sus tickets;
+     * un supervisor, además, los de los agentes de su equipo.
+     *
+     * @param empleadoId ID del agente o supervisor
+     * @return Emitter SSE
+     */
+    @GetMapping(produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter suscribir(@RequestParam Long empleadoId) {
+        log.info("GET /api/tickets/stream - empleadoId={}", empleadoId);
+        return ticketStreamHub.suscribir(empleadoId);
+    }
+
+    @GetMapping("/metricas")
+    public ResponseEntity<Map<String, Object>> obtenerMetricas() {
+        return ResponseEntity.ok(ticketStreamHub.getMetricas());
+    }
+}
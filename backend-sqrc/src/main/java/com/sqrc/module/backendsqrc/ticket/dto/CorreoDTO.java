@@ -1,5 +1,6 @@
 package com.sqrc.module.backendsqrc.ticket.dto;
 
+import com.sqrc.module.backendsqrc.ticket.model.EstadoEnvioCorreo;
 import com.sqrc.module.backendsqrc.ticket.model.TipoCorreo;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
@@ -23,6 +24,7 @@ public class CorreoDTO {
     private String cuerpo;
     private LocalDateTime fechaEnvio;
     private TipoCorreo tipoCorreo;
+    private EstadoEnvioCorreo estadoEnvio;
 
     // Información de la asignación relacionada
     private Long idAsignacion;
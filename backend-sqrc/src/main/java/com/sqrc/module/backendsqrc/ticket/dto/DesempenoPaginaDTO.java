@@ -0,0 +1,46 @@
+package com.sqrc.module.backendsqrc.ticket.dto;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * Página de desempeño de un empleado, acotada a un rango de fechas de asignación.
+ * Mismo formato de filas que {@link DesempenoAsignacionDTO}.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class DesempenoPaginaDTO {
+
+    @JsonProperty("empleado_id")
+    private Long empleadoId;
+
+    // Rango de fecha de inicio de la asignación: [desde, hasta] (días completos)
+    @JsonProperty("desde")
+    private LocalDate desde;
+
+    @JsonProperty("hasta")
+    private LocalDate hasta;
+
+    @JsonProperty("asignaciones")
+    private List<DesempenoAsignacionDTO> asignaciones;
+
+    @JsonProperty("pagina")
+    private Integer pagina;
+
+    @JsonProperty("tamanio")
+    private Integer tamanio;
+
+    @JsonProperty("total_elementos")
+    private Long totalElementos;
+
+    @JsonProperty("total_paginas")
+    private Integer totalPaginas;
+}
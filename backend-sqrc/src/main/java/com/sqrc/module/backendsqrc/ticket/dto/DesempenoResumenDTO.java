@@ -0,0 +1,78 @@
+package com.sqrc.module.backendsqrc.ticket.dto;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * Resumen de desempeño de un empleado en un rango de fechas, agregado en SQL.
+ * Pensado para RRHH y cálculo de bonos: no incluye el detalle por asignación.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class DesempenoResumenDTO {
+
+    @JsonProperty("empleado_id")
+    private Long empleadoId;
+
+    @JsonProperty("desde")
+    private LocalDate desde;
+
+    @JsonProperty("hasta")
+    private LocalDate hasta;
+
+    @JsonProperty("total_asignaciones")
+    private Long totalAsignaciones;
+
+    @JsonProperty("tickets_atendidos")
+    private Long ticketsAtendidos;
+
+    @JsonProperty("asignaciones_activas")
+    private Long asignacionesActivas;
+
+    // Tickets cerrados mientras estaban asignados al empleado
+    @JsonProperty("tickets_cerrados")
+    private Long ticketsCerrados;
+
+    // Promedio de (fecha_fin - fecha_inicio) de las asignaciones finalizadas; null si no hay
+    @JsonProperty("tiempo_promedio_atencion_min")
+    private Double tiempoPromedioAtencionMin;
+
+    @JsonProperty("por_tipo")
+    private List<PorTipo> porTipo;
+
+    /**
+     * Mismos indicadores para un tipo de ticket (CONSULTA, QUEJA, RECLAMO, SOLICITUD).
+     */
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    @Builder
+    public static class PorTipo {
+
+        @JsonProperty("categoria_ticket")
+        private String categoriaTicket;
+
+        @JsonProperty("asignaciones")
+        private Long asignaciones;
+
+        @JsonProperty("tickets_atendidos")
+        private Long ticketsAtendidos;
+
+        @JsonProperty("asignaciones_activas")
+        private Long asignacionesActivas;
+
+        @JsonProperty("tickets_cerrados")
+        private Long ticketsCerrados;
+
+        @JsonProperty("tiempo_promedio_atencion_min")
+        private Double tiempoPromedioAtencionMin;
+    }
+}
@@ -0,0 +1,49 @@
+package com.sqrc.module.backendsqrc.ticket.dto.request;
+
+import com.sqrc.module.backendsqrc.ticket.enums.TipoEventoLlamada;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.PositiveOrZero;
+import jakarta.validation.constraints.Size;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * Evento de la central telefónica (CTI) sobre una llamada.
+ *
+ * Patrón: DTO (Data Transfer Object)
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class EventoLlamadaDTO {
+
+    /**
+     * ID de la llamada en la central; agrupa los eventos de una misma llamada
+     */
+    @NotBlank(message = "El ID externo de la llamada es obligatorio")
+    @Size(max = 64, message = "El ID externo admite hasta 64 caracteres")
+    private String llamadaExternaId;
+
+    @NotNull(message = "El tipo de evento es obligatorio")
+    private TipoEventoLlamada tipo;
+
+    @NotNull(message = "El ID del empleado es obligatorio")
+    private Long empleadoId;
+
+    @Size(max = 20, message = "El número de origen admite hasta 20 caracteres")
+    private String numeroOrigen;
+
+    /**
+     * Momento del evento en la central (ordena los eventos de la llamada)
+     */
+    private LocalDateTime fechaHora;
+
+    @PositiveOrZero(message = "La duración no puede ser negativa")
+    private Integer duracionSegundos;
+}
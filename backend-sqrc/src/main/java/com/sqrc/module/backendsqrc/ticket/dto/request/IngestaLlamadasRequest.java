@@ -0,0 +1,27 @@
+package com.sqrc.module.backendsqrc.ticket.dto.request;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Size;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * DTO con un lote de eventos de la central telefónica.
+ *
+ * Patrón: DTO (Data Transfer Object)
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class IngestaLlamadasRequest {
+
+    @NotEmpty(message = "Debe enviar al menos un evento")
+    @Size(max = 1000, message = "Máximo 1000 eventos por envío")
+    private List<@Valid EventoLlamadaDTO> eventos;
+}
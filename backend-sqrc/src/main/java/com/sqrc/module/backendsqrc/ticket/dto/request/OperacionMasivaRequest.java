@@ -0,0 +1,51 @@
+package com.sqrc.module.backendsqrc.ticket.dto.request;
+
+import com.sqrc.module.backendsqrc.ticket.enums.TipoOperacionMasiva;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * DTO para aplicar una operación a varios tickets en una sola llamada
+ * (cambio de turno, caídas de servicio).
+ *
+ * Destino de REASIGNAR / ESCALAR:
+ * - destinoEmpleadoId: empleado fijo para todos los tickets (en ESCALAR debe ser BackOffice)
+ * - areaDestino: se reparte entre los empleados menos cargados del área
+ *   (ESCALAR usa el área BACKOFFICE si no se indica ninguno)
+ *
+ * Patrón: DTO (Data Transfer Object)
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class OperacionMasivaRequest {
+
+    @NotNull(message = "La operación es obligatoria")
+    private TipoOperacionMasiva operacion;
+
+    @NotEmpty(message = "Debe indicar al menos un ticket")
+    @Size(max = 500, message = "Máximo 500 tickets por operación")
+    private List<Long> ticketIds;
+
+    /**
+     * ID del supervisor que ejecuta la operación (auditoría)
+     */
+    private Long empleadoId;
+
+    private Long destinoEmpleadoId;
+
+    private String areaDestino;
+
+    /**
+     * Motivo de la operación (opcional)
+     */
+    private String motivo;
+}
@@ -0,0 +1,29 @@
+package com.sqrc.module.backendsqrc.ticket.dto.response;
+
+import com.sqrc.module.backendsqrc.ticket.dto.TicketDerivadoSimuladorDTO;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * Página de la bandeja de un área externa, paginada por cursor.
+ * El cliente reenvía nextCursor para pedir la siguiente página; con la bandeja al
+ * día, el mismo cursor sirve para esperar (long-polling) las derivaciones nuevas.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class BandejaExternaPageResponse {
+
+    private Long areaId;
+    private String area;
+    private List<TicketDerivadoSimuladorDTO> tickets;
+    private Integer limite;
+    private Boolean tieneSiguiente;
+    // id_notificacion de la última fila devuelta (o el cursor recibido si no hubo filas)
+    private Long nextCursor;
+}
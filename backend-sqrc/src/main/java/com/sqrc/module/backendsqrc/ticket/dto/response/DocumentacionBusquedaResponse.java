@@ -0,0 +1,45 @@
+package com.sqrc.module.backendsqrc.ticket.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Página de resultados de la búsqueda en la documentación de tickets, ordenada por
+ * relevancia. Cada resultado enlaza al ticket y a su motivo.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class DocumentacionBusquedaResponse {
+
+    private String texto;
+    private List<Resultado> resultados;
+    private Integer pagina;
+    private Integer tamanio;
+    private Boolean tieneSiguiente;
+
+    @Data
+    @Builder
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Resultado {
+        private Long idDocumentacion;
+        private LocalDateTime fechaDocumentacion;
+        // Extractos; el texto completo está en GET /api/v1/documentacion/{id}
+        private String problema;
+        private String solucion;
+        private Long ticketId;
+        private String asuntoTicket;
+        private String tipoTicket;
+        private String estadoTicket;
+        private Long motivoId;
+        private String motivo;
+        private Double relevancia;
+    }
+}
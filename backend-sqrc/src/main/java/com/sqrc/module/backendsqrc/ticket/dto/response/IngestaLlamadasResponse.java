@@ -0,0 +1,25 @@
+package com.sqrc.module.backendsqrc.ticket.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Resultado de encolar un lote de eventos de llamadas.
+ *
+ * Los eventos se aceptan en orden; si la cola se llena, los "rechazados" son los
+ * últimos del lote y la central debe reenviarlos más tarde.
+ *
+ * Patrón: DTO (Data Transfer Object)
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class IngestaLlamadasResponse {
+
+    private int aceptados;
+    private int rechazados;
+    private int pendientes;
+}
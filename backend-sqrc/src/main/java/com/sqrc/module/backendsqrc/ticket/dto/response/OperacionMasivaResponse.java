@@ -0,0 +1,45 @@
+package com.sqrc.module.backendsqrc.ticket.dto.response;
+
+import com.sqrc.module.backendsqrc.ticket.enums.TipoOperacionMasiva;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Resultado de una operación masiva: un ítem por ticket, en el orden de la solicitud.
+ *
+ * Patrón: DTO (Data Transfer Object)
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class OperacionMasivaResponse {
+
+    private TipoOperacionMasiva operacion;
+    private int total;
+    private int exitosos;
+    private int fallidos;
+    private LocalDateTime fechaOperacion;
+    private long duracionMs;
+    private List<ResultadoItemDTO> resultados;
+
+    @Data
+    @Builder
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class ResultadoItemDTO {
+        private Long ticketId;
+        private boolean exitoso;
+        private String estadoAnterior;
+        private String estadoActual;
+        private Long empleadoAsignadoId;
+        /** OK, NO_ENCONTRADO, TRANSICION_INVALIDA, SIN_RESPUESTA, SIN_DOCUMENTACION, SIN_DESTINO, YA_ASIGNADO, CONFLICTO */
+        private String codigo;
+        private String mensaje;
+    }
+}
@@ -0,0 +1,28 @@
+package com.sqrc.module.backendsqrc.ticket.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * Estado en vivo de un agente según el registro de presencia en memoria.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class PresenciaAgenteDTO {
+    private Long idEmpleado;
+    private String area;
+    private String tipoEmpleado;
+    private Boolean ocupado;
+    private Boolean libre;
+    private Integer llamadasActivas;
+    private Integer llamadasAtendidasHoy;
+    // Segundos
+    private Integer tiempoPromedioLlamada;
+    private LocalDateTime ultimaActividad;
+}
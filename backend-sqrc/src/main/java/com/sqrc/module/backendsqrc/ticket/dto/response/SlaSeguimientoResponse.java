@@ -0,0 +1,56 @@
+package com.sqrc.module.backendsqrc.ticket.dto.response;
+
+import com.sqrc.module.backendsqrc.ticket.enums.EstadoSla;
+import com.sqrc.module.backendsqrc.ticket.enums.TipoPlazoSla;
+import com.sqrc.module.backendsqrc.ticket.model.EstadoTicket;
+import com.sqrc.module.backendsqrc.ticket.model.TipoTicket;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Tickets abiertos ordenados por tiempo restante hasta su plazo más próximo
+ * (los ya vencidos primero), desde el seguimiento de SLA en memoria.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class SlaSeguimientoResponse {
+
+    private List<SlaTicketDTO> tickets;
+
+    // Totales de todo el seguimiento, no solo de la página
+    private Integer totalSeguidos;
+    private Integer totalEnRiesgo;
+    private Integer totalIncumplidos;
+    private Long alertasRiesgoEmitidas;
+    private Long alertasIncumplimientoEmitidas;
+    private LocalDateTime fechaConsulta;
+
+    @Data
+    @Builder
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class SlaTicketDTO {
+        private Long idTicket;
+        private String asunto;
+        private TipoTicket tipoTicket;
+        private EstadoTicket estado;
+        private Long empleadoAsignadoId;
+        private String empleadoAsignadoNombre;
+        private LocalDateTime fechaCreacion;
+
+        // Plazo más próximo; minutosRestantes es negativo si ya venció
+        private TipoPlazoSla plazo;
+        private LocalDateTime fechaLimite;
+        private Long minutosRestantes;
+
+        // Peor situación entre todos los plazos del ticket
+        private EstadoSla estadoSla;
+    }
+}
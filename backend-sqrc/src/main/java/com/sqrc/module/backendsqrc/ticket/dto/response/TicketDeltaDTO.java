@@ -0,0 +1,35 @@
+package com.sqrc.module.backendsqrc.ticket.dto.response;
+
+import com.sqrc.module.backendsqrc.ticket.enums.TipoCambioTicket;
+import com.sqrc.module.backendsqrc.ticket.model.EstadoTicket;
+import com.sqrc.module.backendsqrc.ticket.model.TipoTicket;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * Cambio compacto de un ticket enviado por el stream SSE. Lleva solo lo necesario
+ * para actualizar una bandeja; el detalle se pide a GET /api/tickets/{id}.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class TicketDeltaDTO {
+    // Secuencia global creciente (orden de los cambios en este servidor)
+    private Long seq;
+    private Long ticketId;
+    private TipoCambioTicket tipoCambio;
+    private String asunto;
+    private TipoTicket tipoTicket;
+    private EstadoTicket estado;
+    private EstadoTicket estadoAnterior;
+    private Long empleadoAsignadoId;
+    // Empleado que tenía el ticket antes del cambio (para quitarlo de su bandeja)
+    private Long empleadoAnteriorId;
+    private String areaAsignada;
+    private LocalDateTime fechaActualizacion;
+}
@@ -1,8 +1,10 @@
 package com.sqrc.module.backendsqrc.ticket.dto.response;
 
+import com.sqrc.module.backendsqrc.ticket.model.EstadoConstancia;
 import com.sqrc.module.backendsqrc.ticket.model.EstadoTicket;
 import com.sqrc.module.backendsqrc.ticket.model.OrigenTicket;
 import com.sqrc.module.backendsqrc.ticket.model.TipoTicket;
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
@@ -10,6 +12,7 @@ import lombok.NoArgsConstructor;
 
 import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.util.Map;
 
 /**
  * DTO con detalle completo de un ticket incluyendo info completa del cliente.
@@ -30,6 +33,7 @@ public class TicketFullDetailDTO {
     private LocalDateTime fechaCreacion;
     private LocalDateTime fechaCierre;
     private Integer idConstancia;
+    private EstadoConstancia estadoConstancia;
     
     // Información completa del cliente
     private ClienteFullDTO cliente;
@@ -46,6 +50,10 @@ public class TicketFullDetailDTO {
     private ReclamoInfoDTO reclamoInfo;
     private SolicitudInfoDTO solicitudInfo;
 
+    // Tiempos por fragmento en ms (se envían en la cabecera Server-Timing, no en el cuerpo)
+    @JsonIgnore
+    private Map<String, Long> tiemposMs;
+
     @Data
     @Builder
     @NoArgsConstructor
@@ -0,0 +1,38 @@
+package com.sqrc.module.backendsqrc.ticket.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * DTO de respuesta para el listado de tickets paginado por cursor (keyset).
+ * El cliente envía el nextCursor recibido para pedir la siguiente página,
+ * evitando OFFSET y el COUNT(*) del total.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class TicketListPageResponse {
+
+    private List<TicketListItemDTO> tickets;
+    private Integer limite;
+    private Boolean tieneSiguiente;
+    private CursorDTO nextCursor;
+
+    /**
+     * Posición del último ticket devuelto (fechaCreacion, idTicket).
+     */
+    @Data
+    @Builder
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class CursorDTO {
+        private LocalDateTime fechaCreacion;
+        private Long idTicket;
+    }
+}
@@ -0,0 +1,55 @@
+package com.sqrc.module.backendsqrc.ticket.dto.response;
+
+import com.sqrc.module.backendsqrc.ticket.model.EstadoTicket;
+import com.sqrc.module.backendsqrc.ticket.model.OrigenTicket;
+import com.sqrc.module.backendsqrc.ticket.model.TipoTicket;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Página de tickets servida desde el modelo de lectura ticket_view.
+ * Mismo esquema de cursor que {@link TicketListPageResponse}.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class TicketViewPageResponse {
+
+    private List<TicketViewItemDTO> tickets;
+    private Integer limite;
+    private Boolean tieneSiguiente;
+
+    // null cuando no hay más páginas
+    private TicketListPageResponse.CursorDTO nextCursor;
+
+    @Data
+    @Builder
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class TicketViewItemDTO {
+        private Long idTicket;
+        private String asunto;
+        private EstadoTicket estado;
+        private TipoTicket tipoTicket;
+        private OrigenTicket origen;
+        private LocalDateTime fechaCreacion;
+        private LocalDateTime fechaCierre;
+        private Integer clienteId;
+        private String clienteNombre;
+        private String motivo;
+        private Long empleadoAsignadoId;
+        private String empleadoAsignadoNombre;
+        private String areaAsignada;
+        private LocalDateTime fechaAsignacion;
+        private LocalDateTime fechaLimiteSla;
+        private LocalDate fechaLimiteRespuesta;
+        private LocalDate fechaLimiteResolucion;
+    }
+}
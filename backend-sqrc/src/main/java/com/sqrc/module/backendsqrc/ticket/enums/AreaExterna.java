@@ -58,4 +58,25 @@ public enum AreaExterna {
         }
         return null;
     }
+
+    /**
+     * Obtiene el área por su ID numérico o por su código (ej: "2" o "VENTAS").
+     * @param valor ID o código del área
+     * @return AreaExterna o null si no existe
+     */
+    public static AreaExterna getByIdOCodigo(String valor) {
+        if (valor == null || valor.isBlank()) {
+            return null;
+        }
+        String limpio = valor.trim();
+        if (limpio.length() < 19 && limpio.chars().allMatch(Character::isDigit)) {
+            return getById(Long.valueOf(limpio));
+        }
+        for (AreaExterna area : values()) {
+            if (area.name().equalsIgnoreCase(limpio)) {
+                return area;
+            }
+        }
+        return null;
+    }
 }
@@ -0,0 +1,13 @@
+package com.sqrc.module.backendsqrc.ticket.enums;
+
+/**
+ * Situación de un plazo de SLA de un ticket abierto.
+ */
+public enum EstadoSla {
+    /** Dentro del plazo y antes del umbral de riesgo */
+    EN_PLAZO,
+    /** Consumió el porcentaje de riesgo del plazo (app.sla.porcentaje-riesgo) */
+    EN_RIESGO,
+    /** Plazo vencido con el ticket abierto */
+    INCUMPLIDO
+}
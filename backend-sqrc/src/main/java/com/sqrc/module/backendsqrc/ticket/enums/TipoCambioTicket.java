@@ -0,0 +1,17 @@
+package com.sqrc.module.backendsqrc.ticket.enums;
+
+/**
+ * Tipo de cambio informado en el stream de tickets.
+ */
+public enum TipoCambioTicket {
+    /** Ticket nuevo */
+    CREADO,
+    /** Cambió el empleado asignado (escalamiento, derivación, devolución, reasignación) */
+    REASIGNADO,
+    /** Cambió el estado sin cambiar de empleado */
+    ESTADO,
+    /** Pasó a CERRADO */
+    CERRADO,
+    /** Otros datos del ticket (asunto, motivo, ...) */
+    ACTUALIZADO
+}
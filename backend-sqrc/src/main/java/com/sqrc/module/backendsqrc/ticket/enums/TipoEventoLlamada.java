@@ -0,0 +1,34 @@
+package com.sqrc.module.backendsqrc.ticket.enums;
+
+import com.sqrc.module.backendsqrc.ticket.model.EstadoLlamada;
+
+/**
+ * Eventos que la central telefónica (CTI) informa sobre una llamada.
+ */
+public enum TipoEventoLlamada {
+    /** La central ofrece la llamada al agente */
+    OFERTA(EstadoLlamada.OFRECIDA),
+    /** El agente contesta */
+    ACEPTACION(EstadoLlamada.ACEPTADA),
+    /** El agente pone la llamada en espera */
+    ESPERA(EstadoLlamada.EN_ESPERA),
+    /** El agente rechaza la oferta o el cliente cuelga antes de ser atendido */
+    RECHAZO(EstadoLlamada.DECLINADA),
+    /** La llamada terminó */
+    FIN(EstadoLlamada.FINALIZADA),
+    /** Solo informa la duración; no cambia el estado */
+    DURACION(null);
+
+    private final EstadoLlamada estado;
+
+    TipoEventoLlamada(EstadoLlamada estado) {
+        this.estado = estado;
+    }
+
+    /**
+     * @return Estado al que lleva el evento, o null si no cambia el estado
+     */
+    public EstadoLlamada getEstado() {
+        return estado;
+    }
+}
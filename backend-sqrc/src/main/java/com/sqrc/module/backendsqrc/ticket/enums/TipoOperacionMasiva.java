@@ -0,0 +1,13 @@
+package com.sqrc.module.backendsqrc.ticket.enums;
+
+/**
+ * Operaciones que un supervisor puede aplicar a un lote de tickets.
+ */
+public enum TipoOperacionMasiva {
+    /** Cierra los tickets (mismas reglas que el cierre individual) */
+    CERRAR,
+    /** Mueve la asignación activa a otro empleado sin cambiar el estado */
+    REASIGNAR,
+    /** Pasa los tickets a ESCALADO con una nueva asignación al BackOffice */
+    ESCALAR
+}
@@ -0,0 +1,13 @@
+package com.sqrc.module.backendsqrc.ticket.enums;
+
+/**
+ * Plazos que se vigilan en un ticket abierto.
+ */
+public enum TipoPlazoSla {
+    /** Creación + minutos de app.sla.por-tipo */
+    GENERAL,
+    /** Reclamo: fecha_limite_respuesta (hasta el fin del día) */
+    RESPUESTA,
+    /** Reclamo: fecha_limite_resolucion (hasta el fin del día) */
+    RESOLUCION
+}
@@ -0,0 +1,8 @@
+package com.sqrc.module.backendsqrc.ticket.event;
+
+/**
+ * Evento publicado al crear un ticket para generar y enviar la constancia de
+ * registro después del commit de la transacción que creó el ticket.
+ */
+public record ConstanciaSolicitadaEvent(Long ticketId) {
+}
@@ -0,0 +1,12 @@
+package com.sqrc.module.backendsqrc.ticket.event;
+
+import com.sqrc.module.backendsqrc.ticket.enums.TipoPlazoSla;
+
+import java.time.LocalDateTime;
+
+/**
+ * Un plazo de un ticket abierto entró en riesgo. Lo publica el seguimiento de SLA
+ * fuera de cualquier transacción.
+ */
+public record SlaEnRiesgoEvent(Long ticketId, TipoPlazoSla plazo, LocalDateTime fechaLimite) {
+}
@@ -0,0 +1,10 @@
+package com.sqrc.module.backendsqrc.ticket.event;
+
+import com.sqrc.module.backendsqrc.ticket.dto.response.TicketDeltaDTO;
+
+/**
+ * Un ticket cambió (se proyectó de nuevo en ticket_view). Los listeners lo
+ * reciben después del commit de la operación.
+ */
+public record TicketCambiadoEvent(TicketDeltaDTO delta) {
+}
@@ -1,17 +1,10 @@
 package com.sqrc.module.backendsqrc.ticket.event;
 
-import lombok.Getter;
-import org.springframework.context.ApplicationEvent;
-
-@Getter
-public class TicketDerivadoEvent extends ApplicationEvent {
-
-    private final Long ticketId;
-    private final String destinatarioEmail; // Útil para logs rápidos
-
-    public TicketDerivadoEvent(Object source, Long ticketId, String destinatarioEmail) {
-        super(source);
-        this.ticketId = ticketId;
-        this.destinatarioEmail = destinatarioEmail;
-    }
-}
\ No newline at end of file
+/**
+ * Evento de ticket derivado a un área externa. Se registra en la outbox dentro
+ * de la transacción de la derivación y se entrega después a los listeners.
+ *
+ * @param destinatarioEmail Correo del área externa, útil para logs rápidos
+ */
+public record TicketDerivadoEvent(Long ticketId, String destinatarioEmail) {
+}
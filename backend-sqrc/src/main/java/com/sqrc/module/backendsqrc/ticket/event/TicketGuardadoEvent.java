@@ -0,0 +1,26 @@
+package com.sqrc.module.backendsqrc.ticket.event;
+
+import lombok.Getter;
+import org.springframework.context.ApplicationEvent;
+
+/**
+ * Evento publicado al crear o actualizar un ticket.
+ * Lleva los campos buscables para que los listeners no tengan que consultar la BD.
+ */
+@Getter
+public class TicketGuardadoEvent extends ApplicationEvent {
+
+    private final Long ticketId;
+    private final String asunto;
+    private final String nombresCliente;
+    private final String apellidosCliente;
+
+    public TicketGuardadoEvent(Object source, Long ticketId, String asunto,
+                               String nombresCliente, String apellidosCliente) {
+        super(source);
+        this.ticketId = ticketId;
+        this.asunto = asunto;
+        this.nombresCliente = nombresCliente;
+        this.apellidosCliente = apellidosCliente;
+    }
+}
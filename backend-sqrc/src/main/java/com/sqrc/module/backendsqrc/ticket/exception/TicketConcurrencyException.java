@@ -0,0 +1,29 @@
+package com.sqrc.module.backendsqrc.ticket.exception;
+
+import com.sqrc.module.backendsqrc.ticket.model.EstadoTicket;
+
+/**
+ * Excepción lanzada cuando otra operación modificó el ticket entre la lectura y
+ * la escritura (la transición condicional no afectó ninguna fila).
+ *
+ * Patrón: Custom Exception
+ */
+public class TicketConcurrencyException extends RuntimeException {
+
+    private final Long ticketId;
+
+    public TicketConcurrencyException(Long ticketId, EstadoTicket estadoEsperado, EstadoTicket estadoSolicitado) {
+        super(String.format("El ticket %d fue modificado por otra operación: ya no está en %s, no se pudo pasar a %s",
+                ticketId, estadoEsperado, estadoSolicitado));
+        this.ticketId = ticketId;
+    }
+
+    public TicketConcurrencyException(Long ticketId, String message) {
+        super(message);
+        this.ticketId = ticketId;
+    }
+
+    public Long getTicketId() {
+        return ticketId;
+    }
+}
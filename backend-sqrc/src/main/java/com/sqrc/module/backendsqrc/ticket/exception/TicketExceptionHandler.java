@@ -10,6 +10,7 @@ import org.springframework.validation.FieldError;
 import org.springframework.web.bind.MethodArgumentNotValidException;
 import org.springframework.web.bind.annotation.ExceptionHandler;
 import org.springframework.web.bind.annotation.RestControllerAdvice;
+import org.springframework.web.method.annotation.MethodArgumentTypeMismatchException;
 
 import java.time.LocalDateTime;
 import java.util.HashMap;
@@ -53,6 +54,16 @@ public class TicketExceptionHandler {
         return new ResponseEntity<>(error, HttpStatus.CONFLICT);
     }
 
+    @ExceptionHandler(TicketConcurrencyException.class)
+    public ResponseEntity<ErrorResponse> handleTicketConcurrency(TicketConcurrencyException ex) {
+        ErrorResponse error = ErrorResponse.builder()
+                .mensaje(ex.getMessage())
+                .codigo("TICKET_CONCURRENT_MODIFICATION")
+                .timestamp(LocalDateTime.now())
+                .build();
+        return new ResponseEntity<>(error, HttpStatus.CONFLICT);
+    }
+
     @ExceptionHandler(EmpleadoNotFoundException.class)
     public ResponseEntity<ErrorResponse> handleEmpleadoNotFound(EmpleadoNotFoundException ex) {
         ErrorResponse error = ErrorResponse.builder()
@@ -112,6 +123,19 @@ public class TicketExceptionHandler {
         return new ResponseEntity<>(response, HttpStatus.BAD_REQUEST);
     }
 
+    /**
+     * Parámetro de la URL con formato inválido (p. ej. una fecha que no es yyyy-MM-dd).
+     */
+    @ExceptionHandler(MethodArgumentTypeMismatchException.class)
+    public ResponseEntity<ErrorResponse> handleTypeMismatch(MethodArgumentTypeMismatchException ex) {
+        ErrorResponse error = ErrorResponse.builder()
+                .mensaje("Valor inválido para el parámetro '" + ex.getName() + "': " + ex.getValue())
+                .codigo("INVALID_PARAMETER")
+                .timestamp(LocalDateTime.now())
+                .build();
+        return new ResponseEntity<>(error, HttpStatus.BAD_REQUEST);
+    }
+
     @ExceptionHandler(Exception.class)
     public ResponseEntity<ErrorResponse> handleGenericException(Exception ex) {
         ErrorResponse error = ErrorResponse.builder()
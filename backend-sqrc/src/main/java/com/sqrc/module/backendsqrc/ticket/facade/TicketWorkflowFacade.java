@@ -1,6 +1,7 @@
 package com.sqrc.module.backendsqrc.ticket.facade;
 
 import com.sqrc.module.backendsqrc.logs.service.AuditLogService;
+import com.sqrc.module.backendsqrc.outbox.service.OutboxService;
 import com.sqrc.module.backendsqrc.ticket.dto.DerivarRequestDTO;
 import com.sqrc.module.backendsqrc.ticket.dto.EscalarRequestDTO;
 import com.sqrc.module.backendsqrc.ticket.dto.RechazarEscalamientoDTO;
@@ -16,11 +17,12 @@ import com.sqrc.module.backendsqrc.ticket.service.AsignacionService;
 import com.sqrc.module.backendsqrc.ticket.service.DerivacionService;
 import com.sqrc.module.backendsqrc.ticket.service.DocumentacionService;
 import com.sqrc.module.backendsqrc.ticket.service.TicketEmailService;
+import com.sqrc.module.backendsqrc.ticket.service.TicketTransicionService;
+import com.sqrc.module.backendsqrc.ticket.service.TicketViewService;
+import com.sqrc.module.backendsqrc.ticket.strategy.RegistroCargaAgentes;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
@@ -36,7 +38,10 @@ public class TicketWorkflowFacade {
     private final AsignacionService asignacionService;
     private final DocumentacionService documentacionService;
     private final DerivacionService derivacionService;
-    private final ApplicationEventPublisher eventPublisher;
+    private final TicketViewService ticketViewService;
+    private final TicketTransicionService ticketTransicionService;
+    private final RegistroCargaAgentes registroCargaAgentes;
+    private final OutboxService outboxService;
 
     // Servicio para gestión de correos (incluye persistencia en BD)
     private final TicketEmailService ticketEmailService;
@@ -47,8 +52,11 @@ public class TicketWorkflowFacade {
     // =========================================================================
     // CASO 1: ESCALAR (Agente -> Backoffice)
     // =========================================================================
-    @Transactional
     public void escalarTicket(Long ticketId, EscalarRequestDTO request) {
+        ticketTransicionService.conReintento(ticketId, () -> escalarTicketEnTransaccion(ticketId, request));
+    }
+
+    private void escalarTicketEnTransaccion(Long ticketId, EscalarRequestDTO request) {
 
         // A. Validar
         Ticket ticket = ticketRepository.findById(ticketId)
@@ -67,14 +75,14 @@ public class TicketWorkflowFacade {
         documentacionService.registrarEscalamiento(ticket, request.getProblematica(), request.getJustificacion());
 
         // D. Actualizar Estado a ESCALADO
-        ticket.setEstado(EstadoTicket.ESCALADO);
-        ticketRepository.save(ticket);
+        ticketTransicionService.transicionar(ticket, EstadoTicket.ESCALADO, null);
+        ticketViewService.proyectar(ticket);
 
-        // E. Enviar y guardar correo de escalamiento
+        // E. Guardar y encolar correo de escalamiento (sale por SMTP después del commit)
         log.info("🔄 Iniciando envío de correo para ticket {}", ticketId);
         try {
             enviarYGuardarCorreoEscalamiento(ticket, request, nuevaAsignacion);
-            log.info("✅ Correo de escalamiento enviado y guardado para ticket {}", ticketId);
+            log.info("✅ Correo de escalamiento guardado y encolado para ticket {}", ticketId);
         } catch (Exception ex) {
             log.error("❌ Error al enviar/guardar correo de escalamiento para ticket {}: {}", ticketId, ex.getMessage(), ex);
             // No bloqueamos el escalamiento si falla el envío del correo
@@ -94,15 +102,19 @@ public class TicketWorkflowFacade {
                 request.getJustificacion()
         );
 
-        // G. Notificar evento
-        eventPublisher.publishEvent(new TicketEscaladoEvent(this, ticket.getIdTicket()));
+        // G. Notificar evento (outbox: se entrega después del commit)
+        outboxService.registrar(OutboxService.AGREGADO_TICKET, ticket.getIdTicket(),
+                new TicketEscaladoEvent(ticket.getIdTicket()));
     }
 
     // =========================================================================
     // CASO 2: DERIVAR (Backoffice -> Área Externa / TI)
     // =========================================================================
-    @Transactional
     public void derivarTicket(Long ticketId, DerivarRequestDTO request) {
+        ticketTransicionService.conReintento(ticketId, () -> derivarTicketEnTransaccion(ticketId, request));
+    }
+
+    private void derivarTicketEnTransaccion(Long ticketId, DerivarRequestDTO request) {
 
         Ticket ticket = ticketRepository.findById(ticketId)
                 .orElseThrow(() -> new RuntimeException("Ticket no encontrado: " + ticketId));
@@ -116,8 +128,8 @@ public class TicketWorkflowFacade {
         derivacionService.registrarSalida(ticket, request);
 
         // B. Cambiar estado a DERIVADO (Aquí sí cambia porque sale de la empresa)
-        ticket.setEstado(EstadoTicket.DERIVADO);
-        ticketRepository.save(ticket);
+        ticketTransicionService.transicionar(ticket, EstadoTicket.DERIVADO, null);
+        ticketViewService.proyectar(ticket);
 
         // C. Registrar en logs de auditoría
         auditLogService.logTicketDerivacion(
@@ -132,14 +144,18 @@ public class TicketWorkflowFacade {
 
         // D. Notificar
         String emailDestino = "area." + request.getAreaDestinoId() + "@externo.com";
-        eventPublisher.publishEvent(new TicketDerivadoEvent(this, ticket.getIdTicket(), emailDestino));
+        outboxService.registrar(OutboxService.AGREGADO_TICKET, ticket.getIdTicket(),
+                new TicketDerivadoEvent(ticket.getIdTicket(), emailDestino));
     }
 
     // =========================================================================
     // CASO 3: REGISTRAR RESPUESTA EXTERNA
     // =========================================================================
-    @Transactional
     public void registrarRespuestaExterna(Long ticketId, RespuestaDerivacionDTO respuesta) {
+        ticketTransicionService.conReintento(ticketId, () -> registrarRespuestaExternaEnTransaccion(ticketId, respuesta));
+    }
+
+    private void registrarRespuestaExternaEnTransaccion(Long ticketId, RespuestaDerivacionDTO respuesta) {
         log.info("📥 Registrando respuesta externa para ticket #{}", ticketId);
         
         // 1. Validar ticket
@@ -179,17 +195,16 @@ public class TicketWorkflowFacade {
         // 5. Cambiar estado del ticket según si está solucionado
         String estadoNuevo;
         if (Boolean.TRUE.equals(respuesta.getSolucionado())) {
-            ticket.setEstado(EstadoTicket.CERRADO);
-            ticket.setFechaCierre(LocalDateTime.now());
+            ticketTransicionService.transicionar(ticket, EstadoTicket.CERRADO, LocalDateTime.now());
             estadoNuevo = "CERRADO";
             log.info("🔒 Ticket #{} marcado como CERRADO (solucionado por área externa)", ticketId);
         } else {
-            ticket.setEstado(EstadoTicket.ABIERTO);
+            ticketTransicionService.transicionar(ticket, EstadoTicket.ABIERTO, null);
             estadoNuevo = "ABIERTO";
             log.info("🔓 Ticket #{} regresa a ABIERTO para seguimiento del BackOffice", ticketId);
         }
 
-        ticketRepository.save(ticket);
+        ticketViewService.proyectar(ticket);
 
         // 6. Registrar en logs de auditoría
         auditLogService.logTicketRespuestaExterna(
@@ -203,8 +218,11 @@ public class TicketWorkflowFacade {
     // =========================================================================
     // CASO 4: RECHAZAR ESCALAMIENTO (BackOffice devuelve al Agente)
     // =========================================================================
-    @Transactional
     public void rechazarEscalamiento(Long ticketId, RechazarEscalamientoDTO request) {
+        ticketTransicionService.conReintento(ticketId, () -> rechazarEscalamientoEnTransaccion(ticketId, request));
+    }
+
+    private void rechazarEscalamientoEnTransaccion(Long ticketId, RechazarEscalamientoDTO request) {
         log.info("↩️ Rechazando escalamiento para ticket #{}", ticketId);
         
         // 1. Validar ticket está ESCALADO
@@ -215,6 +233,10 @@ public class TicketWorkflowFacade {
             throw new RuntimeException("Solo se puede rechazar un ticket que está ESCALADO.");
         }
 
+        // Cambiar estado a ABIERTO antes de enviar correos: si otra operación se adelantó,
+        // la transición condicional falla aquí y no se notifica nada
+        ticketTransicionService.transicionar(ticket, EstadoTicket.ABIERTO, null);
+
         // 2. Obtener asignación activa (BackOffice)
         Asignacion asignacionBackoffice = asignacionRepository.findAsignacionActiva(ticketId)
                 .orElseThrow(() -> new RuntimeException("No hay asignación activa del BackOffice"));
@@ -286,6 +308,7 @@ public class TicketWorkflowFacade {
         // 7. Cerrar la asignación actual del BackOffice
         asignacionBackoffice.setFechaFin(LocalDateTime.now());
         asignacionRepository.save(asignacionBackoffice);
+        registroCargaAgentes.registrarCierre(asignacionBackoffice);
         log.info("🔒 Asignación del BackOffice cerrada (ID: {})", asignacionBackoffice.getIdAsignacion());
 
         // 8. Reasignar al Agente original si existe
@@ -298,6 +321,7 @@ public class TicketWorkflowFacade {
                     .build();
 
             asignacionRepository.save(nuevaAsignacion);
+            registroCargaAgentes.registrarApertura(agenteOriginal);
             log.info("🔄 Ticket reasignado al Agente: {} (ID: {})",
                     agenteOriginal.getNombreCompleto(),
                     agenteOriginal.getIdEmpleado());
@@ -305,9 +329,8 @@ public class TicketWorkflowFacade {
             log.warn("⚠️ No se pudo reasignar al Agente original. El ticket queda sin asignación activa.");
         }
 
-        // 9. Cambiar estado del ticket a ABIERTO
-        ticket.setEstado(EstadoTicket.ABIERTO);
-        ticketRepository.save(ticket);
+        // 9. Proyectar el ticket (ya en ABIERTO desde el paso 1)
+        ticketViewService.proyectar(ticket);
 
         // 10. Registrar en logs de auditoría
         auditLogService.logTicketRechazoEscalamiento(
@@ -5,12 +5,12 @@ import com.sqrc.module.backendsqrc.ticket.event.TicketDerivadoEvent;
 import com.sqrc.module.backendsqrc.ticket.event.TicketEscaladoEvent;
 import lombok.RequiredArgsConstructor;
 import org.springframework.context.event.EventListener;
-import org.springframework.scheduling.annotation.Async;
 import org.springframework.stereotype.Component;
 
 /**
  * Listener que reacciona a eventos de tickets (Observer Pattern).
  * Envía notificaciones por correo cuando se escala o deriva un ticket.
+ * Los eventos llegan desde la outbox (OutboxPublicador), ya fuera del hilo de la petición.
  */
 @Component
 @RequiredArgsConstructor
@@ -26,10 +26,9 @@ public class TicketNotificationListener {
      *
      * @param event Evento con la información del ticket escalado
      */
-    @Async
     @EventListener
     public void onTicketEscalado(TicketEscaladoEvent event) {
-        System.out.println("🔔 [LISTENER] Evento capturado: Ticket escalado ID " + event.getTicketId());
+        System.out.println("🔔 [LISTENER] Evento capturado: Ticket escalado ID " + event.ticketId());
         // El correo ya se envió y guardó en TicketWorkflowFacade.enviarYGuardarCorreoEscalamiento()
         // Aquí solo registramos el evento para auditoría
         System.out.println("    → Correo de escalamiento ya procesado en el flujo principal");
@@ -41,14 +40,13 @@ public class TicketNotificationListener {
      *
      * @param event Evento con la información del ticket derivado
      */
-    @Async
     @EventListener
     public void onTicketDerivado(TicketDerivadoEvent event) {
-        System.out.println("🔔 [LISTENER] Evento capturado: Ticket derivado ID " + event.getTicketId());
+        System.out.println("🔔 [LISTENER] Evento capturado: Ticket derivado ID " + event.ticketId());
 
         // Enviar correo al área externa
-        String destinatario = event.getDestinatarioEmail();
-        String asunto = "📨 Ticket #" + event.getTicketId() + " derivado a su área";
+        String destinatario = event.destinatarioEmail();
+        String asunto = "📨 Ticket #" + event.ticketId() + " derivado a su área";
         String cuerpoHtml = """
                 <html>
                 <body>
@@ -59,7 +57,7 @@ public class TicketNotificationListener {
                     <p><em>Sistema de Gestión de Tickets SQRC</em></p>
                 </body>
                 </html>
-                """.formatted(event.getTicketId());
+                """.formatted(event.ticketId());
 
         emailService.enviarCorreoHtmlAsync(destinatario, asunto, cuerpoHtml);
 
@@ -57,9 +57,11 @@ public abstract class Agente extends Empleado {
     private List<Asignacion> tickets = new ArrayList<>();
 
     /**
-     * Indica si el agente está ocupado atendiendo
+     * Indica si el agente está ocupado atendiendo.
+     * En ejecución la fuente de verdad es RegistroPresenciaAgentes, que la persiste
+     * por lotes; por eso JPA no la escribe en los UPDATE del agente.
      */
-    @Column(name = "esta_ocupado")
+    @Column(name = "esta_ocupado", updatable = false)
     @Builder.Default
     private Boolean estaOcupado = false;
 
@@ -47,24 +47,27 @@ public class AgenteLlamada extends Agente {
     @Column(name = "extension_telefonica", length = 10)
     private String extensionTelefonica;
 
+    // Contadores mantenidos en memoria por RegistroPresenciaAgentes y persistidos
+    // por lotes (write-behind); JPA no los escribe en los UPDATE del agente.
+
     /**
      * Contador de llamadas atendidas en el día
      */
-    @Column(name = "llamadas_atendidas_hoy")
+    @Column(name = "llamadas_atendidas_hoy", updatable = false)
     @Builder.Default
     private Integer llamadasAtendidasHoy = 0;
 
     /**
      * Tiempo promedio de llamada en segundos
      */
-    @Column(name = "tiempo_promedio_llamada")
+    @Column(name = "tiempo_promedio_llamada", updatable = false)
     @Builder.Default
     private Integer tiempoPromedioLlamada = 0;
 
     /**
      * Cantidad de llamadas activas actualmente
      */
-    @Column(name = "llamadas_activas")
+    @Column(name = "llamadas_activas", updatable = false)
     @Builder.Default
     private Integer llamadasActivas = 0;
 
@@ -12,8 +12,12 @@ import java.time.LocalDateTime;
 @Builder
 public class Asignacion {
 
+    // Secuencia con bloques de 50 IDs (pooled) en lugar de IDENTITY, para que Hibernate
+    // pueda agrupar los INSERT en lotes JDBC (operaciones masivas). En MySQL se emula con
+    // la tabla asignaciones_seq.
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "asignaciones_seq")
+    @SequenceGenerator(name = "asignaciones_seq", sequenceName = "asignaciones_seq", allocationSize = 50)
     @Column(name = "id_asignacion")
     private Long idAsignacion;
 
@@ -36,6 +36,14 @@ public class Correo {
     @Column(name = "tipo_correo", nullable = false)
     private TipoCorreo tipoCorreo;
 
+    /** Estado de entrega informado por la cola de salida (null en correos anteriores a ella) */
+    @Enumerated(EnumType.STRING)
+    @Column(name = "estado_envio", length = 20)
+    private EstadoEnvioCorreo estadoEnvio;
+
+    @Column(name = "ultimo_error_envio", length = 500)
+    private String ultimoErrorEnvio;
+
     @PrePersist
     protected void onCreate() {
         if (fechaEnvio == null) {
@@ -0,0 +1,12 @@
+package com.sqrc.module.backendsqrc.ticket.model;
+
+/**
+ * Estado del envío de la constancia de registro (PDF + correo) de un ticket.
+ */
+public enum EstadoConstancia {
+    PENDIENTE,
+    EN_PROCESO,
+    ENVIADA,
+    SIN_CORREO,
+    FALLIDA
+}
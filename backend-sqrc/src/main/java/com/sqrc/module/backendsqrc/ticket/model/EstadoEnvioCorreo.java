@@ -0,0 +1,13 @@
+package com.sqrc.module.backendsqrc.ticket.model;
+
+/**
+ * Estado de entrega de un {@link Correo}, informado por la cola de salida.
+ */
+public enum EstadoEnvioCorreo {
+    /** En la cola de salida (o reintentando) */
+    PENDIENTE,
+    /** Aceptado por el servidor SMTP */
+    ENVIADO,
+    /** Se agotaron los reintentos o el destinatario fue rechazado */
+    FALLIDO
+}
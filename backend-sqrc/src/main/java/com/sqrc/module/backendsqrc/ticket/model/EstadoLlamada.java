@@ -4,6 +4,7 @@ package com.sqrc.module.backendsqrc.ticket.model;
  * Estados posibles de una llamada.
  */
 public enum EstadoLlamada {
+    OFRECIDA,
     ACEPTADA,
     DECLINADA,
     EN_ESPERA,
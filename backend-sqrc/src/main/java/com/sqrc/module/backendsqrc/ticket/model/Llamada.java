@@ -14,6 +14,7 @@ import java.time.LocalDateTime;
  * Regla de Negocio: 1 Ticket = máximo 1 Llamada (relación uno a uno opcional)
  * 
  * Estados de la llamada:
+ * - OFRECIDA: Llamada ofrecida al agente por la central (aún sin contestar)
  * - ACEPTADA: Llamada aceptada por el agente
  * - DECLINADA: Llamada rechazada
  * - EN_ESPERA: Llamada en espera
@@ -27,11 +28,21 @@ import java.time.LocalDateTime;
 @Builder
 public class Llamada {
 
+    // Secuencia pooled (bloques de 50) en lugar de IDENTITY, para que la ingesta de
+    // eventos CTI pueda agrupar los INSERT en lotes JDBC. En MySQL se emula con la
+    // tabla llamadas_seq.
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "llamadas_seq")
+    @SequenceGenerator(name = "llamadas_seq", sequenceName = "llamadas_seq", allocationSize = 50)
     @Column(name = "id_llamada")
     private Long idLlamada;
 
+    /**
+     * Identificador de la llamada en la central telefónica (CTI), si vino de ella.
+     */
+    @Column(name = "id_externo", length = 64, unique = true)
+    private String idExterno;
+
     @Column(name = "fecha_hora", nullable = false)
     private LocalDateTime fechaHora;
 
@@ -43,7 +54,7 @@ public class Llamada {
     private String numeroOrigen;
 
     @Enumerated(EnumType.STRING)
-    @Column(name = "estado", nullable = false)
+    @Column(name = "estado", nullable = false, length = 20)
     @Builder.Default
     private EstadoLlamada estado = EstadoLlamada.ACEPTADA;
 
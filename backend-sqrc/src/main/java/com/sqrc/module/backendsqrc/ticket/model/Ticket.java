@@ -60,6 +60,25 @@ public class Ticket {
     @Column(name = "id_constancia")
     private Integer idConstancia;
 
+    // Envío asíncrono de la constancia de registro (null en tickets anteriores al pipeline).
+    // Solo se escriben al crear; luego los actualiza el pipeline con SQL nativo, así un
+    // save() del ticket no pisa el estado que dejó el worker.
+    @Enumerated(EnumType.STRING)
+    @Column(name = "estado_constancia", length = 20, updatable = false)
+    private EstadoConstancia estadoConstancia;
+
+    @Column(name = "intentos_constancia", updatable = false)
+    private Integer intentosConstancia;
+
+    @Column(name = "fecha_estado_constancia", updatable = false)
+    private LocalDateTime fechaEstadoConstancia;
+
+    // Control de concurrencia optimista: cada escritura del ticket (JPA o transición
+    // condicional nativa) incrementa la versión
+    @Version
+    @Column(name = "version", nullable = false, columnDefinition = "bigint default 0")
+    private Long version;
+
     @OneToMany(mappedBy = "ticket", cascade = CascadeType.ALL, orphanRemoval = true)
     @Builder.Default
     private List<Asignacion> asignaciones = new ArrayList<>();
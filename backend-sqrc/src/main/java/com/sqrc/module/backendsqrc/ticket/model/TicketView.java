@@ -0,0 +1,94 @@
+package com.sqrc.module.backendsqrc.ticket.model;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * Modelo de lectura desnormalizado de un ticket (tabla ticket_view).
+ *
+ * Una fila por ticket con el estado actual, el empleado asignado, el nombre del
+ * cliente, el motivo y los plazos de SLA, para que los listados y bandejas se
+ * sirvan de una sola tabla indexada sin joins ni carga lazy.
+ *
+ * Lo mantiene {@link com.sqrc.module.backendsqrc.ticket.service.TicketViewService}
+ * dentro de la misma transacción que cada operación del ciclo de vida.
+ */
+@Entity
+@Table(name = "ticket_view", indexes = {
+        @Index(name = "idx_ticket_view_fecha", columnList = "fecha_creacion, id_ticket"),
+        @Index(name = "idx_ticket_view_estado_fecha", columnList = "estado, fecha_creacion, id_ticket"),
+        @Index(name = "idx_ticket_view_empleado_fecha", columnList = "empleado_asignado_id, fecha_creacion, id_ticket"),
+        @Index(name = "idx_ticket_view_cliente", columnList = "cliente_id")
+})
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class TicketView {
+
+    @Id
+    @Column(name = "id_ticket")
+    private Long idTicket;
+
+    @Column(name = "asunto", length = 100)
+    private String asunto;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "estado", nullable = false, length = 30)
+    private EstadoTicket estado;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "tipo_ticket", nullable = false, length = 30)
+    private TipoTicket tipoTicket;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "origen", length = 30)
+    private OrigenTicket origen;
+
+    @Column(name = "fecha_creacion", nullable = false)
+    private LocalDateTime fechaCreacion;
+
+    @Column(name = "fecha_cierre")
+    private LocalDateTime fechaCierre;
+
+    @Column(name = "fecha_actualizacion", nullable = false)
+    private LocalDateTime fechaActualizacion;
+
+    // Cliente
+    @Column(name = "cliente_id")
+    private Integer clienteId;
+
+    @Column(name = "cliente_nombre", length = 200)
+    private String clienteNombre;
+
+    // Motivo
+    @Column(name = "motivo_nombre", length = 100)
+    private String motivoNombre;
+
+    // Asignación activa
+    @Column(name = "empleado_asignado_id")
+    private Long empleadoAsignadoId;
+
+    @Column(name = "empleado_asignado_nombre", length = 200)
+    private String empleadoAsignadoNombre;
+
+    @Column(name = "area_asignada", length = 100)
+    private String areaAsignada;
+
+    @Column(name = "fecha_asignacion")
+    private LocalDateTime fechaAsignacion;
+
+    // Plazos de SLA
+    @Column(name = "fecha_limite_sla")
+    private LocalDateTime fechaLimiteSla;
+
+    @Column(name = "fecha_limite_respuesta")
+    private LocalDate fechaLimiteRespuesta;
+
+    @Column(name = "fecha_limite_resolucion")
+    private LocalDate fechaLimiteResolucion;
+}
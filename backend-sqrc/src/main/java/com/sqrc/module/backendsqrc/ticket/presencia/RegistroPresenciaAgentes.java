@@ -0,0 +1,389 @@
+package com.sqrc.module.backendsqrc.ticket.presencia;
+
+import com.sqrc.module.backendsqrc.ticket.dto.response.PresenciaAgenteDTO;
+import com.sqrc.module.backendsqrc.ticket.model.Agente;
+import com.sqrc.module.backendsqrc.ticket.model.AgenteLlamada;
+import com.sqrc.module.backendsqrc.ticket.model.Empleado;
+import com.sqrc.module.backendsqrc.ticket.model.TipoEmpleado;
+import com.sqrc.module.backendsqrc.ticket.repository.AgenteLlamadaRepository;
+import com.sqrc.module.backendsqrc.ticket.repository.AgenteRepository;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import org.hibernate.Hibernate;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+
+/**
+ * Registro en memoria de presencia y ocupación de los agentes.
+ *
+ * - Es la fuente de verdad en ejecución de esta_ocupado y de los contadores de
+ *   llamadas (activas, atendidas hoy, tiempo promedio): cada cambio es una
+ *   operación atómica sobre el estado del agente, sin escribir en la BD.
+ * - Write-behind: cada agente lleva una versión que sube con cada cambio; un
+ *   proceso periódico persiste en lote (JDBC batch) solo los agentes cuya versión
+ *   difiere de la última persistida. Si el lote falla se reintenta en el siguiente.
+ * - Mantiene por área el conjunto de agentes libres (sin ticket en curso y bajo el
+ *   máximo de llamadas simultáneas) para enrutamiento y dashboards.
+ *
+ * Los cambios hechos dentro de una transacción se aplican después del commit.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class RegistroPresenciaAgentes {
+
+    private static final String SQL_OCUPADO =
+            "UPDATE agentes SET esta_ocupado = ? WHERE id_empleado = ?";
+    private static final String SQL_LLAMADAS =
+            "UPDATE agentes_llamada SET llamadas_activas = ?, llamadas_atendidas_hoy = ?, " +
+            "tiempo_promedio_llamada = ? WHERE id_empleado = ?";
+
+    private final AgenteRepository agenteRepository;
+    private final AgenteLlamadaRepository agenteLlamadaRepository;
+    private final JdbcTemplate jdbcTemplate;
+
+    /** Estado en vivo de un agente; todos los campos mutables son atómicos */
+    private static final class EstadoAgente {
+        final Long empleadoId;
+        final String area;
+        final TipoEmpleado tipo;
+        final boolean deLlamadas;
+        final AtomicBoolean ocupado = new AtomicBoolean();
+        final AtomicInteger llamadasActivas = new AtomicInteger();
+        final AtomicInteger atendidasHoy = new AtomicInteger();
+        final AtomicLong segundosHoy = new AtomicLong();
+        final AtomicLong ultimaActividad = new AtomicLong();
+        /** Sube después de cada cambio; se lee antes que los valores al persistir */
+        final AtomicLong version = new AtomicLong();
+        volatile long versionPersistida;
+
+        EstadoAgente(Long empleadoId, String area, TipoEmpleado tipo) {
+            this.empleadoId = empleadoId;
+            this.area = area;
+            this.tipo = tipo;
+            this.deLlamadas = tipo == TipoEmpleado.AGENTE_LLAMADA;
+        }
+
+        boolean estaLibre() {
+            return !ocupado.get()
+                    && (!deLlamadas || llamadasActivas.get() < AgenteLlamada.MAX_LLAMADAS_SIMULTANEAS);
+        }
+
+        int tiempoPromedio() {
+            int atendidas = atendidasHoy.get();
+            return atendidas == 0 ? 0 : (int) (segundosHoy.get() / atendidas);
+        }
+    }
+
+    private final Map<Long, EstadoAgente> agentes = new ConcurrentHashMap<>();
+    private final Map<String, Set<Long>> libresPorArea = new ConcurrentHashMap<>();
+
+    // ==================== CARGA ====================
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void alIniciar() {
+        try {
+            cargar();
+        } catch (Exception ex) {
+            log.error("No se pudo cargar el registro de presencia: {}", ex.getMessage(), ex);
+        }
+    }
+
+    /**
+     * Incorpora agentes nuevos (p.ej. sincronizados desde la API externa) y quita
+     * los eliminados. No pisa el estado de los agentes ya registrados.
+     */
+    @Scheduled(fixedDelayString = "${app.presencia.resyncMs:600000}", initialDelayString = "${app.presencia.resyncMs:600000}")
+    public void resincronizar() {
+        cargar();
+    }
+
+    /**
+     * Carga los agentes con su último estado persistido (dos consultas).
+     */
+    public void cargar() {
+        long inicio = System.currentTimeMillis();
+        Map<Long, Object[]> llamadas = agenteLlamadaRepository.findContadoresLlamadas().stream()
+                .collect(Collectors.toMap(f -> (Long) f[0], f -> f));
+
+        Set<Long> ids = new HashSet<>();
+        int nuevos = 0;
+        for (Object[] fila : agenteRepository.findDatosPresencia()) {
+            Long id = (Long) fila[0];
+            ids.add(id);
+            if (agentes.containsKey(id)) {
+                continue;
+            }
+            EstadoAgente estado = new EstadoAgente(id, (String) fila[1], (TipoEmpleado) fila[2]);
+            estado.ocupado.set(Boolean.TRUE.equals(fila[3]));
+            Object[] contadores = llamadas.get(id);
+            if (contadores != null) {
+                estado.llamadasActivas.set(valor(contadores[1]));
+                estado.atendidasHoy.set(valor(contadores[2]));
+                estado.segundosHoy.set((long) valor(contadores[3]) * valor(contadores[2]));
+            }
+            if (agentes.putIfAbsent(id, estado) == null) {
+                reindexar(estado);
+                nuevos++;
+            }
+        }
+
+        agentes.values().removeIf(e -> {
+            if (ids.contains(e.empleadoId)) {
+                return false;
+            }
+            quitarDeLibres(e);
+            return true;
+        });
+        log.info("Registro de presencia: {} agentes ({} nuevos) en {} ms",
+                agentes.size(), nuevos, System.currentTimeMillis() - inicio);
+    }
+
+    // ==================== CAMBIOS ====================
+
+    /**
+     * El agente tomó un ticket (creación con asignación inicial).
+     */
+    public void marcarOcupado(Empleado empleado) {
+        alConfirmar(empleado, estado -> estado.ocupado.set(true));
+    }
+
+    /**
+     * El agente dejó su ticket (escalamiento, reasignación, cierre masivo).
+     */
+    public void marcarLibre(Empleado empleado) {
+        alConfirmar(empleado, estado -> estado.ocupado.set(false));
+    }
+
+    /**
+     * El agente aceptó (o retomó) una llamada.
+     */
+    public void iniciarLlamada(Empleado empleado) {
+        alConfirmar(empleado, estado -> estado.llamadasActivas.incrementAndGet());
+    }
+
+    /**
+     * Terminó una llamada del agente.
+     *
+     * @param atendida true si la llamada se finalizó (cuenta para el día y el promedio)
+     * @param duracionSegundos Duración de la llamada, o null si no se conoce
+     */
+    public void terminarLlamada(Empleado empleado, boolean atendida, Integer duracionSegundos) {
+        alConfirmar(empleado, estado -> {
+            estado.llamadasActivas.updateAndGet(n -> Math.max(0, n - 1));
+            if (atendida) {
+                if (duracionSegundos != null && duracionSegundos > 0) {
+                    estado.segundosHoy.addAndGet(duracionSegundos);
+                }
+                estado.atendidasHoy.incrementAndGet();
+            }
+        });
+    }
+
+    /**
+     * Reinicia los contadores diarios de llamadas a medianoche.
+     */
+    @Scheduled(cron = "${app.presencia.reinicioDiarioCron:0 0 0 * * *}")
+    public void reiniciarContadoresDiarios() {
+        for (EstadoAgente estado : agentes.values()) {
+            if (estado.deLlamadas && (estado.atendidasHoy.get() > 0 || estado.segundosHoy.get() > 0)) {
+                estado.atendidasHoy.set(0);
+                estado.segundosHoy.set(0);
+                estado.version.incrementAndGet();
+            }
+        }
+        log.info("Contadores diarios de llamadas reiniciados");
+    }
+
+    // ==================== CONSULTA ====================
+
+    /**
+     * Agentes libres del área, primero los que tienen menos llamadas en curso
+     * y, a igualdad, los que llevan más tiempo sin actividad.
+     *
+     * @param area Área (null = todas)
+     */
+    public List<PresenciaAgenteDTO> libres(String area) {
+        Collection<Long> ids = area != null
+                ? libresPorArea.getOrDefault(area, Set.of())
+                : libresPorArea.values().stream().flatMap(Set::stream).collect(Collectors.toList());
+        return ids.stream()
+                .map(agentes::get)
+                .filter(e -> e != null && e.estaLibre())
+                .sorted(Comparator.comparingInt((EstadoAgente e) -> e.llamadasActivas.get())
+                        .thenComparingLong(e -> e.ultimaActividad.get()))
+                .map(this::mapToDto)
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * Estado en vivo de todos los agentes (o los del área).
+     */
+    public List<PresenciaAgenteDTO> listar(String area) {
+        return agentes.values().stream()
+                .filter(e -> area == null || area.equals(e.area))
+                .sorted(Comparator.comparingLong(e -> e.empleadoId))
+                .map(this::mapToDto)
+                .collect(Collectors.toList());
+    }
+
+    public boolean estaLibre(Long empleadoId) {
+        EstadoAgente estado = agentes.get(empleadoId);
+        return estado != null && estado.estaLibre();
+    }
+
+    // ==================== PERSISTENCIA (WRITE-BEHIND) ====================
+
+    /**
+     * Persiste en lote los agentes modificados desde la última escritura.
+     *
+     * @return Cantidad de agentes persistidos
+     */
+    @Scheduled(fixedDelayString = "${app.presencia.flushMs:5000}")
+    public synchronized int persistir() {
+        List<EstadoAgente> sucios = new ArrayList<>();
+        List<Long> versiones = new ArrayList<>();
+        List<Object[]> ocupados = new ArrayList<>();
+        List<Object[]> llamadas = new ArrayList<>();
+
+        for (EstadoAgente estado : agentes.values()) {
+            long version = estado.version.get();
+            if (version == estado.versionPersistida) {
+                continue;
+            }
+            sucios.add(estado);
+            versiones.add(version);
+            ocupados.add(new Object[]{estado.ocupado.get(), estado.empleadoId});
+            if (estado.deLlamadas) {
+                llamadas.add(new Object[]{estado.llamadasActivas.get(), estado.atendidasHoy.get(),
+                        estado.tiempoPromedio(), estado.empleadoId});
+            }
+        }
+        if (sucios.isEmpty()) {
+            return 0;
+        }
+
+        try {
+            jdbcTemplate.batchUpdate(SQL_OCUPADO, ocupados);
+            if (!llamadas.isEmpty()) {
+                jdbcTemplate.batchUpdate(SQL_LLAMADAS, llamadas);
+            }
+        } catch (Exception ex) {
+            log.error("Error persistiendo presencia de {} agentes, se reintentará: {}", sucios.size(), ex.getMessage());
+            return 0;
+        }
+
+        for (int i = 0; i < sucios.size(); i++) {
+            sucios.get(i).versionPersistida = versiones.get(i);
+        }
+        log.debug("Presencia persistida: {} agentes", sucios.size());
+        return sucios.size();
+    }
+
+    @PreDestroy
+    void alDetener() {
+        persistir();
+    }
+
+    // ==================== MÉTODOS AUXILIARES ====================
+
+    private void alConfirmar(Empleado referencia, Consumer<EstadoAgente> cambio) {
+        // Las asociaciones lazy llegan como proxy de Empleado: resolver el subtipo real
+        Object real = referencia != null ? Hibernate.unproxy(referencia) : null;
+        if (!(real instanceof Agente empleado) || empleado.getIdEmpleado() == null) {
+            return;
+        }
+        Runnable accion = () -> {
+            EstadoAgente estado = agentes.computeIfAbsent(empleado.getIdEmpleado(),
+                    id -> new EstadoAgente(id, empleado.getArea(), tipoDe(empleado)));
+            cambio.accept(estado);
+            estado.ultimaActividad.set(System.currentTimeMillis());
+            estado.version.incrementAndGet();
+            reindexar(estado);
+        };
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            accion.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                accion.run();
+            }
+        });
+    }
+
+    /**
+     * Ajusta el índice de libres al estado actual. Se repite si otro hilo cambió
+     * el estado mientras tanto, así el último en escribir deja el índice correcto.
+     */
+    private void reindexar(EstadoAgente estado) {
+        if (estado.area == null) {
+            return;
+        }
+        Set<Long> libres = libresPorArea.computeIfAbsent(estado.area, k -> ConcurrentHashMap.newKeySet());
+        boolean libre;
+        do {
+            libre = estado.estaLibre();
+            if (libre) {
+                libres.add(estado.empleadoId);
+            } else {
+                libres.remove(estado.empleadoId);
+            }
+        } while (libre != estado.estaLibre());
+    }
+
+    private void quitarDeLibres(EstadoAgente estado) {
+        if (estado.area != null) {
+            Set<Long> libres = libresPorArea.get(estado.area);
+            if (libres != null) {
+                libres.remove(estado.empleadoId);
+            }
+        }
+    }
+
+    private static TipoEmpleado tipoDe(Empleado empleado) {
+        if (empleado.getTipoEmpleado() != null) {
+            return empleado.getTipoEmpleado();
+        }
+        return empleado instanceof AgenteLlamada ? TipoEmpleado.AGENTE_LLAMADA : TipoEmpleado.AGENTE_PRESENCIAL;
+    }
+
+    private static int valor(Object numero) {
+        return numero != null ? ((Number) numero).intValue() : 0;
+    }
+
+    private PresenciaAgenteDTO mapToDto(EstadoAgente e) {
+        long actividad = e.ultimaActividad.get();
+        return PresenciaAgenteDTO.builder()
+                .idEmpleado(e.empleadoId)
+                .area(e.area)
+                .tipoEmpleado(e.tipo != null ? e.tipo.name() : null)
+                .ocupado(e.ocupado.get())
+                .libre(e.estaLibre())
+                .llamadasActivas(e.llamadasActivas.get())
+                .llamadasAtendidasHoy(e.atendidasHoy.get())
+                .tiempoPromedioLlamada(e.tiempoPromedio())
+                .ultimaActividad(actividad > 0
+                        ? LocalDateTime.ofInstant(Instant.ofEpochMilli(actividad), ZoneId.systemDefault())
+                        : null)
+                .build();
+    }
+}
@@ -46,4 +46,11 @@ public interface AgenteLlamadaRepository extends JpaRepository<AgenteLlamada, Lo
      */
     @Query("SELECT a FROM AgenteLlamada a WHERE a.llamadasActivas < 2 AND a.estaOcupado = false")
     List<AgenteLlamada> findAgentesDisponibles();
+
+    /**
+     * Contadores de llamadas persistidos:
+     * [idEmpleado, llamadasActivas, llamadasAtendidasHoy, tiempoPromedioLlamada].
+     */
+    @Query("SELECT a.idEmpleado, a.llamadasActivas, a.llamadasAtendidasHoy, a.tiempoPromedioLlamada FROM AgenteLlamada a")
+    List<Object[]> findContadoresLlamadas();
 }
@@ -1,7 +1,9 @@
 package com.sqrc.module.backendsqrc.ticket.repository;
 
+import com.sqrc.module.backendsqrc.cache.config.CacheNombres;
 import com.sqrc.module.backendsqrc.ticket.model.Agente;
 
+import org.springframework.cache.annotation.Cacheable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
@@ -37,4 +39,24 @@ public interface AgenteRepository extends JpaRepository<Agente, Long> {
      * Busca agentes disponibles.
      */
     List<Agente> findByEstaOcupadoFalse();
+
+    /**
+     * Datos de presencia de todos los agentes: [idEmpleado, area, tipoEmpleado, estaOcupado].
+     */
+    @Query("SELECT a.idEmpleado, a.area, a.tipoEmpleado, a.estaOcupado FROM Agente a")
+    List<Object[]> findDatosPresencia();
+
+    /**
+     * IDs de los agentes del equipo de un supervisor.
+     */
+    @Query("SELECT a.idEmpleado FROM Agente a WHERE a.supervisor.idEmpleado = :supervisorId")
+    List<Long> findIdsBySupervisor(@Param("supervisorId") Long supervisorId);
+
+    /**
+     * ID, nombre y apellido de todos los agentes, cacheado (dashboard).
+     * Se invalida al sincronizar empleados.
+     */
+    @Cacheable(CacheNombres.AGENTES_NOMBRES)
+    @Query("SELECT a.idEmpleado, a.nombre, a.apellido FROM Agente a")
+    List<Object[]> findNombres();
 }
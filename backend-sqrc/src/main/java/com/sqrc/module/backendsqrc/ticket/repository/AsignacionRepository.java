@@ -1,11 +1,15 @@
 package com.sqrc.module.backendsqrc.ticket.repository;
 
 import com.sqrc.module.backendsqrc.ticket.model.Asignacion;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -29,29 +33,129 @@ public interface AsignacionRepository extends JpaRepository<Asignacion, Long> {
     boolean existsAsignacionActiva(@Param("ticketId") Long ticketId);
 
     /**
-     * Obtiene todas las asignaciones de un empleado ordenadas por fecha de inicio descendente.
-     * Usado para consultas de desempeño desde otros módulos.
+     * Filas de desempeño de un empleado con los datos del ticket y, si es QUEJA, su
+     * impacto (LEFT JOIN a quejas: sin una consulta por fila).
+     * Retorna Object[] con [idAsignacion, idTicket, fechaInicio, fechaFin, estado,
+     * tipoTicket, asunto, impacto].
      */
-    @Query("SELECT a FROM Asignacion a " +
-           "JOIN FETCH a.ticket t " +
-           "LEFT JOIN FETCH t.motivo " +
-           "LEFT JOIN FETCH t.cliente " +
-           "WHERE a.empleado.idEmpleado = :empleadoId " +
-           "ORDER BY a.fechaInicio DESC")
-    List<Asignacion> findByEmpleadoIdWithTicket(@Param("empleadoId") Long empleadoId);
+    @Query(value = "SELECT a.id_asignacion, t.id_ticket, a.fecha_inicio, a.fecha_fin, " +
+           "       t.estado, t.tipo_ticket, t.asunto, q.impacto " +
+           "FROM asignaciones a " +
+           "JOIN tickets t ON t.id_ticket = a.ticket_id " +
+           "LEFT JOIN quejas q ON q.id_ticket = t.id_ticket " +
+           "WHERE a.empleado_id = :empleadoId " +
+           "ORDER BY a.fecha_inicio DESC, a.id_asignacion DESC", nativeQuery = true)
+    List<Object[]> findDesempenoByEmpleado(@Param("empleadoId") Long empleadoId);
 
     /**
-     * Obtiene las asignaciones más recientes con tickets (para lista de tickets recientes).
-     * Incluye agente, motivo y cliente.
+     * Igual que {@link #findDesempenoByEmpleado} pero acotado a asignaciones iniciadas en
+     * [desde, hasta) y paginado.
      */
-    @Query("SELECT a FROM Asignacion a " +
-           "JOIN FETCH a.ticket t " +
-           "JOIN FETCH a.empleado e " +
-           "LEFT JOIN FETCH t.motivo " +
-           "LEFT JOIN FETCH t.cliente " +
-           "WHERE t.fechaCreacion BETWEEN :inicio AND :fin " +
-           "ORDER BY t.fechaCreacion DESC")
-    List<Asignacion> findRecentWithDetails(@Param("inicio") LocalDateTime inicio, @Param("fin") LocalDateTime fin);
+    @Query(value = "SELECT a.id_asignacion, t.id_ticket, a.fecha_inicio, a.fecha_fin, " +
+           "       t.estado, t.tipo_ticket, t.asunto, q.impacto " +
+           "FROM asignaciones a " +
+           "JOIN tickets t ON t.id_ticket = a.ticket_id " +
+           "LEFT JOIN quejas q ON q.id_ticket = t.id_ticket " +
+           "WHERE a.empleado_id = :empleadoId " +
+           "AND a.fecha_inicio >= :desde AND a.fecha_inicio < :hasta " +
+           "ORDER BY a.fecha_inicio DESC, a.id_asignacion DESC",
+           countQuery = "SELECT COUNT(*) FROM asignaciones a " +
+           "WHERE a.empleado_id = :empleadoId " +
+           "AND a.fecha_inicio >= :desde AND a.fecha_inicio < :hasta",
+           nativeQuery = true)
+    Page<Object[]> findDesempenoByEmpleadoEntre(@Param("empleadoId") Long empleadoId,
+                                                @Param("desde") LocalDateTime desde,
+                                                @Param("hasta") LocalDateTime hasta,
+                                                Pageable pageable);
+
+    /**
+     * Resumen de desempeño por tipo de ticket, agregado en SQL, para las asignaciones
+     * iniciadas en [desde, hasta).
+     *
+     * - cerrados: tickets CERRADOS cuyo cierre cayó dentro de la asignación del empleado.
+     * - segundosAtencion / asignacionesFinalizadas: para el tiempo promedio de atención
+     *   (solo asignaciones con fecha_fin).
+     *
+     * Retorna Object[] con [tipoTicket, asignaciones, tickets, activas, cerrados,
+     * segundosAtencion, asignacionesFinalizadas].
+     */
+    @Query(value = "SELECT t.tipo_ticket, " +
+           "       COUNT(*), " +
+           "       COUNT(DISTINCT t.id_ticket), " +
+           "       SUM(CASE WHEN a.fecha_fin IS NULL THEN 1 ELSE 0 END), " +
+           "       COUNT(DISTINCT CASE WHEN t.estado = 'CERRADO' AND t.fecha_cierre >= a.fecha_inicio " +
+           "                            AND (a.fecha_fin IS NULL OR t.fecha_cierre <= a.fecha_fin) " +
+           "                           THEN t.id_ticket END), " +
+           "       SUM(CASE WHEN a.fecha_fin IS NOT NULL " +
+           "                THEN TIMESTAMPDIFF(SECOND, a.fecha_inicio, a.fecha_fin) ELSE 0 END), " +
+           "       SUM(CASE WHEN a.fecha_fin IS NOT NULL THEN 1 ELSE 0 END) " +
+           "FROM asignaciones a " +
+           "JOIN tickets t ON t.id_ticket = a.ticket_id " +
+           "WHERE a.empleado_id = :empleadoId " +
+           "AND a.fecha_inicio >= :desde AND a.fecha_inicio < :hasta " +
+           "GROUP BY t.tipo_ticket", nativeQuery = true)
+    List<Object[]> resumirDesempenoPorTipo(@Param("empleadoId") Long empleadoId,
+                                           @Param("desde") LocalDateTime desde,
+                                           @Param("hasta") LocalDateTime hasta);
+
+    /**
+     * Tickets recientes para el panel de reportes: los {@code limite} tickets más nuevos
+     * creados en [inicio, fin] que tengan asignación, cada uno con su asignación más
+     * reciente (ROW_NUMBER por ticket).
+     *
+     * El rango y el límite se aplican antes de la ventana, así el costo depende del
+     * límite y no de cuántas asignaciones haya en el rango.
+     * Retorna Object[] con [idTicket, idAsignacion, fechaCreacion, estado,
+     * clienteNombres, clienteApellidos, motivoNombre].
+     */
+    @Query(value = "SELECT x.id_ticket, x.id_asignacion, x.fecha_creacion, x.estado, " +
+           "       c.nombres, c.apellidos, m.nombre " +
+           "FROM ( " +
+           "    SELECT tk.id_ticket, tk.fecha_creacion, tk.estado, tk.cliente_id, tk.motivo_id, a.id_asignacion, " +
+           "           ROW_NUMBER() OVER (PARTITION BY a.ticket_id " +
+           "                              ORDER BY a.fecha_inicio DESC, a.id_asignacion DESC) AS rn " +
+           "    FROM ( " +
+           "        SELECT t.id_ticket, t.fecha_creacion, t.estado, t.cliente_id, t.motivo_id " +
+           "        FROM tickets t " +
+           "        WHERE t.fecha_creacion BETWEEN :inicio AND :fin " +
+           "        AND EXISTS (SELECT 1 FROM asignaciones ax WHERE ax.ticket_id = t.id_ticket) " +
+           "        ORDER BY t.fecha_creacion DESC, t.id_ticket DESC " +
+           "        LIMIT :limite " +
+           "    ) tk " +
+           "    JOIN asignaciones a ON a.ticket_id = tk.id_ticket " +
+           ") x " +
+           "LEFT JOIN clientes c ON c.id_cliente = x.cliente_id " +
+           "LEFT JOIN motivos m ON m.id_motivo = x.motivo_id " +
+           "WHERE x.rn = 1 " +
+           "ORDER BY x.fecha_creacion DESC, x.id_ticket DESC", nativeQuery = true)
+    List<Object[]> findTicketsRecientesConUltimaAsignacion(@Param("inicio") LocalDateTime inicio,
+                                                           @Param("fin") LocalDateTime fin,
+                                                           @Param("limite") int limite);
+
+    /**
+     * Tickets atendidos por un empleado (creados en [inicio, fin] si se indican), cada
+     * uno con la asignación más reciente del empleado en ese ticket (ROW_NUMBER por ticket).
+     * Mismas columnas que {@link #findTicketsRecientesConUltimaAsignacion}.
+     */
+    @Query(value = "SELECT x.id_ticket, x.id_asignacion, x.fecha_creacion, x.estado, " +
+           "       c.nombres, c.apellidos, m.nombre " +
+           "FROM ( " +
+           "    SELECT t.id_ticket, t.fecha_creacion, t.estado, t.cliente_id, t.motivo_id, a.id_asignacion, " +
+           "           ROW_NUMBER() OVER (PARTITION BY a.ticket_id " +
+           "                              ORDER BY a.fecha_inicio DESC, a.id_asignacion DESC) AS rn " +
+           "    FROM asignaciones a " +
+           "    JOIN tickets t ON t.id_ticket = a.ticket_id " +
+           "    WHERE a.empleado_id = :empleadoId " +
+           "    AND (:inicio IS NULL OR t.fecha_creacion >= :inicio) " +
+           "    AND (:fin IS NULL OR t.fecha_creacion <= :fin) " +
+           ") x " +
+           "LEFT JOIN clientes c ON c.id_cliente = x.cliente_id " +
+           "LEFT JOIN motivos m ON m.id_motivo = x.motivo_id " +
+           "WHERE x.rn = 1 " +
+           "ORDER BY x.fecha_creacion DESC, x.id_ticket DESC", nativeQuery = true)
+    List<Object[]> findTicketsDeEmpleadoConUltimaAsignacion(@Param("empleadoId") Long empleadoId,
+                                                            @Param("inicio") LocalDateTime inicio,
+                                                            @Param("fin") LocalDateTime fin);
 
     /**
      * Obtiene los IDs de tickets que tienen al menos una asignación del empleado especificado.
@@ -61,6 +165,29 @@ public interface AsignacionRepository extends JpaRepository<Asignacion, Long> {
     List<Long> findTicketIdsByEmpleadoId(@Param("empleadoId") Long empleadoId);
 
     Optional<Asignacion> findTopByTicket_IdTicketOrderByFechaInicioDesc(Long idTicket);
-}
 
+    // Asignación inicial del ticket (la primera por fecha de inicio)
+    Optional<Asignacion> findFirstByTicket_IdTicketOrderByFechaInicioAsc(Long idTicket);
 
+    /**
+     * Asignaciones activas (sin fecha_fin) de un lote de tickets, con su empleado.
+     */
+    @Query("SELECT a FROM Asignacion a LEFT JOIN FETCH a.empleado " +
+           "WHERE a.ticket.idTicket IN :ticketIds AND a.fechaFin IS NULL")
+    List<Asignacion> findActivasByTicketIds(@Param("ticketIds") List<Long> ticketIds);
+
+    /**
+     * Cantidad de asignaciones activas (sin fecha_fin) por empleado, para el registro
+     * de carga del motor de asignación. Retorna Object[] con [idEmpleado, cantidad].
+     */
+    @Query("SELECT a.empleado.idEmpleado, COUNT(a) FROM Asignacion a " +
+           "WHERE a.fechaFin IS NULL GROUP BY a.empleado.idEmpleado")
+    List<Object[]> contarActivasPorEmpleado();
+
+    /**
+     * Cierra en una sola sentencia las asignaciones activas de un lote de tickets.
+     */
+    @Modifying
+    @Query("UPDATE Asignacion a SET a.fechaFin = :ahora WHERE a.fechaFin IS NULL AND a.ticket.idTicket IN :ticketIds")
+    int cerrarActivasDeTickets(@Param("ticketIds") Collection<Long> ticketIds, @Param("ahora") LocalDateTime ahora);
+}
@@ -1,10 +1,17 @@
 package com.sqrc.module.backendsqrc.ticket.repository;
 
 import com.sqrc.module.backendsqrc.ticket.model.Correo;
+import com.sqrc.module.backendsqrc.ticket.model.EstadoEnvioCorreo;
 import com.sqrc.module.backendsqrc.ticket.model.TipoCorreo;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 
 /**
@@ -37,5 +44,17 @@ public interface CorreoRepository extends JpaRepository<Correo, Long> {
      * @return Lista de correos
      */
     List<Correo> findByAsignacion_Ticket_IdTicket(Long ticketId);
-}
 
+    /**
+     * Informa el estado de entrega de varios correos en una sola sentencia.
+     * La fecha de envío solo se reemplaza si se indica (entrega confirmada).
+     */
+    @Transactional
+    @Modifying
+    @Query("UPDATE Correo c SET c.estadoEnvio = :estado, c.fechaEnvio = COALESCE(:fechaEnvio, c.fechaEnvio), " +
+           "c.ultimoErrorEnvio = :error WHERE c.idCorreo IN :ids")
+    int actualizarEstadoEnvio(@Param("ids") Collection<Long> ids,
+                              @Param("estado") EstadoEnvioCorreo estado,
+                              @Param("fechaEnvio") LocalDateTime fechaEnvio,
+                              @Param("error") String error);
+}
@@ -6,6 +6,7 @@ import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -23,4 +24,41 @@ public interface DocumentacionRepository extends JpaRepository<Documentacion, Lo
     // Busca documentación por ID de asignación
     @Query("SELECT d FROM Documentacion d WHERE d.asignacion.idAsignacion = :asignacionId")
     Optional<Documentacion> findByAsignacionId(@Param("asignacionId") Long asignacionId);
-}
\ No newline at end of file
+
+    // IDs de los tickets del lote que tienen documentación (operaciones masivas)
+    @Query("SELECT DISTINCT d.asignacion.ticket.idTicket FROM Documentacion d WHERE d.asignacion.ticket.idTicket IN :ticketIds")
+    List<Long> findTicketIdsConDocumentacion(@Param("ticketIds") Collection<Long> ticketIds);
+
+    // IDs de las asignaciones del lote que tienen documentación
+    @Query("SELECT DISTINCT d.asignacion.idAsignacion FROM Documentacion d WHERE d.asignacion.idAsignacion IN :asignacionIds")
+    List<Long> findAsignacionIdsDocumentadas(@Param("asignacionIds") Collection<Long> asignacionIds);
+
+    /**
+     * Búsqueda de texto completo en problema y solución (índice FULLTEXT de V21),
+     * ordenada por relevancia, con el ticket y el motivo de cada documentación.
+     *
+     * Problema y solución se devuelven recortados a {@code largoExtracto} caracteres;
+     * el detalle completo se pide por ticket.
+     * Retorna Object[] con [idDocumentacion, fechaDocumentacion, problema, solucion,
+     * idTicket, asunto, tipoTicket, estado, idMotivo, motivo, relevancia].
+     */
+    @Query(value = "SELECT d.id_documentacion, d.fecha_creacion, " +
+           "       LEFT(d.problema, :largoExtracto), LEFT(d.solucion, :largoExtracto), " +
+           "       t.id_ticket, t.asunto, t.tipo_ticket, t.estado, m.id_motivo, m.nombre, " +
+           "       MATCH(d.problema, d.solucion) AGAINST(:texto IN NATURAL LANGUAGE MODE) AS relevancia " +
+           "FROM documentacion d " +
+           "JOIN asignaciones a ON a.id_asignacion = d.id_asignacion " +
+           "JOIN tickets t ON t.id_ticket = a.ticket_id " +
+           "LEFT JOIN motivos m ON m.id_motivo = t.motivo_id " +
+           "WHERE MATCH(d.problema, d.solucion) AGAINST(:texto IN NATURAL LANGUAGE MODE) " +
+           "AND (:motivoId IS NULL OR t.motivo_id = :motivoId) " +
+           "AND (:soloCerrados = false OR t.estado = 'CERRADO') " +
+           "ORDER BY relevancia DESC, d.id_documentacion DESC " +
+           "LIMIT :limite OFFSET :offset", nativeQuery = true)
+    List<Object[]> buscarPorTexto(@Param("texto") String texto,
+                                  @Param("motivoId") Long motivoId,
+                                  @Param("soloCerrados") boolean soloCerrados,
+                                  @Param("largoExtracto") int largoExtracto,
+                                  @Param("limite") int limite,
+                                  @Param("offset") int offset);
+}
@@ -18,6 +18,10 @@ public interface EmpleadoRepository extends JpaRepository<Empleado, Long> {
     @Query("SELECT e FROM Empleado e WHERE e.area = :area")
     List<Empleado> findByArea(@Param("area") String area);
 
+    // IDs y área de todos los empleados (Object[] con [idEmpleado, area]), sin cargar entidades
+    @Query("SELECT e.idEmpleado, e.area FROM Empleado e")
+    List<Object[]> findIdYArea();
+
     // Buscar empleados por tipo
     List<Empleado> findByTipoEmpleado(TipoEmpleado tipoEmpleado);
 
@@ -8,6 +8,7 @@ import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -52,4 +53,9 @@ public interface LlamadaRepository extends JpaRepository<Llamada, Long> {
      * Busca llamadas por número de origen.
      */
     List<Llamada> findByNumeroOrigen(String numeroOrigen);
+
+    /**
+     * Busca las llamadas de la central por su ID externo (ingesta por lotes).
+     */
+    List<Llamada> findByIdExternoIn(Collection<String> idsExternos);
 }
@@ -1,12 +1,31 @@
 package com.sqrc.module.backendsqrc.ticket.repository;
 
+import com.sqrc.module.backendsqrc.cache.config.CacheNombres;
 import com.sqrc.module.backendsqrc.ticket.model.Motivo;
+import org.springframework.cache.annotation.Cacheable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 
+import java.util.List;
 import java.util.Optional;
 
 @Repository
 public interface MotivoRepository extends JpaRepository<Motivo, Long> {
     Optional<Motivo> findByNombre(String nombre);
+
+    /**
+     * Motivo por ID, cacheado (se lee en cada alta y edición de ticket).
+     * La instancia cacheada queda desacoplada: solo debe usarse como referencia.
+     */
+    @Override
+    @Cacheable(cacheNames = CacheNombres.MOTIVOS, key = "#p0")
+    Optional<Motivo> findById(Long id);
+
+    /**
+     * Catálogo completo de motivos, cacheado (dashboard).
+     */
+    @Cacheable(CacheNombres.MOTIVOS_CATALOGO)
+    @Query("SELECT m FROM Motivo m ORDER BY m.idMotivo")
+    List<Motivo> findCatalogo();
 }
@@ -2,6 +2,8 @@ package com.sqrc.module.backendsqrc.ticket.repository;
 
 import com.sqrc.module.backendsqrc.ticket.model.NotificacionExterna;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.util.List;
@@ -25,5 +27,41 @@ public interface NotificacionExternaRepository extends JpaRepository<Notificacio
      * @return Lista de todas las notificaciones externas ordenadas
      */
     List<NotificacionExterna> findAllByOrderByFechaEnvioDesc();
-}
 
+    /**
+     * Bandeja de un área externa: tickets DERIVADO con su notificación más reciente,
+     * en una sola consulta (ROW_NUMBER por ticket) y paginada por cursor.
+     *
+     * El cursor es el id_notificacion de la última fila recibida; como los ids crecen,
+     * las derivaciones nuevas siempre quedan después del cursor.
+     *
+     * Columnas: id_notificacion, ticket_id, area_destino_id, asunto, cuerpo,
+     * destinatario_email, fecha_envio, respuesta, fecha_respuesta,
+     * ticket_asunto, ticket_descripcion.
+     *
+     * @param areaId Área destino, o null para todas
+     * @param cursor Último id_notificacion recibido (0 para empezar)
+     * @param incluirRespondidas Si es false, solo las que aún esperan respuesta
+     * @param limite Máximo de filas (se pide una más para saber si hay siguiente página)
+     */
+    @Query(value = "SELECT n.id_notificacion, n.ticket_id, n.area_destino_id, n.asunto, n.cuerpo, " +
+           "       n.destinatario_email, n.fecha_envio, n.respuesta, n.fecha_respuesta, " +
+           "       n.ticket_asunto, n.ticket_descripcion " +
+           "FROM ( " +
+           "    SELECT nx.*, t.asunto AS ticket_asunto, t.descripcion AS ticket_descripcion, " +
+           "           ROW_NUMBER() OVER (PARTITION BY nx.ticket_id " +
+           "                              ORDER BY nx.fecha_envio DESC, nx.id_notificacion DESC) AS rn " +
+           "    FROM notificaciones_externas nx " +
+           "    JOIN tickets t ON t.id_ticket = nx.ticket_id AND t.estado = 'DERIVADO' " +
+           ") n " +
+           "WHERE n.rn = 1 " +
+           "AND (:areaId IS NULL OR n.area_destino_id = :areaId) " +
+           "AND (:incluirRespondidas = true OR n.respuesta IS NULL OR TRIM(n.respuesta) = '') " +
+           "AND n.id_notificacion > :cursor " +
+           "ORDER BY n.id_notificacion " +
+           "LIMIT :limite", nativeQuery = true)
+    List<Object[]> findBandejaDerivados(@Param("areaId") Long areaId,
+                                        @Param("cursor") long cursor,
+                                        @Param("incluirRespondidas") boolean incluirRespondidas,
+                                        @Param("limite") int limite);
+}
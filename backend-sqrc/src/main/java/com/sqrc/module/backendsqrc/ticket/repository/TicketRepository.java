@@ -4,14 +4,18 @@ import com.sqrc.module.backendsqrc.ticket.model.EstadoTicket;
 import com.sqrc.module.backendsqrc.ticket.model.OrigenTicket;
 import com.sqrc.module.backendsqrc.ticket.model.Ticket;
 import com.sqrc.module.backendsqrc.ticket.model.TipoTicket;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 
 @Repository
@@ -54,6 +58,166 @@ public interface TicketRepository extends JpaRepository<Ticket, Long>, JpaSpecif
            "WHERE t.idTicket = :ticketId")
     Ticket findByIdWithDetails(@Param("ticketId") Long ticketId);
 
+    /**
+     * Detalle completo en una sola consulta: ticket con su subtipo (herencia JOINED),
+     * cliente, motivo y la llamada asociada (si existe).
+     * Retorna Object[] con [Ticket, Llamada|null].
+     */
+    @Query("SELECT t, l FROM Ticket t " +
+           "LEFT JOIN FETCH t.cliente " +
+           "LEFT JOIN FETCH t.motivo " +
+           "LEFT JOIN Llamada l ON l.ticket = t " +
+           "WHERE t.idTicket = :ticketId")
+    List<Object[]> findDetalleConLlamada(@Param("ticketId") Long ticketId);
+
+    /**
+     * Listado paginado por cursor (keyset) con todos los filtros resueltos en SQL.
+     * Orden estable: fecha_creacion DESC, id_ticket DESC. El cursor es la última fila
+     * de la página anterior; el límite se aplica con el Pageable (sin COUNT).
+     * Retorna Object[] con [idTicket, asunto, estado, tipoTicket, origen, fechaCreacion,
+     * idCliente, nombres, apellidos].
+     */
+    @Query("SELECT t.idTicket, t.asunto, t.estado, t.tipoTicket, t.origen, t.fechaCreacion, " +
+           "c.idCliente, c.nombres, c.apellidos " +
+           "FROM Ticket t LEFT JOIN t.cliente c " +
+           "WHERE (:tipo IS NULL OR t.tipoTicket = :tipo) " +
+           "AND (:estado IS NULL OR t.estado = :estado) " +
+           "AND (:desde IS NULL OR t.fechaCreacion >= :desde) " +
+           "AND (:hasta IS NULL OR t.fechaCreacion < :hasta) " +
+           "AND (:empleadoId IS NULL OR EXISTS (SELECT 1 FROM Asignacion a " +
+           "     WHERE a.ticket = t AND a.empleado.idEmpleado = :empleadoId)) " +
+           "AND (:search IS NULL " +
+           "     OR LOWER(t.asunto) LIKE :search " +
+           "     OR LOWER(c.nombres) LIKE :search " +
+           "     OR LOWER(c.apellidos) LIKE :search " +
+           "     OR (:searchId IS NOT NULL AND CAST(t.idTicket AS String) LIKE :searchId)) " +
+           "AND (:cursorFecha IS NULL OR t.fechaCreacion < :cursorFecha " +
+           "     OR (t.fechaCreacion = :cursorFecha AND t.idTicket < :cursorId)) " +
+           "ORDER BY t.fechaCreacion DESC, t.idTicket DESC")
+    List<Object[]> findPaginaListado(@Param("tipo") TipoTicket tipo,
+                                     @Param("estado") EstadoTicket estado,
+                                     @Param("desde") LocalDateTime desde,
+                                     @Param("hasta") LocalDateTime hasta,
+                                     @Param("empleadoId") Long empleadoId,
+                                     @Param("search") String search,
+                                     @Param("searchId") String searchId,
+                                     @Param("cursorFecha") LocalDateTime cursorFecha,
+                                     @Param("cursorId") Long cursorId,
+                                     Pageable pageable);
+
+    /**
+     * Mismas columnas que {@link #findPaginaListado} para un conjunto de IDs
+     * (resultado del índice de búsqueda en memoria).
+     */
+    @Query("SELECT t.idTicket, t.asunto, t.estado, t.tipoTicket, t.origen, t.fechaCreacion, " +
+           "c.idCliente, c.nombres, c.apellidos " +
+           "FROM Ticket t LEFT JOIN t.cliente c " +
+           "WHERE t.idTicket IN :ids")
+    List<Object[]> findListadoByIds(@Param("ids") List<Long> ids);
+
+    /**
+     * Carga por lotes (keyset sobre id_ticket) de los campos buscables para construir
+     * el índice de búsqueda. Retorna Object[] con [idTicket, asunto, nombres, apellidos].
+     */
+    @Query("SELECT t.idTicket, t.asunto, c.nombres, c.apellidos " +
+           "FROM Ticket t LEFT JOIN t.cliente c " +
+           "WHERE t.idTicket > :despuesDeId " +
+           "ORDER BY t.idTicket ASC")
+    List<Object[]> findDatosIndiceBusqueda(@Param("despuesDeId") Long despuesDeId, Pageable pageable);
+
+    /**
+     * Lote de tickets (keyset sobre id_ticket) con cliente y motivo, para reconstruir
+     * el modelo de lectura ticket_view.
+     */
+    @Query("SELECT t FROM Ticket t " +
+           "LEFT JOIN FETCH t.cliente " +
+           "LEFT JOIN FETCH t.motivo " +
+           "WHERE t.idTicket > :despuesDeId " +
+           "ORDER BY t.idTicket ASC")
+    List<Ticket> findLoteConClienteYMotivo(@Param("despuesDeId") Long despuesDeId, Pageable pageable);
+
+    /**
+     * Tickets de un conjunto de IDs con cliente y motivo (operaciones masivas y
+     * proyección por lotes en ticket_view).
+     */
+    @Query("SELECT t FROM Ticket t " +
+           "LEFT JOIN FETCH t.cliente " +
+           "LEFT JOIN FETCH t.motivo " +
+           "WHERE t.idTicket IN :ids")
+    List<Ticket> findConClienteYMotivoByIds(@Param("ids") Collection<Long> ids);
+
+    // ==================== TRANSICIONES CONDICIONALES ====================
+
+    /**
+     * Cambia el estado solo si el ticket sigue en {@code esperado} (compare-and-set)
+     * e incrementa la versión, de modo que cualquier save() con una versión anterior falle.
+     * {@code fechaCierre} null conserva la fecha de cierre actual.
+     *
+     * @return 1 si la transición se aplicó, 0 si otra operación cambió el estado antes
+     */
+    @Modifying(flushAutomatically = true)
+    @Query(value = "UPDATE tickets SET estado = :nuevo, version = version + 1, " +
+           "fecha_cierre = COALESCE(:fechaCierre, fecha_cierre) " +
+           "WHERE id_ticket = :ticketId AND estado = :esperado", nativeQuery = true)
+    int transicionarEstado(@Param("ticketId") Long ticketId,
+                           @Param("esperado") String esperado,
+                           @Param("nuevo") String nuevo,
+                           @Param("fechaCierre") LocalDateTime fechaCierre);
+
+    // ==================== PIPELINE DE CONSTANCIAS ====================
+    // SQL nativo sobre la tabla raíz: un UPDATE JPQL sobre una entidad JOINED
+    // pasaría por tablas temporales de Hibernate.
+
+    /**
+     * Toma el envío de la constancia (PENDIENTE -> EN_PROCESO) de forma atómica.
+     * También recupera envíos EN_PROCESO abandonados antes de {@code vencido}.
+     *
+     * @return 1 si este worker tomó el ticket, 0 si otro ya lo tiene o ya terminó
+     */
+    @Transactional
+    @Modifying
+    @Query(value = "UPDATE tickets SET estado_constancia = 'EN_PROCESO', " +
+           "intentos_constancia = COALESCE(intentos_constancia, 0) + 1, fecha_estado_constancia = :ahora " +
+           "WHERE id_ticket = :ticketId AND (estado_constancia = 'PENDIENTE' " +
+           "     OR (estado_constancia = 'EN_PROCESO' AND fecha_estado_constancia < :vencido))",
+           nativeQuery = true)
+    int tomarConstancia(@Param("ticketId") Long ticketId,
+                        @Param("ahora") LocalDateTime ahora,
+                        @Param("vencido") LocalDateTime vencido);
+
+    @Transactional
+    @Modifying
+    @Query(value = "UPDATE tickets SET estado_constancia = :estado, fecha_estado_constancia = :ahora " +
+           "WHERE id_ticket = :ticketId", nativeQuery = true)
+    int actualizarEstadoConstancia(@Param("ticketId") Long ticketId,
+                                   @Param("estado") String estado,
+                                   @Param("ahora") LocalDateTime ahora);
+
+    /**
+     * Registra un intento fallido: vuelve a PENDIENTE para reintento, o FALLIDA
+     * si ya se agotaron los intentos.
+     */
+    @Transactional
+    @Modifying
+    @Query(value = "UPDATE tickets SET fecha_estado_constancia = :ahora, estado_constancia = " +
+           "CASE WHEN intentos_constancia >= :maxIntentos THEN 'FALLIDA' ELSE 'PENDIENTE' END " +
+           "WHERE id_ticket = :ticketId", nativeQuery = true)
+    int registrarFalloConstancia(@Param("ticketId") Long ticketId,
+                                 @Param("maxIntentos") int maxIntentos,
+                                 @Param("ahora") LocalDateTime ahora);
+
+    /**
+     * Constancias que deben volver a encolarse: PENDIENTE desde antes de {@code pendienteAntesDe}
+     * (cola llena, reintento o reinicio) o EN_PROCESO abandonadas antes de {@code vencido}.
+     */
+    @Query(value = "SELECT id_ticket FROM tickets " +
+           "WHERE (estado_constancia = 'PENDIENTE' AND fecha_estado_constancia < :pendienteAntesDe) " +
+           "   OR (estado_constancia = 'EN_PROCESO' AND fecha_estado_constancia < :vencido) " +
+           "ORDER BY id_ticket LIMIT :limite", nativeQuery = true)
+    List<Long> findConstanciasPorReencolar(@Param("pendienteAntesDe") LocalDateTime pendienteAntesDe,
+                                           @Param("vencido") LocalDateTime vencido,
+                                           @Param("limite") int limite);
+
     // Convenience defaults accepting a LocalDate (day) to match existing batch expectations
     default List<Ticket> findByFechaCreacion(LocalDate date) {
         LocalDateTime start = date.atStartOfDay();
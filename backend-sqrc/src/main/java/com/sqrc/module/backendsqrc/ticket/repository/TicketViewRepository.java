@@ -0,0 +1,49 @@
+package com.sqrc.module.backendsqrc.ticket.repository;
+
+import com.sqrc.module.backendsqrc.ticket.model.EstadoTicket;
+import com.sqrc.module.backendsqrc.ticket.model.TicketView;
+import com.sqrc.module.backendsqrc.ticket.model.TipoTicket;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface TicketViewRepository extends JpaRepository<TicketView, Long> {
+
+    /**
+     * Página por cursor (keyset) sobre el modelo de lectura, sin joins.
+     * Orden estable: fecha_creacion DESC, id_ticket DESC.
+     */
+    @Query("SELECT v FROM TicketView v " +
+           "WHERE (:tipo IS NULL OR v.tipoTicket = :tipo) " +
+           "AND (:estado IS NULL OR v.estado = :estado) " +
+           "AND (:empleadoId IS NULL OR v.empleadoAsignadoId = :empleadoId) " +
+           "AND (:clienteId IS NULL OR v.clienteId = :clienteId) " +
+           "AND (:cursorFecha IS NULL OR v.fechaCreacion < :cursorFecha " +
+           "     OR (v.fechaCreacion = :cursorFecha AND v.idTicket < :cursorId)) " +
+           "ORDER BY v.fechaCreacion DESC, v.idTicket DESC")
+    List<TicketView> findPagina(@Param("tipo") TipoTicket tipo,
+                                @Param("estado") EstadoTicket estado,
+                                @Param("empleadoId") Long empleadoId,
+                                @Param("clienteId") Integer clienteId,
+                                @Param("cursorFecha") LocalDateTime cursorFecha,
+                                @Param("cursorId") Long cursorId,
+                                Pageable pageable);
+
+    /**
+     * Tickets abiertos de los tipos indicados, en lotes por ID (carga del seguimiento de SLA).
+     */
+    @Query("SELECT v FROM TicketView v " +
+           "WHERE v.estado <> :cerrado AND v.tipoTicket IN :tipos AND v.idTicket > :ultimoId " +
+           "ORDER BY v.idTicket")
+    List<TicketView> findAbiertosDesde(@Param("cerrado") EstadoTicket cerrado,
+                                       @Param("tipos") Collection<TipoTicket> tipos,
+                                       @Param("ultimoId") Long ultimoId,
+                                       Pageable pageable);
+}
@@ -0,0 +1,353 @@
+package com.sqrc.module.backendsqrc.ticket.search;
+
+import com.sqrc.module.backendsqrc.ejecucion.config.EjecutorNombres;
+import com.sqrc.module.backendsqrc.ticket.event.TicketGuardadoEvent;
+import com.sqrc.module.backendsqrc.ticket.repository.TicketRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Async;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.text.Normalizer;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Índice de búsqueda de tickets en memoria para el type-ahead de la barra de tickets.
+ *
+ * Indexa por ticket el ID, el asunto y el nombre del cliente:
+ * - Trigramas del texto (asunto + nombres + apellidos) y de los dígitos del ID.
+ *   Una búsqueda de 3+ caracteres intersecta las listas de sus trigramas y verifica
+ *   el "contains" solo sobre esos candidatos.
+ * - Prefijos de 1 y 2 caracteres de cada palabra y del ID, para las primeras teclas.
+ *
+ * Se construye al arrancar (en lotes por ID, sin cargar entidades) y se mantiene
+ * al día con {@link TicketGuardadoEvent} después del commit. Mientras no termina
+ * la carga inicial {@link #isListo()} es false y los llamadores usan la BD.
+ *
+ * Los eventos que llegan durante la carga se indexan igual y marcan el ticket: la
+ * carga no lo vuelve a indexar con la fila que leyó antes, que puede ser más vieja.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class TicketSearchIndex {
+
+    private static final int N = 3;
+    private static final int TAMANO_LOTE_CARGA = 5000;
+    private static final char SEPARADOR_CAMPOS = '\n';
+    private static final String MARCA_ID = "#";
+
+    private final TicketRepository ticketRepository;
+
+    /** Texto normalizado indexado por ticket (necesario para verificar y para des-indexar) */
+    private final Map<Long, Documento> documentos = new ConcurrentHashMap<>();
+
+    /** Postings: trigrama de texto -> tickets */
+    private final Map<String, Set<Long>> gramasTexto = new ConcurrentHashMap<>();
+
+    /** Postings: trigrama de dígitos del ID -> tickets */
+    private final Map<String, Set<Long>> gramasId = new ConcurrentHashMap<>();
+
+    /** Postings: prefijo de 1-2 caracteres de palabra (o "#" + prefijo de ID) -> tickets */
+    private final Map<String, Set<Long>> prefijos = new ConcurrentHashMap<>();
+
+    private volatile boolean listo = false;
+
+    /** Tickets indexados por eventos mientras corre la carga inicial; null fuera de ella */
+    private Set<Long> actualizadosDuranteCarga;
+
+    private record Documento(String id, String texto) {
+    }
+
+    // ==================== CONSTRUCCIÓN Y MANTENIMIENTO ====================
+
+    /**
+     * Carga inicial del índice recorriendo los tickets por ID en lotes.
+     */
+    @Async(EjecutorNombres.EVENTOS)
+    @EventListener(ApplicationReadyEvent.class)
+    public void construir() {
+        long inicio = System.currentTimeMillis();
+        long ultimoId = 0L;
+        int total = 0;
+        synchronized (this) {
+            actualizadosDuranteCarga = new HashSet<>();
+        }
+        try {
+            while (true) {
+                List<Object[]> lote = ticketRepository.findDatosIndiceBusqueda(
+                        ultimoId, PageRequest.of(0, TAMANO_LOTE_CARGA));
+                if (lote.isEmpty()) {
+                    break;
+                }
+                for (Object[] fila : lote) {
+                    Long id = (Long) fila[0];
+                    indexarDeCarga(id, (String) fila[1], (String) fila[2], (String) fila[3]);
+                    ultimoId = id;
+                }
+                total += lote.size();
+                if (lote.size() < TAMANO_LOTE_CARGA) {
+                    break;
+                }
+            }
+            listo = true;
+            log.info("Índice de búsqueda de tickets construido: {} tickets, {} trigramas en {} ms",
+                    total, gramasTexto.size() + gramasId.size(), System.currentTimeMillis() - inicio);
+        } catch (Exception ex) {
+            log.error("No se pudo construir el índice de búsqueda de tickets: {}", ex.getMessage(), ex);
+        } finally {
+            synchronized (this) {
+                actualizadosDuranteCarga = null;
+            }
+        }
+    }
+
+    /**
+     * Mantiene el índice al día cuando se crea o actualiza un ticket.
+     */
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public synchronized void onTicketGuardado(TicketGuardadoEvent event) {
+        if (actualizadosDuranteCarga != null && event.getTicketId() != null) {
+            actualizadosDuranteCarga.add(event.getTicketId());
+        }
+        indexar(event.getTicketId(), event.getAsunto(), event.getNombresCliente(), event.getApellidosCliente());
+    }
+
+    /**
+     * Indexa una fila de la carga inicial salvo que un evento ya haya indexado el ticket.
+     */
+    private synchronized void indexarDeCarga(Long ticketId, String asunto, String nombres, String apellidos) {
+        if (actualizadosDuranteCarga == null || !actualizadosDuranteCarga.contains(ticketId)) {
+            indexar(ticketId, asunto, nombres, apellidos);
+        }
+    }
+
+    /**
+     * Agrega o reemplaza un ticket en el índice.
+     */
+    public synchronized void indexar(Long ticketId, String asunto, String nombres, String apellidos) {
+        if (ticketId == null) {
+            return;
+        }
+        eliminar(ticketId);
+
+        String idTexto = String.valueOf(ticketId);
+        String texto = normalizar(asunto) + SEPARADOR_CAMPOS + normalizar(nombres) + SEPARADOR_CAMPOS + normalizar(apellidos);
+        documentos.put(ticketId, new Documento(idTexto, texto));
+
+        for (String g : gramas(texto)) {
+            gramasTexto.computeIfAbsent(g, k -> ConcurrentHashMap.newKeySet()).add(ticketId);
+        }
+        for (String g : gramas(idTexto)) {
+            gramasId.computeIfAbsent(g, k -> ConcurrentHashMap.newKeySet()).add(ticketId);
+        }
+        for (String p : prefijosDe(idTexto, texto)) {
+            prefijos.computeIfAbsent(p, k -> ConcurrentHashMap.newKeySet()).add(ticketId);
+        }
+    }
+
+    /**
+     * Quita un ticket del índice.
+     */
+    public synchronized void eliminar(Long ticketId) {
+        Documento anterior = documentos.remove(ticketId);
+        if (anterior == null) {
+            return;
+        }
+        quitar(gramasTexto, gramas(anterior.texto()), ticketId);
+        quitar(gramasId, gramas(anterior.id()), ticketId);
+        quitar(prefijos, prefijosDe(anterior.id(), anterior.texto()), ticketId);
+    }
+
+    // ==================== CONSULTA ====================
+
+    /**
+     * Busca tickets cuyo ID contenga los dígitos del término (admite "TC-0001")
+     * o cuyo asunto / nombre de cliente contenga el término.
+     * Términos de 1-2 caracteres se resuelven por prefijo de palabra.
+     *
+     * @param termino Texto ingresado por el agente
+     * @param limite Máximo de resultados
+     * @return IDs de tickets, del más reciente al más antiguo
+     */
+    public List<Long> buscar(String termino, int limite) {
+        if (termino == null || limite <= 0) {
+            return List.of();
+        }
+        String q = normalizar(termino).trim();
+        if (q.isEmpty()) {
+            return List.of();
+        }
+
+        Set<Long> coincidencias = new HashSet<>();
+        coincidenciasTexto(q, coincidencias);
+        String digitos = digitosId(q);
+        if (!digitos.isEmpty()) {
+            coincidenciasId(digitos, coincidencias);
+        }
+
+        // Top-k por ID descendente sin ordenar todo el conjunto
+        PriorityQueue<Long> top = new PriorityQueue<>(Math.min(limite, coincidencias.size()) + 1);
+        for (Long id : coincidencias) {
+            top.offer(id);
+            if (top.size() > limite) {
+                top.poll();
+            }
+        }
+        List<Long> resultado = new ArrayList<>(top);
+        resultado.sort(Comparator.reverseOrder());
+        return resultado;
+    }
+
+    /**
+     * Devuelve el conjunto de tickets que pueden coincidir con el término usando la
+     * semántica "contains" del listado completo, o empty si el índice no puede
+     * garantizarlo (no está listo, o el término es demasiado corto para trigramas).
+     */
+    public Optional<Set<Long>> candidatosContains(String termino) {
+        if (!listo || termino == null) {
+            return Optional.empty();
+        }
+        String q = normalizar(termino).trim();
+        String digitos = digitosId(q);
+        if (q.length() < N || (!digitos.isEmpty() && digitos.length() < N)) {
+            return Optional.empty();
+        }
+        Set<Long> coincidencias = new HashSet<>();
+        coincidenciasTexto(q, coincidencias);
+        if (!digitos.isEmpty()) {
+            coincidenciasId(digitos, coincidencias);
+        }
+        return Optional.of(coincidencias);
+    }
+
+    public boolean isListo() {
+        return listo;
+    }
+
+    public int size() {
+        return documentos.size();
+    }
+
+    // ==================== MÉTODOS AUXILIARES ====================
+
+    private void coincidenciasTexto(String q, Set<Long> destino) {
+        if (q.length() < N) {
+            destino.addAll(prefijos.getOrDefault(q, Set.of()));
+            return;
+        }
+        for (Long id : intersectar(gramasTexto, gramas(q))) {
+            Documento doc = documentos.get(id);
+            if (doc != null && doc.texto().contains(q)) {
+                destino.add(id);
+            }
+        }
+    }
+
+    private void coincidenciasId(String digitos, Set<Long> destino) {
+        if (digitos.length() < N) {
+            destino.addAll(prefijos.getOrDefault(MARCA_ID + digitos, Set.of()));
+            return;
+        }
+        for (Long id : intersectar(gramasId, gramas(digitos))) {
+            Documento doc = documentos.get(id);
+            if (doc != null && doc.id().contains(digitos)) {
+                destino.add(id);
+            }
+        }
+    }
+
+    /**
+     * Intersecta las listas de los gramas empezando por la más corta.
+     */
+    private static Set<Long> intersectar(Map<String, Set<Long>> postings, Set<String> gramas) {
+        List<Set<Long>> listas = new ArrayList<>(gramas.size());
+        for (String g : gramas) {
+            Set<Long> lista = postings.get(g);
+            if (lista == null || lista.isEmpty()) {
+                return Set.of();
+            }
+            listas.add(lista);
+        }
+        if (listas.isEmpty()) {
+            return Set.of();
+        }
+        listas.sort(Comparator.comparingInt(Set::size));
+
+        Set<Long> resultado = new HashSet<>(listas.get(0));
+        for (int i = 1; i < listas.size() && !resultado.isEmpty(); i++) {
+            resultado.retainAll(listas.get(i));
+        }
+        return resultado;
+    }
+
+    private static void quitar(Map<String, Set<Long>> postings, Set<String> claves, Long ticketId) {
+        for (String clave : claves) {
+            Set<Long> lista = postings.get(clave);
+            if (lista != null) {
+                lista.remove(ticketId);
+                if (lista.isEmpty()) {
+                    postings.remove(clave, lista);
+                }
+            }
+        }
+    }
+
+    private static Set<String> gramas(String texto) {
+        Set<String> resultado = new HashSet<>();
+        for (int i = 0; i + N <= texto.length(); i++) {
+            String g = texto.substring(i, i + N);
+            if (g.indexOf(SEPARADOR_CAMPOS) < 0) {
+                resultado.add(g);
+            }
+        }
+        return resultado;
+    }
+
+    private static Set<String> prefijosDe(String idTexto, String texto) {
+        Set<String> resultado = new HashSet<>();
+        resultado.add(MARCA_ID + idTexto.substring(0, 1));
+        if (idTexto.length() > 1) {
+            resultado.add(MARCA_ID + idTexto.substring(0, 2));
+        }
+        for (String palabra : texto.split("[^\\p{L}\\p{N}]+")) {
+            if (palabra.isEmpty()) {
+                continue;
+            }
+            resultado.add(palabra.substring(0, 1));
+            if (palabra.length() > 1) {
+                resultado.add(palabra.substring(0, 2));
+            }
+        }
+        return resultado;
+    }
+
+    /**
+     * Extrae los dígitos de un término tipo "TC-0001" sin ceros a la izquierda.
+     */
+    private static String digitosId(String q) {
+        String digitos = q.replaceAll("[^0-9]", "");
+        if (digitos.isEmpty()) {
+            return digitos;
+        }
+        String sinCeros = digitos.replaceFirst("^0+", "");
+        return sinCeros.isEmpty() ? "0" : sinCeros;
+    }
+
+    /**
+     * Minúsculas y sin tildes, para que "Pérez" y "perez" coincidan.
+     */
+    private static String normalizar(String texto) {
+        if (texto == null) {
+            return "";
+        }
+        String sinTildes = Normalizer.normalize(texto, Normalizer.Form.NFD).replaceAll("\\p{M}", "");
+        return sinTildes.toLowerCase(Locale.ROOT);
+    }
+}
@@ -6,6 +6,7 @@ import com.sqrc.module.backendsqrc.ticket.model.Ticket;
 import com.sqrc.module.backendsqrc.ticket.repository.AsignacionRepository;
 import com.sqrc.module.backendsqrc.ticket.repository.EmpleadoRepository;
 import com.sqrc.module.backendsqrc.ticket.strategy.AssignmentStrategy;
+import com.sqrc.module.backendsqrc.ticket.strategy.RegistroCargaAgentes;
 import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
@@ -19,13 +20,16 @@ public class AsignacionService {
     private final AsignacionRepository repository;
     private final EmpleadoRepository empleadoRepository;
     private final AssignmentStrategy assignmentStrategy;
+    private final RegistroCargaAgentes registroCargaAgentes;
 
     public AsignacionService(AsignacionRepository repository,
                              EmpleadoRepository empleadoRepository,
-                             @Qualifier("leastLoaded") AssignmentStrategy assignmentStrategy) {
+                             @Qualifier("leastLoaded") AssignmentStrategy assignmentStrategy,
+                             RegistroCargaAgentes registroCargaAgentes) {
         this.repository = repository;
         this.empleadoRepository = empleadoRepository;
         this.assignmentStrategy = assignmentStrategy;
+        this.registroCargaAgentes = registroCargaAgentes;
     }
 
     @Transactional
@@ -39,10 +43,11 @@ public class AsignacionService {
             // Cerrar la anterior
             asignacionPadre.setFechaFin(LocalDateTime.now());
             repository.save(asignacionPadre);
+            registroCargaAgentes.registrarCierre(asignacionPadre);
             System.out.println("🔒 [ASIGNACION] Asignación anterior cerrada (ID: " + asignacionPadre.getIdAsignacion() + ")");
         }
 
-        // 2. Usar STRATEGY para elegir al "Elegido" del Backoffice
+        // 2. Usar STRATEGY para elegir al "Elegido" del Backoffice (queda reservado en el registro de carga)
         Long nuevoResponsableId = assignmentStrategy.findBestAgentId(areaDestino);
 
         // 3. Buscar el empleado por ID
@@ -1,7 +1,10 @@
 package com.sqrc.module.backendsqrc.ticket.service;
 
 import com.sqrc.module.backendsqrc.ticket.dto.DesempenoAsignacionDTO;
+import com.sqrc.module.backendsqrc.ticket.dto.DesempenoPaginaDTO;
+import com.sqrc.module.backendsqrc.ticket.dto.DesempenoResumenDTO;
 
+import java.time.LocalDate;
 import java.util.List;
 
 /**
@@ -22,4 +25,22 @@ public interface AtencionDesempenoService {
      * @return Lista de DTOs con información de desempeño por asignación
      */
     List<DesempenoAsignacionDTO> getDesempenoPorEmpleado(Long empleadoId);
+
+    /**
+     * Desempeño de un empleado paginado y acotado a las asignaciones iniciadas entre
+     * {@code desde} y {@code hasta} (días completos).
+     *
+     * @param desde Primer día (null = hasta menos el rango por defecto)
+     * @param hasta Último día (null = hoy)
+     * @param pagina Página (desde 0)
+     * @param tamanio Tamaño de página (acotado)
+     */
+    DesempenoPaginaDTO getDesempenoPaginado(Long empleadoId, LocalDate desde, LocalDate hasta,
+                                            int pagina, int tamanio);
+
+    /**
+     * Resumen agregado del desempeño de un empleado en el rango: cantidades, tiempo
+     * promedio de atención y cierres, en total y por tipo de ticket.
+     */
+    DesempenoResumenDTO getResumenDesempeno(Long empleadoId, LocalDate desde, LocalDate hasta);
 }
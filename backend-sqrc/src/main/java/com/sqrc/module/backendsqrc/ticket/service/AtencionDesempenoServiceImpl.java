@@ -1,27 +1,33 @@
 package com.sqrc.module.backendsqrc.ticket.service;
 
 import com.sqrc.module.backendsqrc.ticket.dto.DesempenoAsignacionDTO;
-import com.sqrc.module.backendsqrc.ticket.model.Asignacion;
-import com.sqrc.module.backendsqrc.ticket.model.Queja;
-import com.sqrc.module.backendsqrc.ticket.model.Ticket;
-import com.sqrc.module.backendsqrc.ticket.model.TipoTicket;
+import com.sqrc.module.backendsqrc.ticket.dto.DesempenoPaginaDTO;
+import com.sqrc.module.backendsqrc.ticket.dto.DesempenoResumenDTO;
 import com.sqrc.module.backendsqrc.ticket.repository.AsignacionRepository;
-import com.sqrc.module.backendsqrc.ticket.repository.QuejaRepository;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
 import java.util.List;
-import java.util.stream.Collectors;
 
 /**
  * Implementación del servicio de desempeño de atención.
- * 
- * Sigue un proceso de 3 pasos para armar la respuesta:
- * 1. Identificación: Consulta asignaciones por empleado_id
- * 2. Recuperación de datos comunes: Obtiene asunto, estado y categoría del ticket
- * 3. Búsqueda condicional: Si es QUEJA, obtiene el nivel de impacto
+ *
+ * Cada consulta resuelve en SQL lo que antes se armaba fila a fila:
+ * 1. Identificación: asignaciones por empleado_id (acotadas por fecha en las variantes nuevas)
+ * 2. Datos comunes del ticket (asunto, estado, categoría) con JOIN a tickets
+ * 3. Nivel de impacto de las Quejas con LEFT JOIN a quejas, sin una consulta por fila
+ *
+ * El resumen se agrega con GROUP BY por tipo de ticket; no carga asignaciones.
  */
 @Service
 @RequiredArgsConstructor
@@ -30,46 +36,151 @@ import java.util.stream.Collectors;
 public class AtencionDesempenoServiceImpl implements AtencionDesempenoService {
 
     private final AsignacionRepository asignacionRepository;
-    private final QuejaRepository quejaRepository;
+
+    /** Rango usado cuando el cliente no envía "desde" */
+    @Value("${app.desempeno.diasPorDefecto:30}")
+    private int diasPorDefecto;
+
+    /** Rango máximo consultable; un "desde" anterior se acota */
+    @Value("${app.desempeno.maxDias:366}")
+    private int maxDias;
+
+    @Value("${app.desempeno.tamanioMax:200}")
+    private int tamanioMax;
 
     @Override
     public List<DesempenoAsignacionDTO> getDesempenoPorEmpleado(Long empleadoId) {
         log.info("Obteniendo desempeño para empleado_id: {}", empleadoId);
 
-        // PASO 1: Identificación - Obtener todas las asignaciones del empleado
-        List<Asignacion> asignaciones = asignacionRepository.findByEmpleadoIdWithTicket(empleadoId);
-        
-        log.debug("Se encontraron {} asignaciones para el empleado {}", asignaciones.size(), empleadoId);
+        List<Object[]> filas = asignacionRepository.findDesempenoByEmpleado(empleadoId);
+
+        log.debug("Se encontraron {} asignaciones para el empleado {}", filas.size(), empleadoId);
+
+        return filas.stream()
+                .map(AtencionDesempenoServiceImpl::mapToDesempenoDTO)
+                .toList();
+    }
+
+    @Override
+    public DesempenoPaginaDTO getDesempenoPaginado(Long empleadoId, LocalDate desde, LocalDate hasta,
+                                                   int pagina, int tamanio) {
+        LocalDate fin = hasta != null ? hasta : LocalDate.now();
+        LocalDate inicio = acotarInicio(desde, fin);
+        int tamanioPagina = Math.min(Math.max(tamanio, 1), tamanioMax);
+
+        Page<Object[]> page = asignacionRepository.findDesempenoByEmpleadoEntre(
+                empleadoId, inicio.atStartOfDay(), fin.plusDays(1).atStartOfDay(),
+                PageRequest.of(Math.max(pagina, 0), tamanioPagina));
+
+        log.info("Desempeño paginado empleado_id={} [{} - {}]: página {} de {} ({} asignaciones)",
+                empleadoId, inicio, fin, page.getNumber(), page.getTotalPages(), page.getTotalElements());
 
-        // PASO 2 y 3: Mapear cada asignación a DTO con datos del ticket y detalles condicionales
-        return asignaciones.stream()
-                .map(this::mapToDesempenoDTO)
-                .collect(Collectors.toList());
+        return DesempenoPaginaDTO.builder()
+                .empleadoId(empleadoId)
+                .desde(inicio)
+                .hasta(fin)
+                .asignaciones(page.getContent().stream().map(AtencionDesempenoServiceImpl::mapToDesempenoDTO).toList())
+                .pagina(page.getNumber())
+                .tamanio(page.getSize())
+                .totalElementos(page.getTotalElements())
+                .totalPaginas(page.getTotalPages())
+                .build();
+    }
+
+    @Override
+    public DesempenoResumenDTO getResumenDesempeno(Long empleadoId, LocalDate desde, LocalDate hasta) {
+        LocalDate fin = hasta != null ? hasta : LocalDate.now();
+        LocalDate inicio = acotarInicio(desde, fin);
+
+        List<Object[]> filas = asignacionRepository.resumirDesempenoPorTipo(
+                empleadoId, inicio.atStartOfDay(), fin.plusDays(1).atStartOfDay());
+
+        long asignaciones = 0;
+        long tickets = 0;
+        long activas = 0;
+        long cerrados = 0;
+        long segundos = 0;
+        long finalizadas = 0;
+        List<DesempenoResumenDTO.PorTipo> porTipo = new ArrayList<>();
+
+        // [tipoTicket, asignaciones, tickets, activas, cerrados, segundosAtencion, asignacionesFinalizadas]
+        for (Object[] fila : filas) {
+            long segundosTipo = aLong(fila[5]);
+            long finalizadasTipo = aLong(fila[6]);
+            porTipo.add(DesempenoResumenDTO.PorTipo.builder()
+                    .categoriaTicket(fila[0] != null ? fila[0].toString() : null)
+                    .asignaciones(aLong(fila[1]))
+                    .ticketsAtendidos(aLong(fila[2]))
+                    .asignacionesActivas(aLong(fila[3]))
+                    .ticketsCerrados(aLong(fila[4]))
+                    .tiempoPromedioAtencionMin(promedioMinutos(segundosTipo, finalizadasTipo))
+                    .build());
+
+            asignaciones += aLong(fila[1]);
+            tickets += aLong(fila[2]);
+            activas += aLong(fila[3]);
+            cerrados += aLong(fila[4]);
+            segundos += segundosTipo;
+            finalizadas += finalizadasTipo;
+        }
+        porTipo.sort(Comparator.comparing(DesempenoResumenDTO.PorTipo::getCategoriaTicket,
+                Comparator.nullsLast(Comparator.naturalOrder())));
+
+        log.info("Resumen de desempeño empleado_id={} [{} - {}]: {} asignaciones, {} cerrados",
+                empleadoId, inicio, fin, asignaciones, cerrados);
+
+        return DesempenoResumenDTO.builder()
+                .empleadoId(empleadoId)
+                .desde(inicio)
+                .hasta(fin)
+                .totalAsignaciones(asignaciones)
+                .ticketsAtendidos(tickets)
+                .asignacionesActivas(activas)
+                .ticketsCerrados(cerrados)
+                .tiempoPromedioAtencionMin(promedioMinutos(segundos, finalizadas))
+                .porTipo(porTipo)
+                .build();
+    }
+
+    // ==================== MÉTODOS AUXILIARES ====================
+
+    private LocalDate acotarInicio(LocalDate desde, LocalDate fin) {
+        LocalDate minimo = fin.minusDays(maxDias - 1L);
+        if (desde == null) {
+            return fin.minusDays(diasPorDefecto - 1L);
+        }
+        return desde.isBefore(minimo) ? minimo : desde;
     }
 
     /**
-     * Mapea una Asignación a DesempenoAsignacionDTO.
-     * Incluye la lógica de búsqueda condicional para Quejas.
+     * Mapea una fila [idAsignacion, idTicket, fechaInicio, fechaFin, estado, tipoTicket,
+     * asunto, impacto] a DesempenoAsignacionDTO. El impacto solo viene en las Quejas.
      */
-    private DesempenoAsignacionDTO mapToDesempenoDTO(Asignacion asignacion) {
-        Ticket ticket = asignacion.getTicket();
-
-        // PASO 2: Datos comunes del ticket
-        DesempenoAsignacionDTO.DesempenoAsignacionDTOBuilder builder = DesempenoAsignacionDTO.builder()
-                .idAsignacion(asignacion.getIdAsignacion())
-                .idTicket(ticket.getIdTicket())
-                .fechaAsignacion(asignacion.getFechaInicio())
-                .fechaFinAsignacion(asignacion.getFechaFin())
-                .estadoTicket(ticket.getEstado() != null ? ticket.getEstado().name() : null)
-                .categoriaTicket(ticket.getTipoTicket() != null ? ticket.getTipoTicket().name() : null)
-                .asuntoTicket(ticket.getAsunto());
-
-        // PASO 3: Búsqueda condicional - Solo si es QUEJA
-        if (ticket.getTipoTicket() == TipoTicket.QUEJA) {
-            quejaRepository.findById(ticket.getIdTicket())
-                    .ifPresent(queja -> builder.nivelImpacto(queja.getImpacto()));
-        }
+    private static DesempenoAsignacionDTO mapToDesempenoDTO(Object[] fila) {
+        return DesempenoAsignacionDTO.builder()
+                .idAsignacion(fila[0] != null ? aLong(fila[0]) : null)
+                .idTicket(fila[1] != null ? aLong(fila[1]) : null)
+                .fechaAsignacion(aFecha(fila[2]))
+                .fechaFinAsignacion(aFecha(fila[3]))
+                .estadoTicket(fila[4] != null ? fila[4].toString() : null)
+                .categoriaTicket(fila[5] != null ? fila[5].toString() : null)
+                .asuntoTicket(fila[6] != null ? fila[6].toString() : null)
+                .nivelImpacto(fila[7] != null ? fila[7].toString() : null)
+                .build();
+    }
+
+    private static Double promedioMinutos(long segundos, long cantidad) {
+        return cantidad == 0 ? null : Math.round(segundos * 10.0 / 60 / cantidad) / 10.0;
+    }
 
-        return builder.build();
+    private static long aLong(Object valor) {
+        return valor != null ? ((Number) valor).longValue() : 0L;
+    }
+
+    private static LocalDateTime aFecha(Object valor) {
+        if (valor instanceof LocalDateTime fecha) {
+            return fecha;
+        }
+        return valor instanceof Timestamp fecha ? fecha.toLocalDateTime() : null;
     }
 }
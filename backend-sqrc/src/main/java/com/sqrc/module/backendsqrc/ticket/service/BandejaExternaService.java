@@ -0,0 +1,320 @@
+package com.sqrc.module.backendsqrc.ticket.service;
+
+import com.sqrc.module.backendsqrc.ticket.dto.NotificacionExternaDTO;
+import com.sqrc.module.backendsqrc.ticket.dto.TicketDerivadoSimuladorDTO;
+import com.sqrc.module.backendsqrc.ticket.dto.response.BandejaExternaPageResponse;
+import com.sqrc.module.backendsqrc.ticket.enums.AreaExterna;
+import com.sqrc.module.backendsqrc.ticket.event.TicketCambiadoEvent;
+import com.sqrc.module.backendsqrc.ticket.model.EstadoTicket;
+import com.sqrc.module.backendsqrc.ticket.repository.NotificacionExternaRepository;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.context.request.async.DeferredResult;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Bandeja de entrada de las áreas externas (tickets DERIVADO con su última notificación).
+ *
+ * - Cada página sale de una sola consulta con ROW_NUMBER() por ticket, paginada por
+ *   cursor (id_notificacion), sin una consulta de notificaciones por ticket.
+ * - Long-polling: si no hay nada después del cursor, la petición queda en espera hasta
+ *   que se derive un ticket (TicketCambiadoEvent a DERIVADO, después del commit) o
+ *   venza el plazo, y entonces responde con la página nueva o vacía.
+ * - Las esperas con la misma consulta (área, cursor, filtros) se agrupan: una
+ *   derivación cuesta una consulta por grupo, no una por cliente.
+ * - Una revisión periódica cubre las derivaciones hechas en otra instancia, que no
+ *   publican el evento en esta.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class BandejaExternaService {
+
+    private static final DateTimeFormatter FORMATTER = DateTimeFormatter.ISO_LOCAL_DATE_TIME;
+
+    private final NotificacionExternaRepository notificacionExternaRepository;
+
+    @Value("${app.bandejaExterna.limite:50}")
+    private int limitePorDefecto;
+
+    @Value("${app.bandejaExterna.limiteMax:200}")
+    private int limiteMax;
+
+    /** Esperas abiertas como máximo en esta instancia (cada una retiene una conexión) */
+    @Value("${app.bandejaExterna.maxEsperas:500}")
+    private int maxEsperas;
+
+    @Value("${app.bandejaExterna.maxEsperaMs:30000}")
+    private long maxEsperaMs;
+
+    @Value("${app.bandejaExterna.hilos:2}")
+    private int hilos;
+
+    /** Consulta de una página; las esperas con la misma clave comparten resultado */
+    public record Consulta(Long areaId, long cursor, int limite, boolean incluirRespondidas) {
+    }
+
+    private final Map<Consulta, Set<DeferredResult<ResponseEntity<BandejaExternaPageResponse>>>> esperas =
+            new ConcurrentHashMap<>();
+    private final AtomicInteger esperasActivas = new AtomicInteger();
+    private final AtomicBoolean revisionPendiente = new AtomicBoolean();
+
+    private final AtomicLong despertadas = new AtomicLong();
+    private final AtomicLong vencidas = new AtomicLong();
+    private final AtomicLong rechazadas = new AtomicLong();
+
+    private ThreadPoolTaskExecutor executor;
+
+    @PostConstruct
+    void iniciar() {
+        // Pool propio con rechazo: el pool de eventos ejecutaría la revisión en el hilo que notifica
+        executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(hilos);
+        executor.setMaxPoolSize(hilos);
+        executor.setQueueCapacity(100);
+        executor.setThreadNamePrefix("bandeja-externa-");
+        executor.initialize();
+    }
+
+    @PreDestroy
+    void detener() {
+        // Las esperas abiertas responden vacío: el cliente vuelve a preguntar a otra instancia
+        esperas.keySet().forEach(consulta -> completar(consulta, paginaVacia(consulta)));
+        executor.shutdown();
+    }
+
+    // ==================== CONSULTA ====================
+
+    /**
+     * Normaliza los parámetros de una página de la bandeja.
+     *
+     * @param area Área destino, o null para todas
+     * @param cursor Último id_notificacion recibido (null o 0 para empezar)
+     * @param limite Tamaño de página (null = por defecto; se acota a limiteMax)
+     * @param incluirRespondidas Si es false, solo las derivaciones sin respuesta
+     */
+    public Consulta consulta(AreaExterna area, Long cursor, Integer limite, boolean incluirRespondidas) {
+        int tamanio = limite == null || limite <= 0 ? limitePorDefecto : Math.min(limite, limiteMax);
+        return new Consulta(area != null ? area.getId() : null,
+                cursor != null ? Math.max(cursor, 0L) : 0L, tamanio, incluirRespondidas);
+    }
+
+    /**
+     * Lee una página de la bandeja (una consulta, sin N+1).
+     */
+    public BandejaExternaPageResponse listar(Consulta consulta) {
+        List<Object[]> filas = notificacionExternaRepository.findBandejaDerivados(
+                consulta.areaId(), consulta.cursor(), consulta.incluirRespondidas(), consulta.limite() + 1);
+
+        boolean tieneSiguiente = filas.size() > consulta.limite();
+        List<TicketDerivadoSimuladorDTO> tickets = filas.stream()
+                .limit(consulta.limite())
+                .map(BandejaExternaService::convertir)
+                .toList();
+
+        Long nextCursor = tickets.isEmpty()
+                ? consulta.cursor()
+                : tickets.get(tickets.size() - 1).getNotificacion().getIdNotificacion();
+
+        return BandejaExternaPageResponse.builder()
+                .areaId(consulta.areaId())
+                .area(consulta.areaId() != null ? AreaExterna.getNombreById(consulta.areaId()) : null)
+                .tickets(tickets)
+                .limite(consulta.limite())
+                .tieneSiguiente(tieneSiguiente)
+                .nextCursor(nextCursor)
+                .build();
+    }
+
+    // ==================== LONG-POLLING ====================
+
+    /**
+     * Devuelve la página si ya hay tickets después del cursor; si no, deja la petición
+     * en espera hasta la próxima derivación o hasta que venza {@code esperaMs}.
+     *
+     * @param esperaMs Espera máxima pedida por el cliente (se acota a maxEsperaMs)
+     * @return Resultado diferido: 200 con la página (vacía al vencer) o 429 si esta
+     *         instancia ya tiene demasiadas esperas abiertas
+     */
+    public DeferredResult<ResponseEntity<BandejaExternaPageResponse>> esperar(Consulta consulta, long esperaMs) {
+        long plazo = Math.min(Math.max(esperaMs, 0L), maxEsperaMs);
+        BandejaExternaPageResponse vacia = paginaVacia(consulta);
+
+        DeferredResult<ResponseEntity<BandejaExternaPageResponse>> resultado =
+                new DeferredResult<>(plazo, () -> {
+                    vencidas.incrementAndGet();
+                    return ResponseEntity.ok(vacia);
+                });
+
+        if (plazo == 0) {
+            resultado.setResult(ResponseEntity.ok(listar(consulta)));
+            return resultado;
+        }
+
+        if (esperasActivas.incrementAndGet() > maxEsperas) {
+            esperasActivas.decrementAndGet();
+            rechazadas.incrementAndGet();
+            resultado.setResult(ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+                    .header("Retry-After", String.valueOf(Math.max(1, plazo / 1000)))
+                    .body(vacia));
+            return resultado;
+        }
+
+        // Registrar antes de consultar: una derivación que llegue entre medio despierta esta espera
+        esperas.computeIfAbsent(consulta, k -> ConcurrentHashMap.newKeySet()).add(resultado);
+        resultado.onCompletion(() -> quitar(consulta, resultado));
+
+        BandejaExternaPageResponse pagina;
+        try {
+            pagina = listar(consulta);
+        } catch (RuntimeException ex) {
+            quitar(consulta, resultado); // La petición falla sin llegar a ser asíncrona
+            throw ex;
+        }
+        if (!pagina.getTickets().isEmpty()) {
+            resultado.setResult(ResponseEntity.ok(pagina));
+        }
+        return resultado;
+    }
+
+    /**
+     * Un ticket pasó a DERIVADO: revisar las esperas abiertas.
+     */
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onTicketCambiado(TicketCambiadoEvent event) {
+        if (event.delta().getEstado() == EstadoTicket.DERIVADO && !esperas.isEmpty()) {
+            programarRevision();
+        }
+    }
+
+    /**
+     * Revisión periódica para las derivaciones registradas por otras instancias.
+     */
+    @Scheduled(fixedDelayString = "${app.bandejaExterna.revisionMs:5000}")
+    public void revisionPeriodica() {
+        if (!esperas.isEmpty()) {
+            programarRevision();
+        }
+    }
+
+    public Map<String, Object> getMetricas() {
+        Map<String, Object> metricas = new LinkedHashMap<>();
+        metricas.put("esperasActivas", esperasActivas.get());
+        metricas.put("consultasEnEspera", esperas.size());
+        metricas.put("maxEsperas", maxEsperas);
+        metricas.put("despertadas", despertadas.get());
+        metricas.put("vencidas", vencidas.get());
+        metricas.put("rechazadas", rechazadas.get());
+        return metricas;
+    }
+
+    // ==================== MÉTODOS AUXILIARES ====================
+
+    private void programarRevision() {
+        if (!revisionPendiente.compareAndSet(false, true)) {
+            return; // Ya hay una revisión en cola que verá este cambio
+        }
+        try {
+            executor.execute(this::revisarEsperas);
+        } catch (TaskRejectedException ex) {
+            revisionPendiente.set(false); // La próxima revisión periódica lo cubre
+        }
+    }
+
+    private void revisarEsperas() {
+        revisionPendiente.set(false);
+        for (Consulta consulta : new ArrayList<>(esperas.keySet())) {
+            try {
+                BandejaExternaPageResponse pagina = listar(consulta);
+                if (!pagina.getTickets().isEmpty()) {
+                    completar(consulta, pagina);
+                }
+            } catch (Exception ex) {
+                log.warn("No se pudo revisar la bandeja externa {}: {}", consulta, ex.getMessage());
+            }
+        }
+    }
+
+    private void completar(Consulta consulta, BandejaExternaPageResponse pagina) {
+        Set<DeferredResult<ResponseEntity<BandejaExternaPageResponse>>> grupo = esperas.remove(consulta);
+        if (grupo == null) {
+            return;
+        }
+        for (DeferredResult<ResponseEntity<BandejaExternaPageResponse>> resultado : grupo) {
+            if (resultado.setResult(ResponseEntity.ok(pagina)) && !pagina.getTickets().isEmpty()) {
+                despertadas.incrementAndGet();
+            }
+        }
+    }
+
+    private void quitar(Consulta consulta, DeferredResult<ResponseEntity<BandejaExternaPageResponse>> resultado) {
+        esperasActivas.decrementAndGet();
+        esperas.computeIfPresent(consulta, (k, grupo) -> {
+            grupo.remove(resultado);
+            return grupo.isEmpty() ? null : grupo;
+        });
+    }
+
+    private static BandejaExternaPageResponse paginaVacia(Consulta consulta) {
+        return BandejaExternaPageResponse.builder()
+                .areaId(consulta.areaId())
+                .area(consulta.areaId() != null ? AreaExterna.getNombreById(consulta.areaId()) : null)
+                .tickets(List.of())
+                .limite(consulta.limite())
+                .tieneSiguiente(false)
+                .nextCursor(consulta.cursor())
+                .build();
+    }
+
+    private static TicketDerivadoSimuladorDTO convertir(Object[] fila) {
+        NotificacionExternaDTO notificacion = new NotificacionExternaDTO(
+                aLong(fila[0]),
+                aLong(fila[1]),
+                aLong(fila[2]),
+                texto(fila[3]),
+                texto(fila[4]),
+                texto(fila[5]),
+                aIso(fila[6]),
+                texto(fila[7]),
+                aIso(fila[8]));
+        return new TicketDerivadoSimuladorDTO(notificacion.getTicketId(), texto(fila[9]), texto(fila[10]),
+                notificacion);
+    }
+
+    private static String texto(Object valor) {
+        return valor != null ? valor.toString() : null;
+    }
+
+    private static Long aLong(Object valor) {
+        return valor != null ? ((Number) valor).longValue() : null;
+    }
+
+    private static String aIso(Object valor) {
+        if (valor instanceof LocalDateTime fecha) {
+            return fecha.format(FORMATTER);
+        }
+        if (valor instanceof Timestamp fecha) {
+            return fecha.toLocalDateTime().format(FORMATTER);
+        }
+        return null;
+    }
+}
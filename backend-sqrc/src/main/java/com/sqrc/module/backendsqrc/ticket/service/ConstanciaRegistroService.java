@@ -0,0 +1,132 @@
+package com.sqrc.module.backendsqrc.ticket.service;
+
+import com.sqrc.module.backendsqrc.ejecucion.config.EjecutorAcotado;
+import com.sqrc.module.backendsqrc.ejecucion.config.EjecutorNombres;
+import com.sqrc.module.backendsqrc.ejecucion.config.Ejecutores;
+import com.sqrc.module.backendsqrc.plantillaRespuesta.Service.RespuestaService;
+import com.sqrc.module.backendsqrc.ticket.event.ConstanciaSolicitadaEvent;
+import com.sqrc.module.backendsqrc.ticket.model.EstadoConstancia;
+import com.sqrc.module.backendsqrc.ticket.repository.TicketRepository;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Pipeline asíncrono de constancias de registro.
+ *
+ * Flujo:
+ * 1. crearTicket deja el ticket con estado_constancia = PENDIENTE y publica
+ *    {@link ConstanciaSolicitadaEvent}.
+ * 2. Después del commit se encola en el pool de documentos (hilos y cola fijos),
+ *    así la respuesta de POST /api/tickets no espera el PDF ni el correo.
+ * 3. El worker toma el ticket con un UPDATE condicional (PENDIENTE -> EN_PROCESO),
+ *    genera y envía la constancia y marca ENVIADA / SIN_CORREO.
+ * 4. Si falla vuelve a PENDIENTE hasta agotar los intentos (FALLIDA).
+ *
+ * Contrapresión: si la cola está llena la tarea se rechaza y el ticket queda
+ * PENDIENTE; el barrido periódico lo vuelve a encolar cuando haya espacio.
+ * El mismo barrido cubre reintentos, reinicios del servidor y workers caídos.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class ConstanciaRegistroService {
+
+    private final TicketRepository ticketRepository;
+    private final RespuestaService respuestaService;
+    private final Ejecutores ejecutores;
+
+    @Value("${app.constancia.maxIntentos:3}")
+    private int maxIntentos;
+
+    /** Tiempo mínimo en PENDIENTE antes de que el barrido lo vuelva a encolar */
+    @Value("${app.constancia.reintentoSegundos:60}")
+    private int reintentoSegundos;
+
+    /** Tiempo tras el cual un EN_PROCESO se considera abandonado */
+    @Value("${app.constancia.procesoVencidoMinutos:15}")
+    private int procesoVencidoMinutos;
+
+    /** Pool de documentos; debe rechazar con ABORTAR para que la contrapresión funcione */
+    private EjecutorAcotado executor;
+
+    @PostConstruct
+    void iniciar() {
+        executor = ejecutores.get(EjecutorNombres.DOCUMENTOS);
+    }
+
+    /**
+     * Encola la constancia una vez confirmada la creación del ticket.
+     */
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT)
+    public void onConstanciaSolicitada(ConstanciaSolicitadaEvent event) {
+        encolar(event.ticketId());
+    }
+
+    /**
+     * Vuelve a encolar las constancias pendientes, solo hasta el espacio libre de la cola.
+     */
+    @Scheduled(fixedDelayString = "${app.constancia.barridoMs:30000}")
+    public void reencolarPendientes() {
+        int espacio = executor.getQueueCapacity() - executor.getQueueSize();
+        if (espacio <= 0) {
+            return;
+        }
+        LocalDateTime ahora = LocalDateTime.now();
+        List<Long> ids = ticketRepository.findConstanciasPorReencolar(
+                ahora.minusSeconds(reintentoSegundos), ahora.minusMinutes(procesoVencidoMinutos), espacio);
+        if (!ids.isEmpty()) {
+            log.info("Reencolando {} constancias pendientes", ids.size());
+            ids.forEach(this::encolar);
+        }
+    }
+
+    /**
+     * Tickets en cola y workers activos, para monitoreo.
+     */
+    public int getTamanoCola() {
+        return executor.getQueueSize();
+    }
+
+    public int getWorkersActivos() {
+        return executor.getActiveCount();
+    }
+
+    // ==================== MÉTODOS AUXILIARES ====================
+
+    private void encolar(Long ticketId) {
+        try {
+            executor.execute(() -> procesar(ticketId));
+        } catch (TaskRejectedException ex) {
+            // Cola llena: el ticket sigue PENDIENTE y lo toma el próximo barrido
+            log.warn("Cola de constancias llena, ticket {} queda PENDIENTE", ticketId);
+        }
+    }
+
+    private void procesar(Long ticketId) {
+        LocalDateTime ahora = LocalDateTime.now();
+        if (ticketRepository.tomarConstancia(ticketId, ahora, ahora.minusMinutes(procesoVencidoMinutos)) == 0) {
+            return; // Otro worker la tomó o ya terminó
+        }
+
+        long inicio = System.currentTimeMillis();
+        try {
+            boolean enviada = respuestaService.enviarConfirmacionRegistro(ticketId);
+            EstadoConstancia estado = enviada ? EstadoConstancia.ENVIADA : EstadoConstancia.SIN_CORREO;
+            ticketRepository.actualizarEstadoConstancia(ticketId, estado.name(), LocalDateTime.now());
+            log.info("Constancia del ticket {}: {} en {} ms", ticketId, estado, System.currentTimeMillis() - inicio);
+        } catch (Exception ex) {
+            log.error("Error generando constancia del ticket {}: {}", ticketId, ex.getMessage(), ex);
+            ticketRepository.registrarFalloConstancia(ticketId, maxIntentos, LocalDateTime.now());
+        }
+    }
+}
@@ -58,6 +58,7 @@ public class CorreoService {
                 .cuerpo(correo.getCuerpo())
                 .fechaEnvio(correo.getFechaEnvio())
                 .tipoCorreo(correo.getTipoCorreo())
+                .estadoEnvio(correo.getEstadoEnvio())
                 .idAsignacion(correo.getAsignacion().getIdAsignacion())
                 .ticketId(correo.getAsignacion().getTicket().getIdTicket())
                 .empleadoId(empleado.getIdEmpleado())
@@ -3,15 +3,19 @@ package com.sqrc.module.backendsqrc.ticket.service;
 import com.sqrc.module.backendsqrc.ticket.dto.DocumentacionDto;
 import com.sqrc.module.backendsqrc.ticket.dto.request.CreateDocumentacionRequest;
 import com.sqrc.module.backendsqrc.ticket.dto.request.UpdateDocumentacionRequest;
+import com.sqrc.module.backendsqrc.ticket.dto.response.DocumentacionBusquedaResponse;
 import com.sqrc.module.backendsqrc.ticket.dto.response.DocumentacionCreatedResponse;
 import com.sqrc.module.backendsqrc.ticket.exception.*;
 import com.sqrc.module.backendsqrc.ticket.model.*;
 import com.sqrc.module.backendsqrc.ticket.repository.*;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
 import java.util.stream.Collectors;
@@ -38,6 +42,19 @@ public class DocumentacionService {
     private final EmpleadoRepository empleadoRepository;
     private final TicketRepository ticketRepository;
 
+    /** Largo mínimo del texto a buscar (innodb_ft_min_token_size por defecto) */
+    private static final int LARGO_MINIMO_BUSQUEDA = 3;
+
+    @Value("${app.documentacion.busqueda.tamanioMax:50}")
+    private int tamanioMaxBusqueda;
+
+    /** Profundidad máxima (pagina * tamanio): más allá no aporta y el OFFSET se encarece */
+    @Value("${app.documentacion.busqueda.maxResultados:1000}")
+    private int maxResultadosBusqueda;
+
+    @Value("${app.documentacion.busqueda.largoExtracto:300}")
+    private int largoExtracto;
+
     /**
      * Crea una nueva documentación para un ticket.
      * 
@@ -173,6 +190,50 @@ public class DocumentacionService {
                 .collect(Collectors.toList());
     }
 
+    /**
+     * Busca en el problema y la solución de toda la documentación ("¿cómo se resolvió
+     * la última vez?") con el índice FULLTEXT, ordenado por relevancia.
+     *
+     * @param texto Palabras a buscar (mínimo 3 caracteres)
+     * @param motivoId Filtrar por motivo del ticket (opcional)
+     * @param soloCerrados Solo tickets cerrados (casos ya resueltos)
+     * @param pagina Página (desde 0)
+     * @param tamanio Tamaño de página (acotado)
+     * @return Página de resultados; vacía si el texto es muy corto
+     */
+    @Transactional(readOnly = true)
+    public DocumentacionBusquedaResponse buscarDocumentacion(String texto, Long motivoId, boolean soloCerrados,
+                                                             int pagina, int tamanio) {
+        String consulta = texto != null ? texto.trim() : "";
+        int tamanioPagina = Math.min(Math.max(tamanio, 1), tamanioMaxBusqueda);
+        int offset = Math.max(pagina, 0) * tamanioPagina;
+
+        DocumentacionBusquedaResponse.DocumentacionBusquedaResponseBuilder respuesta = DocumentacionBusquedaResponse.builder()
+                .texto(consulta)
+                .pagina(Math.max(pagina, 0))
+                .tamanio(tamanioPagina);
+
+        if (consulta.length() < LARGO_MINIMO_BUSQUEDA || offset >= maxResultadosBusqueda) {
+            return respuesta.resultados(List.of()).tieneSiguiente(false).build();
+        }
+
+        // Se pide una fila más para saber si hay siguiente página sin contar el total
+        List<Object[]> filas = documentacionRepository.buscarPorTexto(
+                consulta, motivoId, soloCerrados, largoExtracto, tamanioPagina + 1, offset);
+
+        List<DocumentacionBusquedaResponse.Resultado> resultados = filas.stream()
+                .limit(tamanioPagina)
+                .map(DocumentacionService::mapToResultado)
+                .collect(Collectors.toList());
+
+        log.debug("Búsqueda en documentación '{}': {} resultados en página {}", consulta, resultados.size(), pagina);
+
+        return respuesta
+                .resultados(resultados)
+                .tieneSiguiente(filas.size() > tamanioPagina && offset + tamanioPagina < maxResultadosBusqueda)
+                .build();
+    }
+
     /**
      * Obtiene una documentación específica por ID.
      * 
@@ -213,6 +274,27 @@ public class DocumentacionService {
         documentacionRepository.delete(documentacion);
     }
 
+    /**
+     * Mapea una fila de la búsqueda [idDocumentacion, fechaDocumentacion, problema, solucion,
+     * idTicket, asunto, tipoTicket, estado, idMotivo, motivo, relevancia].
+     */
+    private static DocumentacionBusquedaResponse.Resultado mapToResultado(Object[] fila) {
+        return DocumentacionBusquedaResponse.Resultado.builder()
+                .idDocumentacion(fila[0] != null ? ((Number) fila[0]).longValue() : null)
+                .fechaDocumentacion(fila[1] instanceof Timestamp ts ? ts.toLocalDateTime()
+                        : fila[1] instanceof LocalDateTime fecha ? fecha : null)
+                .problema(fila[2] != null ? fila[2].toString() : null)
+                .solucion(fila[3] != null ? fila[3].toString() : null)
+                .ticketId(fila[4] != null ? ((Number) fila[4]).longValue() : null)
+                .asuntoTicket(fila[5] != null ? fila[5].toString() : null)
+                .tipoTicket(fila[6] != null ? fila[6].toString() : null)
+                .estadoTicket(fila[7] != null ? fila[7].toString() : null)
+                .motivoId(fila[8] != null ? ((Number) fila[8]).longValue() : null)
+                .motivo(fila[9] != null ? fila[9].toString() : null)
+                .relevancia(fila[10] != null ? ((Number) fila[10]).doubleValue() : null)
+                .build();
+    }
+
     /**
      * Mapea Documentacion a DocumentacionDto.
      */
@@ -6,6 +6,8 @@ import com.sqrc.module.backendsqrc.ticket.repository.AgenteLlamadaRepository;
 import com.sqrc.module.backendsqrc.ticket.repository.AgentePresencialRepository;
 import com.sqrc.module.backendsqrc.ticket.repository.EmpleadoRepository;
 import com.sqrc.module.backendsqrc.ticket.repository.SupervisorRepository;
+import com.sqrc.module.backendsqrc.cache.config.CacheNombres;
+import org.springframework.cache.annotation.CacheEvict;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
@@ -50,6 +52,7 @@ public class EmpleadoSyncService {
      * 
      * @return Número de empleados sincronizados
      */
+    @CacheEvict(cacheNames = CacheNombres.AGENTES_NOMBRES, allEntries = true)
     public int sincronizarAgentesCallCenter() {
         if (apiEmpleadosUrl == null || apiEmpleadosUrl.isEmpty()) {
             log.warn("URL de API de empleados no configurada. Saltando sincronización.");
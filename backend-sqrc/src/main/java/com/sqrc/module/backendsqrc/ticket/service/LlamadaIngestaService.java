@@ -0,0 +1,359 @@
+package com.sqrc.module.backendsqrc.ticket.service;
+
+import com.sqrc.module.backendsqrc.ticket.dto.request.EventoLlamadaDTO;
+import com.sqrc.module.backendsqrc.ticket.dto.response.IngestaLlamadasResponse;
+import com.sqrc.module.backendsqrc.ticket.model.Empleado;
+import com.sqrc.module.backendsqrc.ticket.model.EstadoLlamada;
+import com.sqrc.module.backendsqrc.ticket.model.Llamada;
+import com.sqrc.module.backendsqrc.ticket.presencia.RegistroPresenciaAgentes;
+import com.sqrc.module.backendsqrc.ticket.repository.EmpleadoRepository;
+import com.sqrc.module.backendsqrc.ticket.repository.LlamadaRepository;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Ingesta de eventos de la central telefónica (CTI) con escritura por lotes.
+ *
+ * - Los eventos se encolan en una cola acotada; si se llena, el endpoint responde
+ *   429 y la central reenvía el resto.
+ * - Un hilo propio drena la cola en lotes cada {@code flushMs} (no ocupa el hilo
+ *   compartido de @Scheduled) y fusiona los eventos de una misma llamada (ID externo)
+ *   en un solo cambio: ordenados por fecha, la duración es la mayor informada.
+ * - El estado solo avanza: OFRECIDA → ACEPTADA / EN_ESPERA → FINALIZADA / DECLINADA.
+ *   Un evento reenviado que lo haría retroceder (p. ej. OFERTA después de ACEPTADA)
+ *   se ignora, dentro del lote y contra la fila ya guardada. Sobre una llamada ya
+ *   finalizada o declinada se ignora todo el cambio, duración incluida.
+ * - Cada lote es una transacción: una consulta para las llamadas existentes, una
+ *   para los empleados, INSERT en JDBC batch (secuencia pooled) y UPDATE agrupados.
+ * - Los contadores de AgenteLlamada se mantienen con el registro de presencia
+ *   (después del commit), igual que en {@link LlamadaService}.
+ * - Si el lote falla, se reintenta llamada por llamada para aislar la que falla.
+ *
+ * Reenviar un evento ya aplicado no tiene efecto (idempotente por ID externo).
+ */
+@Service
+@Slf4j
+public class LlamadaIngestaService {
+
+    private final LlamadaRepository llamadaRepository;
+    private final EmpleadoRepository empleadoRepository;
+    private final RegistroPresenciaAgentes registroPresenciaAgentes;
+    private final TransactionTemplate transactionTemplate;
+    private final BlockingQueue<EventoLlamadaDTO> cola;
+
+    @Value("${app.llamadas.ingesta.maxLote:500}")
+    private int maxLote;
+
+    @Value("${app.llamadas.ingesta.flushMs:200}")
+    private long flushMs;
+
+    private ScheduledExecutorService drenador;
+
+    private final AtomicLong recibidos = new AtomicLong();
+    private final AtomicLong rechazados = new AtomicLong();
+    private final AtomicLong insertadas = new AtomicLong();
+    private final AtomicLong actualizadas = new AtomicLong();
+    private final AtomicLong descartados = new AtomicLong();
+    private final AtomicLong lotes = new AtomicLong();
+    private final AtomicLong lotesFallidos = new AtomicLong();
+
+    /** Cambio acumulado de una llamada dentro de un lote */
+    private static final class CambioLlamada {
+        final String idExterno;
+        Long empleadoId;
+        String numeroOrigen;
+        LocalDateTime fechaHora;
+        EstadoLlamada estado;
+        Integer duracionSegundos;
+        /** Pasó por ACEPTADA / EN_ESPERA dentro del lote */
+        boolean pasoEnCurso;
+        int eventos;
+
+        CambioLlamada(String idExterno) {
+            this.idExterno = idExterno;
+        }
+
+        void aplicar(EventoLlamadaDTO evento) {
+            eventos++;
+            if (evento.getEmpleadoId() != null) {
+                empleadoId = evento.getEmpleadoId();
+            }
+            if (numeroOrigen == null) {
+                numeroOrigen = evento.getNumeroOrigen();
+            }
+            if (fechaHora == null) {
+                fechaHora = evento.getFechaHora();
+            }
+            if (evento.getDuracionSegundos() != null
+                    && (duracionSegundos == null || evento.getDuracionSegundos() > duracionSegundos)) {
+                duracionSegundos = evento.getDuracionSegundos();
+            }
+            EstadoLlamada nuevo = evento.getTipo().getEstado();
+            if (avanza(estado, nuevo)) {
+                estado = nuevo;
+                pasoEnCurso |= enCurso(nuevo);
+            }
+        }
+    }
+
+    /** Conteos de un lote, que se suman a las métricas solo si confirma */
+    private record Resultado(int insertadas, int actualizadas, int descartados) {
+    }
+
+    public LlamadaIngestaService(LlamadaRepository llamadaRepository,
+                                 EmpleadoRepository empleadoRepository,
+                                 RegistroPresenciaAgentes registroPresenciaAgentes,
+                                 PlatformTransactionManager transactionManager,
+                                 @Value("${app.llamadas.ingesta.capacidad:20000}") int capacidad) {
+        this.llamadaRepository = llamadaRepository;
+        this.empleadoRepository = empleadoRepository;
+        this.registroPresenciaAgentes = registroPresenciaAgentes;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.cola = new ArrayBlockingQueue<>(capacidad);
+    }
+
+    @PostConstruct
+    void iniciar() {
+        drenador = Executors.newSingleThreadScheduledExecutor(r -> new Thread(r, "ingesta-llamadas"));
+        drenador.scheduleWithFixedDelay(() -> {
+            try {
+                procesar();
+            } catch (RuntimeException ex) {
+                log.error("Error drenando la cola de eventos de llamadas: {}", ex.getMessage(), ex);
+            }
+        }, flushMs, flushMs, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Encola los eventos en orden hasta que la cola se llena.
+     *
+     * @param eventos Eventos de la central
+     * @return Cuántos se aceptaron; los rechazados son los últimos del lote
+     */
+    public IngestaLlamadasResponse encolar(List<EventoLlamadaDTO> eventos) {
+        int aceptados = 0;
+        for (EventoLlamadaDTO evento : eventos) {
+            if (!cola.offer(evento)) {
+                break;
+            }
+            aceptados++;
+        }
+        int sinEncolar = eventos.size() - aceptados;
+        recibidos.addAndGet(aceptados);
+        rechazados.addAndGet(sinEncolar);
+        if (sinEncolar > 0) {
+            log.warn("Cola de eventos de llamadas llena: {} de {} eventos rechazados", sinEncolar, eventos.size());
+        }
+        return IngestaLlamadasResponse.builder()
+                .aceptados(aceptados)
+                .rechazados(sinEncolar)
+                .pendientes(cola.size())
+                .build();
+    }
+
+    /**
+     * Drena la cola en lotes de hasta maxLote eventos.
+     *
+     * @return Cantidad de eventos procesados
+     */
+    public synchronized int procesar() {
+        int total = 0;
+        List<EventoLlamadaDTO> lote = new ArrayList<>(maxLote);
+        while (cola.drainTo(lote, maxLote) > 0) {
+            total += lote.size();
+            procesarLote(lote);
+            lote.clear();
+        }
+        return total;
+    }
+
+    /**
+     * Métricas de la ingesta para monitoreo.
+     */
+    public Map<String, Object> getMetricas() {
+        Map<String, Object> metricas = new LinkedHashMap<>();
+        metricas.put("pendientes", cola.size());
+        metricas.put("capacidad", cola.size() + cola.remainingCapacity());
+        metricas.put("recibidos", recibidos.get());
+        metricas.put("rechazadosPorColaLlena", rechazados.get());
+        metricas.put("llamadasInsertadas", insertadas.get());
+        metricas.put("llamadasActualizadas", actualizadas.get());
+        metricas.put("descartados", descartados.get());
+        metricas.put("lotes", lotes.get());
+        metricas.put("lotesFallidos", lotesFallidos.get());
+        return metricas;
+    }
+
+    @PreDestroy
+    void detener() throws InterruptedException {
+        drenador.shutdown();
+        drenador.awaitTermination(30, TimeUnit.SECONDS);
+        int procesados = procesar();
+        if (procesados > 0) {
+            log.info("Ingesta de llamadas: {} eventos pendientes persistidos al detener", procesados);
+        }
+    }
+
+    // ==================== MÉTODOS AUXILIARES ====================
+
+    private void procesarLote(List<EventoLlamadaDTO> lote) {
+        Collection<CambioLlamada> cambios = fusionar(lote);
+        lotes.incrementAndGet();
+        try {
+            contabilizar(transactionTemplate.execute(status -> aplicar(cambios)));
+        } catch (RuntimeException ex) {
+            lotesFallidos.incrementAndGet();
+            log.warn("Lote de {} llamadas falló ({}); reintentando una por una", cambios.size(), ex.getMessage());
+            for (CambioLlamada cambio : cambios) {
+                try {
+                    contabilizar(transactionTemplate.execute(status -> aplicar(List.of(cambio))));
+                } catch (RuntimeException exLlamada) {
+                    descartados.addAndGet(cambio.eventos);
+                    log.error("Descartando {} eventos de la llamada externa {}: {}",
+                            cambio.eventos, cambio.idExterno, exLlamada.getMessage());
+                }
+            }
+        }
+    }
+
+    private void contabilizar(Resultado resultado) {
+        insertadas.addAndGet(resultado.insertadas());
+        actualizadas.addAndGet(resultado.actualizadas());
+        descartados.addAndGet(resultado.descartados());
+    }
+
+    /**
+     * Agrupa los eventos por ID externo, en orden de fecha (estable para los
+     * eventos sin fecha o con la misma fecha).
+     */
+    private static Collection<CambioLlamada> fusionar(List<EventoLlamadaDTO> lote) {
+        List<EventoLlamadaDTO> ordenados = new ArrayList<>(lote);
+        ordenados.sort(Comparator.comparing(EventoLlamadaDTO::getFechaHora,
+                Comparator.nullsLast(Comparator.naturalOrder())));
+        Map<String, CambioLlamada> porLlamada = new LinkedHashMap<>();
+        for (EventoLlamadaDTO evento : ordenados) {
+            porLlamada.computeIfAbsent(evento.getLlamadaExternaId(), CambioLlamada::new).aplicar(evento);
+        }
+        return porLlamada.values();
+    }
+
+    private Resultado aplicar(Collection<CambioLlamada> cambios) {
+        Set<String> ids = cambios.stream().map(c -> c.idExterno).collect(Collectors.toSet());
+        Map<String, Llamada> existentes = llamadaRepository.findByIdExternoIn(ids).stream()
+                .collect(Collectors.toMap(Llamada::getIdExterno, Function.identity()));
+
+        Set<Long> empleadoIds = cambios.stream()
+                .filter(c -> !existentes.containsKey(c.idExterno))
+                .map(c -> c.empleadoId)
+                .collect(Collectors.toSet());
+        Map<Long, Empleado> empleados = empleadoRepository.findAllById(empleadoIds).stream()
+                .collect(Collectors.toMap(Empleado::getIdEmpleado, Function.identity()));
+
+        List<Llamada> nuevas = new ArrayList<>();
+        int actualizadasLote = 0;
+        int descartadosLote = 0;
+        for (CambioLlamada cambio : cambios) {
+            Llamada llamada = existentes.get(cambio.idExterno);
+            EstadoLlamada anterior;
+            boolean pasoEnCurso = cambio.pasoEnCurso;
+            if (llamada == null) {
+                Empleado empleado = empleados.get(cambio.empleadoId);
+                if (empleado == null) {
+                    descartadosLote += cambio.eventos;
+                    log.warn("Llamada externa {} descartada: empleado {} no existe", cambio.idExterno, cambio.empleadoId);
+                    continue;
+                }
+                anterior = null;
+                llamada = Llamada.builder()
+                        .idExterno(cambio.idExterno)
+                        .empleado(empleado)
+                        .numeroOrigen(cambio.numeroOrigen)
+                        .fechaHora(cambio.fechaHora)
+                        .estado(cambio.estado != null ? cambio.estado : EstadoLlamada.OFRECIDA)
+                        .duracionSegundos(cambio.duracionSegundos != null ? cambio.duracionSegundos : 0)
+                        .build();
+                nuevas.add(llamada);
+            } else {
+                anterior = llamada.getEstado();
+                if (esTerminal(anterior)) {
+                    // Repetición sobre una llamada ya cerrada: no cambia nada ni cuenta como actualizada
+                    log.debug("Llamada externa {} ya en {}: se ignoran {} eventos", cambio.idExterno, anterior, cambio.eventos);
+                    continue;
+                }
+                if (avanza(anterior, cambio.estado)) {
+                    llamada.setEstado(cambio.estado);
+                } else {
+                    pasoEnCurso = false; // El estado no cambia
+                }
+                if (cambio.duracionSegundos != null) {
+                    llamada.setDuracionSegundos(cambio.duracionSegundos);
+                }
+                if (llamada.getNumeroOrigen() == null) {
+                    llamada.setNumeroOrigen(cambio.numeroOrigen);
+                }
+                actualizadasLote++;
+            }
+            actualizarPresencia(llamada, anterior, pasoEnCurso);
+        }
+
+        llamadaRepository.saveAll(nuevas);
+        llamadaRepository.flush();
+        return new Resultado(nuevas.size(), actualizadasLote, descartadosLote);
+    }
+
+    /**
+     * Aplica al registro de presencia la entrada y/o salida de la llamada en curso.
+     * Una llamada que empezó y terminó dentro del mismo lote cuenta ambas.
+     */
+    private void actualizarPresencia(Llamada llamada, EstadoLlamada anterior, boolean pasoEnCurso) {
+        boolean enCursoAntes = enCurso(anterior);
+        boolean enCursoAhora = enCurso(llamada.getEstado());
+        if (!enCursoAntes && (enCursoAhora || pasoEnCurso)) {
+            registroPresenciaAgentes.iniciarLlamada(llamada.getEmpleado());
+        }
+        if ((enCursoAntes || pasoEnCurso) && !enCursoAhora) {
+            registroPresenciaAgentes.terminarLlamada(llamada.getEmpleado(),
+                    llamada.getEstado() == EstadoLlamada.FINALIZADA, llamada.getDuracionSegundos());
+        }
+    }
+
+    /**
+     * true si pasar de {@code actual} a {@code nuevo} no hace retroceder la llamada.
+     * ACEPTADA y EN_ESPERA están en el mismo paso: se puede ir y volver entre ellas.
+     */
+    private static boolean avanza(EstadoLlamada actual, EstadoLlamada nuevo) {
+        return nuevo != null && (actual == null || !esTerminal(actual) && paso(nuevo) >= paso(actual));
+    }
+
+    private static int paso(EstadoLlamada estado) {
+        return switch (estado) {
+            case OFRECIDA -> 0;
+            case ACEPTADA, EN_ESPERA -> 1;
+            case FINALIZADA, DECLINADA -> 2;
+        };
+    }
+
+    private static boolean enCurso(EstadoLlamada estado) {
+        return estado == EstadoLlamada.ACEPTADA || estado == EstadoLlamada.EN_ESPERA;
+    }
+
+    private static boolean esTerminal(EstadoLlamada estado) {
+        return estado == EstadoLlamada.FINALIZADA || estado == EstadoLlamada.DECLINADA;
+    }
+}
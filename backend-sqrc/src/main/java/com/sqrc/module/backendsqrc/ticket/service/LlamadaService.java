@@ -6,6 +6,7 @@ import com.sqrc.module.backendsqrc.ticket.dto.request.CreateLlamadaRequest;
 import com.sqrc.module.backendsqrc.ticket.exception.EmpleadoNotFoundException;
 import com.sqrc.module.backendsqrc.ticket.exception.TicketNotFoundException;
 import com.sqrc.module.backendsqrc.ticket.model.*;
+import com.sqrc.module.backendsqrc.ticket.presencia.RegistroPresenciaAgentes;
 import com.sqrc.module.backendsqrc.ticket.repository.EmpleadoRepository;
 import com.sqrc.module.backendsqrc.ticket.repository.LlamadaRepository;
 import com.sqrc.module.backendsqrc.ticket.repository.TicketRepository;
@@ -35,6 +36,7 @@ public class LlamadaService {
     private final LlamadaRepository llamadaRepository;
     private final TicketRepository ticketRepository;
     private final EmpleadoRepository empleadoRepository;
+    private final RegistroPresenciaAgentes registroPresenciaAgentes;
 
     /**
      * Crea una nueva llamada (sin ticket asociado).
@@ -57,6 +59,7 @@ public class LlamadaService {
 
         Llamada guardada = llamadaRepository.save(llamada);
         log.debug("Llamada creada con ID: {}", guardada.getIdLlamada());
+        actualizarPresencia(guardada, null);
 
         return mapToDto(guardada);
     }
@@ -112,9 +115,11 @@ public class LlamadaService {
         Llamada llamada = llamadaRepository.findById(llamadaId)
                 .orElseThrow(() -> new RuntimeException("Llamada no encontrada: " + llamadaId));
 
+        EstadoLlamada anterior = llamada.getEstado();
         llamada.setEstado(EstadoLlamada.FINALIZADA);
         llamada.setDuracionSegundos(duracionSegundos);
         Llamada actualizada = llamadaRepository.save(llamada);
+        actualizarPresencia(actualizada, anterior);
 
         return mapToDto(actualizada);
     }
@@ -133,8 +138,10 @@ public class LlamadaService {
         Llamada llamada = llamadaRepository.findById(llamadaId)
                 .orElseThrow(() -> new RuntimeException("Llamada no encontrada: " + llamadaId));
 
+        EstadoLlamada anterior = llamada.getEstado();
         llamada.setEstado(nuevoEstado);
         Llamada actualizada = llamadaRepository.save(llamada);
+        actualizarPresencia(actualizada, anterior);
 
         return mapToDto(actualizada);
     }
@@ -191,6 +198,25 @@ public class LlamadaService {
                 .collect(Collectors.toList());
     }
 
+    /**
+     * Refleja en el registro de presencia la entrada o salida de una llamada en curso
+     * (ACEPTADA o EN_ESPERA). Solo FINALIZADA cuenta como atendida.
+     */
+    private void actualizarPresencia(Llamada llamada, EstadoLlamada anterior) {
+        boolean enCursoAntes = enCurso(anterior);
+        boolean enCursoAhora = enCurso(llamada.getEstado());
+        if (!enCursoAntes && enCursoAhora) {
+            registroPresenciaAgentes.iniciarLlamada(llamada.getEmpleado());
+        } else if (enCursoAntes && !enCursoAhora) {
+            registroPresenciaAgentes.terminarLlamada(llamada.getEmpleado(),
+                    llamada.getEstado() == EstadoLlamada.FINALIZADA, llamada.getDuracionSegundos());
+        }
+    }
+
+    private static boolean enCurso(EstadoLlamada estado) {
+        return estado == EstadoLlamada.ACEPTADA || estado == EstadoLlamada.EN_ESPERA;
+    }
+
     /**
      * Mapea Llamada a LlamadaDto.
      */
@@ -1,7 +1,10 @@
 package com.sqrc.module.backendsqrc.ticket.service;
 
+import com.sqrc.module.backendsqrc.comunicacion.service.SpoolCorreoService;
+import com.sqrc.module.backendsqrc.ejecucion.config.EjecutorNombres;
 import com.sqrc.module.backendsqrc.ticket.model.Asignacion;
 import com.sqrc.module.backendsqrc.ticket.model.Correo;
+import com.sqrc.module.backendsqrc.ticket.model.EstadoEnvioCorreo;
 import com.sqrc.module.backendsqrc.ticket.model.TipoCorreo;
 import com.sqrc.module.backendsqrc.ticket.repository.CorreoRepository;
 import lombok.RequiredArgsConstructor;
@@ -12,9 +15,10 @@ import org.springframework.stereotype.Service;
 import java.time.LocalDateTime;
 
 /**
- * Servicio de email SIMULADO exclusivo para el módulo de Tickets.
- * No requiere configuración SMTP ni internet.
- * Ahora también persiste los correos en la base de datos.
+ * Servicio de email exclusivo para el módulo de Tickets.
+ * Los correos se encolan en la cola de salida ({@link SpoolCorreoService}), que los
+ * envía por SMTP en segundo plano; los que se persisten como {@link Correo}
+ * reciben ahí su estado de entrega.
  */
 @Service
 @RequiredArgsConstructor
@@ -22,35 +26,30 @@ import java.time.LocalDateTime;
 public class TicketEmailService {
 
     private final CorreoRepository correoRepository;
+    private final SpoolCorreoService spoolCorreoService;
 
-    @Async
     public void enviarNotificacion(String destinatario, String asunto, String cuerpoHtml) {
-        log.info("=================================================");
-        log.info("📨 [TICKET EMAIL MOCK] Enviando notificación...");
-        log.info("   -> Para: {}", destinatario);
-        log.info("   -> Asunto: {}", asunto);
-        log.info("   -> Contenido: {}", cuerpoHtml);
-        log.info("✅ Enviado exitosamente (Simulado)");
-        log.info("=================================================");
+        log.info("📨 [TICKET EMAIL] Encolando notificación para {} (asunto: {})", destinatario, asunto);
+        spoolCorreoService.encolar(destinatario, asunto, cuerpoHtml, null, null, null);
     }
 
     /**
-     * Envía un correo HTML de forma asíncrona (SIMULADO).
+     * Encola un correo HTML; el envío es asíncrono (cola de salida).
      * Alias del método enviarNotificacion para compatibilidad.
      *
      * @param destinatario Email del destinatario
      * @param asunto Asunto del correo
      * @param cuerpoHtml Contenido HTML del correo
      */
-    @Async
     public void enviarCorreoHtmlAsync(String destinatario, String asunto, String cuerpoHtml) {
         enviarNotificacion(destinatario, asunto, cuerpoHtml);
     }
 
     /**
-     * Envía un correo HTML y lo PERSISTE en la base de datos.
+     * Encola un correo HTML y lo PERSISTE en la base de datos.
      * El HTML se convierte a texto plano antes de guardar para mejor legibilidad.
-     * VERSIÓN SÍNCRONA para uso dentro de transacciones.
+     * Dentro de una transacción no habla con el servidor SMTP: el correo se envía
+     * después del commit y su estado de entrega se informa en el registro guardado.
      *
      * @param destinatario Email del destinatario
      * @param asunto Asunto del correo
@@ -60,17 +59,7 @@ public class TicketEmailService {
      */
     public void enviarYGuardarCorreo(String destinatario, String asunto, String cuerpoHtml,
                                       Asignacion asignacion, TipoCorreo tipoCorreo) {
-        // 1. Enviar correo (SIMULADO)
-        log.info("=================================================");
-        log.info("📨 [TICKET EMAIL MOCK] Enviando notificación...");
-        log.info("   -> Para: {}", destinatario);
-        log.info("   -> Asunto: {}", asunto);
-        log.info("   -> Tipo: {}", tipoCorreo);
-        log.info("   -> ID Asignación: {}", asignacion.getIdAsignacion());
-        log.info("   -> Contenido: {}", cuerpoHtml.substring(0, Math.min(100, cuerpoHtml.length())) + "...");
-        log.info("✅ Enviado exitosamente (Simulado)");
-
-        // 2. Guardar en BD (convertir HTML a texto plano)
+        // 1. Guardar en BD (convertir HTML a texto plano)
         String cuerpoTextoPlano = extraerTextoPlano(cuerpoHtml);
 
         Correo correo = Correo.builder()
@@ -79,20 +68,28 @@ public class TicketEmailService {
                 .cuerpo(cuerpoTextoPlano)  // Guarda texto plano sin HTML
                 .tipoCorreo(tipoCorreo)
                 .fechaEnvio(LocalDateTime.now())
+                .estadoEnvio(EstadoEnvioCorreo.PENDIENTE)
                 .build();
 
         Correo correoGuardado = correoRepository.save(correo);
-        log.info("💾 Correo guardado en BD (ID: {}, ID Asignación: {}, Tipo: {})",
-                correoGuardado.getIdCorreo(), asignacion.getIdAsignacion(), tipoCorreo);
 
-        log.info("=================================================");
+        // 2. Encolar el envío; la cola informa la entrega en el registro guardado
+        Long encolado = spoolCorreoService.encolar(destinatario, asunto, cuerpoHtml, null, null,
+                correoGuardado.getIdCorreo());
+        if (encolado == null) {
+            correoGuardado.setEstadoEnvio(EstadoEnvioCorreo.FALLIDO);
+            correoGuardado.setUltimoErrorEnvio("Sin destinatario");
+            correoRepository.save(correoGuardado);
+        }
+        log.info("📨 Correo guardado y encolado (ID: {}, ID Asignación: {}, Tipo: {}, Para: {})",
+                correoGuardado.getIdCorreo(), asignacion.getIdAsignacion(), tipoCorreo, destinatario);
     }
 
     /**
      * Versión ASÍNCRONA del método enviarYGuardarCorreo.
      * Úsala solo cuando NO estés dentro de una transacción activa.
      */
-    @Async
+    @Async(EjecutorNombres.CORREO)
     public void enviarYGuardarCorreoAsync(String destinatario, String asunto, String cuerpoHtml,
                                           Asignacion asignacion, TipoCorreo tipoCorreo) {
         try {
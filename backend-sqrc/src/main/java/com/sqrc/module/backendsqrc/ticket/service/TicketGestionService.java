@@ -5,23 +5,35 @@ import com.sqrc.module.backendsqrc.encuesta.model.Encuesta;
 import com.sqrc.module.backendsqrc.encuesta.model.PlantillaEncuesta;
 import com.sqrc.module.backendsqrc.encuesta.repository.PlantillaEncuestaRepository;
 import com.sqrc.module.backendsqrc.encuesta.service.EncuestaService;
-import com.sqrc.module.backendsqrc.plantillaRespuesta.Service.RespuestaService;
+import com.sqrc.module.backendsqrc.outbox.service.OutboxService;
 import com.sqrc.module.backendsqrc.ticket.dto.request.*;
 import com.sqrc.module.backendsqrc.ticket.dto.response.*;
+import com.sqrc.module.backendsqrc.ticket.event.ConstanciaSolicitadaEvent;
+import com.sqrc.module.backendsqrc.ticket.event.TicketGuardadoEvent;
 import com.sqrc.module.backendsqrc.ticket.exception.*;
 import com.sqrc.module.backendsqrc.ticket.model.*;
 import com.sqrc.module.backendsqrc.ticket.repository.*;
+import com.sqrc.module.backendsqrc.ticket.search.TicketSearchIndex;
 import com.sqrc.module.backendsqrc.ticket.service.factory.TicketFactory;
+import com.sqrc.module.backendsqrc.ticket.presencia.RegistroPresenciaAgentes;
 import com.sqrc.module.backendsqrc.ticket.service.strategy.DefaultEstadoTransitionValidator;
+import com.sqrc.module.backendsqrc.ticket.strategy.RegistroCargaAgentes;
 import com.sqrc.module.backendsqrc.vista360.model.ClienteEntity;
 import com.sqrc.module.backendsqrc.vista360.repository.ClienteRepository;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import jakarta.persistence.EntityManager;
 import jakarta.persistence.PersistenceContext;
@@ -51,6 +63,10 @@ import jakarta.persistence.PersistenceContext;
 @Slf4j
 public class TicketGestionService {
 
+    private static final int LIMITE_PAGINA_DEFAULT = 50;
+    private static final int LIMITE_PAGINA_MAX = 200;
+    private static final int LIMITE_SUGERENCIAS_DEFAULT = 10;
+
     private final TicketRepository ticketRepository;
     private final ConsultaRepository consultaRepository;
     private final QuejaRepository quejaRepository;
@@ -70,7 +86,6 @@ public class TicketGestionService {
     private final EncuestaService encuestaService;
     private final PlantillaEncuestaRepository plantillaEncuestaRepository;
 
-    private final RespuestaService respuestaService;
     @PersistenceContext
     private EntityManager entityManager;
 
@@ -78,6 +93,24 @@ public class TicketGestionService {
     private final DocumentacionRepository documentacionRepository;
     private final com.sqrc.module.backendsqrc.plantillaRespuesta.Repository.RespuestaRepository respuestaRepository;
 
+    // Índice en memoria para la búsqueda type-ahead
+    private final TicketSearchIndex ticketSearchIndex;
+
+    // Modelo de lectura desnormalizado (ticket_view)
+    private final TicketViewService ticketViewService;
+
+    // Transiciones condicionales de estado con reintento ante conflictos
+    private final TicketTransicionService ticketTransicionService;
+
+    // Carga en memoria de asignaciones activas por empleado
+    private final RegistroCargaAgentes registroCargaAgentes;
+
+    // Eventos de dominio durables (outbox_eventos)
+    private final OutboxService outboxService;
+
+    // Ocupación de agentes en memoria (write-behind a agentes.esta_ocupado)
+    private final RegistroPresenciaAgentes registroPresenciaAgentes;
+
     // ==================== CREAR TICKET ====================
 
     /**
@@ -122,10 +155,14 @@ public class TicketGestionService {
 
         // 5. Crear ticket usando Factory (patrón Factory Method)
         Ticket ticket = ticketFactory.crearTicket(request, cliente, motivo);
+        ticket.setEstadoConstancia(EstadoConstancia.PENDIENTE);
+        ticket.setIntentosConstancia(0);
+        ticket.setFechaEstadoConstancia(LocalDateTime.now());
 
         // 6. Guardar ticket
         Ticket ticketGuardado = ticketRepository.save(ticket);
         log.debug("Ticket guardado con ID: {}", ticketGuardado.getIdTicket());
+        publicarTicketGuardado(ticketGuardado);
 
         // 7. Crear asignación inicial
         Asignacion asignacion = Asignacion.builder()
@@ -133,16 +170,18 @@ public class TicketGestionService {
                 .empleado(empleado)
                 .build();
         asignacionRepository.save(asignacion);
+        registroCargaAgentes.registrarApertura(empleado);
         log.debug("Asignación creada para empleado: {}", empleado.getNombreCompleto());
 
-        // 8. Si es un Agente, marcarlo como ocupado
-        if (empleado instanceof Agente) {
-            ((Agente) empleado).setEstaOcupado(true);
-            empleadoRepository.save(empleado);
-        }
+        // 8. Si es un Agente, marcarlo como ocupado (registro en memoria, persistido por lotes)
+        registroPresenciaAgentes.marcarOcupado(empleado);
+
+        // Modelo de lectura con la asignación inicial ya creada
+        ticketViewService.proyectar(ticketGuardado);
 
-        // envia correo de confirmacion
-        respuestaService.enviarConfirmacionRegistro(asignacion);
+        // Constancia de registro (PDF + correo): se genera después del commit en el
+        // pipeline asíncrono (ConstanciaRegistroService), no dentro de esta transacción
+        eventPublisher.publishEvent(new ConstanciaSolicitadaEvent(ticketGuardado.getIdTicket()));
 
         // 9. Construir respuesta
         return TicketCreatedResponse.builder()
@@ -160,6 +199,20 @@ public class TicketGestionService {
                 .build();
     }
 
+    /**
+     * Publica los campos buscables del ticket para el índice de búsqueda
+     * (se aplica después del commit).
+     */
+    private void publicarTicketGuardado(Ticket ticket) {
+        ClienteEntity cliente = ticket.getCliente();
+        eventPublisher.publishEvent(new TicketGuardadoEvent(
+                this,
+                ticket.getIdTicket(),
+                ticket.getAsunto(),
+                cliente != null ? cliente.getNombres() : null,
+                cliente != null ? cliente.getApellidos() : null));
+    }
+
     /**
      * Valida que el empleado puede crear tickets del canal especificado.
      * 
@@ -208,8 +261,11 @@ public class TicketGestionService {
      * @param request DTO con los campos a actualizar
      * @return TicketOperationResponse con el resultado
      */
-    @Transactional
     public TicketOperationResponse actualizarTicket(Long ticketId, UpdateTicketRequest request) {
+        return ticketTransicionService.conReintento(ticketId, () -> actualizarTicketEnTransaccion(ticketId, request));
+    }
+
+    private TicketOperationResponse actualizarTicketEnTransaccion(Long ticketId, UpdateTicketRequest request) {
         log.info("Actualizando ticket ID: {}", ticketId);
 
         Ticket ticket = ticketRepository.findById(ticketId)
@@ -238,6 +294,8 @@ public class TicketGestionService {
         actualizarCamposEspecificos(ticket, request);
 
         ticketRepository.save(ticket);
+        ticketViewService.proyectar(ticket);
+        publicarTicketGuardado(ticket);
 
         return TicketOperationResponse.builder()
                 .ticketId(ticketId)
@@ -312,8 +370,11 @@ public class TicketGestionService {
      * @param request DTO con el nuevo estado
      * @return TicketOperationResponse con el resultado
      */
-    @Transactional
     public TicketOperationResponse cambiarEstado(Long ticketId, CambiarEstadoRequest request) {
+        return ticketTransicionService.conReintento(ticketId, () -> cambiarEstadoEnTransaccion(ticketId, request));
+    }
+
+    private TicketOperationResponse cambiarEstadoEnTransaccion(Long ticketId, CambiarEstadoRequest request) {
         log.info("Cambiando estado del ticket {} a {}", ticketId, request.getNuevoEstado());
 
         Ticket ticket = ticketRepository.findById(ticketId)
@@ -328,18 +389,17 @@ public class TicketGestionService {
             throw new InvalidStateTransitionException(mensaje);
         }
 
-        // Aplicar cambio de estado
-        ticket.setEstado(nuevoEstado);
+        // Aplicar cambio de estado (condicional: falla si otra operación lo cambió primero).
+        // Si se cierra, se registra la fecha de cierre en el mismo UPDATE
+        boolean cierra = nuevoEstado == EstadoTicket.CERRADO;
+        ticketTransicionService.transicionar(ticket, nuevoEstado, cierra ? LocalDateTime.now() : null);
 
-        // Si se cierra, establecer fecha de cierre
-        if (nuevoEstado == EstadoTicket.CERRADO) {
-            ticket.setFechaCierre(LocalDateTime.now());
-            
+        if (cierra) {
             // Finalizar asignación activa
             finalizarAsignacionActiva(ticketId);
         }
 
-        ticketRepository.save(ticket);
+        ticketViewService.proyectar(ticket);
 
         return TicketOperationResponse.builder()
                 .ticketId(ticketId)
@@ -373,8 +433,11 @@ public class TicketGestionService {
      * @param request DTO con datos de escalamiento
      * @return TicketOperationResponse con el resultado
      */
-    @Transactional
     public TicketOperationResponse escalarTicket(Long ticketId, EscalarTicketRequest request) {
+        return ticketTransicionService.conReintento(ticketId, () -> escalarTicketEnTransaccion(ticketId, request));
+    }
+
+    private TicketOperationResponse escalarTicketEnTransaccion(Long ticketId, EscalarTicketRequest request) {
         log.info("Escalando ticket {} al BackOffice {}", ticketId, request.getBackofficeId());
 
         Ticket ticket = ticketRepository.findById(ticketId)
@@ -411,12 +474,10 @@ public class TicketGestionService {
             empleadoAnterior = asignacionAnterior.getEmpleado();
             asignacionAnterior.setFechaFin(LocalDateTime.now());
             asignacionRepository.save(asignacionAnterior);
+            registroCargaAgentes.registrarCierre(asignacionAnterior);
             
             // Liberar al Agente si estaba ocupado
-            if (empleadoAnterior instanceof Agente) {
-                ((Agente) empleadoAnterior).setEstaOcupado(false);
-                empleadoRepository.save(empleadoAnterior);
-            }
+            registroPresenciaAgentes.marcarLibre(empleadoAnterior);
         } else {
             throw new InvalidStateTransitionException("El ticket no tiene asignacion activa para escalar.");
         }
@@ -428,11 +489,12 @@ public class TicketGestionService {
                 .asignacionPadre(asignacionAnterior)
                 .build();
         nuevaAsignacion = asignacionRepository.save(nuevaAsignacion);
+        registroCargaAgentes.registrarApertura(backoffice);
 
         // Cambiar estado a ESCALADO
         String estadoAnterior = ticket.getEstado().name();
-        ticket.setEstado(EstadoTicket.ESCALADO);
-        ticketRepository.save(ticket);
+        ticketTransicionService.transicionar(ticket, EstadoTicket.ESCALADO, null);
+        ticketViewService.proyectar(ticket);
 
         // Nota: El envío y guardado de correos se maneja en TicketWorkflowFacade
         // si se usa ese flujo. Este método es más directo para casos simples.
@@ -463,8 +525,11 @@ public class TicketGestionService {
      * @param request DTO con datos de derivación
      * @return TicketOperationResponse con el resultado
      */
-    @Transactional
     public TicketOperationResponse derivarTicket(Long ticketId, DerivarTicketRequest request) {
+        return ticketTransicionService.conReintento(ticketId, () -> derivarTicketEnTransaccion(ticketId, request));
+    }
+
+    private TicketOperationResponse derivarTicketEnTransaccion(Long ticketId, DerivarTicketRequest request) {
         log.info("Derivando ticket {} al área {}", ticketId, request.getAreaId());
 
         Ticket ticket = ticketRepository.findById(ticketId)
@@ -483,6 +548,7 @@ public class TicketGestionService {
             asignacionAnterior = asignacionActiva.get();
             asignacionAnterior.setFechaFin(LocalDateTime.now());
             asignacionRepository.save(asignacionAnterior);
+            registroCargaAgentes.registrarCierre(asignacionAnterior);
         }
 
         // Crear nueva asignación al área
@@ -495,8 +561,8 @@ public class TicketGestionService {
 
         // Cambiar estado a DERIVADO
         String estadoAnterior = ticket.getEstado().name();
-        ticket.setEstado(EstadoTicket.DERIVADO);
-        ticketRepository.save(ticket);
+        ticketTransicionService.transicionar(ticket, EstadoTicket.DERIVADO, null);
+        ticketViewService.proyectar(ticket);
 
         return TicketOperationResponse.builder()
                 .ticketId(ticketId)
@@ -522,8 +588,11 @@ public class TicketGestionService {
      * @param motivo Motivo de la devolución
      * @return TicketOperationResponse con el resultado
      */
-    @Transactional
     public TicketOperationResponse devolverTicket(Long ticketId, Long empleadoId, String motivo) {
+        return ticketTransicionService.conReintento(ticketId, () -> devolverTicketEnTransaccion(ticketId, empleadoId, motivo));
+    }
+
+    private TicketOperationResponse devolverTicketEnTransaccion(Long ticketId, Long empleadoId, String motivo) {
         log.info("Devolviendo ticket {} al empleado {}", ticketId, empleadoId);
 
         Ticket ticket = ticketRepository.findById(ticketId)
@@ -544,6 +613,7 @@ public class TicketGestionService {
             asignacionAnterior = asignacionActiva.get();
             asignacionAnterior.setFechaFin(LocalDateTime.now());
             asignacionRepository.save(asignacionAnterior);
+            registroCargaAgentes.registrarCierre(asignacionAnterior);
         }
 
         // Crear nueva asignación
@@ -553,6 +623,7 @@ public class TicketGestionService {
                 .asignacionPadre(asignacionAnterior)
                 .build();
         asignacionRepository.save(nuevaAsignacion);
+        registroCargaAgentes.registrarApertura(empleado);
 
         // Determinar nuevo estado
         String estadoAnterior = ticket.getEstado().name();
@@ -560,8 +631,8 @@ public class TicketGestionService {
                 ? EstadoTicket.ABIERTO
                 : EstadoTicket.ESCALADO;
 
-        ticket.setEstado(nuevoEstado);
-        ticketRepository.save(ticket);
+        ticketTransicionService.transicionar(ticket, nuevoEstado, null);
+        ticketViewService.proyectar(ticket);
 
         return TicketOperationResponse.builder()
                 .ticketId(ticketId)
@@ -589,8 +660,11 @@ public class TicketGestionService {
      * @param empleadoId ID del empleado que cierra
      * @return TicketOperationResponse con el resultado
      */
-    @Transactional
     public TicketOperationResponse cerrarTicket(Long ticketId, Long empleadoId) {
+        return ticketTransicionService.conReintento(ticketId, () -> cerrarTicketEnTransaccion(ticketId, empleadoId));
+    }
+
+    private TicketOperationResponse cerrarTicketEnTransaccion(Long ticketId, Long empleadoId) {
         log.info("Cerrando ticket {} por empleado {}", ticketId, empleadoId);
 
         Ticket ticket = ticketRepository.findById(ticketId)
@@ -616,24 +690,24 @@ public class TicketGestionService {
 
         // Cerrar ticket
         String estadoAnterior = ticket.getEstado().name();
-        ticket.setEstado(EstadoTicket.CERRADO);
-        ticket.setFechaCierre(LocalDateTime.now());
-        ticketRepository.save(ticket);
+        ticketTransicionService.transicionar(ticket, EstadoTicket.CERRADO, LocalDateTime.now());
+        ticketViewService.proyectar(ticket);
 
         // ==================== PATRÓN OBSERVER: solicitar creación de encuesta después del commit ====================
         boolean encuestaEventPublished = false;
         try {
-            var plantillaOpt = plantillaEncuestaRepository.findFirstByVigenteTrue();
-            if (plantillaOpt.isPresent() && ticket.getCliente() != null) {
-                Long plantillaId = plantillaOpt.get().getIdPlantillaEncuesta();
-                // Publicamos un evento para que un listener AFTER_COMMIT cree la encuesta
-                eventPublisher.publishEvent(new com.sqrc.module.backendsqrc.encuesta.event.TicketClosedForEncuestaEvent(
-                    plantillaId,
-                    ticketId,
-                    ticket.getCliente().getIdCliente()
-                ));
+            var plantillaIdOpt = plantillaEncuestaRepository.findIdVigente();
+            if (plantillaIdOpt.isPresent() && ticket.getCliente() != null) {
+                Long plantillaId = plantillaIdOpt.get();
+                // Registramos el evento en la outbox; la encuesta se crea fuera de esta petición
+                outboxService.registrar(OutboxService.AGREGADO_TICKET, ticketId,
+                    new com.sqrc.module.backendsqrc.encuesta.event.TicketClosedForEncuestaEvent(
+                        plantillaId,
+                        ticketId,
+                        ticket.getCliente().getIdCliente()
+                    ));
                 encuestaEventPublished = true;
-                log.info("Publicado TicketClosedForEncuestaEvent: ticketId={}, plantillaId={}, clienteId={}", ticketId, plantillaId, ticket.getCliente().getIdCliente());
+                log.info("Registrado TicketClosedForEncuestaEvent: ticketId={}, plantillaId={}, clienteId={}", ticketId, plantillaId, ticket.getCliente().getIdCliente());
             } else {
                 log.warn("No hay plantilla vigente o no hay cliente para ticket {}. No se publicará evento de encuesta.", ticketId);
             }
@@ -790,6 +864,166 @@ public class TicketGestionService {
         return encuesta.getIdEncuesta();
     }
 
+    // ==================== LISTADO PAGINADO ====================
+
+    /**
+     * Lista tickets paginados por cursor (keyset) resolviendo todos los filtros en SQL.
+     *
+     * A diferencia del listado completo, no materializa la tabla en memoria: la BD
+     * devuelve solo {@code limite} filas ya filtradas y ordenadas por
+     * (fechaCreacion DESC, idTicket DESC), con el nombre del cliente en el mismo JOIN.
+     *
+     * @param tipo Filtro por tipo de ticket (CONSULTA, QUEJA, RECLAMO, SOLICITUD)
+     * @param estado Filtro por estado
+     * @param fecha Día de creación
+     * @param search Texto a buscar en ID ("TC-0001"), asunto o nombre del cliente
+     * @param empleadoId Solo tickets con alguna asignación de este empleado
+     * @param cursorFecha fechaCreacion del último ticket de la página anterior
+     * @param cursorId idTicket del último ticket de la página anterior
+     * @param limite Tamaño de página
+     * @return TicketListPageResponse con los tickets y el cursor siguiente
+     */
+    @Transactional(readOnly = true)
+    public TicketListPageResponse listarTicketsPaginado(String tipo, String estado, LocalDate fecha,
+                                                        String search, Long empleadoId,
+                                                        LocalDateTime cursorFecha, Long cursorId,
+                                                        Integer limite) {
+        int tamano = limite == null || limite <= 0 ? LIMITE_PAGINA_DEFAULT : Math.min(limite, LIMITE_PAGINA_MAX);
+
+        TipoTicket tipoFiltro = null;
+        EstadoTicket estadoFiltro = null;
+        try {
+            if (tipo != null && !tipo.isBlank()) {
+                tipoFiltro = TipoTicket.valueOf(tipo.trim().toUpperCase());
+            }
+            if (estado != null && !estado.isBlank()) {
+                estadoFiltro = EstadoTicket.valueOf(estado.trim().toUpperCase());
+            }
+        } catch (IllegalArgumentException e) {
+            // Igual que el listado completo: un filtro que no coincide con nada devuelve vacío
+            log.warn("Filtro inválido en listado paginado: tipo={}, estado={}", tipo, estado);
+            return TicketListPageResponse.builder()
+                    .tickets(List.of())
+                    .limite(tamano)
+                    .tieneSiguiente(false)
+                    .build();
+        }
+
+        LocalDateTime desde = null;
+        LocalDateTime hasta = null;
+        if (fecha != null) {
+            desde = fecha.atStartOfDay();
+            hasta = fecha.plusDays(1).atStartOfDay();
+        }
+
+        String searchLike = null;
+        String searchId = null;
+        if (search != null && !search.isBlank()) {
+            String searchLower = search.toLowerCase().trim();
+            searchLike = "%" + searchLower + "%";
+            // Permitir buscar por ID con formatos como "TC-0001" extrayendo solo los dígitos
+            String numericSearch = searchLower.replaceAll("[^0-9]", "");
+            searchId = numericSearch.isEmpty() ? null : "%" + numericSearch + "%";
+        }
+
+        if (cursorFecha != null && cursorId == null) {
+            cursorId = Long.MAX_VALUE;
+        }
+
+        // Se pide una fila extra para saber si existe página siguiente sin ejecutar COUNT
+        List<Object[]> filas = ticketRepository.findPaginaListado(
+                tipoFiltro, estadoFiltro, desde, hasta, empleadoId,
+                searchLike, searchId, cursorFecha, cursorId,
+                PageRequest.of(0, tamano + 1));
+
+        boolean tieneSiguiente = filas.size() > tamano;
+        List<TicketListItemDTO> tickets = new ArrayList<>(Math.min(filas.size(), tamano));
+        for (int i = 0; i < filas.size() && i < tamano; i++) {
+            tickets.add(mapFilaListado(filas.get(i)));
+        }
+
+        TicketListPageResponse.CursorDTO nextCursor = null;
+        if (tieneSiguiente) {
+            TicketListItemDTO ultimo = tickets.get(tickets.size() - 1);
+            nextCursor = TicketListPageResponse.CursorDTO.builder()
+                    .fechaCreacion(ultimo.getFechaCreacion())
+                    .idTicket(ultimo.getIdTicket())
+                    .build();
+        }
+
+        return TicketListPageResponse.builder()
+                .tickets(tickets)
+                .limite(tamano)
+                .tieneSiguiente(tieneSiguiente)
+                .nextCursor(nextCursor)
+                .build();
+    }
+
+    /**
+     * Sugerencias para la barra de búsqueda de tickets (type-ahead).
+     * Resuelve la búsqueda en el índice en memoria y trae solo las filas encontradas;
+     * mientras el índice se está construyendo usa el listado paginado.
+     *
+     * @param termino Texto ingresado (ID tipo "TC-0001", asunto o nombre del cliente)
+     * @param limite Máximo de sugerencias
+     * @return Tickets del más reciente al más antiguo
+     */
+    @Transactional(readOnly = true)
+    public List<TicketListItemDTO> sugerirTickets(String termino, Integer limite) {
+        int tamano = limite == null || limite <= 0 ? LIMITE_SUGERENCIAS_DEFAULT : Math.min(limite, LIMITE_PAGINA_MAX);
+        if (termino == null || termino.isBlank()) {
+            return List.of();
+        }
+
+        if (!ticketSearchIndex.isListo()) {
+            return listarTicketsPaginado(null, null, null, termino, null, null, null, tamano).getTickets();
+        }
+
+        List<Long> ids = ticketSearchIndex.buscar(termino, tamano);
+        if (ids.isEmpty()) {
+            return List.of();
+        }
+
+        // Respetar el orden del índice (ID descendente)
+        Map<Long, TicketListItemDTO> porId = new HashMap<>();
+        for (Object[] fila : ticketRepository.findListadoByIds(ids)) {
+            TicketListItemDTO item = mapFilaListado(fila);
+            porId.put(item.getIdTicket(), item);
+        }
+        List<TicketListItemDTO> tickets = new ArrayList<>(ids.size());
+        for (Long id : ids) {
+            TicketListItemDTO item = porId.get(id);
+            if (item != null) {
+                tickets.add(item);
+            }
+        }
+        return tickets;
+    }
+
+    /**
+     * Mapea una fila de {@link TicketRepository#findPaginaListado} a TicketListItemDTO.
+     */
+    private TicketListItemDTO mapFilaListado(Object[] fila) {
+        TicketListItemDTO.ClienteInfoDTO clienteInfo = null;
+        if (fila[6] != null) {
+            clienteInfo = TicketListItemDTO.ClienteInfoDTO.builder()
+                    .idCliente((Integer) fila[6])
+                    .nombre((String) fila[7])
+                    .apellido((String) fila[8])
+                    .build();
+        }
+
+        return TicketListItemDTO.builder()
+                .idTicket((Long) fila[0])
+                .asunto((String) fila[1])
+                .estado((EstadoTicket) fila[2])
+                .tipoTicket((TipoTicket) fila[3])
+                .origen((OrigenTicket) fila[4])
+                .fechaCreacion((LocalDateTime) fila[5])
+                .cliente(clienteInfo)
+                .build();
+    }
+
     // ==================== MÉTODOS AUXILIARES ====================
 
     /**
@@ -801,12 +1035,17 @@ public class TicketGestionService {
             Asignacion asignacion = asignacionActiva.get();
             asignacion.setFechaFin(LocalDateTime.now());
             asignacionRepository.save(asignacion);
+            registroCargaAgentes.registrarCierre(asignacion);
         }
     }
 
 
     /**
      * Obtiene el detalle completo de un ticket incluyendo la información del cliente.
+     *
+     * Ticket, subtipo, cliente, motivo y llamada se leen en una sola consulta
+     * en lugar de una por fragmento. Los tiempos de consulta y de mapeo quedan
+     * en {@link TicketFullDetailDTO#getTiemposMs()}.
      * 
      * @param ticketId ID del ticket
      * @return TicketFullDetailDTO con toda la información
@@ -815,8 +1054,14 @@ public class TicketGestionService {
     public TicketFullDetailDTO obtenerDetalleCompleto(Long ticketId) {
         log.info("Obteniendo detalle completo del ticket ID: {}", ticketId);
 
-        Ticket ticket = ticketRepository.findById(ticketId)
-                .orElseThrow(() -> new TicketNotFoundException(ticketId));
+        long inicio = System.nanoTime();
+        List<Object[]> filas = ticketRepository.findDetalleConLlamada(ticketId);
+        if (filas.isEmpty()) {
+            throw new TicketNotFoundException(ticketId);
+        }
+        Ticket ticket = (Ticket) filas.get(0)[0];
+        Llamada llamada = (Llamada) filas.get(0)[1];
+        long finConsulta = System.nanoTime();
 
         TicketFullDetailDTO.TicketFullDetailDTOBuilder builder = TicketFullDetailDTO.builder()
                 .idTicket(ticket.getIdTicket())
@@ -827,7 +1072,8 @@ public class TicketGestionService {
                 .origen(ticket.getOrigen())
                 .fechaCreacion(ticket.getFechaCreacion())
                 .fechaCierre(ticket.getFechaCierre())
-                .idConstancia(ticket.getIdConstancia());
+                .idConstancia(ticket.getIdConstancia())
+                .estadoConstancia(ticket.getEstadoConstancia());
 
         // Mapear cliente completo
         if (ticket.getCliente() != null) {
@@ -853,10 +1099,8 @@ public class TicketGestionService {
         }
 
         // Mapear información de llamada (si existe)
-        Optional<Llamada> llamadaOpt = llamadaRepository.findByTicketIdTicket(ticketId);
-        log.debug("Buscando llamada para ticket {}: {}", ticketId, llamadaOpt.isPresent() ? "ENCONTRADA" : "NO ENCONTRADA");
-        
-        llamadaOpt.ifPresent(llamada -> {
+        log.debug("Buscando llamada para ticket {}: {}", ticketId, llamada != null ? "ENCONTRADA" : "NO ENCONTRADA");
+        if (llamada != null) {
             log.info("Llamada encontrada - ID: {}, Número: {}, Duración: {} seg", 
                     llamada.getIdLlamada(), llamada.getNumeroOrigen(), llamada.getDuracionSegundos());
             
@@ -873,42 +1117,39 @@ public class TicketGestionService {
                     .duracionSegundos(llamada.getDuracionSegundos())
                     .duracionFormateada(duracionFormateada)
                     .build());
-        });
-
-        // Mapear información específica por tipo
-        if (ticket.getTipoTicket() != null) {
-            switch (ticket.getTipoTicket()) {
-                case CONSULTA:
-                    consultaRepository.findById(ticketId).ifPresent(consulta ->
-                            builder.consultaInfo(TicketFullDetailDTO.ConsultaInfoDTO.builder()
-                                    .tema(consulta.getTema())
-                                    .build()));
-                    break;
-                case QUEJA:
-                    quejaRepository.findById(ticketId).ifPresent(queja ->
-                            builder.quejaInfo(TicketFullDetailDTO.QuejaInfoDTO.builder()
-                                    .impacto(queja.getImpacto())
-                                    .areaInvolucrada(queja.getAreaInvolucrada())
-                                    .build()));
-                    break;
-                case RECLAMO:
-                    reclamoRepository.findById(ticketId).ifPresent(reclamo ->
-                            builder.reclamoInfo(TicketFullDetailDTO.ReclamoInfoDTO.builder()
-                                    .motivoReclamo(reclamo.getMotivoReclamo())
-                                    .fechaLimiteRespuesta(reclamo.getFechaLimiteRespuesta())
-                                    .fechaLimiteResolucion(reclamo.getFechaLimiteResolucion())
-                                    .resultado(reclamo.getResultado())
-                                    .build()));
-                    break;
-                case SOLICITUD:
-                    solicitudRepository.findById(ticketId).ifPresent(solicitud ->
-                            builder.solicitudInfo(TicketFullDetailDTO.SolicitudInfoDTO.builder()
-                                    .tipoSolicitud(solicitud.getTipoSolicitud())
-                                    .build()));
-                    break;
-            }
         }
 
-        return builder.build();
+        // Mapear información específica por tipo. Con herencia JOINED la consulta
+        // polimórfica ya trae la subclase, sin findById adicional.
+        if (ticket instanceof Consulta consulta) {
+            builder.consultaInfo(TicketFullDetailDTO.ConsultaInfoDTO.builder()
+                    .tema(consulta.getTema())
+                    .build());
+        } else if (ticket instanceof Queja queja) {
+            builder.quejaInfo(TicketFullDetailDTO.QuejaInfoDTO.builder()
+                    .impacto(queja.getImpacto())
+                    .areaInvolucrada(queja.getAreaInvolucrada())
+                    .build());
+        } else if (ticket instanceof Reclamo reclamo) {
+            builder.reclamoInfo(TicketFullDetailDTO.ReclamoInfoDTO.builder()
+                    .motivoReclamo(reclamo.getMotivoReclamo())
+                    .fechaLimiteRespuesta(reclamo.getFechaLimiteRespuesta())
+                    .fechaLimiteResolucion(reclamo.getFechaLimiteResolucion())
+                    .resultado(reclamo.getResultado())
+                    .build());
+        } else if (ticket instanceof Solicitud solicitud) {
+            builder.solicitudInfo(TicketFullDetailDTO.SolicitudInfoDTO.builder()
+                    .tipoSolicitud(solicitud.getTipoSolicitud())
+                    .build());
+        }
+
+        long fin = System.nanoTime();
+        Map<String, Long> tiempos = new LinkedHashMap<>();
+        tiempos.put("consulta", (finConsulta - inicio) / 1_000_000);
+        tiempos.put("mapeo", (fin - finConsulta) / 1_000_000);
+        tiempos.put("total", (fin - inicio) / 1_000_000);
+        log.debug("Detalle del ticket {} armado en {}", ticketId, tiempos);
+
+        return builder.tiemposMs(tiempos).build();
     }
 }
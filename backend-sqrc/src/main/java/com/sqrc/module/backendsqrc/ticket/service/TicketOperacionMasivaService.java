@@ -0,0 +1,431 @@
+package com.sqrc.module.backendsqrc.ticket.service;
+
+import com.sqrc.module.backendsqrc.encuesta.event.TicketClosedForEncuestaEvent;
+import com.sqrc.module.backendsqrc.encuesta.repository.PlantillaEncuestaRepository;
+import com.sqrc.module.backendsqrc.logs.model.LogCategory;
+import com.sqrc.module.backendsqrc.logs.model.LogLevel;
+import com.sqrc.module.backendsqrc.logs.service.AuditLogService;
+import com.sqrc.module.backendsqrc.outbox.service.OutboxService;
+import com.sqrc.module.backendsqrc.plantillaRespuesta.Repository.RespuestaRepository;
+import com.sqrc.module.backendsqrc.ticket.dto.request.OperacionMasivaRequest;
+import com.sqrc.module.backendsqrc.ticket.dto.response.OperacionMasivaResponse;
+import com.sqrc.module.backendsqrc.ticket.dto.response.OperacionMasivaResponse.ResultadoItemDTO;
+import com.sqrc.module.backendsqrc.ticket.enums.TipoOperacionMasiva;
+import com.sqrc.module.backendsqrc.ticket.event.TicketEscaladoEvent;
+import com.sqrc.module.backendsqrc.ticket.exception.EmpleadoNotFoundException;
+import com.sqrc.module.backendsqrc.ticket.exception.InvalidStateTransitionException;
+import com.sqrc.module.backendsqrc.ticket.model.*;
+import com.sqrc.module.backendsqrc.ticket.presencia.RegistroPresenciaAgentes;
+import com.sqrc.module.backendsqrc.ticket.repository.*;
+import com.sqrc.module.backendsqrc.ticket.service.strategy.DefaultEstadoTransitionValidator;
+import com.sqrc.module.backendsqrc.ticket.strategy.RegistroCargaAgentes;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.sql.Statement;
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Operaciones masivas sobre tickets (cerrar, reasignar, escalar) para supervisores.
+ *
+ * Una sola transacción con un número fijo de sentencias, independiente del tamaño del lote:
+ * 1. Lectura: tickets, asignaciones activas y (según la operación) respuestas y
+ *    documentación del lote, cada una en una consulta.
+ * 2. Validación en memoria con {@link DefaultEstadoTransitionValidator}.
+ * 3. Transición condicional de estado en un lote JDBC
+ *    (UPDATE ... WHERE estado = :esperado); las filas no afectadas se informan como CONFLICTO.
+ * 4. Cierre de asignaciones activas en un UPDATE y nuevas asignaciones con INSERT en lote
+ *    (Asignacion usa una secuencia pooled para permitirlo).
+ * 5. Proyección de ticket_view por lote.
+ *
+ * Cada ticket aplicado deja su entrada de auditoría (vía el escritor por lotes de
+ * {@link AuditLogService}) y, como en el flujo individual, su evento en el outbox:
+ * TicketEscaladoEvent al escalar y la encuesta al cerrar.
+ *
+ * Cada ticket recibe su propio resultado; un ítem inválido no detiene al resto.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class TicketOperacionMasivaService {
+
+    private static final String AREA_BACKOFFICE = "BACKOFFICE";
+
+    private static final String SQL_TRANSICION =
+            "UPDATE tickets SET estado = ?, version = version + 1, fecha_cierre = COALESCE(?, fecha_cierre) " +
+            "WHERE id_ticket = ? AND estado = ? AND version = ?";
+
+    private final TicketRepository ticketRepository;
+    private final AsignacionRepository asignacionRepository;
+    private final EmpleadoRepository empleadoRepository;
+    private final BackOfficeRepository backOfficeRepository;
+    private final DocumentacionRepository documentacionRepository;
+    private final RespuestaRepository respuestaRepository;
+    private final PlantillaEncuestaRepository plantillaEncuestaRepository;
+    private final DefaultEstadoTransitionValidator transitionValidator;
+    private final RegistroCargaAgentes registroCargaAgentes;
+    private final RegistroPresenciaAgentes registroPresenciaAgentes;
+    private final TicketViewService ticketViewService;
+    private final OutboxService outboxService;
+    private final AuditLogService auditLogService;
+    private final JdbcTemplate jdbcTemplate;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    /**
+     * Aplica la operación a todos los tickets del request.
+     *
+     * @param request Operación, tickets y destino
+     * @return Resultado por ticket, en el orden recibido
+     */
+    @Transactional
+    public OperacionMasivaResponse ejecutar(OperacionMasivaRequest request) {
+        long inicio = System.currentTimeMillis();
+        LocalDateTime ahora = LocalDateTime.now();
+        TipoOperacionMasiva operacion = request.getOperacion();
+        List<Long> ids = new ArrayList<>(new LinkedHashSet<>(request.getTicketIds()));
+        log.info("Operación masiva {} sobre {} tickets (empleado {})", operacion, ids.size(), request.getEmpleadoId());
+
+        // Destino fijo (si lo hay) antes de tocar nada: un destino inválido invalida todo el lote
+        Empleado destinoFijo = resolverDestinoFijo(operacion, request.getDestinoEmpleadoId());
+
+        // ---------- 1. Lectura por lotes ----------
+        Map<Long, Ticket> tickets = ticketRepository.findConClienteYMotivoByIds(ids).stream()
+                .collect(Collectors.toMap(Ticket::getIdTicket, Function.identity()));
+        Map<Long, Asignacion> activas = asignacionRepository.findActivasByTicketIds(ids).stream()
+                .collect(Collectors.toMap(a -> a.getTicket().getIdTicket(), Function.identity(),
+                        (a, b) -> a.getFechaInicio().isAfter(b.getFechaInicio()) ? a : b));
+
+        Set<Long> conRespuesta = Set.of();
+        Set<Long> conDocumentacion = Set.of();
+        Set<Long> asignacionesDocumentadas = Set.of();
+        if (operacion == TipoOperacionMasiva.CERRAR) {
+            conRespuesta = new HashSet<>(respuestaRepository.findTicketIdsConRespuesta(ids));
+            conDocumentacion = new HashSet<>(documentacionRepository.findTicketIdsConDocumentacion(ids));
+        } else if (operacion == TipoOperacionMasiva.ESCALAR && !activas.isEmpty()) {
+            asignacionesDocumentadas = new HashSet<>(documentacionRepository.findAsignacionIdsDocumentadas(
+                    activas.values().stream().map(Asignacion::getIdAsignacion).collect(Collectors.toList())));
+        }
+
+        // ---------- 2. Validación en memoria ----------
+        Map<Long, ResultadoItemDTO> resultados = new LinkedHashMap<>();
+        List<Long> validos = new ArrayList<>();
+        for (Long id : ids) {
+            Ticket ticket = tickets.get(id);
+            ResultadoItemDTO error = ticket == null
+                    ? fallo(id, null, "NO_ENCONTRADO", "Ticket no encontrado")
+                    : validar(operacion, ticket, activas.get(id), destinoFijo,
+                            conRespuesta, conDocumentacion, asignacionesDocumentadas);
+            if (error != null) {
+                resultados.put(id, error);
+            } else {
+                validos.add(id);
+            }
+        }
+
+        // Destinos por ticket (reparto entre los menos cargados si no hay destino fijo)
+        Map<Long, Long> destinos = new HashMap<>();
+        if (operacion != TipoOperacionMasiva.CERRAR && destinoFijo == null) {
+            String area = request.getAreaDestino() != null && !request.getAreaDestino().isBlank()
+                    ? request.getAreaDestino().trim()
+                    : operacion == TipoOperacionMasiva.ESCALAR ? AREA_BACKOFFICE : null;
+            for (Iterator<Long> it = validos.iterator(); it.hasNext(); ) {
+                Long id = it.next();
+                try {
+                    if (area == null) {
+                        throw new IllegalArgumentException("Debe indicar destinoEmpleadoId o areaDestino");
+                    }
+                    destinos.put(id, registroCargaAgentes.reservarMenosCargado(area));
+                } catch (RuntimeException ex) {
+                    resultados.put(id, fallo(id, tickets.get(id).getEstado(), "SIN_DESTINO", ex.getMessage()));
+                    it.remove();
+                }
+            }
+        }
+
+        // ---------- 3. Transición condicional en lote ----------
+        List<Long> aplicados = transicionar(operacion, validos, tickets, ahora);
+        Set<Long> aplicadosSet = new HashSet<>(aplicados);
+        for (Long id : validos) {
+            if (!aplicadosSet.contains(id)) {
+                resultados.put(id, fallo(id, tickets.get(id).getEstado(), "CONFLICTO",
+                        "El ticket fue modificado por otra operación"));
+                Long reservado = destinos.remove(id);
+                if (reservado != null) {
+                    registroCargaAgentes.liberarReserva(reservado);
+                }
+            }
+        }
+
+        // ---------- 4. Asignaciones ----------
+        if (!aplicados.isEmpty()) {
+            cerrarAsignaciones(aplicados, activas, ahora);
+            if (operacion != TipoOperacionMasiva.CERRAR) {
+                abrirAsignaciones(aplicados, tickets, activas, destinoFijo, destinos, ahora);
+            } else {
+                registrarEncuestas(aplicados, tickets);
+            }
+            if (operacion == TipoOperacionMasiva.ESCALAR) {
+                for (Long id : aplicados) {
+                    outboxService.registrar(OutboxService.AGREGADO_TICKET, id, new TicketEscaladoEvent(id));
+                }
+            }
+        }
+
+        for (Long id : aplicados) {
+            EstadoTicket anterior = tickets.get(id).getEstado();
+            EstadoTicket nuevo = estadoDestino(operacion, anterior);
+            Long asignado = destinoFijo != null ? destinoFijo.getIdEmpleado() : destinos.get(id);
+            resultados.put(id, ResultadoItemDTO.builder()
+                    .ticketId(id)
+                    .exitoso(true)
+                    .estadoAnterior(anterior.name())
+                    .estadoActual(nuevo.name())
+                    .empleadoAsignadoId(asignado)
+                    .codigo("OK")
+                    .build());
+            auditar(request, id, anterior, nuevo, asignado);
+        }
+
+        // ---------- 5. Modelo de lectura ----------
+        // Los tickets se modificaron por SQL: sincronizar el contexto antes de proyectar
+        entityManager.flush();
+        entityManager.clear();
+        ticketViewService.proyectarLote(aplicados);
+
+        long duracion = System.currentTimeMillis() - inicio;
+        log.info("Operación masiva {}: {} de {} tickets aplicados en {} ms", operacion, aplicados.size(), ids.size(), duracion);
+
+        List<ResultadoItemDTO> items = ids.stream().map(resultados::get).collect(Collectors.toList());
+        return OperacionMasivaResponse.builder()
+                .operacion(operacion)
+                .total(items.size())
+                .exitosos(aplicados.size())
+                .fallidos(items.size() - aplicados.size())
+                .fechaOperacion(ahora)
+                .duracionMs(duracion)
+                .resultados(items)
+                .build();
+    }
+
+    // ==================== MÉTODOS AUXILIARES ====================
+
+    private Empleado resolverDestinoFijo(TipoOperacionMasiva operacion, Long destinoEmpleadoId) {
+        if (operacion == TipoOperacionMasiva.CERRAR || destinoEmpleadoId == null) {
+            return null;
+        }
+        if (operacion == TipoOperacionMasiva.ESCALAR) {
+            return backOfficeRepository.findById(destinoEmpleadoId)
+                    .orElseThrow(() -> new InvalidStateTransitionException(
+                            "El empleado con ID " + destinoEmpleadoId +
+                            " no es un BackOffice o no existe. Solo se puede escalar a empleados BackOffice."));
+        }
+        return empleadoRepository.findById(destinoEmpleadoId)
+                .orElseThrow(() -> new EmpleadoNotFoundException(destinoEmpleadoId));
+    }
+
+    /**
+     * @return null si el ticket puede procesarse, o el resultado con el motivo del rechazo
+     */
+    private ResultadoItemDTO validar(TipoOperacionMasiva operacion, Ticket ticket, Asignacion activa,
+                                     Empleado destinoFijo, Set<Long> conRespuesta, Set<Long> conDocumentacion,
+                                     Set<Long> asignacionesDocumentadas) {
+        Long id = ticket.getIdTicket();
+        EstadoTicket estado = ticket.getEstado();
+
+        switch (operacion) {
+            case CERRAR -> {
+                if (!transitionValidator.puedeCerrar(estado)) {
+                    return fallo(id, estado, "TRANSICION_INVALIDA", "El ticket ya está cerrado");
+                }
+                if (!conRespuesta.contains(id)) {
+                    return fallo(id, estado, "SIN_RESPUESTA", "Falta enviar respuesta al cliente");
+                }
+                if (!conDocumentacion.contains(id)) {
+                    return fallo(id, estado, "SIN_DOCUMENTACION", "Falta documentar el caso");
+                }
+            }
+            case ESCALAR -> {
+                if (!transitionValidator.esTransicionValida(estado, EstadoTicket.ESCALADO)) {
+                    return fallo(id, estado, "TRANSICION_INVALIDA",
+                            transitionValidator.getMensajeError(estado, EstadoTicket.ESCALADO));
+                }
+                // Desde ABIERTO el agente debe haber documentado su asignación (igual que el escalamiento individual)
+                if (estado == EstadoTicket.ABIERTO
+                        && (activa == null || !asignacionesDocumentadas.contains(activa.getIdAsignacion()))) {
+                    return fallo(id, estado, "SIN_DOCUMENTACION", "Debe documentar la asignación activa antes de escalar");
+                }
+            }
+            case REASIGNAR -> {
+                if (estado == EstadoTicket.CERRADO) {
+                    return fallo(id, estado, "TRANSICION_INVALIDA", "No se puede reasignar un ticket cerrado");
+                }
+            }
+        }
+
+        if (destinoFijo != null && activa != null && activa.getEmpleado() != null
+                && destinoFijo.getIdEmpleado().equals(activa.getEmpleado().getIdEmpleado())) {
+            return fallo(id, estado, "YA_ASIGNADO", "El ticket ya está asignado a ese empleado");
+        }
+        return null;
+    }
+
+    /**
+     * Transición condicional de todos los tickets válidos en un lote JDBC.
+     * REASIGNAR no cambia el estado pero igual pasa por el UPDATE condicional: así
+     * detecta cambios concurrentes e incrementa la versión.
+     *
+     * Si el driver responde SUCCESS_NO_INFO (lote reescrito, sin filas por sentencia)
+     * esos tickets se verifican leyendo su versión: con REPEATABLE READ la lectura ve la
+     * fila propia ya actualizada (versión + 1) o la foto de la transacción, nunca el
+     * cambio de otra, así que versión + 1 significa que la aplicó este UPDATE.
+     *
+     * @return IDs cuya fila se actualizó
+     */
+    private List<Long> transicionar(TipoOperacionMasiva operacion, List<Long> validos,
+                                    Map<Long, Ticket> tickets, LocalDateTime ahora) {
+        if (validos.isEmpty()) {
+            return new ArrayList<>();
+        }
+        LocalDateTime fechaCierre = operacion == TipoOperacionMasiva.CERRAR ? ahora : null;
+        List<Object[]> parametros = new ArrayList<>(validos.size());
+        for (Long id : validos) {
+            EstadoTicket anterior = tickets.get(id).getEstado();
+            parametros.add(new Object[]{estadoDestino(operacion, anterior).name(), fechaCierre, id, anterior.name(),
+                    tickets.get(id).getVersion()});
+        }
+
+        int[] filas = jdbcTemplate.batchUpdate(SQL_TRANSICION, parametros);
+        List<Long> aplicados = new ArrayList<>(validos.size());
+        List<Long> sinInformacion = new ArrayList<>();
+        for (int i = 0; i < filas.length; i++) {
+            if (filas[i] > 0) {
+                aplicados.add(validos.get(i));
+            } else if (filas[i] == Statement.SUCCESS_NO_INFO) {
+                sinInformacion.add(validos.get(i));
+            }
+        }
+        if (!sinInformacion.isEmpty()) {
+            aplicados.addAll(verificarAplicados(sinInformacion, tickets));
+        }
+        return aplicados;
+    }
+
+    /**
+     * Tickets cuya versión en BD es la cargada + 1, es decir, los que actualizó el lote.
+     */
+    private List<Long> verificarAplicados(List<Long> ids, Map<Long, Ticket> tickets) {
+        String marcadores = String.join(", ", Collections.nCopies(ids.size(), "?"));
+        List<Long> aplicados = new ArrayList<>(ids.size());
+        jdbcTemplate.query("SELECT id_ticket, version FROM tickets WHERE id_ticket IN (" + marcadores + ")",
+                rs -> {
+                    long id = rs.getLong(1);
+                    if (rs.getLong(2) == tickets.get(id).getVersion() + 1) {
+                        aplicados.add(id);
+                    }
+                }, ids.toArray());
+        return aplicados;
+    }
+
+    private void cerrarAsignaciones(List<Long> aplicados, Map<Long, Asignacion> activas, LocalDateTime ahora) {
+        asignacionRepository.cerrarActivasDeTickets(aplicados, ahora);
+        for (Long id : aplicados) {
+            Asignacion activa = activas.get(id);
+            if (activa == null) {
+                continue;
+            }
+            registroCargaAgentes.registrarCierre(activa);
+            registroPresenciaAgentes.marcarLibre(activa.getEmpleado());
+        }
+    }
+
+    private void abrirAsignaciones(List<Long> aplicados, Map<Long, Ticket> tickets, Map<Long, Asignacion> activas,
+                                   Empleado destinoFijo, Map<Long, Long> destinos, LocalDateTime ahora) {
+        Map<Long, Empleado> empleados = destinoFijo != null
+                ? Map.of(destinoFijo.getIdEmpleado(), destinoFijo)
+                : empleadoRepository.findAllById(new HashSet<>(destinos.values())).stream()
+                        .collect(Collectors.toMap(Empleado::getIdEmpleado, Function.identity()));
+
+        List<Asignacion> nuevas = new ArrayList<>(aplicados.size());
+        for (Long id : aplicados) {
+            Empleado empleado = destinoFijo != null ? destinoFijo : empleados.get(destinos.get(id));
+            nuevas.add(Asignacion.builder()
+                    .ticket(tickets.get(id))
+                    .empleado(empleado)
+                    .asignacionPadre(activas.get(id))
+                    .fechaInicio(ahora)
+                    .build());
+            if (destinoFijo != null) {
+                registroCargaAgentes.registrarApertura(destinoFijo);
+            }
+        }
+        // INSERT en lotes de hibernate.jdbc.batch_size gracias a la secuencia pooled
+        asignacionRepository.saveAll(nuevas);
+    }
+
+    /**
+     * Mismo efecto que el cierre individual: una encuesta por ticket con cliente,
+     * registrada en la outbox para crearse fuera de esta transacción.
+     */
+    private void registrarEncuestas(List<Long> aplicados, Map<Long, Ticket> tickets) {
+        Optional<Long> plantillaIdOpt = plantillaEncuestaRepository.findIdVigente();
+        if (plantillaIdOpt.isEmpty()) {
+            log.warn("No hay plantilla de encuesta vigente; cierre masivo sin encuestas");
+            return;
+        }
+        Long plantillaId = plantillaIdOpt.get();
+        for (Long id : aplicados) {
+            Ticket ticket = tickets.get(id);
+            if (ticket.getCliente() != null) {
+                outboxService.registrar(OutboxService.AGREGADO_TICKET, id,
+                        new TicketClosedForEncuestaEvent(plantillaId, id, ticket.getCliente().getIdCliente()));
+            }
+        }
+    }
+
+    /**
+     * Entrada de auditoría por ticket aplicado. Se encola en el escritor por lotes,
+     * así que no añade sentencias a la transacción de la operación.
+     */
+    private void auditar(OperacionMasivaRequest request, Long ticketId, EstadoTicket anterior,
+                         EstadoTicket nuevo, Long empleadoAsignadoId) {
+        Map<String, Object> detalles = new HashMap<>();
+        detalles.put("operacion", "MASIVA");
+        detalles.put("estadoAnterior", anterior.name());
+        detalles.put("estadoNuevo", nuevo.name());
+        detalles.put("empleadoDestinoId", empleadoAsignadoId);
+        detalles.put("motivo", request.getMotivo());
+
+        auditLogService.logAudit(LogLevel.WARN, LogCategory.TICKET_WORKFLOW,
+                request.getOperacion().name() + "_MASIVO",
+                request.getEmpleadoId(), null, null, "Ticket", String.valueOf(ticketId), detalles);
+    }
+
+    private static EstadoTicket estadoDestino(TipoOperacionMasiva operacion, EstadoTicket actual) {
+        return switch (operacion) {
+            case CERRAR -> EstadoTicket.CERRADO;
+            case ESCALAR -> EstadoTicket.ESCALADO;
+            case REASIGNAR -> actual;
+        };
+    }
+
+    private static ResultadoItemDTO fallo(Long ticketId, EstadoTicket estado, String codigo, String mensaje) {
+        return ResultadoItemDTO.builder()
+                .ticketId(ticketId)
+                .exitoso(false)
+                .estadoAnterior(estado != null ? estado.name() : null)
+                .estadoActual(estado != null ? estado.name() : null)
+                .codigo(codigo)
+                .mensaje(mensaje)
+                .build();
+    }
+}
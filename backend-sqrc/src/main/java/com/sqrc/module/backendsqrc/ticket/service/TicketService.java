@@ -13,8 +13,9 @@ import jakarta.persistence.criteria.Predicate;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.Comparator;
+import java.util.HashMap;
 import java.util.List;
-import java.util.Optional;
+import java.util.Map;
 import java.util.stream.Collectors;
 
 /**
@@ -27,10 +28,6 @@ public class TicketService {
 
     private final TicketRepository ticketRepository;
     private final DocumentacionRepository documentacionRepository;
-    private final ConsultaRepository consultaRepository;
-    private final QuejaRepository quejaRepository;
-    private final SolicitudRepository solicitudRepository;
-    private final ReclamoRepository reclamoRepository;
 
     /**
      * Busca tickets aplicando filtros
@@ -258,7 +255,11 @@ public class TicketService {
     }
 
     /**
-     * Obtiene el historial completo del ticket con toda la información anidada
+     * Obtiene el historial completo del ticket con toda la información anidada.
+     *
+     * Se arma con un número fijo de consultas, sin importar cuántas asignaciones tenga:
+     * 1. Ticket + subtipo (herencia JOINED) + motivo + asignaciones + empleados
+     * 2. Documentación de todas las asignaciones del ticket
      */
     @Transactional(readOnly = true)
     public TicketHistoryResponse getTicketHistory(Long ticketId) {
@@ -269,13 +270,20 @@ public class TicketService {
             throw new RuntimeException("Ticket no encontrado: " + ticketId);
         }
 
-        return mapToHistoryResponse(ticket);
+        Map<Long, Documentacion> documentacionPorAsignacion = new HashMap<>();
+        if (!ticket.getAsignaciones().isEmpty()) {
+            for (Documentacion doc : documentacionRepository.findAllByTicketId(ticketId)) {
+                documentacionPorAsignacion.putIfAbsent(doc.getAsignacion().getIdAsignacion(), doc);
+            }
+        }
+
+        return mapToHistoryResponse(ticket, documentacionPorAsignacion);
     }
 
     /**
      * Mapea Ticket a TicketHistoryResponse con toda la información completa
      */
-    private TicketHistoryResponse mapToHistoryResponse(Ticket ticket) {
+    private TicketHistoryResponse mapToHistoryResponse(Ticket ticket, Map<Long, Documentacion> documentacionPorAsignacion) {
         TicketHistoryResponse.TicketHistoryResponseBuilder builder = TicketHistoryResponse.builder()
                 .idTicket(ticket.getIdTicket())
                 .clienteId(ticket.getCliente() != null ? ticket.getCliente().getIdCliente() : null)
@@ -288,47 +296,32 @@ public class TicketService {
                 .fechaCreacion(ticket.getFechaCreacion())
                 .fechaCierre(ticket.getFechaCierre())
                 .asignaciones(ticket.getAsignaciones().stream()
-                        .map(this::mapToAssignmentDto)
+                        .map(asignacion -> mapToAssignmentDto(asignacion,
+                                documentacionPorAsignacion.get(asignacion.getIdAsignacion())))
                         .collect(java.util.stream.Collectors.toList()));
 
-        // Mapear información específica por tipo
-        switch (ticket.getTipoTicket()) {
-            case CONSULTA:
-                Consulta consulta = consultaRepository.findById(ticket.getIdTicket()).orElse(null);
-                if (consulta != null) {
-                    builder.consultaInfo(TicketConsultaDto.builder()
-                            .tema(consulta.getTema())
-                            .build());
-                }
-                break;
-            case QUEJA:
-                Queja queja = quejaRepository.findById(ticket.getIdTicket()).orElse(null);
-                if (queja != null) {
-                    builder.quejaInfo(TicketQuejaDto.builder()
-                            .impacto(queja.getImpacto())
-                            .areaInvolucrada(queja.getAreaInvolucrada())
-                            .build());
-                }
-                break;
-            case SOLICITUD:
-                Solicitud solicitud = solicitudRepository.findById(ticket.getIdTicket()).orElse(null);
-                if (solicitud != null) {
-                    builder.solicitudInfo(TicketSolicitudDto.builder()
-                            .tipoSolicitud(solicitud.getTipoSolicitud())
-                            .build());
-                }
-                break;
-            case RECLAMO:
-                Reclamo reclamo = reclamoRepository.findById(ticket.getIdTicket()).orElse(null);
-                if (reclamo != null) {
-                    builder.reclamoInfo(TicketReclamoDto.builder()
-                            .motivoReclamo(reclamo.getMotivoReclamo())
-                            .fechaLimiteRespuesta(reclamo.getFechaLimiteRespuesta())
-                            .fechaLimiteResolucion(reclamo.getFechaLimiteResolucion())
-                            .resultado(reclamo.getResultado())
-                            .build());
-                }
-                break;
+        // Mapear información específica por tipo. Con herencia JOINED la consulta
+        // polimórfica ya devuelve la subclase con sus columnas, sin otra consulta.
+        if (ticket instanceof Consulta consulta) {
+            builder.consultaInfo(TicketConsultaDto.builder()
+                    .tema(consulta.getTema())
+                    .build());
+        } else if (ticket instanceof Queja queja) {
+            builder.quejaInfo(TicketQuejaDto.builder()
+                    .impacto(queja.getImpacto())
+                    .areaInvolucrada(queja.getAreaInvolucrada())
+                    .build());
+        } else if (ticket instanceof Solicitud solicitud) {
+            builder.solicitudInfo(TicketSolicitudDto.builder()
+                    .tipoSolicitud(solicitud.getTipoSolicitud())
+                    .build());
+        } else if (ticket instanceof Reclamo reclamo) {
+            builder.reclamoInfo(TicketReclamoDto.builder()
+                    .motivoReclamo(reclamo.getMotivoReclamo())
+                    .fechaLimiteRespuesta(reclamo.getFechaLimiteRespuesta())
+                    .fechaLimiteResolucion(reclamo.getFechaLimiteResolucion())
+                    .resultado(reclamo.getResultado())
+                    .build());
         }
 
         return builder.build();
@@ -337,7 +330,7 @@ public class TicketService {
     /**
      * Mapea Asignacion a AssignmentDto con documentación y empleado
      */
-    private AssignmentDto mapToAssignmentDto(Asignacion asignacion) {
+    private AssignmentDto mapToAssignmentDto(Asignacion asignacion, Documentacion documentacion) {
         // Determinar tipo de asignación
         String tipo = asignacion.getAsignacionPadre() == null ? "Asignación Inicial" : "Derivación";
         
@@ -352,11 +345,10 @@ public class TicketService {
             empleadoDto = mapToEmployeeDto(asignacion.getEmpleado());
         }
 
-        // Buscar documentación asociada a esta asignación
+        // Documentación asociada a esta asignación (precargada para todo el ticket)
         DocumentacionDto documentacionDto = null;
-        Optional<Documentacion> docOpt = documentacionRepository.findByAsignacionId(asignacion.getIdAsignacion());
-        if (docOpt.isPresent()) {
-            documentacionDto = mapToDocumentacionDto(docOpt.get());
+        if (documentacion != null) {
+            documentacionDto = mapToDocumentacionDto(documentacion);
         }
 
         return AssignmentDto.builder()
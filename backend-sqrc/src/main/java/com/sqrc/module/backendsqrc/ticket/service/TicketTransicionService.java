@@ -0,0 +1,126 @@
+package com.sqrc.module.backendsqrc.ticket.service;
+
+import com.sqrc.module.backendsqrc.ticket.exception.TicketConcurrencyException;
+import com.sqrc.module.backendsqrc.ticket.model.EstadoTicket;
+import com.sqrc.module.backendsqrc.ticket.model.Ticket;
+import com.sqrc.module.backendsqrc.ticket.repository.TicketRepository;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.Supplier;
+
+/**
+ * Transiciones de estado de tickets sin locks pesimistas.
+ *
+ * - {@link #transicionar} aplica el cambio con un UPDATE condicional
+ *   (WHERE estado = :esperado): de dos operaciones concurrentes sobre el mismo
+ *   ticket solo una pasa; la otra recibe {@link TicketConcurrencyException} y su
+ *   transacción (asignaciones incluidas) hace rollback.
+ * - {@link #conReintento} ejecuta la operación completa en una transacción nueva y
+ *   la reintenta ante conflictos, con un número acotado de intentos. Al reintentar se
+ *   vuelve a leer el ticket, así que el validador de transiciones decide con el
+ *   estado ya confirmado por la otra operación.
+ */
+@Service
+@Slf4j
+public class TicketTransicionService {
+
+    private final TicketRepository ticketRepository;
+    private final TransactionTemplate transactionTemplate;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Value("${app.ticket.maxIntentosConcurrencia:3}")
+    private int maxIntentos;
+
+    public TicketTransicionService(TicketRepository ticketRepository,
+                                   PlatformTransactionManager transactionManager) {
+        this.ticketRepository = ticketRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    /**
+     * Cambia el estado del ticket si nadie lo cambió desde que se leyó.
+     * El ticket no debe tener cambios pendientes: se recarga desde la BD al final.
+     *
+     * @param ticket Ticket leído en la transacción actual (con el estado esperado)
+     * @param nuevo Estado destino
+     * @param fechaCierre Fecha de cierre a registrar, o null para conservar la actual
+     * @throws TicketConcurrencyException si el estado cambió entre la lectura y la escritura
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void transicionar(Ticket ticket, EstadoTicket nuevo, LocalDateTime fechaCierre) {
+        EstadoTicket esperado = ticket.getEstado();
+        int filas = ticketRepository.transicionarEstado(
+                ticket.getIdTicket(), esperado.name(), nuevo.name(), fechaCierre);
+        if (filas == 0) {
+            throw new TicketConcurrencyException(ticket.getIdTicket(), esperado, nuevo);
+        }
+        // Sincronizar estado y versión de la entidad con la fila actualizada
+        entityManager.refresh(ticket);
+    }
+
+    /**
+     * Ejecuta la operación en su propia transacción y la reintenta si otra operación
+     * modificó el ticket a la vez. Si ya hay una transacción activa se ejecuta una
+     * sola vez dentro de ella (un reintento no puede reabrir una transacción externa).
+     *
+     * @param ticketId Ticket afectado (para logs y el mensaje de error)
+     * @param operacion Lectura, validación y escritura completas
+     * @return Resultado de la operación
+     * @throws TicketConcurrencyException si el conflicto persiste tras los reintentos
+     */
+    public <T> T conReintento(Long ticketId, Supplier<T> operacion) {
+        if (TransactionSynchronizationManager.isActualTransactionActive()) {
+            return operacion.get();
+        }
+
+        for (int intento = 1; ; intento++) {
+            try {
+                return transactionTemplate.execute(status -> operacion.get());
+            } catch (TicketConcurrencyException | OptimisticLockingFailureException ex) {
+                if (intento >= maxIntentos) {
+                    log.warn("Ticket {}: conflicto de concurrencia tras {} intentos", ticketId, intento);
+                    throw ex instanceof TicketConcurrencyException tce
+                            ? tce
+                            : new TicketConcurrencyException(ticketId,
+                                    "El ticket " + ticketId + " fue modificado por otra operación, intente nuevamente");
+                }
+                log.debug("Ticket {}: conflicto de concurrencia (intento {}), reintentando", ticketId, intento);
+                esperar(intento);
+            }
+        }
+    }
+
+    public void conReintento(Long ticketId, Runnable operacion) {
+        conReintento(ticketId, () -> {
+            operacion.run();
+            return null;
+        });
+    }
+
+    // ==================== MÉTODOS AUXILIARES ====================
+
+    /**
+     * Espera corta con jitter para que los reintentos concurrentes no choquen de nuevo.
+     */
+    private static void esperar(int intento) {
+        try {
+            Thread.sleep(ThreadLocalRandom.current().nextLong(5, 25) * intento);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,419 @@
+package com.sqrc.module.backendsqrc.ticket.service;
+
+import com.sqrc.module.backendsqrc.config.SlaProperties;
+import com.sqrc.module.backendsqrc.ejecucion.config.EjecutorNombres;
+import com.sqrc.module.backendsqrc.ticket.dto.response.TicketDeltaDTO;
+import com.sqrc.module.backendsqrc.ticket.dto.response.TicketListPageResponse;
+import com.sqrc.module.backendsqrc.ticket.dto.response.TicketViewPageResponse;
+import com.sqrc.module.backendsqrc.ticket.enums.TipoCambioTicket;
+import com.sqrc.module.backendsqrc.ticket.event.TicketCambiadoEvent;
+import com.sqrc.module.backendsqrc.ticket.model.*;
+import com.sqrc.module.backendsqrc.ticket.repository.AsignacionRepository;
+import com.sqrc.module.backendsqrc.ticket.repository.TicketRepository;
+import com.sqrc.module.backendsqrc.ticket.repository.TicketViewRepository;
+import com.sqrc.module.backendsqrc.ticket.sla.SeguimientoSla;
+import com.sqrc.module.backendsqrc.vista360.model.ClienteEntity;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Async;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.sql.Date;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Mantiene y consulta el modelo de lectura ticket_view.
+ *
+ * {@link #proyectar(Ticket)} se invoca al final de cada operación del ciclo de vida
+ * (crear, actualizar, cambiar estado, escalar, derivar, devolver, cerrar) dentro de
+ * la misma transacción, de modo que la fila nunca queda desfasada del ticket.
+ * Cada fila proyectada se pasa también al seguimiento de SLA en memoria, y los
+ * cambios de las operaciones se publican como {@link TicketCambiadoEvent} (stream SSE).
+ *
+ * Las filas se escriben por JDBC en lote: las operaciones con un upsert (INSERT ...
+ * ON DUPLICATE KEY UPDATE), sin el SELECT por fila que haría el merge de JPA con IDs
+ * asignados; la reconstrucción con INSERT IGNORE, para no pisar nunca una fila que una
+ * operación proyectó mientras el lote se leía.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class TicketViewService {
+
+    private static final int TAMANO_LOTE_RECONSTRUCCION = 500;
+    private static final int LIMITE_PAGINA_DEFAULT = 50;
+    private static final int LIMITE_PAGINA_MAX = 200;
+
+    private static final String COLUMNAS = "id_ticket, asunto, estado, tipo_ticket, origen, fecha_creacion, " +
+            "fecha_cierre, fecha_actualizacion, cliente_id, cliente_nombre, motivo_nombre, empleado_asignado_id, " +
+            "empleado_asignado_nombre, area_asignada, fecha_asignacion, fecha_limite_sla, fecha_limite_respuesta, " +
+            "fecha_limite_resolucion";
+    private static final String VALORES = " VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+
+    private static final String SQL_UPSERT = "INSERT INTO ticket_view (" + COLUMNAS + ")" + VALORES +
+            " ON DUPLICATE KEY UPDATE asunto = VALUES(asunto), estado = VALUES(estado), " +
+            "tipo_ticket = VALUES(tipo_ticket), origen = VALUES(origen), fecha_creacion = VALUES(fecha_creacion), " +
+            "fecha_cierre = VALUES(fecha_cierre), fecha_actualizacion = VALUES(fecha_actualizacion), " +
+            "cliente_id = VALUES(cliente_id), cliente_nombre = VALUES(cliente_nombre), " +
+            "motivo_nombre = VALUES(motivo_nombre), empleado_asignado_id = VALUES(empleado_asignado_id), " +
+            "empleado_asignado_nombre = VALUES(empleado_asignado_nombre), area_asignada = VALUES(area_asignada), " +
+            "fecha_asignacion = VALUES(fecha_asignacion), fecha_limite_sla = VALUES(fecha_limite_sla), " +
+            "fecha_limite_respuesta = VALUES(fecha_limite_respuesta), " +
+            "fecha_limite_resolucion = VALUES(fecha_limite_resolucion)";
+
+    private static final String SQL_INSERTAR_SI_FALTA = "INSERT IGNORE INTO ticket_view (" + COLUMNAS + ")" + VALORES;
+
+    private final TicketViewRepository ticketViewRepository;
+    private final TicketRepository ticketRepository;
+    private final AsignacionRepository asignacionRepository;
+    private final SlaProperties slaProperties;
+    private final SeguimientoSla seguimientoSla;
+    private final ApplicationEventPublisher eventPublisher;
+    private final JdbcTemplate jdbcTemplate;
+
+    // ==================== MANTENIMIENTO ====================
+
+    /**
+     * Recalcula la fila del ticket en ticket_view.
+     * Debe llamarse dentro de la transacción de la operación que modificó el ticket.
+     *
+     * @param ticket Ticket ya modificado
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void proyectar(Ticket ticket) {
+        Asignacion activa = asignacionRepository.findAsignacionActiva(ticket.getIdTicket()).orElse(null);
+        TicketView fila = construirFila(ticket, activa);
+        TicketDeltaDTO delta = construirDelta(ticketViewRepository.findById(ticket.getIdTicket()).orElse(null), fila);
+        jdbcTemplate.update(SQL_UPSERT, parametros(fila));
+        seguimientoSla.actualizar(fila);
+        eventPublisher.publishEvent(new TicketCambiadoEvent(delta));
+    }
+
+    /**
+     * Completa ticket_view al arrancar si le faltan filas (primer despliegue), en lotes
+     * por ID. Puede correr a la vez que las operaciones: solo inserta los tickets que aún
+     * no tienen fila.
+     */
+    @Async(EjecutorNombres.EVENTOS)
+    @EventListener(ApplicationReadyEvent.class)
+    public void reconstruirSiVacia() {
+        try {
+            if (ticketViewRepository.count() >= ticketRepository.count()) {
+                return;
+            }
+            long inicio = System.currentTimeMillis();
+            int total = reconstruir();
+            log.info("ticket_view reconstruida: {} tickets en {} ms", total, System.currentTimeMillis() - inicio);
+        } catch (Exception ex) {
+            log.error("No se pudo reconstruir ticket_view: {}", ex.getMessage(), ex);
+        }
+    }
+
+    /**
+     * Inserta las filas que faltan en ticket_view; las existentes no se tocan. Cada lote
+     * hace tres consultas: tickets con cliente y motivo, asignaciones activas del lote
+     * y el INSERT IGNORE en lote.
+     *
+     * @return Cantidad de tickets proyectados
+     */
+    public int reconstruir() {
+        long ultimoId = 0L;
+        int total = 0;
+        while (true) {
+            List<Ticket> lote = ticketRepository.findLoteConClienteYMotivo(
+                    ultimoId, PageRequest.of(0, TAMANO_LOTE_RECONSTRUCCION));
+            if (lote.isEmpty()) {
+                break;
+            }
+
+            proyectarTickets(lote, false);
+
+            total += lote.size();
+            ultimoId = lote.get(lote.size() - 1).getIdTicket();
+            if (lote.size() < TAMANO_LOTE_RECONSTRUCCION) {
+                break;
+            }
+        }
+        return total;
+    }
+
+    /**
+     * Recalcula las filas de varios tickets con tres consultas en total
+     * (operaciones masivas). Debe llamarse dentro de la transacción de la operación,
+     * después de sincronizar el contexto de persistencia con los cambios hechos por SQL.
+     *
+     * @param ticketIds Tickets modificados
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void proyectarLote(Collection<Long> ticketIds) {
+        if (ticketIds.isEmpty()) {
+            return;
+        }
+        proyectarTickets(ticketRepository.findConClienteYMotivoByIds(ticketIds), true);
+    }
+
+    // ==================== CONSULTA ====================
+
+    /**
+     * Lista tickets desde ticket_view paginados por cursor.
+     *
+     * @param tipo Filtro por tipo de ticket
+     * @param estado Filtro por estado
+     * @param empleadoId Solo tickets cuya asignación activa es de este empleado
+     * @param clienteId Solo tickets de este cliente
+     * @param cursorFecha fechaCreacion del último ticket de la página anterior
+     * @param cursorId idTicket del último ticket de la página anterior
+     * @param limite Tamaño de página
+     * @return TicketViewPageResponse con los tickets y el cursor siguiente
+     */
+    @Transactional(readOnly = true)
+    public TicketViewPageResponse listar(String tipo, String estado, Long empleadoId, Integer clienteId,
+                                         LocalDateTime cursorFecha, Long cursorId, Integer limite) {
+        int tamano = limite == null || limite <= 0 ? LIMITE_PAGINA_DEFAULT : Math.min(limite, LIMITE_PAGINA_MAX);
+
+        TipoTicket tipoFiltro = null;
+        EstadoTicket estadoFiltro = null;
+        try {
+            if (tipo != null && !tipo.isBlank()) {
+                tipoFiltro = TipoTicket.valueOf(tipo.trim().toUpperCase());
+            }
+            if (estado != null && !estado.isBlank()) {
+                estadoFiltro = EstadoTicket.valueOf(estado.trim().toUpperCase());
+            }
+        } catch (IllegalArgumentException e) {
+            log.warn("Filtro inválido en ticket_view: tipo={}, estado={}", tipo, estado);
+            return TicketViewPageResponse.builder()
+                    .tickets(List.of())
+                    .limite(tamano)
+                    .tieneSiguiente(false)
+                    .build();
+        }
+
+        if (cursorFecha != null && cursorId == null) {
+            cursorId = Long.MAX_VALUE;
+        }
+
+        List<TicketView> filas = ticketViewRepository.findPagina(
+                tipoFiltro, estadoFiltro, empleadoId, clienteId, cursorFecha, cursorId,
+                PageRequest.of(0, tamano + 1));
+
+        boolean tieneSiguiente = filas.size() > tamano;
+        List<TicketViewPageResponse.TicketViewItemDTO> tickets = filas.stream()
+                .limit(tamano)
+                .map(this::mapToItem)
+                .collect(Collectors.toList());
+
+        TicketListPageResponse.CursorDTO nextCursor = null;
+        if (tieneSiguiente) {
+            TicketViewPageResponse.TicketViewItemDTO ultimo = tickets.get(tickets.size() - 1);
+            nextCursor = TicketListPageResponse.CursorDTO.builder()
+                    .fechaCreacion(ultimo.getFechaCreacion())
+                    .idTicket(ultimo.getIdTicket())
+                    .build();
+        }
+
+        return TicketViewPageResponse.builder()
+                .tickets(tickets)
+                .limite(tamano)
+                .tieneSiguiente(tieneSiguiente)
+                .nextCursor(nextCursor)
+                .build();
+    }
+
+    // ==================== MÉTODOS AUXILIARES ====================
+
+    /**
+     * @param notificar true para publicar un delta por ticket y reemplazar la fila
+     *                  (operaciones); false en la reconstrucción, que solo inserta las que faltan
+     */
+    private void proyectarTickets(List<Ticket> tickets, boolean notificar) {
+        List<Long> ids = tickets.stream().map(Ticket::getIdTicket).collect(Collectors.toList());
+        Map<Long, Asignacion> activas = asignacionRepository.findActivasByTicketIds(ids).stream()
+                .collect(Collectors.toMap(a -> a.getTicket().getIdTicket(), Function.identity(),
+                        (a, b) -> a.getFechaInicio().isAfter(b.getFechaInicio()) ? a : b));
+
+        List<TicketView> filas = new ArrayList<>(tickets.size());
+        for (Ticket ticket : tickets) {
+            filas.add(construirFila(ticket, activas.get(ticket.getIdTicket())));
+        }
+
+        List<TicketDeltaDTO> deltas = new ArrayList<>();
+        if (notificar) {
+            Map<Long, TicketView> anteriores = ticketViewRepository.findAllById(ids).stream()
+                    .collect(Collectors.toMap(TicketView::getIdTicket, Function.identity()));
+            for (TicketView fila : filas) {
+                deltas.add(construirDelta(anteriores.get(fila.getIdTicket()), fila));
+            }
+        }
+
+        int[] afectadas = jdbcTemplate.batchUpdate(notificar ? SQL_UPSERT : SQL_INSERTAR_SI_FALTA,
+                filas.stream().map(TicketViewService::parametros).collect(Collectors.toList()));
+        if (notificar) {
+            filas.forEach(seguimientoSla::actualizar);
+        } else {
+            actualizarSlaInsertadas(filas, afectadas);
+        }
+        deltas.forEach(delta -> eventPublisher.publishEvent(new TicketCambiadoEvent(delta)));
+    }
+
+    /**
+     * En la reconstrucción, INSERT IGNORE salta las filas que otra operación ya escribió
+     * (y que ya alimentaron el SLA con datos más nuevos): solo las insertadas por este lote
+     * pasan al seguimiento. Si el driver no informa el conteo (SUCCESS_NO_INFO) se relee
+     * la fila guardada en lugar de usar la construida aquí.
+     */
+    private void actualizarSlaInsertadas(List<TicketView> filas, int[] afectadas) {
+        List<Long> sinConteo = new ArrayList<>();
+        for (int i = 0; i < filas.size(); i++) {
+            int conteo = i < afectadas.length ? afectadas[i] : Statement.SUCCESS_NO_INFO;
+            if (conteo == 1) {
+                seguimientoSla.actualizar(filas.get(i));
+            } else if (conteo == Statement.SUCCESS_NO_INFO) {
+                sinConteo.add(filas.get(i).getIdTicket());
+            }
+        }
+        if (!sinConteo.isEmpty()) {
+            ticketViewRepository.findAllById(sinConteo).forEach(seguimientoSla::actualizar);
+        }
+    }
+
+    /**
+     * Delta para el stream; debe construirse antes de guardar la fila nueva.
+     */
+    private TicketDeltaDTO construirDelta(TicketView anterior, TicketView fila) {
+        EstadoTicket estadoAnterior = anterior != null ? anterior.getEstado() : null;
+        Long empleadoAnterior = anterior != null ? anterior.getEmpleadoAsignadoId() : null;
+
+        TipoCambioTicket tipoCambio;
+        if (anterior == null) {
+            tipoCambio = TipoCambioTicket.CREADO;
+        } else if (fila.getEstado() == EstadoTicket.CERRADO && estadoAnterior != EstadoTicket.CERRADO) {
+            tipoCambio = TipoCambioTicket.CERRADO;
+        } else if (!Objects.equals(empleadoAnterior, fila.getEmpleadoAsignadoId())) {
+            tipoCambio = TipoCambioTicket.REASIGNADO;
+        } else if (estadoAnterior != fila.getEstado()) {
+            tipoCambio = TipoCambioTicket.ESTADO;
+        } else {
+            tipoCambio = TipoCambioTicket.ACTUALIZADO;
+        }
+
+        return TicketDeltaDTO.builder()
+                .ticketId(fila.getIdTicket())
+                .tipoCambio(tipoCambio)
+                .asunto(fila.getAsunto())
+                .tipoTicket(fila.getTipoTicket())
+                .estado(fila.getEstado())
+                .estadoAnterior(estadoAnterior)
+                .empleadoAsignadoId(fila.getEmpleadoAsignadoId())
+                .empleadoAnteriorId(empleadoAnterior)
+                .areaAsignada(fila.getAreaAsignada())
+                .fechaActualizacion(fila.getFechaActualizacion())
+                .build();
+    }
+
+    private TicketView construirFila(Ticket ticket, Asignacion activa) {
+        TicketView.TicketViewBuilder fila = TicketView.builder()
+                .idTicket(ticket.getIdTicket())
+                .asunto(ticket.getAsunto())
+                .estado(ticket.getEstado())
+                .tipoTicket(ticket.getTipoTicket())
+                .origen(ticket.getOrigen())
+                .fechaCreacion(ticket.getFechaCreacion())
+                .fechaCierre(ticket.getFechaCierre())
+                .fechaActualizacion(LocalDateTime.now());
+
+        ClienteEntity cliente = ticket.getCliente();
+        if (cliente != null) {
+            String nombre = Stream.of(cliente.getNombres(), cliente.getApellidos())
+                    .filter(parte -> parte != null && !parte.isBlank())
+                    .map(String::trim)
+                    .collect(Collectors.joining(" "));
+            fila.clienteId(cliente.getIdCliente())
+                    .clienteNombre(nombre.isEmpty() ? null : nombre);
+        }
+
+        if (ticket.getMotivo() != null) {
+            fila.motivoNombre(ticket.getMotivo().getNombre());
+        }
+
+        if (activa != null) {
+            fila.fechaAsignacion(activa.getFechaInicio());
+            Empleado empleado = activa.getEmpleado();
+            if (empleado != null) {
+                fila.empleadoAsignadoId(empleado.getIdEmpleado())
+                        .empleadoAsignadoNombre(empleado.getNombreCompleto().trim())
+                        .areaAsignada(empleado.getArea());
+            }
+        }
+
+        // Plazo general según app.sla.por-tipo; los reclamos tienen además plazos legales propios
+        if (ticket.getFechaCreacion() != null && ticket.getTipoTicket() != null) {
+            int minutos = slaProperties.getThresholdForTipo(ticket.getTipoTicket().name());
+            fila.fechaLimiteSla(ticket.getFechaCreacion().plusMinutes(minutos));
+        }
+        if (ticket instanceof Reclamo reclamo) {
+            fila.fechaLimiteRespuesta(reclamo.getFechaLimiteRespuesta())
+                    .fechaLimiteResolucion(reclamo.getFechaLimiteResolucion());
+        }
+
+        return fila.build();
+    }
+
+    /**
+     * Valores de la fila en el orden de {@link #COLUMNAS}.
+     */
+    private static Object[] parametros(TicketView v) {
+        return new Object[]{
+                v.getIdTicket(), v.getAsunto(), nombre(v.getEstado()), nombre(v.getTipoTicket()),
+                nombre(v.getOrigen()), timestamp(v.getFechaCreacion()), timestamp(v.getFechaCierre()),
+                timestamp(v.getFechaActualizacion()), v.getClienteId(), v.getClienteNombre(), v.getMotivoNombre(),
+                v.getEmpleadoAsignadoId(), v.getEmpleadoAsignadoNombre(), v.getAreaAsignada(),
+                timestamp(v.getFechaAsignacion()), timestamp(v.getFechaLimiteSla()),
+                v.getFechaLimiteRespuesta() != null ? Date.valueOf(v.getFechaLimiteRespuesta()) : null,
+                v.getFechaLimiteResolucion() != null ? Date.valueOf(v.getFechaLimiteResolucion()) : null
+        };
+    }
+
+    private static String nombre(Enum<?> valor) {
+        return valor != null ? valor.name() : null;
+    }
+
+    private static Timestamp timestamp(LocalDateTime fecha) {
+        return fecha != null ? Timestamp.valueOf(fecha) : null;
+    }
+
+    private TicketViewPageResponse.TicketViewItemDTO mapToItem(TicketView v) {
+        return TicketViewPageResponse.TicketViewItemDTO.builder()
+                .idTicket(v.getIdTicket())
+                .asunto(v.getAsunto())
+                .estado(v.getEstado())
+                .tipoTicket(v.getTipoTicket())
+                .origen(v.getOrigen())
+                .fechaCreacion(v.getFechaCreacion())
+                .fechaCierre(v.getFechaCierre())
+                .clienteId(v.getClienteId())
+                .clienteNombre(v.getClienteNombre())
+                .motivo(v.getMotivoNombre())
+                .empleadoAsignadoId(v.getEmpleadoAsignadoId())
+                .empleadoAsignadoNombre(v.getEmpleadoAsignadoNombre())
+                .areaAsignada(v.getAreaAsignada())
+                .fechaAsignacion(v.getFechaAsignacion())
+                .fechaLimiteSla(v.getFechaLimiteSla())
+                .fechaLimiteRespuesta(v.getFechaLimiteRespuesta())
+                .fechaLimiteResolucion(v.getFechaLimiteResolucion())
+                .build();
+    }
+}
@@ -0,0 +1,188 @@
+package com.sqrc.module.backendsqrc.ticket.sla;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * Rueda de temporizadores jerárquica (hierarchical timing wheel).
+ *
+ * - {@value #NIVELES} niveles de {@value #SLOTS} slots; el nivel n agrupa
+ *   64^n ticks por slot, así cubre 2^30 ticks (~34 años con ticks de 1 s).
+ * - Programar y cancelar son O(1): cada slot es una lista doblemente enlazada.
+ * - Al avanzar un tick solo se recorre el slot del nivel 0 que vence; cuando el
+ *   tick cruza el límite de un nivel superior, su slot se redistribuye (cascada)
+ *   hacia los niveles inferiores.
+ *
+ * No es thread-safe: el llamador sincroniza.
+ *
+ * @param <T> Valor asociado a cada temporizador
+ */
+public final class RuedaTemporizadores<T> {
+
+    private static final int BITS = 6;
+    private static final int SLOTS = 1 << BITS;
+    private static final long MASCARA = SLOTS - 1;
+    private static final int NIVELES = 5;
+    private static final long RANGO = 1L << (BITS * NIVELES);
+
+    /** Temporizador programado; sirve de nodo en la lista de su slot */
+    public static final class Temporizador<T> {
+        private final long vence;
+        private final T valor;
+        private Temporizador<T> anterior;
+        private Temporizador<T> siguiente;
+
+        private Temporizador(long vence, T valor) {
+            this.vence = vence;
+            this.valor = valor;
+        }
+
+        public long getVence() {
+            return vence;
+        }
+
+        public T getValor() {
+            return valor;
+        }
+
+        public boolean isActivo() {
+            return siguiente != null;
+        }
+    }
+
+    private final Temporizador<T>[][] slots;
+    private long actual;
+    private int activos;
+
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    public RuedaTemporizadores(long tickInicial) {
+        this.actual = tickInicial;
+        this.slots = new Temporizador[NIVELES][SLOTS];
+        for (int nivel = 0; nivel < NIVELES; nivel++) {
+            for (int i = 0; i < SLOTS; i++) {
+                Temporizador<T> centinela = new Temporizador<>(0, null);
+                centinela.anterior = centinela;
+                centinela.siguiente = centinela;
+                slots[nivel][i] = centinela;
+            }
+        }
+    }
+
+    /**
+     * Programa un temporizador. Si el tick ya pasó, vence en el próximo avance.
+     *
+     * @param vence Tick de vencimiento
+     * @param valor Valor que se entrega al vencer
+     * @return Temporizador, para poder cancelarlo
+     */
+    public Temporizador<T> programar(long vence, T valor) {
+        Temporizador<T> temporizador = new Temporizador<>(vence, valor);
+        colocar(temporizador, actual + 1);
+        activos++;
+        return temporizador;
+    }
+
+    /**
+     * Cancela un temporizador pendiente. No hace nada si ya venció o se canceló.
+     */
+    public void cancelar(Temporizador<T> temporizador) {
+        if (temporizador != null && temporizador.isActivo()) {
+            desenlazar(temporizador);
+            activos--;
+        }
+    }
+
+    /**
+     * Avanza tick por tick hasta el indicado y entrega los temporizadores vencidos
+     * en orden de vencimiento. El callback puede programar nuevos temporizadores.
+     *
+     * @param tick Tick destino
+     * @param alVencer Recibe el valor de cada temporizador vencido
+     */
+    public void avanzarHasta(long tick, Consumer<T> alVencer) {
+        while (actual < tick) {
+            actual++;
+
+            // Cascada de los niveles cuyo límite se cruzó, del más alto al más bajo
+            int nivelCruzado = 0;
+            while (nivelCruzado < NIVELES - 1 && (actual & ((1L << (BITS * (nivelCruzado + 1))) - 1)) == 0) {
+                nivelCruzado++;
+            }
+            for (int nivel = nivelCruzado; nivel >= 1; nivel--) {
+                for (Temporizador<T> t : vaciar(slots[nivel][indice(actual, nivel)])) {
+                    colocar(t, actual);
+                }
+            }
+
+            for (Temporizador<T> t : vaciar(slots[0][indice(actual, 0)])) {
+                if (t.vence <= actual) {
+                    activos--;
+                    alVencer.accept(t.valor);
+                } else {
+                    // Solo ocurre con vencimientos fuera del rango de la rueda
+                    colocar(t, actual + 1);
+                }
+            }
+        }
+    }
+
+    public long getTickActual() {
+        return actual;
+    }
+
+    public int size() {
+        return activos;
+    }
+
+    // ==================== MÉTODOS AUXILIARES ====================
+
+    /**
+     * Coloca el temporizador en el nivel más bajo que comparte con el tick actual
+     * todos los bits por encima de ese nivel.
+     */
+    private void colocar(Temporizador<T> t, long minimo) {
+        long clave = Math.max(t.vence, minimo);
+        if (clave - actual >= RANGO) {
+            clave = actual + RANGO - 1;
+        }
+        int nivel = 0;
+        while (nivel < NIVELES - 1 && (clave >>> (BITS * (nivel + 1))) != (actual >>> (BITS * (nivel + 1)))) {
+            nivel++;
+        }
+        enlazar(slots[nivel][indice(clave, nivel)], t);
+    }
+
+    private static int indice(long tick, int nivel) {
+        return (int) ((tick >>> (BITS * nivel)) & MASCARA);
+    }
+
+    private List<Temporizador<T>> vaciar(Temporizador<T> centinela) {
+        List<Temporizador<T>> lista = new ArrayList<>();
+        Temporizador<T> t = centinela.siguiente;
+        while (t != centinela) {
+            Temporizador<T> siguiente = t.siguiente;
+            t.anterior = null;
+            t.siguiente = null;
+            lista.add(t);
+            t = siguiente;
+        }
+        centinela.anterior = centinela;
+        centinela.siguiente = centinela;
+        return lista;
+    }
+
+    private void enlazar(Temporizador<T> centinela, Temporizador<T> t) {
+        t.anterior = centinela.anterior;
+        t.siguiente = centinela;
+        centinela.anterior.siguiente = t;
+        centinela.anterior = t;
+    }
+
+    private void desenlazar(Temporizador<T> t) {
+        t.anterior.siguiente = t.siguiente;
+        t.siguiente.anterior = t.anterior;
+        t.anterior = null;
+        t.siguiente = null;
+    }
+}
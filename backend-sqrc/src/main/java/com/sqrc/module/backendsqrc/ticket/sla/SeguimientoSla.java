@@ -0,0 +1,434 @@
+package com.sqrc.module.backendsqrc.ticket.sla;
+
+import com.sqrc.module.backendsqrc.config.SlaProperties;
+import com.sqrc.module.backendsqrc.ticket.dto.response.SlaSeguimientoResponse;
+import com.sqrc.module.backendsqrc.ticket.dto.response.SlaSeguimientoResponse.SlaTicketDTO;
+import com.sqrc.module.backendsqrc.ticket.enums.EstadoSla;
+import com.sqrc.module.backendsqrc.ticket.enums.TipoPlazoSla;
+import com.sqrc.module.backendsqrc.ticket.event.SlaEnRiesgoEvent;
+import com.sqrc.module.backendsqrc.ticket.event.SlaIncumplidoEvent;
+import com.sqrc.module.backendsqrc.ticket.model.EstadoTicket;
+import com.sqrc.module.backendsqrc.ticket.model.TicketView;
+import com.sqrc.module.backendsqrc.ticket.model.TipoTicket;
+import com.sqrc.module.backendsqrc.ticket.repository.TicketViewRepository;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.*;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Seguimiento en vivo de los plazos de SLA de reclamos y solicitudes abiertos.
+ *
+ * - Cada plazo (general por tipo, y en reclamos los de respuesta y resolución)
+ *   tiene un solo temporizador pendiente en una {@link RuedaTemporizadores}:
+ *   primero el umbral de riesgo (app.sla.porcentaje-riesgo de la ventana) y,
+ *   al dispararse, el vencimiento. Cada tick cuesta O(1) más los plazos que vencen;
+ *   no se consulta la tabla de tickets.
+ * - Se carga al arrancar desde ticket_view y se actualiza con cada proyección de
+ *   ticket_view (crear, escalar, derivar, cerrar, ...) después del commit.
+ * - Un resync periódico corrige tickets modificados fuera de la aplicación.
+ *
+ * Los plazos que ya estaban en riesgo o vencidos al cargarse se marcan sin
+ * publicar eventos, para no repetir alertas en cada arranque.
+ *
+ * La rueda avanza en un hilo propio ("sla-rueda"): un tic por segundo en el
+ * scheduler compartido se retrasaría detrás de las demás tareas programadas
+ * (y las retrasaría a ellas cuando publica alertas).
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class SeguimientoSla {
+
+    private static final Set<TipoTicket> TIPOS_SEGUIDOS = EnumSet.of(TipoTicket.RECLAMO, TipoTicket.SOLICITUD);
+    private static final int TAMANO_LOTE_CARGA = 1000;
+    private static final int LIMITE_DEFAULT = 50;
+    private static final int LIMITE_MAX = 500;
+
+    private final TicketViewRepository ticketViewRepository;
+    private final SlaProperties slaProperties;
+    private final ApplicationEventPublisher eventPublisher;
+
+    @Value("${app.sla.tickMs:1000}")
+    private long tickMs;
+
+    /** Datos del ticket tomados de su fila de ticket_view */
+    private record Datos(Long ticketId, String asunto, TipoTicket tipo, EstadoTicket estado,
+                         Long empleadoId, String empleadoNombre, LocalDateTime fechaCreacion,
+                         LocalDateTime fechaActualizacion, LocalDateTime limiteGeneral,
+                         LocalDate limiteRespuesta, LocalDate limiteResolucion) {
+
+        static Datos de(TicketView v) {
+            return new Datos(v.getIdTicket(), v.getAsunto(), v.getTipoTicket(), v.getEstado(),
+                    v.getEmpleadoAsignadoId(), v.getEmpleadoAsignadoNombre(), v.getFechaCreacion(),
+                    v.getFechaActualizacion(), v.getFechaLimiteSla(),
+                    v.getFechaLimiteRespuesta(), v.getFechaLimiteResolucion());
+        }
+    }
+
+    private static final class Plazo {
+        final TipoPlazoSla tipo;
+        final LocalDateTime limite;
+        final LocalDateTime riesgo;
+        EstadoSla estado;
+        RuedaTemporizadores.Temporizador<Alarma> temporizador;
+
+        Plazo(TipoPlazoSla tipo, LocalDateTime limite, LocalDateTime riesgo) {
+            this.tipo = tipo;
+            this.limite = limite;
+            this.riesgo = riesgo;
+        }
+    }
+
+    private static final class Seguimiento {
+        final Datos datos;
+        final List<Plazo> plazos;
+        final Plazo masProximo;
+
+        Seguimiento(Datos datos, List<Plazo> plazos) {
+            this.datos = datos;
+            this.plazos = plazos;
+            this.masProximo = plazos.stream().min(Comparator.comparing((Plazo p) -> p.limite)).orElseThrow();
+        }
+
+        Plazo plazo(TipoPlazoSla tipo) {
+            for (Plazo p : plazos) {
+                if (p.tipo == tipo) {
+                    return p;
+                }
+            }
+            return null;
+        }
+
+        EstadoSla peorEstado() {
+            EstadoSla peor = EstadoSla.EN_PLAZO;
+            for (Plazo p : plazos) {
+                if (p.estado.ordinal() > peor.ordinal()) {
+                    peor = p.estado;
+                }
+            }
+            return peor;
+        }
+    }
+
+    private record Alarma(Seguimiento seguimiento, Plazo plazo, EstadoSla nivel) {
+    }
+
+    private RuedaTemporizadores<Alarma> rueda;
+    private ScheduledExecutorService reloj;
+    private final Map<Long, Seguimiento> seguimientos = new HashMap<>();
+    private final TreeSet<Seguimiento> porVencimiento = new TreeSet<>(
+            Comparator.comparing((Seguimiento s) -> s.masProximo.limite).thenComparing(s -> s.datos.ticketId()));
+
+    /** Tickets seguidos por peor estado (índice = ordinal de EstadoSla) */
+    private final int[] conteoPorEstado = new int[EstadoSla.values().length];
+    private long alertasRiesgo;
+    private long alertasIncumplimiento;
+
+    @PostConstruct
+    void iniciar() {
+        rueda = new RuedaTemporizadores<>(tickActual());
+        reloj = Executors.newSingleThreadScheduledExecutor(r -> new Thread(r, "sla-rueda"));
+        reloj.scheduleAtFixedRate(() -> {
+            try {
+                tic();
+            } catch (RuntimeException ex) {
+                log.error("Error avanzando la rueda de SLA: {}", ex.getMessage(), ex);
+            }
+        }, tickMs, tickMs, TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    void detener() throws InterruptedException {
+        reloj.shutdown();
+        reloj.awaitTermination(10, TimeUnit.SECONDS);
+    }
+
+    // ==================== CARGA ====================
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void alIniciar() {
+        try {
+            recargar();
+        } catch (Exception ex) {
+            log.error("No se pudo cargar el seguimiento de SLA: {}", ex.getMessage(), ex);
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${app.sla.resyncMs:900000}", initialDelayString = "${app.sla.resyncMs:900000}")
+    public void resincronizar() {
+        recargar();
+    }
+
+    /**
+     * Lee los tickets abiertos de ticket_view en lotes por ID y los aplica al
+     * seguimiento. Los plazos sin cambios conservan su estado (no repiten alertas).
+     */
+    public void recargar() {
+        long inicio = System.currentTimeMillis();
+        LocalDateTime inicioLectura = LocalDateTime.now();
+        List<Datos> abiertos = new ArrayList<>();
+        long ultimoId = 0L;
+        while (true) {
+            List<TicketView> lote = ticketViewRepository.findAbiertosDesde(
+                    EstadoTicket.CERRADO, TIPOS_SEGUIDOS, ultimoId, PageRequest.of(0, TAMANO_LOTE_CARGA));
+            lote.forEach(v -> abiertos.add(Datos.de(v)));
+            if (lote.size() < TAMANO_LOTE_CARGA) {
+                break;
+            }
+            ultimoId = lote.get(lote.size() - 1).getIdTicket();
+        }
+
+        List<Object> eventos = new ArrayList<>();
+        int total;
+        int temporizadores;
+        synchronized (this) {
+            // Disparar lo pendiente antes de comparar estados
+            avanzar(eventos);
+            Set<Long> ids = new HashSet<>();
+            for (Datos datos : abiertos) {
+                ids.add(datos.ticketId());
+                aplicar(datos);
+            }
+            // Cerrados fuera de la aplicación (los actualizados después de la lectura se conservan)
+            List<Seguimiento> obsoletos = seguimientos.values().stream()
+                    .filter(s -> !ids.contains(s.datos.ticketId()))
+                    .filter(s -> s.datos.fechaActualizacion() == null || s.datos.fechaActualizacion().isBefore(inicioLectura))
+                    .toList();
+            obsoletos.forEach(this::quitar);
+            total = seguimientos.size();
+            temporizadores = rueda.size();
+        }
+        publicar(eventos);
+        log.info("Seguimiento de SLA: {} tickets abiertos, {} temporizadores en {} ms",
+                total, temporizadores, System.currentTimeMillis() - inicio);
+    }
+
+    // ==================== ACTUALIZACIÓN ====================
+
+    /**
+     * Registra la nueva situación del ticket según su fila de ticket_view.
+     * Dentro de una transacción se aplica después del commit.
+     *
+     * @param fila Fila recién calculada (ticket cerrado = deja de seguirse)
+     */
+    public void actualizar(TicketView fila) {
+        Datos datos = Datos.de(fila);
+        Runnable accion = () -> {
+            synchronized (this) {
+                aplicar(datos);
+            }
+        };
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            accion.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                accion.run();
+            }
+        });
+    }
+
+    /**
+     * Avanza la rueda hasta el instante actual y publica las alertas vencidas.
+     * Lo invoca el hilo propio cada app.sla.tickMs.
+     */
+    public void tic() {
+        List<Object> eventos = new ArrayList<>();
+        synchronized (this) {
+            avanzar(eventos);
+        }
+        publicar(eventos);
+    }
+
+    // ==================== CONSULTA ====================
+
+    /**
+     * Tickets seguidos ordenados por tiempo hasta su plazo más próximo (vencidos primero).
+     *
+     * @param estadoSla Filtro por peor estado del ticket
+     * @param tipo Filtro por tipo de ticket
+     * @param limite Máximo de tickets (default 50, máx. 500)
+     */
+    public synchronized SlaSeguimientoResponse listar(EstadoSla estadoSla, TipoTicket tipo, Integer limite) {
+        int tamano = limite == null || limite <= 0 ? LIMITE_DEFAULT : Math.min(limite, LIMITE_MAX);
+        LocalDateTime ahora = LocalDateTime.now();
+
+        List<SlaTicketDTO> tickets = new ArrayList<>();
+        for (Seguimiento s : porVencimiento) {
+            if (tickets.size() >= tamano) {
+                break;
+            }
+            EstadoSla peor = s.peorEstado();
+            if ((estadoSla == null || estadoSla == peor) && (tipo == null || tipo == s.datos.tipo())) {
+                tickets.add(mapToDto(s, peor, ahora));
+            }
+        }
+
+        return SlaSeguimientoResponse.builder()
+                .tickets(tickets)
+                .totalSeguidos(seguimientos.size())
+                .totalEnRiesgo(conteoPorEstado[EstadoSla.EN_RIESGO.ordinal()])
+                .totalIncumplidos(conteoPorEstado[EstadoSla.INCUMPLIDO.ordinal()])
+                .alertasRiesgoEmitidas(alertasRiesgo)
+                .alertasIncumplimientoEmitidas(alertasIncumplimiento)
+                .fechaConsulta(ahora)
+                .build();
+    }
+
+    // ==================== MÉTODOS AUXILIARES ====================
+
+    /** Requiere el lock */
+    private void aplicar(Datos datos) {
+        Seguimiento anterior = seguimientos.get(datos.ticketId());
+        if (anterior != null) {
+            // Una lectura de la BD anterior a la última actualización no la pisa
+            if (datos.fechaActualizacion() != null && anterior.datos.fechaActualizacion() != null
+                    && datos.fechaActualizacion().isBefore(anterior.datos.fechaActualizacion())) {
+                return;
+            }
+            quitar(anterior);
+        }
+        if (datos.estado() == EstadoTicket.CERRADO || !TIPOS_SEGUIDOS.contains(datos.tipo())) {
+            return;
+        }
+
+        LocalDateTime ahora = LocalDateTime.now();
+        List<Plazo> plazos = new ArrayList<>(3);
+        agregarPlazo(plazos, TipoPlazoSla.GENERAL, datos.fechaCreacion(), datos.limiteGeneral(), anterior, ahora);
+        agregarPlazo(plazos, TipoPlazoSla.RESPUESTA, datos.fechaCreacion(), finDeDia(datos.limiteRespuesta()), anterior, ahora);
+        agregarPlazo(plazos, TipoPlazoSla.RESOLUCION, datos.fechaCreacion(), finDeDia(datos.limiteResolucion()), anterior, ahora);
+        if (plazos.isEmpty()) {
+            return;
+        }
+
+        Seguimiento seguimiento = new Seguimiento(datos, plazos);
+        plazos.forEach(p -> programar(seguimiento, p));
+        seguimientos.put(datos.ticketId(), seguimiento);
+        porVencimiento.add(seguimiento);
+        conteoPorEstado[seguimiento.peorEstado().ordinal()]++;
+    }
+
+    private void agregarPlazo(List<Plazo> plazos, TipoPlazoSla tipo, LocalDateTime inicio, LocalDateTime limite,
+                              Seguimiento anterior, LocalDateTime ahora) {
+        if (limite == null) {
+            return;
+        }
+        LocalDateTime base = inicio != null && inicio.isBefore(limite) ? inicio : limite;
+        long ventanaMs = Duration.between(base, limite).toMillis();
+        LocalDateTime riesgo = base.plus(Duration.ofMillis(ventanaMs * slaProperties.getPorcentajeRiesgo() / 100));
+
+        Plazo plazo = new Plazo(tipo, limite, riesgo);
+        Plazo previo = anterior != null ? anterior.plazo(tipo) : null;
+        if (previo != null && previo.limite.equals(limite)) {
+            plazo.estado = previo.estado;
+        } else {
+            plazo.estado = !ahora.isBefore(limite) ? EstadoSla.INCUMPLIDO
+                    : !ahora.isBefore(riesgo) ? EstadoSla.EN_RIESGO
+                    : EstadoSla.EN_PLAZO;
+        }
+        plazos.add(plazo);
+    }
+
+    /** Requiere el lock */
+    private void quitar(Seguimiento seguimiento) {
+        seguimiento.plazos.forEach(p -> rueda.cancelar(p.temporizador));
+        seguimientos.remove(seguimiento.datos.ticketId());
+        porVencimiento.remove(seguimiento);
+        conteoPorEstado[seguimiento.peorEstado().ordinal()]--;
+    }
+
+    /** Programa el siguiente umbral del plazo según su estado. Requiere el lock. */
+    private void programar(Seguimiento seguimiento, Plazo plazo) {
+        plazo.temporizador = switch (plazo.estado) {
+            case EN_PLAZO -> rueda.programar(tickDe(plazo.riesgo), new Alarma(seguimiento, plazo, EstadoSla.EN_RIESGO));
+            case EN_RIESGO -> rueda.programar(tickDe(plazo.limite), new Alarma(seguimiento, plazo, EstadoSla.INCUMPLIDO));
+            case INCUMPLIDO -> null;
+        };
+    }
+
+    /** Requiere el lock */
+    private void avanzar(List<Object> eventos) {
+        rueda.avanzarHasta(tickActual(), alarma -> {
+            Seguimiento seguimiento = alarma.seguimiento();
+            Plazo plazo = alarma.plazo();
+            Long ticketId = seguimiento.datos.ticketId();
+
+            conteoPorEstado[seguimiento.peorEstado().ordinal()]--;
+            plazo.estado = alarma.nivel();
+            conteoPorEstado[seguimiento.peorEstado().ordinal()]++;
+
+            if (alarma.nivel() == EstadoSla.EN_RIESGO) {
+                alertasRiesgo++;
+                eventos.add(new SlaEnRiesgoEvent(ticketId, plazo.tipo, plazo.limite));
+            } else {
+                alertasIncumplimiento++;
+                eventos.add(new SlaIncumplidoEvent(ticketId, plazo.tipo, plazo.limite));
+            }
+            programar(seguimiento, plazo);
+        });
+    }
+
+    /** Fuera del lock: los listeners pueden consultar el seguimiento */
+    private void publicar(List<Object> eventos) {
+        for (Object evento : eventos) {
+            log.warn("Alerta de SLA: {}", evento);
+            try {
+                eventPublisher.publishEvent(evento);
+            } catch (Exception ex) {
+                log.error("Error en listener de alerta de SLA {}: {}", evento, ex.getMessage(), ex);
+            }
+        }
+    }
+
+    private SlaTicketDTO mapToDto(Seguimiento s, EstadoSla peor, LocalDateTime ahora) {
+        return SlaTicketDTO.builder()
+                .idTicket(s.datos.ticketId())
+                .asunto(s.datos.asunto())
+                .tipoTicket(s.datos.tipo())
+                .estado(s.datos.estado())
+                .empleadoAsignadoId(s.datos.empleadoId())
+                .empleadoAsignadoNombre(s.datos.empleadoNombre())
+                .fechaCreacion(s.datos.fechaCreacion())
+                .plazo(s.masProximo.tipo)
+                .fechaLimite(s.masProximo.limite)
+                .minutosRestantes(Duration.between(ahora, s.masProximo.limite).toMinutes())
+                .estadoSla(peor)
+                .build();
+    }
+
+    /** Los plazos legales de reclamos son fechas: vencen al terminar el día */
+    private static LocalDateTime finDeDia(LocalDate fecha) {
+        return fecha != null ? fecha.plusDays(1).atStartOfDay() : null;
+    }
+
+    private long tickActual() {
+        return Math.floorDiv(System.currentTimeMillis(), tickMs);
+    }
+
+    /** Redondea hacia arriba: el temporizador nunca se dispara antes del instante */
+    private long tickDe(LocalDateTime instante) {
+        long ms = instante.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+        return Math.floorDiv(ms + tickMs - 1, tickMs);
+    }
+}
@@ -0,0 +1,278 @@
+package com.sqrc.module.backendsqrc.ticket.strategy;
+
+import com.sqrc.module.backendsqrc.config.AsignacionProperties;
+import com.sqrc.module.backendsqrc.ticket.model.Asignacion;
+import com.sqrc.module.backendsqrc.ticket.model.Empleado;
+import com.sqrc.module.backendsqrc.ticket.repository.AsignacionRepository;
+import com.sqrc.module.backendsqrc.ticket.repository.EmpleadoRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Registro en memoria de la carga (asignaciones activas) de cada empleado, por área.
+ *
+ * - Se reconstruye al arrancar y periódicamente desde asignaciones con fecha_fin IS NULL.
+ * - Cada área mantiene un TreeSet ordenado por (carga, idEmpleado) solo con los
+ *   empleados bajo su capacidad, así el menos cargado se obtiene en O(log n).
+ * - {@link #reservarMenosCargado(String)} elige e incrementa la carga bajo el lock
+ *   del área: dos escalamientos concurrentes nunca ven la misma carga.
+ * - Aperturas suman de inmediato y se compensan si la transacción hace rollback;
+ *   cierres restan solo después del commit.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class RegistroCargaAgentes {
+
+    private final AsignacionRepository asignacionRepository;
+    private final EmpleadoRepository empleadoRepository;
+    private final AsignacionProperties asignacionProperties;
+
+    /** Empleados del área con capacidad libre, ordenados por (carga, idEmpleado) */
+    private static final class PoolArea {
+        final Set<Long> miembros = new HashSet<>();
+        final TreeSet<Entrada> disponibles = new TreeSet<>(
+                Comparator.comparingInt(Entrada::carga).thenComparingLong(Entrada::empleadoId));
+    }
+
+    private record Entrada(int carga, long empleadoId) {
+    }
+
+    private final Map<String, PoolArea> pools = new ConcurrentHashMap<>();
+    private final Map<Long, Integer> cargas = new ConcurrentHashMap<>();
+    private final Map<Long, String> areaPorEmpleado = new ConcurrentHashMap<>();
+
+    /** Lectura: operaciones normales. Escritura: reconstrucción completa. */
+    private final ReentrantReadWriteLock lockReconstruccion = new ReentrantReadWriteLock();
+
+    private volatile boolean listo = false;
+
+    // ==================== CONSTRUCCIÓN ====================
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void alIniciar() {
+        try {
+            reconstruir();
+        } catch (Exception ex) {
+            log.error("No se pudo construir el registro de carga de agentes: {}", ex.getMessage(), ex);
+        }
+    }
+
+    /**
+     * Corrige derivas (asignaciones cerradas fuera de la aplicación, empleados nuevos).
+     */
+    @Scheduled(fixedDelayString = "${app.asignacion.resyncMs:600000}", initialDelayString = "${app.asignacion.resyncMs:600000}")
+    public void resincronizar() {
+        if (listo) {
+            reconstruir();
+        }
+    }
+
+    /**
+     * Reconstruye los pools desde la BD: dos consultas (empleados con su área y
+     * conteo de asignaciones activas por empleado).
+     */
+    public void reconstruir() {
+        long inicio = System.currentTimeMillis();
+        List<Object[]> empleados = empleadoRepository.findIdYArea();
+        List<Object[]> activas = asignacionRepository.contarActivasPorEmpleado();
+
+        lockReconstruccion.writeLock().lock();
+        try {
+            pools.clear();
+            cargas.clear();
+            areaPorEmpleado.clear();
+            for (Object[] fila : activas) {
+                cargas.put((Long) fila[0], ((Long) fila[1]).intValue());
+            }
+            for (Object[] fila : empleados) {
+                agregarMiembro((Long) fila[0], (String) fila[1]);
+            }
+            listo = true;
+        } finally {
+            lockReconstruccion.writeLock().unlock();
+        }
+        log.info("Registro de carga de agentes: {} empleados en {} áreas en {} ms",
+                empleados.size(), pools.size(), System.currentTimeMillis() - inicio);
+    }
+
+    // ==================== SELECCIÓN ====================
+
+    /**
+     * Elige al empleado del área con menos asignaciones activas (desempate por ID)
+     * y le suma una asignación. Si la transacción actual hace rollback, la reserva
+     * se devuelve.
+     *
+     * @param area Área destino
+     * @return ID del empleado elegido
+     * @throws RuntimeException si el área no tiene empleados o todos están al límite
+     */
+    public Long reservarMenosCargado(String area) {
+        asegurarListo();
+        Entrada elegida;
+        lockReconstruccion.readLock().lock();
+        try {
+            PoolArea pool = pools.get(area);
+            if (pool == null || pool.miembros.isEmpty()) {
+                throw new RuntimeException("No hay empleados disponibles en el área: " + area);
+            }
+            synchronized (pool) {
+                elegida = pool.disponibles.pollFirst();
+                if (elegida == null) {
+                    throw new RuntimeException("Todos los empleados del área " + area + " están al límite de asignaciones");
+                }
+                fijarCarga(pool, elegida.empleadoId(), elegida.carga() + 1);
+            }
+        } finally {
+            lockReconstruccion.readLock().unlock();
+        }
+
+        long empleadoId = elegida.empleadoId();
+        alRevertir(() -> ajustar(empleadoId, -1));
+        return empleadoId;
+    }
+
+    /**
+     * Devuelve una reserva que al final no se usó (p.ej. el ticket cambió antes de
+     * asignarlo). Si la transacción hace rollback se deshace también la devolución,
+     * así el rollback de la reserva original no descuenta dos veces.
+     */
+    public void liberarReserva(Long empleadoId) {
+        ajustar(empleadoId, -1);
+        alRevertir(() -> ajustar(empleadoId, 1));
+    }
+
+    // ==================== MANTENIMIENTO ====================
+
+    /**
+     * Registra una asignación abierta a un empleado elegido sin pasar por
+     * {@link #reservarMenosCargado(String)} (asignación inicial, devoluciones).
+     */
+    public void registrarApertura(Empleado empleado) {
+        if (empleado == null || empleado.getIdEmpleado() == null) {
+            return;
+        }
+        asegurarListo();
+        Long empleadoId = empleado.getIdEmpleado();
+        lockReconstruccion.readLock().lock();
+        try {
+            if (!areaPorEmpleado.containsKey(empleadoId)) {
+                agregarMiembro(empleadoId, empleado.getArea());
+            }
+        } finally {
+            lockReconstruccion.readLock().unlock();
+        }
+        ajustar(empleadoId, 1);
+        alRevertir(() -> ajustar(empleadoId, -1));
+    }
+
+    /**
+     * Registra el cierre (fecha_fin) de una asignación; se aplica después del commit.
+     */
+    public void registrarCierre(Asignacion asignacion) {
+        if (asignacion == null || asignacion.getEmpleado() == null) {
+            return;
+        }
+        Long empleadoId = asignacion.getEmpleado().getIdEmpleado();
+        alConfirmar(() -> ajustar(empleadoId, -1));
+    }
+
+    /**
+     * Carga actual del empleado, para monitoreo.
+     */
+    public int getCarga(Long empleadoId) {
+        return cargas.getOrDefault(empleadoId, 0);
+    }
+
+    // ==================== MÉTODOS AUXILIARES ====================
+
+    private void asegurarListo() {
+        if (!listo) {
+            synchronized (this) {
+                if (!listo) {
+                    reconstruir();
+                }
+            }
+        }
+    }
+
+    private void ajustar(Long empleadoId, int delta) {
+        lockReconstruccion.readLock().lock();
+        try {
+            String area = areaPorEmpleado.get(empleadoId);
+            PoolArea pool = area != null ? pools.get(area) : null;
+            if (pool == null) {
+                cargas.merge(empleadoId, delta, (a, b) -> Math.max(0, a + b));
+                return;
+            }
+            synchronized (pool) {
+                int actual = cargas.getOrDefault(empleadoId, 0);
+                pool.disponibles.remove(new Entrada(actual, empleadoId));
+                fijarCarga(pool, empleadoId, Math.max(0, actual + delta));
+            }
+        } finally {
+            lockReconstruccion.readLock().unlock();
+        }
+    }
+
+    /**
+     * Actualiza la carga y reinserta al empleado entre los disponibles si sigue
+     * bajo su capacidad. Requiere el lock del pool.
+     */
+    private void fijarCarga(PoolArea pool, long empleadoId, int carga) {
+        cargas.put(empleadoId, carga);
+        if (carga < asignacionProperties.getCapacidadPara(empleadoId)) {
+            pool.disponibles.add(new Entrada(carga, empleadoId));
+        }
+    }
+
+    private void agregarMiembro(Long empleadoId, String area) {
+        if (area == null) {
+            return;
+        }
+        areaPorEmpleado.put(empleadoId, area);
+        PoolArea pool = pools.computeIfAbsent(area, k -> new PoolArea());
+        synchronized (pool) {
+            if (pool.miembros.add(empleadoId)) {
+                fijarCarga(pool, empleadoId, cargas.getOrDefault(empleadoId, 0));
+            }
+        }
+    }
+
+    private static void alRevertir(Runnable accion) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                if (status == STATUS_ROLLED_BACK) {
+                    accion.run();
+                }
+            }
+        });
+    }
+
+    private static void alConfirmar(Runnable accion) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            accion.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                accion.run();
+            }
+        });
+    }
+}
@@ -0,0 +1,360 @@
+package com.sqrc.module.backendsqrc.ticket.stream;
+
+import com.sqrc.module.backendsqrc.ticket.dto.response.TicketDeltaDTO;
+import com.sqrc.module.backendsqrc.ticket.event.TicketCambiadoEvent;
+import com.sqrc.module.backendsqrc.ticket.exception.EmpleadoNotFoundException;
+import com.sqrc.module.backendsqrc.ticket.model.Empleado;
+import com.sqrc.module.backendsqrc.ticket.model.Supervisor;
+import com.sqrc.module.backendsqrc.ticket.model.TipoEmpleado;
+import com.sqrc.module.backendsqrc.ticket.repository.AgenteRepository;
+import com.sqrc.module.backendsqrc.ticket.repository.EmpleadoRepository;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.util.*;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Reparto de cambios de tickets por Server-Sent Events.
+ *
+ * - Un agente se suscribe a su propia bandeja; un supervisor a la suya y a la de
+ *   los agentes de su equipo.
+ * - Cada {@link TicketCambiadoEvent} (después del commit) se entrega a los
+ *   suscriptores del empleado asignado y del anterior, vía un índice por empleado.
+ * - Cada suscriptor tiene un buffer acotado y a lo sumo un envío en curso en un
+ *   pool propio, así un cliente lento nunca bloquea al que publica.
+ * - Un cliente lento se desaloja si su buffer se llena o si lleva demasiado tiempo
+ *   sin completar un envío; el EventSource del navegador se reconecta solo.
+ * - Cada envío tiene un plazo ({@code app.sse.envioTimeoutMs}): un vigilante propio
+ *   desaloja al suscriptor cuyo envío lo supera e interrumpe el hilo que escribe, para
+ *   que un socket atascado no retenga uno de los pocos hilos del pool.
+ * - Latidos periódicos (comentarios SSE) mantienen viva la conexión en proxies.
+ *
+ * Al (re)conectarse el cliente recibe el evento "conectado" y debe refrescar su
+ * bandeja una vez; a partir de ahí le bastan los eventos "ticket".
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class TicketStreamHub {
+
+    private static final String EVENTO_CONECTADO = "conectado";
+    private static final String EVENTO_TICKET = "ticket";
+
+    private final EmpleadoRepository empleadoRepository;
+    private final AgenteRepository agenteRepository;
+
+    @Value("${app.sse.buffer:100}")
+    private int capacidadBuffer;
+
+    @Value("${app.sse.timeoutMs:1800000}")
+    private long timeoutMs;
+
+    /** Tiempo máximo con mensajes pendientes sin completar un envío */
+    @Value("${app.sse.maxDemoraMs:30000}")
+    private long maxDemoraMs;
+
+    /** Plazo de un envío al socket antes de desalojar al suscriptor */
+    @Value("${app.sse.envioTimeoutMs:5000}")
+    private long envioTimeoutMs;
+
+    @Value("${app.sse.hilos:4}")
+    private int hilos;
+
+    /** Mensaje pendiente; nombre null = latido */
+    private record Mensaje(String nombre, Long id, Object datos) {
+    }
+
+    private static final Mensaje LATIDO = new Mensaje(null, null, null);
+
+    private final class Suscriptor {
+        final long id;
+        final Long empleadoId;
+        final Set<Long> empleados;
+        final SseEmitter emitter;
+        final BlockingQueue<Mensaje> buffer = new ArrayBlockingQueue<>(capacidadBuffer);
+        final AtomicBoolean enviando = new AtomicBoolean();
+        volatile long ultimoEnvio = System.currentTimeMillis();
+        /** Inicio del envío en curso; 0 si no hay ninguno */
+        volatile long envioDesde;
+        volatile Thread hiloEnvio;
+        volatile boolean cerrado;
+
+        Suscriptor(long id, Long empleadoId, Set<Long> empleados, SseEmitter emitter) {
+            this.id = id;
+            this.empleadoId = empleadoId;
+            this.empleados = empleados;
+            this.emitter = emitter;
+        }
+    }
+
+    private final AtomicLong secuencia = new AtomicLong();
+    private final AtomicLong idsSuscriptor = new AtomicLong();
+    private final Set<Suscriptor> suscriptores = ConcurrentHashMap.newKeySet();
+    private final Map<Long, Set<Suscriptor>> porEmpleado = new ConcurrentHashMap<>();
+
+    private final AtomicLong enviados = new AtomicLong();
+    private final AtomicLong desalojados = new AtomicLong();
+
+    private ThreadPoolTaskExecutor executor;
+    private ScheduledExecutorService vigilante;
+
+    @PostConstruct
+    void iniciar() {
+        // Pool propio: el vigilante interrumpe estos hilos y no debe alcanzar tareas de otros módulos
+        executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(hilos);
+        executor.setMaxPoolSize(hilos);
+        executor.setQueueCapacity(10_000);
+        executor.setThreadNamePrefix("sse-");
+        executor.initialize();
+
+        long periodo = Math.max(envioTimeoutMs / 4, 100);
+        vigilante = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread hilo = new Thread(r, "sse-vigilante");
+            hilo.setDaemon(true);
+            return hilo;
+        });
+        vigilante.scheduleWithFixedDelay(this::vigilarEnvios, periodo, periodo, TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    void detener() {
+        vigilante.shutdownNow();
+        suscriptores.forEach(s -> cerrar(s, null));
+        executor.shutdown();
+    }
+
+    // ==================== SUSCRIPCIÓN ====================
+
+    /**
+     * Abre el stream de un empleado.
+     *
+     * @param empleadoId Agente (su bandeja) o supervisor (su bandeja y la de su equipo)
+     * @return Emitter SSE ya registrado
+     */
+    public SseEmitter suscribir(Long empleadoId) {
+        Empleado empleado = empleadoRepository.findById(empleadoId)
+                .orElseThrow(() -> new EmpleadoNotFoundException(empleadoId));
+
+        Set<Long> empleados = new HashSet<>();
+        empleados.add(empleadoId);
+        if (empleado instanceof Supervisor || empleado.getTipoEmpleado() == TipoEmpleado.SUPERVISOR) {
+            empleados.addAll(agenteRepository.findIdsBySupervisor(empleadoId));
+        }
+
+        SseEmitter emitter = new SseEmitter(timeoutMs);
+        Suscriptor suscriptor = new Suscriptor(idsSuscriptor.incrementAndGet(), empleadoId,
+                Collections.unmodifiableSet(empleados), emitter);
+        emitter.onCompletion(() -> quitar(suscriptor));
+        emitter.onTimeout(() -> quitar(suscriptor));
+        emitter.onError(ex -> quitar(suscriptor));
+
+        suscriptores.add(suscriptor);
+        for (Long id : empleados) {
+            porEmpleado.compute(id, (k, set) -> {
+                Set<Suscriptor> destino = set != null ? set : ConcurrentHashMap.newKeySet();
+                destino.add(suscriptor);
+                return destino;
+            });
+        }
+        encolar(suscriptor, new Mensaje(EVENTO_CONECTADO, null,
+                Map.of("seq", secuencia.get(), "empleados", empleados)));
+
+        log.info("Stream de tickets abierto para empleado {} ({} empleados seguidos, {} suscriptores)",
+                empleadoId, empleados.size(), suscriptores.size());
+        return emitter;
+    }
+
+    // ==================== REPARTO ====================
+
+    /**
+     * Reparte el cambio a las bandejas del empleado asignado y del anterior.
+     */
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onTicketCambiado(TicketCambiadoEvent event) {
+        TicketDeltaDTO delta = event.delta();
+        delta.setSeq(secuencia.incrementAndGet());
+        if (suscriptores.isEmpty()) {
+            return;
+        }
+
+        Set<Suscriptor> destinos = new HashSet<>();
+        agregarDestinos(destinos, delta.getEmpleadoAsignadoId());
+        agregarDestinos(destinos, delta.getEmpleadoAnteriorId());
+
+        Mensaje mensaje = new Mensaje(EVENTO_TICKET, delta.getSeq(), delta);
+        destinos.forEach(s -> encolar(s, mensaje));
+    }
+
+    /**
+     * Envía latidos y desaloja a los clientes que dejaron de consumir.
+     */
+    @Scheduled(fixedRateString = "${app.sse.heartbeatMs:15000}")
+    public void latido() {
+        long ahora = System.currentTimeMillis();
+        for (Suscriptor s : suscriptores) {
+            if (!s.buffer.isEmpty() && ahora - s.ultimoEnvio > maxDemoraMs) {
+                desalojar(s, "sin consumir hace " + (ahora - s.ultimoEnvio) + " ms");
+            } else {
+                encolar(s, LATIDO);
+            }
+        }
+    }
+
+    /**
+     * Desaloja a los suscriptores con un envío bloqueado más allá del plazo y libera
+     * el hilo que escribe.
+     */
+    void vigilarEnvios() {
+        long ahora = System.currentTimeMillis();
+        for (Suscriptor s : suscriptores) {
+            long desde = s.envioDesde;
+            if (desde > 0 && ahora - desde > envioTimeoutMs) {
+                desalojar(s, "envío bloqueado hace " + (ahora - desde) + " ms");
+                synchronized (s) {
+                    if (s.hiloEnvio != null && s.envioDesde == desde) {
+                        s.hiloEnvio.interrupt();
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Métricas del stream para monitoreo.
+     */
+    public Map<String, Object> getMetricas() {
+        Map<String, Object> metricas = new LinkedHashMap<>();
+        metricas.put("suscriptores", suscriptores.size());
+        metricas.put("empleadosSeguidos", porEmpleado.size());
+        metricas.put("secuencia", secuencia.get());
+        metricas.put("mensajesEnviados", enviados.get());
+        metricas.put("desalojados", desalojados.get());
+        return metricas;
+    }
+
+    // ==================== MÉTODOS AUXILIARES ====================
+
+    private void agregarDestinos(Set<Suscriptor> destinos, Long empleadoId) {
+        if (empleadoId != null) {
+            Set<Suscriptor> del = porEmpleado.get(empleadoId);
+            if (del != null) {
+                destinos.addAll(del);
+            }
+        }
+    }
+
+    private void encolar(Suscriptor s, Mensaje mensaje) {
+        if (s.cerrado) {
+            return;
+        }
+        if (!s.buffer.offer(mensaje)) {
+            desalojar(s, "buffer lleno (" + capacidadBuffer + ")");
+            return;
+        }
+        programarEnvio(s);
+    }
+
+    private void programarEnvio(Suscriptor s) {
+        if (!s.enviando.compareAndSet(false, true)) {
+            return; // El envío en curso drenará el buffer
+        }
+        try {
+            executor.execute(() -> drenar(s));
+        } catch (TaskRejectedException ex) {
+            // Pool saturado: lo reintenta el próximo mensaje o latido
+            s.enviando.set(false);
+        }
+    }
+
+    private void drenar(Suscriptor s) {
+        s.hiloEnvio = Thread.currentThread();
+        try {
+            Mensaje mensaje;
+            while (!s.cerrado && (mensaje = s.buffer.poll()) != null) {
+                s.envioDesde = System.currentTimeMillis();
+                s.emitter.send(construir(mensaje));
+                s.envioDesde = 0;
+                s.ultimoEnvio = System.currentTimeMillis();
+                if (mensaje != LATIDO) {
+                    enviados.incrementAndGet();
+                }
+            }
+        } catch (Exception ex) {
+            log.debug("Stream del empleado {} cerrado al enviar: {}", s.empleadoId, ex.getMessage());
+            cerrar(s, ex);
+        } finally {
+            synchronized (s) {
+                s.envioDesde = 0;
+                s.hiloEnvio = null;
+            }
+            // Si el vigilante interrumpió este hilo, no debe afectar a la próxima tarea del pool
+            Thread.interrupted();
+            s.enviando.set(false);
+            if (!s.cerrado && !s.buffer.isEmpty()) {
+                programarEnvio(s);
+            }
+        }
+    }
+
+    private static SseEmitter.SseEventBuilder construir(Mensaje mensaje) {
+        if (mensaje.nombre() == null) {
+            return SseEmitter.event().comment("latido");
+        }
+        SseEmitter.SseEventBuilder evento = SseEmitter.event().name(mensaje.nombre()).data(mensaje.datos());
+        return mensaje.id() != null ? evento.id(String.valueOf(mensaje.id())) : evento;
+    }
+
+    private void desalojar(Suscriptor s, String motivo) {
+        if (s.cerrado) {
+            return;
+        }
+        desalojados.incrementAndGet();
+        log.warn("Desalojando stream del empleado {} (suscriptor {}): {}", s.empleadoId, s.id, motivo);
+        cerrar(s, null);
+    }
+
+    private void cerrar(Suscriptor s, Throwable error) {
+        quitar(s);
+        try {
+            if (error != null) {
+                s.emitter.completeWithError(error);
+            } else {
+                s.emitter.complete();
+            }
+        } catch (Exception ignored) {
+            // La conexión ya estaba cerrada
+        }
+    }
+
+    private void quitar(Suscriptor s) {
+        s.cerrado = true;
+        if (suscriptores.remove(s)) {
+            s.buffer.clear();
+            for (Long id : s.empleados) {
+                porEmpleado.computeIfPresent(id, (k, set) -> {
+                    set.remove(s);
+                    return set.isEmpty() ? null : set;
+                });
+            }
+        }
+    }
+}
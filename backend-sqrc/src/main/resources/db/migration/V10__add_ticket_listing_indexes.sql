@@ -0,0 +1,13 @@
+-- ========================================
+-- V10: Índices para el listado de tickets paginado por cursor
+-- ========================================
+
+-- Orden del listado (fecha_creacion DESC, id_ticket DESC) y comparación del cursor
+CREATE INDEX idx_tickets_fecha_id ON tickets(fecha_creacion, id_ticket);
+
+-- Filtros por estado / tipo combinados con el mismo orden
+CREATE INDEX idx_tickets_estado_fecha ON tickets(estado, fecha_creacion, id_ticket);
+CREATE INDEX idx_tickets_tipo_fecha ON tickets(tipo_ticket, fecha_creacion, id_ticket);
+
+-- Semi-join "tickets del empleado" (EXISTS sobre asignaciones)
+CREATE INDEX idx_asignaciones_empleado_ticket ON asignaciones(empleado_id, ticket_id);
@@ -0,0 +1,31 @@
+-- ========================================
+-- V11: Modelo de lectura desnormalizado de tickets
+-- ========================================
+-- Una fila por ticket, mantenida por TicketViewService en la misma transacción
+-- de cada operación del ciclo de vida. Si la tabla está vacía al arrancar,
+-- la aplicación la puebla a partir de tickets / asignaciones.
+
+CREATE TABLE IF NOT EXISTS ticket_view (
+    id_ticket                BIGINT       NOT NULL PRIMARY KEY,
+    asunto                   VARCHAR(100),
+    estado                   VARCHAR(30)  NOT NULL,
+    tipo_ticket              VARCHAR(30)  NOT NULL,
+    origen                   VARCHAR(30),
+    fecha_creacion           DATETIME(6)  NOT NULL,
+    fecha_cierre             DATETIME(6),
+    fecha_actualizacion      DATETIME(6)  NOT NULL,
+    cliente_id               INT,
+    cliente_nombre           VARCHAR(200),
+    motivo_nombre            VARCHAR(100),
+    empleado_asignado_id     BIGINT,
+    empleado_asignado_nombre VARCHAR(200),
+    area_asignada            VARCHAR(100),
+    fecha_asignacion         DATETIME(6),
+    fecha_limite_sla         DATETIME(6),
+    fecha_limite_respuesta   DATE,
+    fecha_limite_resolucion  DATE,
+    INDEX idx_ticket_view_fecha (fecha_creacion, id_ticket),
+    INDEX idx_ticket_view_estado_fecha (estado, fecha_creacion, id_ticket),
+    INDEX idx_ticket_view_empleado_fecha (empleado_asignado_id, fecha_creacion, id_ticket),
+    INDEX idx_ticket_view_cliente (cliente_id)
+);
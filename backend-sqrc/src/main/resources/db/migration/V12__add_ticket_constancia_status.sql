@@ -0,0 +1,12 @@
+-- ========================================
+-- V12: Estado del envío asíncrono de la constancia de registro
+-- ========================================
+-- NULL en tickets creados antes del pipeline asíncrono.
+
+ALTER TABLE tickets
+    ADD COLUMN estado_constancia VARCHAR(20) NULL,
+    ADD COLUMN intentos_constancia INT NULL,
+    ADD COLUMN fecha_estado_constancia DATETIME(6) NULL;
+
+-- Barrido de constancias PENDIENTE / EN_PROCESO por reencolar
+CREATE INDEX idx_tickets_constancia ON tickets(estado_constancia, fecha_estado_constancia);
@@ -0,0 +1,25 @@
+-- ========================================
+-- V13: Outbox de eventos de dominio
+-- ========================================
+-- Los eventos se insertan en la misma transacción que el cambio de estado
+-- y OutboxPublicador los entrega en segundo plano.
+
+CREATE TABLE IF NOT EXISTS outbox_eventos (
+    id BIGINT AUTO_INCREMENT PRIMARY KEY,
+    agregado_tipo VARCHAR(30) NOT NULL,
+    agregado_id BIGINT NOT NULL,
+    tipo VARCHAR(200) NOT NULL,
+    payload TEXT NOT NULL,
+    estado VARCHAR(20) NOT NULL,
+    intentos INT NOT NULL DEFAULT 0,
+    fecha_creacion DATETIME(6) NOT NULL,
+    proximo_intento DATETIME(6) NULL,
+    fecha_procesado DATETIME(6) NULL,
+    ultimo_error VARCHAR(500) NULL
+);
+
+-- Lote de pendientes en orden de inserción
+CREATE INDEX idx_outbox_estado_id ON outbox_eventos(estado, id);
+
+-- Orden por agregado (eventos anteriores pendientes del mismo agregado)
+CREATE INDEX idx_outbox_agregado ON outbox_eventos(agregado_tipo, agregado_id, id);
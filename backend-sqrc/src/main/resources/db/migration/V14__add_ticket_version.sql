@@ -0,0 +1,8 @@
+-- ========================================
+-- V14: Versión de tickets (concurrencia optimista)
+-- ========================================
+-- La incrementan los save() de JPA (@Version) y las transiciones condicionales
+-- de estado (UPDATE ... WHERE estado = :esperado).
+
+ALTER TABLE tickets
+    ADD COLUMN version BIGINT NOT NULL DEFAULT 0;
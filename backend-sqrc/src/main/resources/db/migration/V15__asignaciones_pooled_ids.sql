@@ -0,0 +1,15 @@
+-- ========================================
+-- V15: IDs de asignaciones por secuencia pooled
+-- ========================================
+-- Asignacion usa allocationSize = 50
+-- para que Hibernate pueda agrupar los INSERT de operaciones masivas.
+-- En MySQL la secuencia se emula con una tabla de una fila; se inicia por encima
+-- del máximo actual para no chocar con los IDs generados por AUTO_INCREMENT.
+
+CREATE TABLE IF NOT EXISTS asignaciones_seq (
+    next_val BIGINT NOT NULL
+);
+
+INSERT INTO asignaciones_seq (next_val)
+SELECT COALESCE(MAX(id_asignacion), 0) + 100 FROM asignaciones
+WHERE NOT EXISTS (SELECT 1 FROM asignaciones_seq);
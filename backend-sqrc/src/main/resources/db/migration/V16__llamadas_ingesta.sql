@@ -0,0 +1,22 @@
+-- ========================================
+-- V16: Ingesta de eventos de llamadas (CTI)
+-- ========================================
+-- id_externo: identificador de la llamada en la central telefónica; permite
+-- fusionar los eventos de una misma llamada y hace idempotente la ingesta.
+-- estado pasa a VARCHAR para admitir OFRECIDA sin redefinir un ENUM de MySQL.
+-- Llamada usa allocationSize = 50 (como Asignacion, V15) para que
+-- Hibernate agrupe los INSERT de cada lote en JDBC batch.
+
+ALTER TABLE llamadas
+    ADD COLUMN id_externo VARCHAR(64) NULL,
+    MODIFY COLUMN estado VARCHAR(20) NOT NULL;
+
+CREATE UNIQUE INDEX uk_llamadas_id_externo ON llamadas(id_externo);
+
+CREATE TABLE IF NOT EXISTS llamadas_seq (
+    next_val BIGINT NOT NULL
+);
+
+INSERT INTO llamadas_seq (next_val)
+SELECT COALESCE(MAX(id_llamada), 0) + 100 FROM llamadas
+WHERE NOT EXISTS (SELECT 1 FROM llamadas_seq);
@@ -0,0 +1,30 @@
+-- ========================================
+-- V17: Cola de salida de correo (spool)
+-- ========================================
+-- Los correos se insertan en la transacción que los genera y DespachadorCorreos
+-- los envía en segundo plano reutilizando conexiones SMTP. El estado de entrega
+-- se informa en correo.estado_envio.
+
+CREATE TABLE IF NOT EXISTS correos_salientes (
+    id BIGINT AUTO_INCREMENT PRIMARY KEY,
+    destinatario VARCHAR(255) NOT NULL,
+    asunto VARCHAR(255) NOT NULL,
+    cuerpo_html MEDIUMTEXT NOT NULL,
+    adjunto LONGBLOB NULL,
+    nombre_adjunto VARCHAR(200) NULL,
+    correo_id BIGINT NULL,
+    estado VARCHAR(20) NOT NULL,
+    intentos INT NOT NULL DEFAULT 0,
+    fecha_creacion DATETIME(6) NOT NULL,
+    proximo_intento DATETIME(6) NULL,
+    fecha_envio DATETIME(6) NULL,
+    ultimo_error VARCHAR(500) NULL
+);
+
+-- Lote de pendientes en orden de inserción
+CREATE INDEX idx_correos_salientes_estado_id ON correos_salientes(estado, id);
+
+-- Estado de entrega de los correos de tickets (NULL en los anteriores al spool)
+ALTER TABLE correo
+    ADD COLUMN estado_envio VARCHAR(20) NULL,
+    ADD COLUMN ultimo_error_envio VARCHAR(500) NULL;
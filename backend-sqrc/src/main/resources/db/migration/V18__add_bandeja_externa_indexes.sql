@@ -0,0 +1,9 @@
+-- ========================================
+-- V18: Índices para la bandeja de áreas externas
+-- ========================================
+
+-- ROW_NUMBER() por ticket ordenado por fecha de envío (última notificación de cada ticket)
+CREATE INDEX idx_notif_ext_ticket_fecha ON notificaciones_externas(ticket_id, fecha_envio, id_notificacion);
+
+-- Bandeja de un área recorrida por cursor (id_notificacion)
+CREATE INDEX idx_notif_ext_area_id ON notificaciones_externas(area_destino_id, id_notificacion);
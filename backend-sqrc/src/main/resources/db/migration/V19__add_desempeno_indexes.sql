@@ -0,0 +1,6 @@
+-- ========================================
+-- V19: Índice para el desempeño por empleado acotado por fechas
+-- ========================================
+
+-- Rango de fecha_inicio por empleado, en el orden de la página (fecha_inicio DESC, id_asignacion DESC)
+CREATE INDEX idx_asignaciones_empleado_inicio ON asignaciones(empleado_id, fecha_inicio, id_asignacion);
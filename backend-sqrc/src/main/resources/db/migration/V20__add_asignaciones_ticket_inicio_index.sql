@@ -0,0 +1,6 @@
+-- ========================================
+-- V20: Índice para la última asignación de cada ticket
+-- ========================================
+
+-- ROW_NUMBER() OVER (PARTITION BY ticket_id ORDER BY fecha_inicio DESC, id_asignacion DESC)
+CREATE INDEX idx_asignaciones_ticket_inicio ON asignaciones(ticket_id, fecha_inicio, id_asignacion);
@@ -0,0 +1,8 @@
+-- ========================================
+-- V21: Índice FULLTEXT sobre la documentación de tickets
+-- ========================================
+-- Permite buscar "cómo se resolvió la última vez" con MATCH AGAINST sobre
+-- problema y solución, ordenado por relevancia. InnoDB lo mantiene al insertar
+-- o actualizar la documentación.
+
+ALTER TABLE documentacion ADD FULLTEXT INDEX idx_fulltext_documentacion (problema, solucion);
@@ -0,0 +1,92 @@
+-- ========================================
+-- V22: Particionado mensual de las tablas de logs (BD de logs)
+-- ========================================
+-- Ejecutar sobre la base de datos de logs (logs.datasource), no sobre la principal.
+--
+-- Particiones RANGE COLUMNS por `timestamp`, una por mes:
+-- - Las consultas con rango de fechas leen solo los meses del rango (partition pruning).
+-- - La retención quita meses enteros con EXCHANGE/DROP PARTITION (operaciones de
+--   metadatos) en lugar de DELETE masivos. Ver ParticionesLogsService.
+--
+-- MySQL exige que la columna de partición forme parte de toda clave única, por eso
+-- la PK pasa a (id, timestamp). El id sigue siendo AUTO_INCREMENT y único en la práctica.
+--
+-- p_historico agrupa todo lo anterior a 2026. pmax recibe lo que quede fuera del
+-- último mes creado; el job de mantenimiento la divide por adelantado con
+-- REORGANIZE PARTITION, así que normalmente está vacía.
+
+-- audit_logs
+ALTER TABLE audit_logs DROP PRIMARY KEY, ADD PRIMARY KEY (id, `timestamp`);
+ALTER TABLE audit_logs PARTITION BY RANGE COLUMNS(`timestamp`) (
+    PARTITION p_historico VALUES LESS THAN ('2026-01-01'),
+    PARTITION p202601 VALUES LESS THAN ('2026-02-01'),
+    PARTITION p202602 VALUES LESS THAN ('2026-03-01'),
+    PARTITION p202603 VALUES LESS THAN ('2026-04-01'),
+    PARTITION p202604 VALUES LESS THAN ('2026-05-01'),
+    PARTITION p202605 VALUES LESS THAN ('2026-06-01'),
+    PARTITION p202606 VALUES LESS THAN ('2026-07-01'),
+    PARTITION p202607 VALUES LESS THAN ('2026-08-01'),
+    PARTITION p202608 VALUES LESS THAN ('2026-09-01'),
+    PARTITION p202609 VALUES LESS THAN ('2026-10-01'),
+    PARTITION p202610 VALUES LESS THAN ('2026-11-01'),
+    PARTITION p202611 VALUES LESS THAN ('2026-12-01'),
+    PARTITION p202612 VALUES LESS THAN ('2027-01-01'),
+    PARTITION pmax VALUES LESS THAN (MAXVALUE)
+);
+
+-- error_logs
+ALTER TABLE error_logs DROP PRIMARY KEY, ADD PRIMARY KEY (id, `timestamp`);
+ALTER TABLE error_logs PARTITION BY RANGE COLUMNS(`timestamp`) (
+    PARTITION p_historico VALUES LESS THAN ('2026-01-01'),
+    PARTITION p202601 VALUES LESS THAN ('2026-02-01'),
+    PARTITION p202602 VALUES LESS THAN ('2026-03-01'),
+    PARTITION p202603 VALUES LESS THAN ('2026-04-01'),
+    PARTITION p202604 VALUES LESS THAN ('2026-05-01'),
+    PARTITION p202605 VALUES LESS THAN ('2026-06-01'),
+    PARTITION p202606 VALUES LESS THAN ('2026-07-01'),
+    PARTITION p202607 VALUES LESS THAN ('2026-08-01'),
+    PARTITION p202608 VALUES LESS THAN ('2026-09-01'),
+    PARTITION p202609 VALUES LESS THAN ('2026-10-01'),
+    PARTITION p202610 VALUES LESS THAN ('2026-11-01'),
+    PARTITION p202611 VALUES LESS THAN ('2026-12-01'),
+    PARTITION p202612 VALUES LESS THAN ('2027-01-01'),
+    PARTITION pmax VALUES LESS THAN (MAXVALUE)
+);
+
+-- integration_logs
+ALTER TABLE integration_logs DROP PRIMARY KEY, ADD PRIMARY KEY (id, `timestamp`);
+ALTER TABLE integration_logs PARTITION BY RANGE COLUMNS(`timestamp`) (
+    PARTITION p_historico VALUES LESS THAN ('2026-01-01'),
+    PARTITION p202601 VALUES LESS THAN ('2026-02-01'),
+    PARTITION p202602 VALUES LESS THAN ('2026-03-01'),
+    PARTITION p202603 VALUES LESS THAN ('2026-04-01'),
+    PARTITION p202604 VALUES LESS THAN ('2026-05-01'),
+    PARTITION p202605 VALUES LESS THAN ('2026-06-01'),
+    PARTITION p202606 VALUES LESS THAN ('2026-07-01'),
+    PARTITION p202607 VALUES LESS THAN ('2026-08-01'),
+    PARTITION p202608 VALUES LESS THAN ('2026-09-01'),
+    PARTITION p202609 VALUES LESS THAN ('2026-10-01'),
+    PARTITION p202610 VALUES LESS THAN ('2026-11-01'),
+    PARTITION p202611 VALUES LESS THAN ('2026-12-01'),
+    PARTITION p202612 VALUES LESS THAN ('2027-01-01'),
+    PARTITION pmax VALUES LESS THAN (MAXVALUE)
+);
+
+-- ticket_workflow_logs
+ALTER TABLE ticket_workflow_logs DROP PRIMARY KEY, ADD PRIMARY KEY (id, `timestamp`);
+ALTER TABLE ticket_workflow_logs PARTITION BY RANGE COLUMNS(`timestamp`) (
+    PARTITION p_historico VALUES LESS THAN ('2026-01-01'),
+    PARTITION p202601 VALUES LESS THAN ('2026-02-01'),
+    PARTITION p202602 VALUES LESS THAN ('2026-03-01'),
+    PARTITION p202603 VALUES LESS THAN ('2026-04-01'),
+    PARTITION p202604 VALUES LESS THAN ('2026-05-01'),
+    PARTITION p202605 VALUES LESS THAN ('2026-06-01'),
+    PARTITION p202606 VALUES LESS THAN ('2026-07-01'),
+    PARTITION p202607 VALUES LESS THAN ('2026-08-01'),
+    PARTITION p202608 VALUES LESS THAN ('2026-09-01'),
+    PARTITION p202609 VALUES LESS THAN ('2026-10-01'),
+    PARTITION p202610 VALUES LESS THAN ('2026-11-01'),
+    PARTITION p202611 VALUES LESS THAN ('2026-12-01'),
+    PARTITION p202612 VALUES LESS THAN ('2027-01-01'),
+    PARTITION pmax VALUES LESS THAN (MAXVALUE)
+);
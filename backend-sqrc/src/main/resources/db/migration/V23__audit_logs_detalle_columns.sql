@@ -0,0 +1,27 @@
+-- ========================================
+-- V23: Columnas generadas e índices de navegación en audit_logs (BD de logs)
+-- ========================================
+-- Ejecutar sobre la base de datos de logs (logs.datasource), después de V22.
+--
+-- - detalle_ticket_id / detalle_cliente_id / detalle_articulo_id extraen las claves
+--   más consultadas de details. Son VIRTUAL (no ocupan espacio en la fila) y solo se
+--   materializan en sus índices. JSON_VALUE ... NULL ON ERROR evita que un valor no
+--   numérico haga fallar el INSERT en modo estricto.
+-- - Los índices terminan en (timestamp, id) para servir la paginación por cursor
+--   ORDER BY timestamp DESC, id DESC sin ordenar en memoria, con o sin filtro.
+
+ALTER TABLE audit_logs
+    ADD COLUMN detalle_ticket_id BIGINT
+        GENERATED ALWAYS AS (JSON_VALUE(details, '$.ticketId' RETURNING SIGNED NULL ON EMPTY NULL ON ERROR)) VIRTUAL,
+    ADD COLUMN detalle_cliente_id BIGINT
+        GENERATED ALWAYS AS (JSON_VALUE(details, '$.clienteId' RETURNING SIGNED NULL ON EMPTY NULL ON ERROR)) VIRTUAL,
+    ADD COLUMN detalle_articulo_id BIGINT
+        GENERATED ALWAYS AS (JSON_VALUE(details, '$.articuloId' RETURNING SIGNED NULL ON EMPTY NULL ON ERROR)) VIRTUAL;
+
+CREATE INDEX idx_audit_ticket_ts ON audit_logs(detalle_ticket_id, `timestamp`, id);
+CREATE INDEX idx_audit_cliente_ts ON audit_logs(detalle_cliente_id, `timestamp`, id);
+CREATE INDEX idx_audit_articulo_ts ON audit_logs(detalle_articulo_id, `timestamp`, id);
+
+CREATE INDEX idx_audit_level_ts ON audit_logs(`level`, `timestamp`, id);
+CREATE INDEX idx_audit_category_ts ON audit_logs(category, `timestamp`, id);
+CREATE INDEX idx_audit_user_ts ON audit_logs(user_id, `timestamp`, id);
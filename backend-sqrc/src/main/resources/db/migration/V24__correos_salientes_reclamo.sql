@@ -0,0 +1,10 @@
+-- ========================================
+-- V24: Reclamo de lotes en correos_salientes
+-- ========================================
+-- DespachadorCorreos reclama cada lote con un UPDATE condicional (estado EN_ENVIO y
+-- un token de lote) antes de leerlo: dos instancias nunca envían el mismo correo.
+-- Un reclamo que no termina (nodo caído) vuelve a PENDIENTE al vencer.
+
+ALTER TABLE correos_salientes
+    ADD COLUMN reclamo VARCHAR(36) NULL,
+    ADD COLUMN reclamado_en DATETIME(6) NULL;
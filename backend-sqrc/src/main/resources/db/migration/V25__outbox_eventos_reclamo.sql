@@ -0,0 +1,10 @@
+-- ========================================
+-- V25: Reclamo de lotes en outbox_eventos
+-- ========================================
+-- OutboxPublicador lee cada lote con FOR UPDATE SKIP LOCKED y lo pasa a EN_PROCESO
+-- con un token de lote en la misma transacción: dos instancias nunca entregan el
+-- mismo evento. Un reclamo que no termina (nodo caído) vuelve a PENDIENTE al vencer.
+
+ALTER TABLE outbox_eventos
+    ADD COLUMN reclamo VARCHAR(36) NULL,
+    ADD COLUMN reclamado_en DATETIME(6) NULL;
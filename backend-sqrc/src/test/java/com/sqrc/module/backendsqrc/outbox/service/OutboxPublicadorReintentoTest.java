@@ -0,0 +1,109 @@
+package com.sqrc.module.backendsqrc.outbox.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sqrc.module.backendsqrc.ejecucion.config.EjecutorAcotado;
+import com.sqrc.module.backendsqrc.ejecucion.config.EjecutorNombres;
+import com.sqrc.module.backendsqrc.ejecucion.config.Ejecutores;
+import com.sqrc.module.backendsqrc.ejecucion.config.PoliticaRechazo;
+import com.sqrc.module.backendsqrc.outbox.model.EstadoOutbox;
+import com.sqrc.module.backendsqrc.outbox.model.OutboxEvento;
+import com.sqrc.module.backendsqrc.outbox.repository.OutboxEventoRepository;
+import com.sqrc.module.backendsqrc.ticket.event.TicketEscaladoEvent;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Si un evento falla, los siguientes de su agregado en el mismo lote vuelven a
+ * PENDIENTE en lugar de quedar EN_PROCESO hasta que venza el reclamo: se entregan
+ * en cuanto se entrega el que falló.
+ */
+@DataJpaTest(properties = {
+        "spring.jpa.hibernate.ddl-auto=create-drop",
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+        "spring.jpa.properties.hibernate.hbm2ddl.import_files="
+})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class OutboxPublicadorReintentoTest {
+
+    @Autowired
+    private OutboxEventoRepository outboxEventoRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private final EjecutorAcotado ejecutor = new EjecutorAcotado("eventos", 2, 100, PoliticaRechazo.ABORTAR, false);
+
+    @AfterEach
+    void limpiar() {
+        ejecutor.shutdown();
+        outboxEventoRepository.deleteAll();
+    }
+
+    @Test
+    void siguientesDelAgregadoSeEntreganApenasSeEntregaElQueFallo() {
+        OutboxEvento primero = outboxEventoRepository.save(evento());
+        OutboxEvento segundo = outboxEventoRepository.save(evento());
+
+        // El primer intento de entrega falla; los demás funcionan
+        AtomicInteger entregas = new AtomicInteger();
+        ApplicationEventPublisher publicador = evento -> {
+            if (entregas.incrementAndGet() == 1) {
+                throw new IllegalStateException("listener caído");
+            }
+        };
+        OutboxPublicador outbox = crearPublicador(publicador);
+
+        outbox.procesarLote().join();
+
+        assertThat(estado(primero)).isEqualTo(EstadoOutbox.PENDIENTE);
+        OutboxEvento segundoTrasFallo = outboxEventoRepository.findById(segundo.getId()).orElseThrow();
+        assertThat(segundoTrasFallo.getEstado()).isEqualTo(EstadoOutbox.PENDIENTE);
+        assertThat(segundoTrasFallo.getReclamo()).isNull();
+        assertThat(segundoTrasFallo.getReclamadoEn()).isNull();
+
+        // Reintento sin espera: el siguiente lote entrega los dos, en orden
+        assertThat(outbox.procesarLote().join()).isEqualTo(2);
+        assertThat(estado(primero)).isEqualTo(EstadoOutbox.PROCESADO);
+        assertThat(estado(segundo)).isEqualTo(EstadoOutbox.PROCESADO);
+        assertThat(entregas.get()).isEqualTo(3);
+    }
+
+    private OutboxPublicador crearPublicador(ApplicationEventPublisher publicador) {
+        ejecutor.initialize();
+        Ejecutores ejecutores = new Ejecutores(Map.of(EjecutorNombres.EVENTOS, ejecutor));
+        OutboxPublicador outbox = new OutboxPublicador(outboxEventoRepository, publicador, new ObjectMapper(),
+                transactionManager, ejecutores);
+        ReflectionTestUtils.setField(outbox, "tamanoLote", 10);
+        ReflectionTestUtils.setField(outbox, "maxIntentos", 5);
+        ReflectionTestUtils.setField(outbox, "reintentoBaseSegundos", 0);
+        ReflectionTestUtils.setField(outbox, "reintentoMaxSegundos", 600);
+        ReflectionTestUtils.setField(outbox, "reclamoVenceSegundos", 300);
+        ReflectionTestUtils.invokeMethod(outbox, "iniciar");
+        return outbox;
+    }
+
+    private static OutboxEvento evento() {
+        return OutboxEvento.builder()
+                .agregadoTipo(OutboxService.AGREGADO_TICKET)
+                .agregadoId(1L)
+                .tipo(TicketEscaladoEvent.class.getName())
+                .payload("{\"ticketId\":1}")
+                .build();
+    }
+
+    private EstadoOutbox estado(OutboxEvento evento) {
+        return outboxEventoRepository.findById(evento.getId()).orElseThrow().getEstado();
+    }
+}
@@ -0,0 +1,160 @@
+package com.sqrc.module.backendsqrc.reporte.service;
+
+import com.sqrc.module.backendsqrc.reporte.dto.TicketReporteDTO;
+import com.sqrc.module.backendsqrc.ticket.model.Empleado;
+import com.sqrc.module.backendsqrc.ticket.repository.AsignacionRepository;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Benchmark del panel de tickets recientes: pasar de 10k a 100k asignaciones no debe
+ * cambiar el número de consultas ni las filas que lee la consulta, porque el rango y el
+ * límite se aplican antes de elegir la última asignación de cada ticket.
+ *
+ * Las filas leídas salen del plan de H2 (EXPLAIN ANALYZE, suma de scanCount): a
+ * diferencia del tiempo, no dependen de la máquina ni de la carga.
+ */
+@DataJpaTest(properties = {
+        "spring.jpa.hibernate.ddl-auto=create-drop",
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+        "spring.jpa.properties.hibernate.hbm2ddl.import_files=",
+        "spring.jpa.properties.hibernate.generate_statistics=true"
+})
+@Import(ReporteTicketServiceImpl.class)
+class ReporteTicketsRecientesBenchmarkTest {
+
+    private static final int ASIGNACIONES_POR_TICKET = 5;
+    private static final int LIMITE = 50;
+    private static final int DIAS_HISTORIA = 365;
+    private static final Pattern SCAN_COUNT = Pattern.compile("scanCount: (\\d+)");
+
+    @Autowired
+    private TestEntityManager em;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private ReporteTicketService reporteTicketService;
+
+    @Test
+    void ticketsRecientesNoCrecenConLasAsignaciones() throws NoSuchMethodException {
+        // Índices de V10 y V20 (ddl-auto no crea los de las migraciones)
+        jdbcTemplate.execute("CREATE INDEX IF NOT EXISTS idx_tickets_fecha_id ON tickets(fecha_creacion, id_ticket)");
+        jdbcTemplate.execute("CREATE INDEX IF NOT EXISTS idx_asignaciones_ticket_inicio " +
+                "ON asignaciones(ticket_id, fecha_inicio, id_asignacion)");
+
+        Long empleadoId = crearEmpleado();
+        LocalDateTime ahora = LocalDate.now().atStartOfDay();
+
+        insertarTickets(empleadoId, ahora, 0, 2_000);            // 10k asignaciones
+        Medicion con10k = medir();
+
+        insertarTickets(empleadoId, ahora, 2_000, 20_000);       // 100k asignaciones
+        Medicion con100k = medir();
+
+        assertThat(con10k.consultas()).isEqualTo(1);
+        assertThat(con100k.consultas()).isEqualTo(1);
+        assertThat(con100k.tickets()).hasSize(LIMITE);
+        // Cada ticket trae su última asignación (la de id mayor por construcción)
+        assertThat(con100k.tickets()).allSatisfy(t ->
+                assertThat(t.getAsignacionId()).isEqualTo(idAsignacion(t.getTicketId(), ASIGNACIONES_POR_TICKET - 1)));
+        // 10x más asignaciones: la consulta lee las mismas filas (las del límite)
+        assertThat(con10k.filasLeidas()).isPositive();
+        assertThat(con100k.filasLeidas()).isEqualTo(con10k.filasLeidas());
+    }
+
+    private record Medicion(List<TicketReporteDTO> tickets, long consultas, long filasLeidas) {
+    }
+
+    private Medicion medir() throws NoSuchMethodException {
+        em.flush();
+        em.clear();
+        Statistics stats = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        stats.clear();
+        List<TicketReporteDTO> tickets = reporteTicketService.obtenerTicketsRecientes(null, null, LIMITE);
+        return new Medicion(tickets, stats.getPrepareStatementCount(), filasLeidas());
+    }
+
+    /**
+     * Suma de scanCount del plan de la consulta del servicio, con su rango por defecto.
+     */
+    private long filasLeidas() throws NoSuchMethodException {
+        String sql = AsignacionRepository.class
+                .getMethod("findTicketsRecientesConUltimaAsignacion", LocalDateTime.class, LocalDateTime.class, int.class)
+                .getAnnotation(Query.class)
+                .value()
+                .replaceAll(":(inicio|fin|limite)\\b", "?");
+        String plan = String.join("\n", jdbcTemplate.queryForList("EXPLAIN ANALYZE " + sql, String.class,
+                Timestamp.valueOf(LocalDate.now().minusDays(30).atStartOfDay()),
+                Timestamp.valueOf(LocalDate.now().atTime(23, 59, 59)),
+                LIMITE));
+        Matcher matcher = SCAN_COUNT.matcher(plan);
+        long filas = 0;
+        while (matcher.find()) {
+            filas += Long.parseLong(matcher.group(1));
+        }
+        return filas;
+    }
+
+    private Long crearEmpleado() {
+        Empleado empleado = Empleado.builder()
+                .nombre("Agente")
+                .apellido("Benchmark")
+                .dni("99999999")
+                .area("Call Center")
+                .build();
+        em.persist(empleado);
+        em.flush();
+        return empleado.getIdEmpleado();
+    }
+
+    /**
+     * Tickets [desde, hasta) repartidos en el último año, cada uno con
+     * ASIGNACIONES_POR_TICKET asignaciones sucesivas.
+     */
+    private void insertarTickets(Long empleadoId, LocalDateTime ahora, int desde, int hasta) {
+        List<Object[]> tickets = new ArrayList<>();
+        List<Object[]> asignaciones = new ArrayList<>();
+        for (int i = desde; i < hasta; i++) {
+            long ticketId = i + 1L;
+            // Minutos hacia atrás para repartir los tickets en DIAS_HISTORIA días
+            LocalDateTime creacion = ahora.minusMinutes((long) i * 7919 % (DIAS_HISTORIA * 24L * 60));
+            tickets.add(new Object[]{ticketId, "Ticket " + ticketId, "ABIERTO", Timestamp.valueOf(creacion),
+                    "LLAMADA", "CONSULTA"});
+            for (int j = 0; j < ASIGNACIONES_POR_TICKET; j++) {
+                asignaciones.add(new Object[]{idAsignacion(ticketId, j), ticketId, empleadoId,
+                        Timestamp.valueOf(creacion.plusMinutes(j))});
+            }
+        }
+        jdbcTemplate.batchUpdate("INSERT INTO tickets (id_ticket, asunto, estado, fecha_creacion, origen, " +
+                "tipo_ticket, version) VALUES (?, ?, ?, ?, ?, ?, 0)", tickets);
+        jdbcTemplate.batchUpdate("INSERT INTO asignaciones (id_asignacion, ticket_id, empleado_id, fecha_inicio) " +
+                "VALUES (?, ?, ?, ?)", asignaciones);
+    }
+
+    private static long idAsignacion(long ticketId, int orden) {
+        return ticketId * ASIGNACIONES_POR_TICKET + orden;
+    }
+}
@@ -0,0 +1,96 @@
+package com.sqrc.module.backendsqrc.ticket.service;
+
+import com.sqrc.module.backendsqrc.ticket.dto.TicketHistoryResponse;
+import com.sqrc.module.backendsqrc.ticket.model.*;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Verifica que el historial del ticket se arma con un número fijo de consultas,
+ * sin importar cuántas asignaciones (y documentaciones) tenga el ticket.
+ */
+@DataJpaTest(properties = {
+        "spring.jpa.hibernate.ddl-auto=create-drop",
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+        "spring.jpa.properties.hibernate.hbm2ddl.import_files=",
+        "spring.jpa.properties.hibernate.generate_statistics=true"
+})
+@Import(TicketService.class)
+class TicketServiceHistoryQueryCountTest {
+
+    private static final int MAX_CONSULTAS_HISTORIAL = 2;
+
+    @Autowired
+    private TestEntityManager em;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private TicketService ticketService;
+
+    @Test
+    void historialNoCreceConLasAsignaciones() {
+        Long ticketId = crearTicketConAsignaciones(6);
+
+        Statistics stats = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        stats.clear();
+
+        TicketHistoryResponse historial = ticketService.getTicketHistory(ticketId);
+
+        assertThat(historial.getAsignaciones()).hasSize(6);
+        assertThat(historial.getAsignaciones()).allSatisfy(a -> {
+            assertThat(a.getEmpleado()).isNotNull();
+            assertThat(a.getDocumentacion()).isNotNull();
+        });
+        assertThat(historial.getConsultaInfo()).isNotNull();
+        assertThat(stats.getPrepareStatementCount()).isLessThanOrEqualTo(MAX_CONSULTAS_HISTORIAL);
+    }
+
+    private Long crearTicketConAsignaciones(int cantidad) {
+        Consulta ticket = new Consulta();
+        ticket.setAsunto("Consulta de prueba");
+        ticket.setTema("Facturación");
+        ticket.setOrigen(OrigenTicket.LLAMADA);
+        ticket.setTipoTicket(TipoTicket.CONSULTA);
+        em.persist(ticket);
+
+        Asignacion anterior = null;
+        for (int i = 0; i < cantidad; i++) {
+            Empleado empleado = Empleado.builder()
+                    .nombre("Empleado" + i)
+                    .apellido("Prueba")
+                    .dni(String.format("%08d", i))
+                    .area("Area " + i)
+                    .build();
+            em.persist(empleado);
+
+            Asignacion asignacion = Asignacion.builder()
+                    .ticket(ticket)
+                    .empleado(empleado)
+                    .asignacionPadre(anterior)
+                    .build();
+            em.persist(asignacion);
+
+            em.persist(Documentacion.builder()
+                    .asignacion(asignacion)
+                    .empleado(empleado)
+                    .problema("Problema " + i)
+                    .solucion("Solución " + i)
+                    .build());
+            anterior = asignacion;
+        }
+
+        em.flush();
+        em.clear();
+        return ticket.getIdTicket();
+    }
+}